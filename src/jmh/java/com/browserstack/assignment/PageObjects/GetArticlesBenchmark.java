@@ -0,0 +1,72 @@
+package com.browserstack.assignment.PageObjects;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.StubWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ElPaisPage.getArticles against the opinion fixture. "stub" measures the
+ * page object's own overhead on StubWebDriver; "chrome" loads the fixture
+ * from disk in headless Chrome, run it with -Djmh.args="-p driver=chrome"
+ * where a local browser is available.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GetArticlesBenchmark {
+
+    @Param({ "stub" })
+    public String driver;
+
+    @Param({ "true", "false" })
+    public boolean bulk;
+
+    private WebDriver webDriver;
+    private ElPaisPage page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("chrome".equals(driver)) {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--headless=new", "--no-sandbox", "--disable-dev-shm-usage");
+            webDriver = new ChromeDriver(options);
+            webDriver.get(Paths.get("src/test/resources/fixtures/opinion.html").toUri().toString());
+        } else {
+            webDriver = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        }
+        page = new ElPaisPage(webDriver);
+        page.setBulkExtraction(bulk);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        webDriver.quit();
+    }
+
+    @Benchmark
+    public List<Article> getArticles() {
+        return page.getArticles(5);
+    }
+}
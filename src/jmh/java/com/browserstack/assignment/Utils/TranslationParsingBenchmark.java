@@ -0,0 +1,108 @@
+package com.browserstack.assignment.Utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson tree parsing against the providers' JsonReader streaming parsers,
+ * for both response shapes: the RapidAPI
+ * {"data":{"translations":[{"translatedText":..}]}} object and the free
+ * endpoint's nested [[["text","source",..],..],..] arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TranslationParsingBenchmark {
+
+    @Param({ "1", "32", "128" })
+    public int texts;
+
+    private String rapidBody;
+    private String freeBody;
+    private final Gson gson = new Gson();
+
+    @Setup
+    public void setUp() {
+        StringBuilder rapid = new StringBuilder("{\"data\":{\"translations\":[");
+        StringBuilder free = new StringBuilder("[[");
+        for (int i = 0; i < texts; i++) {
+            String english = "The climate crisis cannot wait, says editorial number " + i + ".";
+            String spanish = "La crisis clim\\u00e1tica no puede esperar, dice el editorial n\\u00famero " + i + ".";
+            if (i > 0) {
+                rapid.append(',');
+                free.append(',');
+            }
+            rapid.append("{\"translatedText\":\"").append(english).append("\",\"detectedSourceLanguage\":\"es\"}");
+            free.append("[\"").append(english).append(i < texts - 1 ? "\\n" : "").append("\",\"").append(spanish)
+                    .append("\",null,null,10]");
+        }
+        rapid.append("]}}");
+        free.append("],null,\"es\",null,null,null,1.0,[],[[\"es\"],null,[1.0],[\"es\"]]]");
+        rapidBody = rapid.toString();
+        freeBody = free.toString();
+    }
+
+    // What TranslationService did before the providers switched to JsonReader
+    @Benchmark
+    public List<String> rapidTree() {
+        List<String> results = new ArrayList<>();
+        JsonObject json = gson.fromJson(rapidBody, JsonObject.class);
+        if (json.has("data")) {
+            JsonObject data = json.getAsJsonObject("data");
+            if (data.has("translations")) {
+                for (JsonElement translation : data.getAsJsonArray("translations")) {
+                    results.add(translation.getAsJsonObject().get("translatedText").getAsString());
+                }
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<String> rapidStreaming() throws IOException {
+        return RapidApiProvider.parseResponse(new StringReader(rapidBody));
+    }
+
+    @Benchmark
+    public String freeTree() {
+        JsonArray jsonArray = gson.fromJson(freeBody, JsonArray.class);
+        if (jsonArray.size() > 0 && jsonArray.get(0).isJsonArray()) {
+            StringBuilder translated = new StringBuilder();
+            for (JsonElement segment : jsonArray.get(0).getAsJsonArray()) {
+                JsonArray parts = segment.getAsJsonArray();
+                if (parts.size() > 0 && !parts.get(0).isJsonNull()) {
+                    translated.append(parts.get(0).getAsString());
+                }
+            }
+            return translated.toString();
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String freeStreaming() throws IOException {
+        return FreeGoogleProvider.parseResponse(new StringReader(freeBody));
+    }
+}
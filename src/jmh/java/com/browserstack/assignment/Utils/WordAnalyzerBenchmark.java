@@ -0,0 +1,148 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Sources.ArticleHtmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Word counting over corpora of increasing size. "recorded" cycles real
+ * headlines: the opinion fixture's titles, or one headline per line from the
+ * file named by -Dbenchmark.headlines. "synthetic" draws Zipf-distributed
+ * Spanish words. regexBaseline is the pre-rewrite implementation, kept for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WordAnalyzerBenchmark {
+
+    private static final String[] VOCABULARY = { "política", "gobierno", "españa", "europa", "crisis", "clima",
+            "vivienda", "elecciones", "guerra", "economía", "futuro", "sociedad", "democracia", "derechos",
+            "reforma", "pensiones", "educación", "sanidad", "justicia", "corrupción", "migración", "energía",
+            "inflación", "salarios", "trabajo", "jóvenes", "mujeres", "cultura", "historia", "opinión" };
+    private static final String[] STOP_WORDS = { "el", "la", "de", "y", "en", "los", "las", "un", "una", "del" };
+
+    @Param({ "5", "1000", "100000" })
+    public int size;
+
+    @Param({ "synthetic", "recorded" })
+    public String corpus;
+
+    private List<String> headers;
+    private WordAnalyzer analyzer;
+    private int threads;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> source = "recorded".equals(corpus) ? recordedHeadlines() : syntheticHeadlines(size);
+        headers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            headers.add(source.get(i % source.size()));
+        analyzer = new WordAnalyzer();
+        threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Benchmark
+    public Map<String, Integer> analyzeRepeatedWords() {
+        return WordAnalyzer.analyzeRepeatedWords(headers);
+    }
+
+    @Benchmark
+    public WordCountMap countParallel() {
+        return analyzer.countParallel(headers, threads);
+    }
+
+    @Benchmark
+    public Object topWords() {
+        return analyzer.topWords(headers, 10);
+    }
+
+    @Benchmark
+    public Map<String, Integer> regexBaseline() {
+        Map<String, Integer> wordCounts = new HashMap<>();
+        for (String header : headers) {
+            String cleanHeader = header.replaceAll("[^a-zA-Z0-9\\s]", "").toLowerCase();
+            for (String word : cleanHeader.split("\\s+")) {
+                if (word.length() > 2)
+                    wordCounts.put(word, wordCounts.getOrDefault(word, 0) + 1);
+            }
+        }
+        Map<String, Integer> repeatedWords = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : wordCounts.entrySet()) {
+            if (entry.getValue() > 2)
+                repeatedWords.put(entry.getKey(), entry.getValue());
+        }
+        return repeatedWords;
+    }
+
+    static List<String> recordedHeadlines() throws IOException {
+        String file = System.getProperty("benchmark.headlines");
+        if (file != null)
+            return Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Path fixture = Paths.get("src/test/resources/fixtures/opinion.html");
+        List<String> titles = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(fixture, StandardCharsets.UTF_8)) {
+            for (Article article : ArticleHtmlParser.parse(reader, "https://elpais.com/opinion/", 100))
+                titles.add(article.getTitle());
+        }
+        return titles;
+    }
+
+    // Rank r is drawn with probability proportional to 1/r, like word frequencies in real text
+    static List<String> syntheticHeadlines(int count) {
+        Random random = new Random(7);
+        double[] cumulative = new double[VOCABULARY.length];
+        double total = 0;
+        for (int r = 0; r < VOCABULARY.length; r++) {
+            total += 1.0 / (r + 1);
+            cumulative[r] = total;
+        }
+        List<String> headlines = new ArrayList<>(count);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.setLength(0);
+            int words = 6 + random.nextInt(7);
+            for (int w = 0; w < words; w++) {
+                if (w > 0)
+                    sb.append(w % 4 == 0 ? ", " : " ");
+                if (random.nextInt(3) == 0) {
+                    sb.append(STOP_WORDS[random.nextInt(STOP_WORDS.length)]);
+                } else {
+                    double pick = random.nextDouble() * total;
+                    int r = 0;
+                    while (cumulative[r] < pick)
+                        r++;
+                    sb.append(w == 0 ? Character.toUpperCase(VOCABULARY[r].charAt(0)) + VOCABULARY[r].substring(1)
+                            : VOCABULARY[r]);
+                }
+            }
+            headlines.add(sb.toString());
+        }
+        return headlines;
+    }
+}
@@ -0,0 +1,55 @@
+package com.browserstack.assignment.Crawler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-host politeness: at most maxInFlight concurrent requests to one host and
+ * at least minDelay between the starts of two requests to it. Workers never
+ * sleep on a busy host; tryAcquire tells them how long to park the page
+ * instead, so they can fetch from other hosts (or other queued pages) meanwhile.
+ */
+public class HostPoliteness {
+    private static class HostState {
+        long nextStartNanos;
+        int inFlight;
+    }
+
+    private final long minDelayNanos;
+    private final int maxInFlight;
+    private final Map<String, HostState> hosts = new HashMap<>();
+
+    public HostPoliteness(Duration minDelay, int maxInFlight) {
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /** 0 when a request to host may start now (the slot is taken), else nanos to wait before retrying. */
+    public synchronized long tryAcquire(String host) {
+        HostState state = hosts.computeIfAbsent(host, h -> new HostState());
+        long now = System.nanoTime();
+        long wait = state.nextStartNanos - now;
+        if (wait > 0)
+            return wait;
+        if (state.inFlight >= maxInFlight)
+            return Math.max(minDelayNanos, Duration.ofMillis(5).toNanos());
+        state.inFlight++;
+        state.nextStartNanos = now + minDelayNanos;
+        return 0;
+    }
+
+    public synchronized void release(String host) {
+        HostState state = hosts.get(host);
+        if (state != null && state.inFlight > 0)
+            state.inFlight--;
+    }
+
+    public long getMinDelayNanos() {
+        return minDelayNanos;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+}
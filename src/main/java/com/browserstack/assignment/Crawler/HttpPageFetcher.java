@@ -0,0 +1,58 @@
+package com.browserstack.assignment.Crawler;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Sources.ArticleHtmlParser;
+import com.browserstack.assignment.Sources.HttpArticleSource;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser-free fetcher: GETs the page with OkHttp and runs it through
+ * ArticleHtmlParser, collecting links as well as articles. Thread-safe, so
+ * one instance can back every HTTP worker.
+ */
+public class HttpPageFetcher implements PageFetcher {
+    private static final int MAX_ARTICLES_PER_PAGE = 500;
+
+    private final OkHttpClient client;
+
+    public HttpPageFetcher() {
+        this(new OkHttpClient.Builder()
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(20, TimeUnit.SECONDS)
+                .build());
+    }
+
+    public HttpPageFetcher(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Page fetch(String url) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", HttpArticleSource.USER_AGENT)
+                .header("Accept-Language", "es-ES,es;q=0.9")
+                .get()
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Request failed: " + response.code() + " for " + url);
+            }
+            String finalUrl = response.request().url().toString();
+            List<String> links = new ArrayList<>();
+            try (Reader reader = response.body().charStream()) {
+                List<Article> articles = ArticleHtmlParser.parse(reader, finalUrl, MAX_ARTICLES_PER_PAGE, links);
+                return new Page(finalUrl, articles, links);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.browserstack.assignment.Crawler;
+
+import com.browserstack.assignment.DTO.Article;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Loads one listing page for the crawler: the articles on it plus every link,
+ * which the crawler filters into the frontier. SiteCrawler runs each worker
+ * with its own fetcher, so an implementation wrapping a browser session only
+ * ever sees one thread.
+ */
+public interface PageFetcher {
+
+    class Page {
+        public final String url;
+        public final List<Article> articles;
+        public final List<String> links;
+
+        public Page(String url, List<Article> articles, List<String> links) {
+            this.url = url;
+            this.articles = articles;
+            this.links = links;
+        }
+    }
+
+    Page fetch(String url) throws IOException;
+}
@@ -0,0 +1,141 @@
+package com.browserstack.assignment.Crawler;
+
+import com.browserstack.assignment.DTO.Article;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * URLs the frontier has already accepted, stored as 64-bit fingerprints of the
+ * canonical URL (8 bytes each instead of a String). A Bloom filter answers the
+ * common "never seen" case without touching the exact table; only a Bloom hit
+ * is confirmed against the open-addressing table, so false positives never
+ * drop a URL.
+ */
+public class SeenSet {
+    private static final long EMPTY = 0L;
+
+    private final BloomFilter bloom;
+    private long[] table;
+    private int size;
+    private long bloomHits;
+    private long falsePositives;
+
+    public SeenSet(int expectedUrls) {
+        this.bloom = new BloomFilter(Math.max(1024, expectedUrls), 0.01);
+        this.table = new long[tableSize(Math.max(1024, expectedUrls))];
+    }
+
+    private static int tableSize(int expected) {
+        // Load factor at most 0.5, power of two for masking
+        return Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+    }
+
+    /**
+     * Article.canonicalUrl (lower-case scheme and host, no default port, fragment
+     * or trailing slash) but keeping the query, which selects listing pages.
+     */
+    public static String canonical(String url) {
+        String base = Article.canonicalUrl(url);
+        try {
+            String query = new URI(url.trim()).getRawQuery();
+            return query == null || query.isEmpty() ? base : base + "?" + query;
+        } catch (URISyntaxException e) {
+            return base;
+        }
+    }
+
+    /** FNV-1a over the canonical URL's UTF-8 bytes, then a 64-bit finalizer to spread the bits. */
+    public static long fingerprint(String url) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : canonical(url).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    /** Adds the URL; true when it was not seen before. */
+    public boolean add(String url) {
+        return add(fingerprint(url));
+    }
+
+    public synchronized boolean add(long fingerprint) {
+        if (bloom.mightContain(fingerprint)) {
+            bloomHits++;
+            if (containsExact(fingerprint))
+                return false;
+            falsePositives++;
+        }
+        bloom.put(fingerprint);
+        insert(fingerprint);
+        return true;
+    }
+
+    public synchronized boolean contains(String url) {
+        long fingerprint = fingerprint(url);
+        return bloom.mightContain(fingerprint) && containsExact(fingerprint);
+    }
+
+    private boolean containsExact(long fingerprint) {
+        int mask = table.length - 1;
+        for (int i = mix(fingerprint) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == fingerprint)
+                return true;
+        }
+        return false;
+    }
+
+    private void insert(long fingerprint) {
+        if ((size + 1) * 2 > table.length)
+            grow();
+        int mask = table.length - 1;
+        int i = mix(fingerprint) & mask;
+        while (table[i] != EMPTY)
+            i = (i + 1) & mask;
+        table[i] = fingerprint;
+        size++;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        size = 0;
+        for (long fingerprint : old) {
+            if (fingerprint != EMPTY)
+                insert(fingerprint);
+        }
+    }
+
+    private static int mix(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    /** Snapshot of every fingerprint, for checkpoints. */
+    public synchronized long[] toArray() {
+        long[] result = new long[size];
+        int n = 0;
+        for (long fingerprint : table) {
+            if (fingerprint != EMPTY)
+                result[n++] = fingerprint;
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Bloom hits that the exact table showed to be new URLs. */
+    public synchronized long getFalsePositives() {
+        return falsePositives;
+    }
+
+    public synchronized long getBloomHits() {
+        return bloomHits;
+    }
+}
@@ -0,0 +1,483 @@
+package com.browserstack.assignment.Crawler;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.Metrics;
+import okhttp3.HttpUrl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Crawls listing pages (sections, pagination) across N workers, one per
+ * PageFetcher: N browser sessions or N HTTP workers sharing one client.
+ *
+ * - Frontier: every worker owns a deque. New links go to the back of the
+ *   finder's deque and it works from the back too; an idle worker steals from
+ *   the front of another worker's deque, where the older, shallower pages are.
+ * - Dedup: a URL enters the frontier once, via SeenSet (Bloom filter plus
+ *   exact fingerprints). Articles are deduplicated by Article.getKey().
+ * - Politeness: a page whose host is not ready is parked until it is, and the
+ *   worker takes other work meanwhile.
+ * - Checkpoints: every checkpointEvery pages, and when the crawl stops early,
+ *   the seen fingerprints, the pending pages (in-flight ones included) and the
+ *   emitted article keys are written; crawl() resumes from that file and
+ *   deletes it once the frontier is exhausted.
+ *
+ * One crawl per instance.
+ */
+public class SiteCrawler {
+    private static final int CHECKPOINT_MAGIC = 0x454c5043; // "ELPC"
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final long MAX_IDLE_WAIT_MILLIS = 50;
+
+    public static class Result {
+        private final int pagesFetched;
+        private final int failures;
+        private final long steals;
+        private final int remaining;
+        private final int urlsSeen;
+        private final boolean resumed;
+        private final long elapsedMillis;
+        private final List<Article> articles;
+
+        Result(int pagesFetched, int failures, long steals, int remaining, int urlsSeen, boolean resumed,
+                long elapsedMillis, List<Article> articles) {
+            this.pagesFetched = pagesFetched;
+            this.failures = failures;
+            this.steals = steals;
+            this.remaining = remaining;
+            this.urlsSeen = urlsSeen;
+            this.resumed = resumed;
+            this.elapsedMillis = elapsedMillis;
+            this.articles = articles;
+        }
+
+        /** Pages fetched by this run, failed ones included. */
+        public int getPagesFetched() {
+            return pagesFetched;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public long getSteals() {
+            return steals;
+        }
+
+        /** Pages left in the frontier (saved to the checkpoint); 0 when the crawl is complete. */
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public boolean isComplete() {
+            return remaining == 0;
+        }
+
+        public int getUrlsSeen() {
+            return urlsSeen;
+        }
+
+        public boolean isResumed() {
+            return resumed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /** Articles first seen by this run, in discovery order. */
+        public List<Article> getArticles() {
+            return articles;
+        }
+
+        @Override
+        public String toString() {
+            return "CrawlResult{pages=" + pagesFetched + ", failures=" + failures + ", articles=" + articles.size()
+                    + ", steals=" + steals + ", remaining=" + remaining + ", urlsSeen=" + urlsSeen
+                    + ", resumed=" + resumed + ", elapsed=" + elapsedMillis + " ms}";
+        }
+    }
+
+    static final class Task {
+        final String url;
+        final int depth;
+
+        Task(String url, int depth) {
+            this.url = url;
+            this.depth = depth;
+        }
+    }
+
+    private static final class Parked implements Delayed {
+        final Task task;
+        final long dueNanos;
+
+        Parked(Task task, long delayNanos) {
+            this.task = task;
+            this.dueNanos = System.nanoTime() + delayNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Parked) other).dueNanos);
+        }
+    }
+
+    private final List<PageFetcher> fetchers;
+    private final HostPoliteness politeness;
+    private final SeenSet seen;
+    private final List<Deque<Task>> queues = new ArrayList<>();
+    private final DelayQueue<Parked> parked = new DelayQueue<>();
+    private final Set<Task> inFlight = ConcurrentHashMap.newKeySet();
+    // Workers move tasks under the read lock; a checkpoint snapshots under the write lock
+    private final ReentrantReadWriteLock frontierLock = new ReentrantReadWriteLock();
+    private final AtomicInteger pending = new AtomicInteger(); // queued + parked + in flight
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong steals = new AtomicLong();
+    private final Set<String> articleKeys = ConcurrentHashMap.newKeySet();
+    private final List<Article> articles = Collections.synchronizedList(new ArrayList<>());
+    private final Object idle = new Object();
+    private volatile boolean stopping;
+
+    private int maxPages = Integer.MAX_VALUE;
+    private int maxDepth = Integer.MAX_VALUE;
+    private Predicate<String> linkFilter;
+    private Consumer<Article> articleSink;
+    private Path checkpointFile;
+    private int checkpointEvery;
+    private Metrics metrics;
+
+    /** One worker per fetcher; expectedUrls sizes the seen-set (it grows past that if needed). */
+    public SiteCrawler(List<PageFetcher> fetchers, HostPoliteness politeness, int expectedUrls) {
+        if (fetchers.isEmpty())
+            throw new IllegalArgumentException("At least one fetcher is required");
+        this.fetchers = new ArrayList<>(fetchers);
+        this.politeness = politeness;
+        this.seen = new SeenSet(expectedUrls);
+        for (int i = 0; i < fetchers.size(); i++)
+            queues.add(new ConcurrentLinkedDeque<>());
+    }
+
+    /** Stops taking new pages once this many were fetched; the rest stays in the checkpoint. */
+    public void setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+    }
+
+    /** Link hops from a seed that are still followed (seeds are depth 0). */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /** Which links are crawled; defaults to sameSiteListings(seeds). */
+    public void setLinkFilter(Predicate<String> linkFilter) {
+        this.linkFilter = linkFilter;
+    }
+
+    /** Called from worker threads once per new article. */
+    public void setArticleSink(Consumer<Article> articleSink) {
+        this.articleSink = articleSink;
+    }
+
+    public void setCheckpoint(Path checkpointFile, int everyPages) {
+        this.checkpointFile = checkpointFile;
+        this.checkpointEvery = everyPages;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Links on one of the seeds' hosts whose last path segment has no
+     * extension: sections, tags and pagination, but not article pages (.html)
+     * or assets.
+     */
+    public static Predicate<String> sameSiteListings(Collection<String> seeds) {
+        Set<String> hosts = new HashSet<>();
+        for (String seed : seeds) {
+            HttpUrl url = HttpUrl.parse(seed);
+            if (url != null)
+                hosts.add(url.host());
+        }
+        return link -> {
+            HttpUrl url = HttpUrl.parse(link);
+            if (url == null || !hosts.contains(url.host()))
+                return false;
+            String path = url.encodedPath();
+            return path.lastIndexOf('.') < path.lastIndexOf('/');
+        };
+    }
+
+    /** Crawls from seeds, or from the checkpoint when one exists (the seeds are then already seen). */
+    public Result crawl(List<String> seeds) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        if (linkFilter == null)
+            linkFilter = sameSiteListings(seeds);
+
+        boolean resumed = checkpointFile != null && Files.exists(checkpointFile);
+        if (resumed) {
+            restore(checkpointFile);
+        } else {
+            for (String seed : seeds)
+                enqueue(seed, 0, pending.get() % queues.size());
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < fetchers.size(); i++) {
+            int id = i;
+            Thread worker = new Thread(() -> work(id), "crawler-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        try {
+            for (Thread worker : workers)
+                worker.join();
+        } catch (InterruptedException e) {
+            stopping = true;
+            for (Thread worker : workers)
+                worker.join();
+            throw e;
+        } finally {
+            if (checkpointFile != null) {
+                if (pending.get() == 0) {
+                    Files.deleteIfExists(checkpointFile);
+                } else {
+                    checkpoint();
+                }
+            }
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        synchronized (articles) {
+            return new Result(pagesFetched.get(), failures.get(), steals.get(), pending.get(), seen.size(), resumed,
+                    elapsed, new ArrayList<>(articles));
+        }
+    }
+
+    private void enqueue(String link, int depth, int worker) {
+        int hash = link.indexOf('#');
+        String url = hash >= 0 ? link.substring(0, hash) : link;
+        if (!seen.add(url))
+            return;
+        pending.incrementAndGet();
+        queues.get(worker).addLast(new Task(url, depth));
+    }
+
+    private void work(int id) {
+        PageFetcher fetcher = fetchers.get(id);
+        while (true) {
+            Task task = take(id);
+            if (task == null) {
+                if (stopping || pending.get() == 0)
+                    return;
+                awaitWork();
+                continue;
+            }
+            HttpUrl parsed = HttpUrl.parse(task.url);
+            String host = parsed != null ? parsed.host() : "";
+            long wait = politeness.tryAcquire(host);
+            if (wait > 0) {
+                park(task, wait);
+                continue;
+            }
+            try {
+                process(id, fetcher, task);
+            } finally {
+                politeness.release(host);
+            }
+            signal();
+        }
+    }
+
+    private Task take(int id) {
+        frontierLock.readLock().lock();
+        try {
+            if (stopping)
+                return null;
+            Parked due = parked.poll();
+            Task task = due != null ? due.task : queues.get(id).pollLast();
+            for (int i = 1; task == null && i < queues.size(); i++) {
+                task = queues.get((id + i) % queues.size()).pollFirst();
+                if (task != null)
+                    steals.incrementAndGet();
+            }
+            if (task != null)
+                inFlight.add(task);
+            return task;
+        } finally {
+            frontierLock.readLock().unlock();
+        }
+    }
+
+    private void park(Task task, long delayNanos) {
+        frontierLock.readLock().lock();
+        try {
+            inFlight.remove(task);
+            parked.add(new Parked(task, delayNanos));
+        } finally {
+            frontierLock.readLock().unlock();
+        }
+    }
+
+    private void process(int id, PageFetcher fetcher, Task task) {
+        PageFetcher.Page page = null;
+        Metrics.Timing timing = metrics != null ? metrics.time("crawler_fetch") : Metrics.Timing.NONE;
+        try {
+            page = fetcher.fetch(task.url);
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println("Crawl failed for " + task.url + ": " + e.getMessage());
+        } finally {
+            timing.stop();
+        }
+        if (metrics != null)
+            metrics.counter("crawler_pages", "result", page != null ? "ok" : "failed").increment();
+
+        frontierLock.readLock().lock();
+        try {
+            if (page != null) {
+                if (task.depth < maxDepth) {
+                    for (String link : page.links) {
+                        if (linkFilter.test(link))
+                            enqueue(link, task.depth + 1, id);
+                    }
+                }
+                for (Article article : page.articles) {
+                    if (articleKeys.add(article.getKey())) {
+                        articles.add(article);
+                        if (articleSink != null)
+                            articleSink.accept(article);
+                    }
+                }
+            }
+            inFlight.remove(task);
+            pending.decrementAndGet();
+        } finally {
+            frontierLock.readLock().unlock();
+        }
+
+        int fetched = pagesFetched.incrementAndGet();
+        if (fetched >= maxPages)
+            stopping = true;
+        if (checkpointFile != null && checkpointEvery > 0 && fetched % checkpointEvery == 0) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.err.println("Crawl checkpoint failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void awaitWork() {
+        long waitMillis = MAX_IDLE_WAIT_MILLIS;
+        Parked next = parked.peek();
+        if (next != null)
+            waitMillis = Math.min(waitMillis, Math.max(1, next.getDelay(TimeUnit.MILLISECONDS)));
+        synchronized (idle) {
+            try {
+                idle.wait(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopping = true;
+            }
+        }
+    }
+
+    private void signal() {
+        synchronized (idle) {
+            idle.notifyAll();
+        }
+    }
+
+    // ---- Checkpoints ----
+
+    private synchronized void checkpoint() throws IOException {
+        long[] fingerprints;
+        List<Task> tasks = new ArrayList<>();
+        List<String> keys;
+        frontierLock.writeLock().lock();
+        try {
+            fingerprints = seen.toArray();
+            tasks.addAll(inFlight);
+            for (Parked p : parked)
+                tasks.add(p.task);
+            for (Deque<Task> queue : queues)
+                tasks.addAll(queue);
+            keys = new ArrayList<>(articleKeys);
+        } finally {
+            frontierLock.writeLock().unlock();
+        }
+
+        if (checkpointFile.getParent() != null)
+            Files.createDirectories(checkpointFile.getParent());
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeInt(fingerprints.length);
+            for (long fingerprint : fingerprints)
+                out.writeLong(fingerprint);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                out.writeUTF(task.url);
+                out.writeInt(task.depth);
+            }
+            out.writeInt(keys.size());
+            for (String key : keys)
+                out.writeUTF(key);
+        }
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void restore(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION)
+                throw new IOException("Not a crawl checkpoint: " + file);
+            int fingerprints = in.readInt();
+            for (int i = 0; i < fingerprints; i++)
+                seen.add(in.readLong());
+            int tasks = in.readInt();
+            for (int i = 0; i < tasks; i++) {
+                Task task = new Task(in.readUTF(), in.readInt());
+                // Spread the saved frontier so every worker starts with local work
+                queues.get(i % queues.size()).addLast(task);
+                pending.incrementAndGet();
+            }
+            int keys = in.readInt();
+            for (int i = 0; i < keys; i++)
+                articleKeys.add(in.readUTF());
+        }
+        System.out.println("Resuming crawl from " + file + ": " + pending.get() + " pending, " + seen.size()
+                + " seen");
+    }
+}
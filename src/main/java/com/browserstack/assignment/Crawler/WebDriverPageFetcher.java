@@ -0,0 +1,42 @@
+package com.browserstack.assignment.Crawler;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.PageObjects.ElPaisPage;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Fetcher backed by one browser session through the ElPaisPage page object.
+ * Give each crawler worker its own instance (and session); WebDriver sessions
+ * do not take concurrent commands.
+ */
+public class WebDriverPageFetcher implements PageFetcher {
+    private static final int MAX_ARTICLES_PER_PAGE = 500;
+
+    private final WebDriver driver;
+    private final ElPaisPage page;
+
+    public WebDriverPageFetcher(WebDriver driver) {
+        this.driver = driver;
+        this.page = new ElPaisPage(driver);
+    }
+
+    public ElPaisPage getPage() {
+        return page;
+    }
+
+    @Override
+    public Page fetch(String url) throws IOException {
+        try {
+            page.open(url);
+            List<Article> articles = page.getArticlesOnPage(MAX_ARTICLES_PER_PAGE);
+            return new Page(driver.getCurrentUrl(), articles, page.getLinks());
+        } catch (WebDriverException e) {
+            // Surface browser failures like HTTP ones so the crawler counts and skips the page
+            throw new IOException("Browser fetch failed for " + url + ": " + e.getMessage(), e);
+        }
+    }
+}
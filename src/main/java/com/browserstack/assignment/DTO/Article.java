@@ -1,10 +1,24 @@
 package com.browserstack.assignment.DTO;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+
 public class Article {
     private String title;
     private String content;
     private String imageUrl;
+    // Pixel size of the chosen image variant, 0 when the markup did not say
+    private int imageWidth;
+    private int imageHeight;
     private String translatedTitle;
+    private String translatedContent;
+    private String url;
+    private String fingerprint;
 
     public Article(String title, String content, String imageUrl) {
         this.title = title;
@@ -24,6 +38,109 @@ public class Article {
         return imageUrl;
     }
 
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    public void setImageSize(int width, int height) {
+        this.imageWidth = width;
+        this.imageHeight = height;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Stable identity across runs: the canonical article URL, or the normalized
+     * title when no link was found.
+     */
+    public String getKey() {
+        if (url != null && !url.isEmpty())
+            return canonicalUrl(url);
+        return "title:" + normalize(title);
+    }
+
+    /**
+     * Hash of the scraped fields (title, content and image identity). It changes
+     * whenever any of them does, so an unchanged fingerprint means earlier
+     * results for this article still apply. The image counts by imageIdentity,
+     * not by the variant a platform picked.
+     */
+    public String getFingerprint() {
+        if (fingerprint == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String field : new String[] { normalize(title), normalize(content), imageIdentity(imageUrl) }) {
+                    digest.update((field == null ? "" : field).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                StringBuilder sb = new StringBuilder();
+                byte[] hash = digest.digest();
+                for (int i = 0; i < 16; i++) {
+                    sb.append(Character.forDigit((hash[i] >> 4) & 0xF, 16));
+                    sb.append(Character.forDigit(hash[i] & 0xF, 16));
+                }
+                fingerprint = sb.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return fingerprint;
+    }
+
+    /** Lower-cases scheme and host and drops the query, fragment and any trailing slash. */
+    public static String canonicalUrl(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getScheme() == null || uri.getHost() == null)
+                return url.trim();
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            if (path.endsWith("/"))
+                path = path.substring(0, path.length() - 1);
+            int port = uri.getPort();
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            boolean defaultPort = port == -1 || (port == 80 && scheme.equals("http"))
+                    || (port == 443 && scheme.equals("https"));
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + (defaultPort ? "" : ":" + port) + path;
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    /**
+     * The image without its variant: the canonical URL minus size path segments
+     * (/828x0/), a size suffix on the file name (-828, _828w, -828x466) and the
+     * extension. Variants picked from one srcset or picture for different
+     * viewports or formats share it. Null for no image.
+     */
+    public static String imageIdentity(String imageUrl) {
+        if (imageUrl == null || imageUrl.trim().isEmpty())
+            return null;
+        String canonical = canonicalUrl(imageUrl);
+        int slash = canonical.lastIndexOf('/');
+        String dir = canonical.substring(0, slash + 1).replaceAll("/\\d+x\\d+(?=/)", "");
+        String name = canonical.substring(slash + 1);
+        int dot = name.lastIndexOf('.');
+        if (dot > 0)
+            name = name.substring(0, dot);
+        return dir + name.replaceFirst("[-_]\\d+(x\\d+|w)?$", "");
+    }
+
+    private static String normalize(String text) {
+        if (text == null)
+            return null;
+        return Normalizer.normalize(text, Normalizer.Form.NFC).trim().replaceAll("\\s+", " ");
+    }
+
     public String getTranslatedTitle() {
         return translatedTitle;
     }
@@ -32,13 +149,24 @@ public class Article {
         this.translatedTitle = translatedTitle;
     }
 
+    public String getTranslatedContent() {
+        return translatedContent;
+    }
+
+    public void setTranslatedContent(String translatedContent) {
+        this.translatedContent = translatedContent;
+    }
+
     @Override
     public String toString() {
         return "Article{" +
                 "title='" + title + '\'' +
                 ", content='" + content + '\'' +
                 ", imageUrl='" + imageUrl + '\'' +
+                ", imageSize=" + imageWidth + "x" + imageHeight +
                 ", translatedTitle='" + translatedTitle + '\'' +
+                ", translatedContent='" + translatedContent + '\'' +
+                ", url='" + url + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,89 @@
+package com.browserstack.assignment.DTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One scraped article as persisted by a run: the Article fields plus the run,
+ * platform and time it was seen, and its word counts. Written as one NDJSON
+ * line by ResultsWriter.
+ */
+public class ArticleRecord {
+    private String runId;
+    private String platform;
+    private long timestamp;
+    private String key;
+    private String url;
+    private String title;
+    private String translatedTitle;
+    private String content;
+    private String imageUrl;
+    private String fingerprint;
+    private Map<String, Integer> wordCounts;
+
+    public ArticleRecord(Article article, String runId, String platform, long timestamp,
+            Map<String, Integer> wordCounts) {
+        this.runId = runId;
+        this.platform = platform;
+        this.timestamp = timestamp;
+        this.key = article.getKey();
+        this.url = article.getUrl();
+        this.title = article.getTitle();
+        this.translatedTitle = article.getTranslatedTitle();
+        this.content = article.getContent();
+        this.imageUrl = article.getImageUrl();
+        this.fingerprint = article.getFingerprint();
+        this.wordCounts = wordCounts != null ? new LinkedHashMap<>(wordCounts) : new LinkedHashMap<>();
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    /** Epoch milliseconds. */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getTranslatedTitle() {
+        return translatedTitle;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Map<String, Integer> getWordCounts() {
+        return wordCounts != null ? wordCounts : new LinkedHashMap<>();
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleRecord{platform='" + platform + "', title='" + title + "', translatedTitle='"
+                + translatedTitle + "'}";
+    }
+}
@@ -1,49 +1,298 @@
 package com.browserstack.assignment.PageObjects;
 
 import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.ConsentStore;
+import com.browserstack.assignment.Utils.ImageDownloader;
+import com.browserstack.assignment.Utils.ImageStore;
+import com.browserstack.assignment.Utils.ImageVariantSelector;
+import com.browserstack.assignment.Utils.Metrics;
+import com.browserstack.assignment.Utils.WaitHistory;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class ElPaisPage {
+    public static final Path IMAGES_DIR = Paths.get("images");
+    public static final Path IMAGE_STORE_DIR = Paths.get("cache", "images");
+
+    public static final String SITE_URL = "https://elpais.com";
+    // Where the Didomi CMP keeps the user's choice, as cookies and in local storage
+    private static final List<String> CONSENT_KEYS = Arrays.asList("didomi_token", "euconsent-v2");
+
+    // Wait names in the WaitHistory
+    private static final String COOKIE_WAIT = "cookieBanner";
+    private static final String OPINION_WAIT = "opinionLink";
+    private static final Duration FAST_POLL_INTERVAL = Duration.ofMillis(100);
+    // The consent platform renders its banner after load, so an immediate lookup would miss expired consent
+    private static final Duration STALE_BANNER_WAIT = Duration.ofMillis(2500);
+
+    private static final String OPINION_CSS = "nav.cs_m a[href*='/opinion']";
+    private static final String OPINION_XPATH = "//a[contains(@href, '/opinion') and text()='Opini\u00f3n']";
+
     private WebDriver driver;
     private WebDriverWait wait;
 
     // Selectors
-    private By opinionLink = By.xpath("//a[contains(@href, '/opinion') and text()='Opinión']");
+    private By opinionLink = By.xpath(OPINION_XPATH);
     // Fallback if the text is uppercase or different
-    private By opinionLinkNav = By.cssSelector("nav.cs_m a[href*='/opinion']");
+    private By opinionLinkNav = By.cssSelector(OPINION_CSS);
 
     private By articleLocator = By.tagName("article");
     private By titleLocator = By.cssSelector("h2.c_t");
     private By contentLocator = By.cssSelector("p.c_d");
     private By imageLocator = By.tagName("img");
+    private By linkLocator = By.cssSelector("a[href]");
 
     // CMP / Cookie banner
     private By acceptCookiesBtn = By.id("didomi-notice-agree-button");
 
+    /*
+     * Markup of an img for ImageVariantSelector: src, data-src, srcset, sizes,
+     * declared size and the sources of an enclosing picture, plus the viewport
+     * sizes are evaluated against. Attributes only, so lazy images need no scrolling.
+     */
+    private static final String IMAGE_INFO_FUNCTION =
+            "function (img) {" +
+            "  if (!img) return null;" +
+            "  var attr = function (el, name) { return el.getAttribute(name); };" +
+            "  var sources = [];" +
+            "  var picture = img.parentElement;" +
+            "  if (picture && picture.tagName === 'PICTURE') {" +
+            "    var nodes = picture.getElementsByTagName('source');" +
+            "    for (var i = 0; i < nodes.length; i++) {" +
+            "      sources.push({srcset: attr(nodes[i], 'srcset') || attr(nodes[i], 'data-srcset')," +
+            "        sizes: attr(nodes[i], 'sizes'), media: attr(nodes[i], 'media'), type: attr(nodes[i], 'type')});" +
+            "    }" +
+            "  }" +
+            "  return {src: attr(img, 'src'), dataSrc: attr(img, 'data-src')," +
+            "    srcset: attr(img, 'srcset') || attr(img, 'data-srcset'), sizes: attr(img, 'sizes')," +
+            "    width: parseInt(attr(img, 'width'), 10) || 0, height: parseInt(attr(img, 'height'), 10) || 0," +
+            "    sources: sources, base: img.baseURI, viewport: window.innerWidth, dpr: window.devicePixelRatio};" +
+            "}";
+
+    private static final String IMAGE_INFO_SCRIPT = "return (" + IMAGE_INFO_FUNCTION + ")(arguments[0]);";
+
+    /*
+     * Collects every article in a single round trip. Uses the same selectors as
+     * the locators above; image markup is read straight from the DOM so no
+     * scrolling is needed to trigger lazy loading.
+     */
+    private static final String BULK_EXTRACT_SCRIPT =
+            "var imageInfo = " + IMAGE_INFO_FUNCTION + ";" +
+            "var nodes = document.querySelectorAll('article');" +
+            "var limit = arguments[0];" +
+            "var items = [];" +
+            "for (var i = 0; i < nodes.length && items.length < limit; i++) {" +
+            "  var a = nodes[i];" +
+            "  var t = a.querySelector('h2.c_t');" +
+            "  if (!t) continue;" +
+            "  var c = a.querySelector('p.c_d');" +
+            "  var img = a.querySelector('img');" +
+            "  var link = t.querySelector('a[href]') || a.querySelector('a[href]');" +
+            "  items.push({" +
+            "    title: (t.innerText || t.textContent || '').trim()," +
+            "    content: c ? (c.innerText || c.textContent || '').trim() : null," +
+            "    image: imageInfo(img)," +
+            "    url: link ? link.href : null" +
+            "  });" +
+            "}" +
+            "return {count: nodes.length, items: items};";
+
+    /*
+     * Races both Opinion locators in one round trip: returns the first visible
+     * match of the CSS selector (arguments[0]) or the XPath (arguments[1]).
+     */
+    private static final String OPINION_RACE_SCRIPT =
+            "var found = Array.prototype.slice.call(document.querySelectorAll(arguments[0]));" +
+            "var snapshot = document.evaluate(arguments[1], document, null, 7, null);" +
+            "for (var i = 0; i < snapshot.snapshotLength; i++) found.push(snapshot.snapshotItem(i));" +
+            "for (var j = 0; j < found.length; j++) {" +
+            "  if (found[j].getClientRects().length > 0) return found[j];" +
+            "}" +
+            "return null;";
+
+    // Every resolved link on the page, for the crawler
+    private static final String LINKS_SCRIPT =
+            "return Array.prototype.map.call(document.querySelectorAll('a[href]'), function (a) {" +
+            "  return a.href;" +
+            "});";
+
+    private boolean bulkExtraction = true;
+    private ImageVariantSelector imageSelector = new ImageVariantSelector();
+    private Metrics metrics;
+
+    private boolean fastNavigation;
+    private WaitHistory waitHistory;
+    private ConsentStore consentStore;
+    private String platform;
+
+    private String homeUrl = SITE_URL + "/";
+    private String opinionUrl = SITE_URL + "/opinion/";
+    // Cookies and storage can only be set for the current origin; robots.txt is the cheapest document there
+    private String consentSeedUrl = SITE_URL + "/robots.txt";
+    private String cookieDomain = ".elpais.com";
+
     public ElPaisPage(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
 
+    /**
+     * Toggles single-script article extraction. When disabled (or when the driver
+     * cannot execute JavaScript) getArticles walks the elements one by one.
+     */
+    public void setBulkExtraction(boolean bulkExtraction) {
+        this.bulkExtraction = bulkExtraction;
+    }
+
+    /** Target width or byte budget for the image variant picked from each srcset. */
+    public void setImageSelector(ImageVariantSelector imageSelector) {
+        this.imageSelector = imageSelector;
+    }
+
+    /** Records the duration of each page step as elpais_page_step_seconds{step=...}. */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private Metrics.Timing time(String step) {
+        return metrics == null ? Metrics.Timing.NONE : metrics.time("page_step", "step", step);
+    }
+
+    /**
+     * Points navigation at another copy of the site, such as the HttpArchive
+     * replay server, instead of https://elpais.com.
+     */
+    public void setSiteUrl(String siteUrl) {
+        String base = siteUrl.endsWith("/") ? siteUrl.substring(0, siteUrl.length() - 1) : siteUrl;
+        this.homeUrl = base + "/";
+        this.opinionUrl = base + "/opinion/";
+        this.consentSeedUrl = base + "/robots.txt";
+        // Host-only cookies for anything but the live domain
+        this.cookieDomain = base.equals(SITE_URL) ? ".elpais.com" : null;
+    }
+
+    /**
+     * Fast navigation: replays stored consent so the cookie banner never
+     * renders, polls both Opinion locators together in one script, and sizes
+     * both waits from this platform's history instead of fixed constants.
+     * Consent captured from an accepted banner is written back to the store.
+     */
+    public void enableFastNavigation(WaitHistory waitHistory, ConsentStore consentStore, String platform) {
+        this.fastNavigation = true;
+        this.waitHistory = waitHistory;
+        this.consentStore = consentStore;
+        this.platform = platform;
+    }
+
     public void navigateToHomePage() {
-        driver.get("https://elpais.com/");
-        handleCookies();
+        Metrics.Timing timing = time("navigateToHomePage");
+        try {
+            if (fastNavigation && preseedConsent()) {
+                driver.get(homeUrl);
+                dismissStaleBanner();
+            } else {
+                driver.get(homeUrl);
+                handleCookies();
+            }
+        } finally {
+            timing.stop();
+        }
+    }
+
+    private boolean preseedConsent() {
+        if (consentStore == null || consentStore.isEmpty())
+            return false;
+        try {
+            driver.get(consentSeedUrl);
+            for (Map.Entry<String, String> cookie : consentStore.getCookies().entrySet()) {
+                driver.manage().addCookie(new Cookie.Builder(cookie.getKey(), cookie.getValue())
+                        .domain(cookieDomain).path("/").build());
+            }
+            Map<String, String> storage = consentStore.getStorage();
+            if (!storage.isEmpty() && driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "for (var k in arguments[0]) window.localStorage.setItem(k, arguments[0][k]);", storage);
+            }
+            return true;
+        } catch (Exception e) {
+            System.out.println("Could not preseed consent, waiting for the banner instead: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Seeded consent normally keeps the banner away; a short poll catches consent that has expired
+    private void dismissStaleBanner() {
+        try {
+            WebElement button = new WebDriverWait(driver, STALE_BANNER_WAIT, FAST_POLL_INTERVAL)
+                    .until(ExpectedConditions.elementToBeClickable(acceptCookiesBtn));
+            button.click();
+            System.out.println("Accepted cookies (stored consent was stale).");
+            captureConsent();
+        } catch (TimeoutException e) {
+            // No banner: the stored consent was accepted
+        } catch (Exception e) {
+            System.out.println("Cookie banner check skipped: " + e.getMessage());
+        }
+    }
+
+    private void captureConsent() {
+        if (consentStore == null)
+            return;
+        try {
+            Map<String, String> cookies = new LinkedHashMap<>();
+            for (Cookie cookie : driver.manage().getCookies()) {
+                if (CONSENT_KEYS.contains(cookie.getName()))
+                    cookies.put(cookie.getName(), cookie.getValue());
+            }
+            Map<String, String> storage = new LinkedHashMap<>();
+            if (driver instanceof JavascriptExecutor) {
+                Object raw = ((JavascriptExecutor) driver).executeScript(
+                        "var out = {};" +
+                        "for (var i = 0; i < arguments[0].length; i++) {" +
+                        "  var v = window.localStorage.getItem(arguments[0][i]);" +
+                        "  if (v !== null) out[arguments[0][i]] = v;" +
+                        "}" +
+                        "return out;", CONSENT_KEYS);
+                if (raw instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) raw).entrySet())
+                        storage.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+                }
+            }
+            consentStore.capture(cookies, storage);
+        } catch (Exception e) {
+            System.out.println("Could not capture consent: " + e.getMessage());
+        }
+    }
+
+    private Duration learnedTimeout(String wait, Duration fallback) {
+        return fastNavigation && waitHistory != null ? waitHistory.timeout(platform, wait, fallback) : fallback;
+    }
+
+    private void recordWait(String wait, long startNanos, boolean satisfied, Duration timeout, Duration fallback) {
+        if (!fastNavigation || waitHistory == null)
+            return;
+        if (satisfied) {
+            waitHistory.recordSatisfied(platform, wait, Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        } else {
+            waitHistory.recordMiss(platform, wait, timeout, fallback);
+        }
     }
 
     public void ensureSpanishLanguage() {
@@ -54,25 +303,243 @@ public class ElPaisPage {
     }
 
     public void navigateToOpinionSection() {
+        Metrics.Timing timing = time("navigateToOpinionSection");
+        try {
+            if (fastNavigation) {
+                navigateToOpinionSectionFast();
+                return;
+            }
+            try {
+                WebElement link = wait.until(ExpectedConditions.elementToBeClickable(opinionLinkNav));
+                link.click();
+                wait.until(ExpectedConditions.urlContains("/opinion"));
+            } catch (Exception e) {
+                System.out.println("CSS nav failed, trying xpath for Opinion link");
+                try {
+                    WebElement link = wait.until(ExpectedConditions.elementToBeClickable(opinionLink));
+                    link.click();
+                    wait.until(ExpectedConditions.urlContains("/opinion"));
+                } catch (Exception ex) {
+                    System.out.println("Navigation failed, forcing direct URL navigation to Opinion section.");
+                    driver.get(opinionUrl);
+                }
+            }
+        } finally {
+            timing.stop();
+        }
+    }
+
+    private void navigateToOpinionSectionFast() {
+        Duration fallback = Duration.ofSeconds(10);
+        Duration timeout = learnedTimeout(OPINION_WAIT, fallback);
+        long start = System.nanoTime();
+        WebElement link;
+        try {
+            link = new WebDriverWait(driver, timeout, FAST_POLL_INTERVAL).until(d -> findOpinionLink());
+            recordWait(OPINION_WAIT, start, true, timeout, fallback);
+        } catch (TimeoutException e) {
+            recordWait(OPINION_WAIT, start, false, timeout, fallback);
+            System.out.println("Opinion link not found within " + timeout.toMillis()
+                    + " ms, forcing direct URL navigation to Opinion section.");
+            driver.get(opinionUrl);
+            return;
+        }
         try {
-            WebElement link = wait.until(ExpectedConditions.elementToBeClickable(opinionLinkNav));
             link.click();
             wait.until(ExpectedConditions.urlContains("/opinion"));
         } catch (Exception e) {
-            System.out.println("CSS nav failed, trying xpath for Opinion link");
+            System.out.println("Opinion link click failed, forcing direct URL navigation: " + e.getMessage());
+            driver.get(opinionUrl);
+        }
+    }
+
+    // One script per poll when possible, otherwise both locators through findElements
+    private WebElement findOpinionLink() {
+        if (driver instanceof JavascriptExecutor) {
             try {
-                WebElement link = wait.until(ExpectedConditions.elementToBeClickable(opinionLink));
-                link.click();
-                wait.until(ExpectedConditions.urlContains("/opinion"));
-            } catch (Exception ex) {
-                System.out.println("Navigation failed, forcing direct URL navigation to Opinion section.");
-                driver.get("https://elpais.com/opinion/");
+                Object found = ((JavascriptExecutor) driver).executeScript(OPINION_RACE_SCRIPT, OPINION_CSS,
+                        OPINION_XPATH);
+                return found instanceof WebElement ? (WebElement) found : null;
+            } catch (Exception e) {
+                // Fall through to plain lookups
             }
         }
+        for (By locator : Arrays.asList(opinionLinkNav, opinionLink)) {
+            for (WebElement element : driver.findElements(locator)) {
+                if (element.isDisplayed() && element.isEnabled())
+                    return element;
+            }
+        }
+        return null;
     }
 
     public List<Article> getArticles(int limit) {
+        return getArticles(limit, article -> {
+        });
+    }
+
+    /**
+     * Same as getArticles(limit), also handing each article to onArticle as
+     * soon as it is extracted, so callers can start work on it while the rest
+     * are still being read.
+     */
+    public List<Article> getArticles(int limit, Consumer<Article> onArticle) {
+        Metrics.Timing timing = time("getArticles");
         List<Article> articles = new ArrayList<>();
+        Consumer<Article> emit = article -> {
+            articles.add(article);
+            onArticle.accept(article);
+        };
+        try {
+            if (bulkExtraction && driver instanceof JavascriptExecutor) {
+                try {
+                    getArticlesBulk(limit, emit);
+                    return articles;
+                } catch (TimeoutException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // Articles already handed out are not extracted again
+                    if (!articles.isEmpty())
+                        throw e;
+                    System.out.println("Bulk extraction failed, falling back to per-element scraping: " + e.getMessage());
+                }
+            }
+            getArticlesPerElement(limit, emit);
+            return articles;
+        } finally {
+            timing.stop();
+        }
+    }
+
+    /** Loads any listing page (crawler use): no cookie handling or navigation clicks. */
+    public void open(String url) {
+        Metrics.Timing timing = time("open");
+        try {
+            driver.get(url);
+        } finally {
+            timing.stop();
+        }
+    }
+
+    /**
+     * Articles on the page that is already loaded, without waiting for them to
+     * appear: a listing page past the last one simply has none.
+     */
+    public List<Article> getArticlesOnPage(int limit) {
+        if (driver.findElements(articleLocator).isEmpty())
+            return new ArrayList<>();
+        return getArticles(limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getLinks() {
+        if (driver instanceof JavascriptExecutor) {
+            Object raw = ((JavascriptExecutor) driver).executeScript(LINKS_SCRIPT);
+            if (raw instanceof List) {
+                List<String> links = new ArrayList<>();
+                for (Object link : (List<Object>) raw) {
+                    if (link instanceof String && !((String) link).isEmpty())
+                        links.add((String) link);
+                }
+                return links;
+            }
+        }
+        List<String> links = new ArrayList<>();
+        for (WebElement anchor : driver.findElements(By.cssSelector("a[href]"))) {
+            String href = anchor.getAttribute("href");
+            if (href != null && !href.isEmpty())
+                links.add(href);
+        }
+        return links;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void getArticlesBulk(int limit, Consumer<Article> emit) {
+        // The script doubles as the wait condition: one round trip once articles are present
+        Map<String, Object> result = wait.until(d -> {
+            Object raw = ((JavascriptExecutor) d).executeScript(BULK_EXTRACT_SCRIPT, limit);
+            if (!(raw instanceof Map)) {
+                throw new IllegalStateException("Unexpected bulk extraction result: " + raw);
+            }
+            Map<String, Object> map = (Map<String, Object>) raw;
+            Object count = map.get("count");
+            return count instanceof Number && ((Number) count).intValue() > 0 ? map : null;
+        });
+
+        for (Object item : (List<Object>) result.get("items")) {
+            Map<String, Object> fields = (Map<String, Object>) item;
+            String title = (String) fields.get("title");
+            if (title == null || title.isEmpty())
+                continue;
+
+            String content = (String) fields.get("content");
+            if (content == null)
+                content = "No content available";
+
+            emit.accept(newArticle(title, content, chooseImage(fields.get("image")), (String) fields.get("url")));
+        }
+    }
+
+    private static Article newArticle(String title, String content, ImageVariantSelector.Choice image, String url) {
+        Article article = new Article(title, content, image != null ? image.url : null);
+        if (image != null)
+            article.setImageSize(image.width, image.height);
+        article.setUrl(url);
+        return article;
+    }
+
+    // Picks the variant from what IMAGE_INFO_FUNCTION returned, at the viewport the page was rendered in
+    @SuppressWarnings("unchecked")
+    private ImageVariantSelector.Choice chooseImage(Object raw) {
+        if (!(raw instanceof Map))
+            return null;
+        Map<String, Object> info = (Map<String, Object>) raw;
+        ImageVariantSelector.Image image = new ImageVariantSelector.Image();
+        image.src = (String) info.get("src");
+        image.dataSrc = (String) info.get("dataSrc");
+        image.srcset = (String) info.get("srcset");
+        image.sizes = (String) info.get("sizes");
+        image.width = intValue(info.get("width"));
+        image.height = intValue(info.get("height"));
+        if (info.get("sources") instanceof List) {
+            for (Object item : (List<Object>) info.get("sources")) {
+                Map<String, Object> source = (Map<String, Object>) item;
+                image.sources.add(new ImageVariantSelector.Source((String) source.get("srcset"),
+                        (String) source.get("sizes"), (String) source.get("media"), (String) source.get("type")));
+            }
+        }
+        ImageVariantSelector selector = imageSelector;
+        int viewport = intValue(info.get("viewport"));
+        if (viewport > 0) {
+            Object dpr = info.get("dpr");
+            selector = selector.withViewport(viewport, dpr instanceof Number ? ((Number) dpr).doubleValue() : 1);
+        }
+        return selector.choose(image, (String) info.get("base"));
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    // One script per image; plain attribute reads when scripts are unavailable
+    private ImageVariantSelector.Choice chooseImage(WebElement img) {
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                Object info = ((JavascriptExecutor) driver).executeScript(IMAGE_INFO_SCRIPT, img);
+                if (info instanceof Map)
+                    return chooseImage(info);
+            } catch (Exception e) {
+                // Fall through to attribute reads
+            }
+        }
+        ImageVariantSelector.Image image = new ImageVariantSelector.Image();
+        image.src = img.getAttribute("src");
+        image.dataSrc = img.getAttribute("data-src");
+        image.srcset = img.getAttribute("srcset");
+        return imageSelector.choose(image, null);
+    }
+
+    private void getArticlesPerElement(int limit, Consumer<Article> emit) {
         List<WebElement> articleElements = wait
                 .until(ExpectedConditions.presenceOfAllElementsLocatedBy(articleLocator));
 
@@ -81,14 +548,13 @@ public class ElPaisPage {
             if (count >= limit)
                 break;
 
+            Article article;
             try {
-                // Scroll into view to ensure images load (lazy loading)
-                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);",
-                        element);
-
                 String title = "";
+                WebElement heading;
                 try {
-                    title = element.findElement(titleLocator).getText();
+                    heading = element.findElement(titleLocator);
+                    title = heading.getText();
                 } catch (Exception e) {
                     // some articles might not have this specific title class?
                     continue; // Skip if no title found
@@ -102,64 +568,97 @@ public class ElPaisPage {
                     content = "No content available";
                 }
 
-                String imageUrl = null;
+                // Lazy images are resolved from their markup, so nothing is scrolled into view
+                ImageVariantSelector.Choice image = null;
                 try {
                     List<WebElement> images = element.findElements(imageLocator);
-                    if (!images.isEmpty()) {
-                        imageUrl = images.get(0).getAttribute("src");
-                        if (imageUrl != null && imageUrl.startsWith("data:")) {
-                            // Data URI, maybe look for srcset or skip
-                            imageUrl = images.get(0).getAttribute("data-src"); // sometimes lazy loaded
-                            if (imageUrl == null)
-                                imageUrl = images.get(0).getAttribute("src");
-                        }
-                    }
+                    if (!images.isEmpty())
+                        image = chooseImage(images.get(0));
                 } catch (Exception e) {
                     // No image
                 }
 
-                articles.add(new Article(title, content, imageUrl));
-                count++;
+                // The same link the bulk script reads, so the article gets the same key either way
+                String url = null;
+                try {
+                    List<WebElement> links = heading.findElements(linkLocator);
+                    if (links.isEmpty())
+                        links = element.findElements(linkLocator);
+                    if (!links.isEmpty())
+                        url = links.get(0).getAttribute("href");
+                } catch (Exception e) {
+                    // No link
+                }
+
+                article = newArticle(title, content, image, url);
             } catch (Exception e) {
                 System.err.println("Error parsing article: " + e.getMessage());
+                continue;
             }
+            // Outside the try, so a failing consumer is not mistaken for a bad article
+            emit.accept(article);
+            count++;
         }
-        return articles;
     }
 
-    public void downloadImages(List<Article> articles) {
-        File info = new File("images");
-        if (!info.exists())
-            info.mkdirs();
+    /**
+     * Downloader backed by store, normally the one instance over IMAGE_STORE_DIR
+     * that every parallel caller shares. A null store downloads without one.
+     */
+    public static ImageDownloader newImageDownloader(ImageStore store) {
+        ImageDownloader downloader = new ImageDownloader();
+        downloader.setStore(store);
+        return downloader;
+    }
 
-        for (int i = 0; i < articles.size(); i++) {
-            Article article = articles.get(i);
-            if (article.getImageUrl() != null && !article.getImageUrl().isEmpty()) {
-                try {
-                    Path targetPath = Paths.get("images", "article_" + (i + 1) + ".jpg");
-                    java.net.URLConnection conn = new URL(article.getImageUrl()).openConnection();
-                    conn.setConnectTimeout(5000); // 5 seconds connect timeout
-                    conn.setReadTimeout(10000); // 10 seconds read timeout
-
-                    try (InputStream in = conn.getInputStream()) {
-                        Files.copy(in, targetPath, StandardCopyOption.REPLACE_EXISTING);
-                        System.out.println("Downloaded image for article " + (i + 1));
-                    }
-                } catch (IOException e) {
-                    System.err.println("Failed to download image: " + article.getImageUrl() + " - " + e.getMessage());
+    /**
+     * Downloads the articles' images through store, which must be the instance
+     * the caller shares with everyone else writing to IMAGE_STORE_DIR (null
+     * downloads without a store).
+     */
+    public void downloadImages(List<Article> articles, ImageStore store) {
+        long start = System.currentTimeMillis();
+        Metrics.Timing timing = time("downloadImages");
+        try {
+            ImageDownloader downloader = newImageDownloader(store);
+            downloader.setMetrics(metrics);
+            List<ImageDownloader.Result> results = downloader.downloadAll(articles, IMAGES_DIR);
+            for (ImageDownloader.Result result : results) {
+                if (result.isSuccess()) {
+                    System.out.println((result.notModified ? "Reused image for article " : "Downloaded image for article ")
+                            + (result.index + 1) + " (" + result.bytes + " bytes, " + result.latencyMillis + " ms)");
                 }
             }
+            System.out.println(ImageDownloader.summarize(results, System.currentTimeMillis() - start));
+        } catch (IOException e) {
+            System.err.println("Failed to download images: " + e.getMessage());
+        } finally {
+            timing.stop();
         }
     }
 
     private void handleCookies() {
+        Metrics.Timing timing = time("handleCookies");
         try {
-            WebElement agreeBtn = new WebDriverWait(driver, Duration.ofSeconds(5))
-                    .until(ExpectedConditions.elementToBeClickable(acceptCookiesBtn));
+            Duration fallback = Duration.ofSeconds(5);
+            Duration timeout = learnedTimeout(COOKIE_WAIT, fallback);
+            long start = System.nanoTime();
+            WebElement agreeBtn;
+            try {
+                agreeBtn = new WebDriverWait(driver, timeout)
+                        .until(ExpectedConditions.elementToBeClickable(acceptCookiesBtn));
+            } catch (TimeoutException e) {
+                recordWait(COOKIE_WAIT, start, false, timeout, fallback);
+                throw e;
+            }
+            recordWait(COOKIE_WAIT, start, true, timeout, fallback);
             agreeBtn.click();
             System.out.println("Accepted cookies.");
+            captureConsent();
         } catch (Exception e) {
             System.out.println("Cookie banner not found or skipped.");
+        } finally {
+            timing.stop();
         }
     }
 }
@@ -0,0 +1,413 @@
+package com.browserstack.assignment.Results;
+
+import com.browserstack.assignment.DTO.ArticleRecord;
+import com.browserstack.assignment.Utils.WordAnalyzer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over archived headlines: original title, translated title
+ * and content, one document per article key (the first time it was seen).
+ *
+ * - Segments: add() buffers documents in memory and commit() writes them as a
+ *   new immutable, memory-mapped IndexSegment, so adding a day's headlines
+ *   costs about the size of that day. Segments of similar size are merged as
+ *   SegmentSet describes (so they stay in day order), streaming documents,
+ *   keys and terms out of the inputs.
+ * - Postings are varint (doc delta, frequency) pairs read straight from the
+ *   mapping; queries allocate per matching document, not per indexed one.
+ * - Terms: words of each field, plus bigrams and trigrams of the two titles.
+ *   Words are tokenized as in WordAnalyzer.
+ *
+ * Only committed documents are searchable.
+ */
+public class HeadlineIndex implements Closeable {
+    public enum Field {
+        TITLE('t'), TRANSLATED('e'), CONTENT('c');
+
+        private final byte tag;
+
+        Field(char tag) {
+            this.tag = (byte) tag;
+        }
+    }
+
+    public static class Hit {
+        public final String title;
+        public final String translatedTitle;
+        public final String url;
+        public final String key;
+        public final LocalDate day;
+        public final double score;
+
+        Hit(String[] stored, int day, double score) {
+            this.title = stored[0];
+            this.translatedTitle = stored[1];
+            this.url = stored[2];
+            this.key = stored[3];
+            this.day = LocalDate.ofEpochDay(day);
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s %s", score, day, title);
+        }
+    }
+
+    private final WordAnalyzer analyzer = new WordAnalyzer();
+    private final SegmentSet<IndexSegment> segments;
+    private IndexSegment.Builder pending = new IndexSegment.Builder();
+    private final Set<Long> pendingKeys = new HashSet<>();
+
+    private HeadlineIndex(SegmentSet<IndexSegment> segments) {
+        this.segments = segments;
+    }
+
+    public static HeadlineIndex open(Path dir) throws IOException {
+        return new HeadlineIndex(SegmentSet.open(dir, "idx", IndexSegment::open));
+    }
+
+    /** Adds one archived article; false when its key is already indexed or pending. */
+    public synchronized boolean add(ArticleRecord record) {
+        LocalDate day = Instant.ofEpochMilli(record.getTimestamp()).atZone(ZoneOffset.UTC).toLocalDate();
+        return add(record.getKey(), day, record.getTitle(), record.getTranslatedTitle(), record.getContent(),
+                record.getUrl());
+    }
+
+    public synchronized boolean add(String key, LocalDate day, String title, String translatedTitle, String content,
+            String url) {
+        long fingerprint = fingerprint(key);
+        if (pendingKeys.contains(fingerprint))
+            return false;
+        for (IndexSegment segment : segments) {
+            if (segment.containsKey(fingerprint))
+                return false;
+        }
+        pendingKeys.add(fingerprint);
+
+        Map<byte[], Integer> terms = new TreeMap<>(IndexSegment::compareBytes);
+        int length = 0;
+        length += addTerms(terms, Field.TITLE, analyzer.tokenize(title), true);
+        length += addTerms(terms, Field.TRANSLATED, analyzer.tokenize(translatedTitle), true);
+        length += addTerms(terms, Field.CONTENT, analyzer.tokenize(content), false);
+        pending.addDocument(fingerprint, (int) day.toEpochDay(), Math.max(1, length),
+                new String[] { title, translatedTitle, url, key }, terms);
+        return true;
+    }
+
+    private static int addTerms(Map<byte[], Integer> terms, Field field, List<String> words, boolean ngrams) {
+        for (int i = 0; i < words.size(); i++) {
+            terms.merge(term(field, words.get(i)), 1, Integer::sum);
+            if (!ngrams)
+                continue;
+            if (i + 1 < words.size())
+                terms.merge(term(field, words.get(i) + ' ' + words.get(i + 1)), 1, Integer::sum);
+            if (i + 2 < words.size())
+                terms.merge(term(field, words.get(i) + ' ' + words.get(i + 1) + ' ' + words.get(i + 2)), 1,
+                        Integer::sum);
+        }
+        return words.size();
+    }
+
+    private static byte[] term(Field field, String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] term = new byte[utf8.length + 1];
+        term[0] = field.tag;
+        System.arraycopy(utf8, 0, term, 1, utf8.length);
+        return term;
+    }
+
+    // FNV-1a, 64-bit
+    private static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** Writes pending documents as a new segment and merges if due. Returns the number committed. */
+    public synchronized int commit() throws IOException {
+        int committed = pending.size();
+        if (committed == 0)
+            return 0;
+        Path file = segments.nextFile();
+        pending.write(file);
+        segments.add(file);
+        pending = new IndexSegment.Builder();
+        pendingKeys.clear();
+        segments.commit(HeadlineIndex::merge);
+        return committed;
+    }
+
+    // Position of a k-way merge in one segment
+    private static final class Cursor {
+        final int segment;
+        int index;
+        byte[] term;
+
+        Cursor(int segment) {
+            this.segment = segment;
+        }
+    }
+
+    // Documents are copied in segment order, renumbered after the preceding inputs; keys and terms are
+    // k-way merged, so only the current term's postings are on the heap
+    private static void merge(List<IndexSegment> inputs, Path file) throws IOException {
+        try (IndexSegment.Writer writer = new IndexSegment.Writer(file)) {
+            int[] bases = new int[inputs.size()];
+            int docs = 0;
+            for (int i = 0; i < inputs.size(); i++) {
+                IndexSegment input = inputs.get(i);
+                bases[i] = docs;
+                for (int doc = 0; doc < input.docCount; doc++)
+                    writer.addDocument(input.day(doc), input.length(doc), input.stored(doc));
+                docs += input.docCount;
+            }
+
+            PriorityQueue<Cursor> keys = new PriorityQueue<>(
+                    Comparator.comparingLong((Cursor c) -> inputs.get(c.segment).key(c.index)));
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).docCount > 0)
+                    keys.add(new Cursor(i));
+            }
+            while (!keys.isEmpty()) {
+                Cursor cursor = keys.poll();
+                writer.addKey(inputs.get(cursor.segment).key(cursor.index));
+                if (++cursor.index < inputs.get(cursor.segment).docCount)
+                    keys.add(cursor);
+            }
+
+            // Ties go to the older segment, so postings are appended in doc order
+            PriorityQueue<Cursor> terms = new PriorityQueue<>((a, b) -> {
+                int cmp = IndexSegment.compareBytes(a.term, b.term);
+                return cmp != 0 ? cmp : Integer.compare(a.segment, b.segment);
+            });
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).termCount > 0) {
+                    Cursor cursor = new Cursor(i);
+                    cursor.term = inputs.get(i).termBytes(0);
+                    terms.add(cursor);
+                }
+            }
+            List<Cursor> holders = new ArrayList<>();
+            while (!terms.isEmpty()) {
+                byte[] term = terms.peek().term;
+                holders.clear();
+                while (!terms.isEmpty() && Arrays.equals(terms.peek().term, term))
+                    holders.add(terms.poll());
+                IndexSegment.Postings postings = new IndexSegment.Postings();
+                for (Cursor holder : holders) {
+                    int base = bases[holder.segment];
+                    inputs.get(holder.segment).forEachPosting(holder.index,
+                            (doc, frequency) -> postings.add(base + doc, frequency));
+                }
+                writer.addTerm(term, postings);
+                for (Cursor holder : holders) {
+                    IndexSegment segment = inputs.get(holder.segment);
+                    if (++holder.index < segment.termCount) {
+                        holder.term = segment.termBytes(holder.index);
+                        terms.add(holder);
+                    }
+                }
+            }
+            writer.finish();
+        }
+    }
+
+    /** Committed documents. */
+    public synchronized int size() {
+        return (int) segments.total();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.count();
+    }
+
+    private static Field[] orAll(Field[] fields) {
+        return fields.length == 0 ? Field.values() : fields;
+    }
+
+    /** Documents containing term (a word, or a 2-3 word phrase for title fields) in field. */
+    public synchronized int documentFrequency(String term, Field field) {
+        byte[] key = term(field, String.join(" ", analyzer.tokenize(term)));
+        int df = 0;
+        for (IndexSegment segment : segments) {
+            int index = segment.findTerm(key);
+            if (index >= 0)
+                df += segment.documentFrequency(index);
+        }
+        return df;
+    }
+
+    /**
+     * TF-IDF ranking of the query's words over the given fields (all when none):
+     * each matching word adds (1 + ln tf) * ln(1 + N / df), and the sum is
+     * divided by the square root of the document's length in words.
+     */
+    public synchronized List<Hit> search(String query, int k, Field... fields) {
+        List<byte[]> keys = new ArrayList<>();
+        for (String word : new HashSet<>(analyzer.tokenize(query))) {
+            for (Field field : orAll(fields))
+                keys.add(term(field, word));
+        }
+        int total = size();
+        double[] idf = new double[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            int df = 0;
+            for (IndexSegment segment : segments) {
+                int index = segment.findTerm(keys.get(i));
+                if (index >= 0)
+                    df += segment.documentFrequency(index);
+            }
+            idf[i] = df == 0 ? 0 : Math.log(1 + (double) total / df);
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, k), (a, b) -> Double.compare(a.score, b.score));
+        for (IndexSegment segment : segments) {
+            Map<Integer, double[]> scores = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                int index = idf[i] > 0 ? segment.findTerm(keys.get(i)) : -1;
+                if (index < 0)
+                    continue;
+                double weight = idf[i];
+                segment.forEachPosting(index, (doc, frequency) -> scores
+                        .computeIfAbsent(doc, d -> new double[1])[0] += (1 + Math.log(frequency)) * weight);
+            }
+            for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+                int doc = entry.getKey();
+                double score = entry.getValue()[0] / Math.sqrt(segment.length(doc));
+                if (top.size() < k) {
+                    top.add(new Hit(segment.stored(doc), segment.day(doc), score));
+                } else if (k > 0 && score > top.peek().score) {
+                    top.poll();
+                    top.add(new Hit(segment.stored(doc), segment.day(doc), score));
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort((a, b) -> Double.compare(b.score, a.score));
+        return hits;
+    }
+
+    /**
+     * Occurrences of term (a word, or a 2-3 word phrase) per bucket of
+     * bucketDays from the first day up to the last, zeros included.
+     */
+    public synchronized SortedMap<LocalDate, Integer> trend(String term, LocalDate from, LocalDate to,
+            int bucketDays, Field... fields) {
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        int width = Math.max(1, bucketDays);
+        int[] buckets = new int[(last - first) / width + 1];
+        String text = String.join(" ", analyzer.tokenize(term));
+        for (Field field : orAll(fields)) {
+            byte[] key = term(field, text);
+            for (IndexSegment segment : segments) {
+                if (segment.maxDay < first || segment.minDay > last)
+                    continue;
+                int index = segment.findTerm(key);
+                if (index < 0)
+                    continue;
+                segment.forEachPosting(index, (doc, frequency) -> {
+                    int day = segment.day(doc);
+                    if (day >= first && day <= last)
+                        buckets[(day - first) / width] += frequency;
+                });
+            }
+        }
+        SortedMap<LocalDate, Integer> trend = new TreeMap<>();
+        for (int i = 0; i < buckets.length; i++)
+            trend.put(LocalDate.ofEpochDay(first + (long) i * width), buckets[i]);
+        return trend;
+    }
+
+    /** Most frequent n-grams (n = 1 for single words, up to 3) of field within the days, both inclusive. */
+    public synchronized List<Map.Entry<String, Integer>> topNgrams(Field field, int n, int k, LocalDate from,
+            LocalDate to) {
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        byte[] prefix = { field.tag };
+        Map<String, Integer> counts = new HashMap<>();
+        for (IndexSegment segment : segments) {
+            if (segment.maxDay < first || segment.minDay > last)
+                continue;
+            boolean inside = segment.minDay >= first && segment.maxDay <= last;
+            for (int index = segment.lowerBound(prefix); index < segment.termCount
+                    && segment.termStartsWith(index, prefix); index++) {
+                byte[] bytes = segment.termBytes(index);
+                if (spaces(bytes) != n - 1)
+                    continue;
+                int count;
+                if (inside) {
+                    count = segment.totalFrequency(index);
+                } else {
+                    int[] sum = { 0 };
+                    segment.forEachPosting(index, (doc, frequency) -> {
+                        int day = segment.day(doc);
+                        if (day >= first && day <= last)
+                            sum[0] += frequency;
+                    });
+                    count = sum[0];
+                }
+                if (count > 0)
+                    counts.merge(new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8), count,
+                            Integer::sum);
+            }
+        }
+        PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(Math.max(1, k),
+                (a, b) -> a.getValue().equals(b.getValue()) ? b.getKey().compareTo(a.getKey())
+                        : Integer.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+            if (top.size() > k)
+                top.poll();
+        }
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(top);
+        result.sort(Collections.reverseOrder(top.comparator()));
+        return result;
+    }
+
+    private static int spaces(byte[] term) {
+        int spaces = 0;
+        for (int i = 1; i < term.length; i++) {
+            if (term[i] == ' ')
+                spaces++;
+        }
+        return spaces;
+    }
+
+    /** Commits pending documents and drops the segment mappings; the index answers nothing afterwards. */
+    @Override
+    public synchronized void close() throws IOException {
+        commit();
+        segments.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "HeadlineIndex{documents=" + size() + ", segments=" + segments.count() + ", pending=" + pending.size()
+                + "}";
+    }
+}
@@ -0,0 +1,410 @@
+package com.browserstack.assignment.Results;
+
+import java.io.Closeable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One immutable, memory-mapped segment of the HeadlineIndex. Layout
+ * (big-endian, int offsets, so a segment is limited to 2 GB):
+ *
+ *   header    magic, version, doc and term counts, min/max epoch day, offsets
+ *   docs      12 bytes each: int epoch day, int length in words, stored-fields ref
+ *   keys      sorted 64-bit fingerprints of the article keys, for dedup
+ *   terms     16 bytes each, sorted by UTF-8 bytes: term ref, document
+ *             frequency, total frequency, postings offset
+ *   postings  per term, varint (doc delta, term frequency) pairs by doc
+ *   strings   term bytes and stored fields, each int length + UTF-8 (-1 for null)
+ *
+ * A term is a field tag byte followed by the word or space-joined n-gram.
+ */
+final class IndexSegment implements SegmentSet.Segment {
+    private static final int MAGIC = 0x454c4958; // "ELIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+    private static final int DOC_BYTES = 12;
+    private static final int TERM_BYTES = 16;
+
+    interface PostingVisitor {
+        void accept(int doc, int frequency);
+    }
+
+    /** Postings of one term, varint-encoded as they are appended in doc order. */
+    static final class Postings {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        private int lastDoc = -1;
+        private int documents;
+        private int total;
+
+        void add(int doc, int frequency) {
+            writeVarint(bytes, doc - lastDoc);
+            writeVarint(bytes, frequency);
+            lastDoc = doc;
+            documents++;
+            total += frequency;
+        }
+    }
+
+    /** Newly added documents, assembled in memory until they are committed as a segment. */
+    static final class Builder {
+        private final List<int[]> docs = new ArrayList<>(); // day, length
+        private final List<String[]> stored = new ArrayList<>();
+        private long[] keys = new long[16];
+        private int keyCount;
+        private final Map<byte[], Postings> terms = new TreeMap<>(IndexSegment::compareBytes);
+
+        int size() {
+            return docs.size();
+        }
+
+        /** Adds a document; termFrequencies maps encoded terms to their count in it. Returns its doc id. */
+        int addDocument(long key, int day, int length, String[] storedFields, Map<byte[], Integer> termFrequencies) {
+            int doc = docs.size();
+            docs.add(new int[] { day, length });
+            stored.add(storedFields);
+            addKey(key);
+            termFrequencies.forEach((term, frequency) -> postings(term).add(doc, frequency));
+            return doc;
+        }
+
+        private void addKey(long key) {
+            if (keyCount == keys.length)
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            keys[keyCount++] = key;
+        }
+
+        private Postings postings(byte[] term) {
+            return terms.computeIfAbsent(term, t -> new Postings());
+        }
+
+        void write(Path file) throws IOException {
+            long[] sortedKeys = Arrays.copyOf(keys, keyCount);
+            Arrays.sort(sortedKeys);
+            try (Writer writer = new Writer(file)) {
+                for (int doc = 0; doc < docs.size(); doc++)
+                    writer.addDocument(docs.get(doc)[0], docs.get(doc)[1], stored.get(doc));
+                for (long key : sortedKeys)
+                    writer.addKey(key);
+                for (Map.Entry<byte[], Postings> entry : terms.entrySet())
+                    writer.addTerm(entry.getKey(), entry.getValue());
+                writer.finish();
+            }
+        }
+    }
+
+    /**
+     * Writes a segment from documents in doc id order, keys in ascending order
+     * and terms in byte order. Sections are streamed to SectionFiles and
+     * concatenated by finish(), so a merge holds no more than one term's
+     * postings on the heap.
+     */
+    static final class Writer implements Closeable {
+        private final Path file;
+        private final SectionFiles sections;
+        private final DataOutputStream docs;
+        private final DataOutputStream keys;
+        private final DataOutputStream terms;
+        private final DataOutputStream postings;
+        private final DataOutputStream strings;
+        private int docCount;
+        private int keyCount;
+        private int termCount;
+        private long postingBytes;
+        private long stringBytes;
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+        private long lastKey = Long.MIN_VALUE;
+        private byte[] lastTerm;
+
+        Writer(Path file) throws IOException {
+            this.file = file;
+            this.sections = new SectionFiles(file, "docs", "keys", "terms", "postings", "strings");
+            this.docs = sections.get(0);
+            this.keys = sections.get(1);
+            this.terms = sections.get(2);
+            this.postings = sections.get(3);
+            this.strings = sections.get(4);
+        }
+
+        /** Adds the next document; doc ids are assigned in the order documents are added. */
+        void addDocument(int day, int length, String[] storedFields) throws IOException {
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+            docs.writeInt(day);
+            docs.writeInt(length);
+            docs.writeInt(checkedRef());
+            for (String field : storedFields)
+                writeString(field != null ? field.getBytes(StandardCharsets.UTF_8) : null);
+            docCount++;
+        }
+
+        void addKey(long key) throws IOException {
+            if (key < lastKey)
+                throw new IllegalArgumentException("Keys must be added in ascending order");
+            lastKey = key;
+            keys.writeLong(key);
+            keyCount++;
+        }
+
+        void addTerm(byte[] term, Postings termPostings) throws IOException {
+            if (lastTerm != null && compareBytes(term, lastTerm) <= 0)
+                throw new IllegalArgumentException("Terms must be added in byte order");
+            lastTerm = term;
+            terms.writeInt(checkedRef());
+            writeString(term);
+            terms.writeInt(termPostings.documents);
+            terms.writeInt(termPostings.total);
+            if (postingBytes > Integer.MAX_VALUE)
+                throw new IOException("Index segment would exceed 2 GB: " + file);
+            terms.writeInt((int) postingBytes);
+            termPostings.bytes.writeTo(postings);
+            postingBytes += termPostings.bytes.size();
+            termCount++;
+        }
+
+        private int checkedRef() throws IOException {
+            if (stringBytes > Integer.MAX_VALUE)
+                throw new IOException("Index segment would exceed 2 GB: " + file);
+            return (int) stringBytes;
+        }
+
+        private void writeString(byte[] bytes) throws IOException {
+            strings.writeInt(bytes == null ? -1 : bytes.length);
+            stringBytes += 4;
+            if (bytes != null) {
+                strings.write(bytes);
+                stringBytes += bytes.length;
+            }
+        }
+
+        /** Writes the segment (temp file, then atomic rename) and removes the section files. */
+        void finish() throws IOException {
+            long docsOffset = HEADER_BYTES;
+            long keysOffset = docsOffset + (long) docCount * DOC_BYTES;
+            long termsOffset = keysOffset + keyCount * 8L;
+            long postingsOffset = termsOffset + (long) termCount * TERM_BYTES;
+            long stringsOffset = postingsOffset + postingBytes;
+            if (stringsOffset + stringBytes > Integer.MAX_VALUE)
+                throw new IOException("Index segment would exceed 2 GB: " + file);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(docCount).putInt(termCount).putInt(minDay).putInt(maxDay)
+                    .putInt((int) docsOffset).putInt((int) keysOffset).putInt((int) termsOffset)
+                    .putInt((int) postingsOffset).putInt((int) stringsOffset).putInt(0); // last int reserved
+            sections.finish(header);
+        }
+
+        /** Discards the temp files of an unfinished segment; a finished one is left in place. */
+        @Override
+        public void close() throws IOException {
+            sections.close();
+        }
+    }
+
+    final Path file;
+    private final ByteBuffer buffer;
+    final int docCount;
+    final int termCount;
+    final int minDay;
+    final int maxDay;
+    private final int docsOffset;
+    private final int keysOffset;
+    private final int termsOffset;
+    private final int postingsOffset;
+    private final int stringsOffset;
+
+    private IndexSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("Not an index segment: " + file);
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.minDay = buffer.getInt(16);
+        this.maxDay = buffer.getInt(20);
+        this.docsOffset = buffer.getInt(24);
+        this.keysOffset = buffer.getInt(28);
+        this.termsOffset = buffer.getInt(32);
+        this.postingsOffset = buffer.getInt(36);
+        this.stringsOffset = buffer.getInt(40);
+    }
+
+    static IndexSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new IndexSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public int size() {
+        return docCount;
+    }
+
+    int day(int doc) {
+        return buffer.getInt(docsOffset + doc * DOC_BYTES);
+    }
+
+    int length(int doc) {
+        return buffer.getInt(docsOffset + doc * DOC_BYTES + 4);
+    }
+
+    /** title, translated title, URL, key. */
+    String[] stored(int doc) {
+        int position = stringsOffset + buffer.getInt(docsOffset + doc * DOC_BYTES + 8);
+        String[] fields = new String[4];
+        for (int i = 0; i < fields.length; i++) {
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                ByteBuffer view = buffer.duplicate();
+                view.position(position);
+                view.get(bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        return fields;
+    }
+
+    /** The i-th smallest key fingerprint. */
+    long key(int i) {
+        return buffer.getLong(keysOffset + i * 8);
+    }
+
+    boolean containsKey(long key) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = key(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Index of term, or -1. */
+    int findTerm(byte[] term) {
+        int index = lowerBound(term);
+        return index < termCount && compareTerm(index, term) == 0 ? index : -1;
+    }
+
+    /** First term that sorts at or after key. */
+    int lowerBound(byte[] key) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** True when the term at index starts with prefix. */
+    boolean termStartsWith(int index, byte[] prefix) {
+        int position = stringsOffset + buffer.getInt(termsOffset + index * TERM_BYTES);
+        if (buffer.getInt(position) < prefix.length)
+            return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(position + 4 + i) != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    // Unsigned byte order, the order the builder wrote the terms in
+    private int compareTerm(int index, byte[] key) {
+        int position = stringsOffset + buffer.getInt(termsOffset + index * TERM_BYTES);
+        int length = buffer.getInt(position);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (buffer.get(position + 4 + i) & 0xff) - (key[i] & 0xff);
+            if (cmp != 0)
+                return cmp;
+        }
+        return length - key.length;
+    }
+
+    byte[] termBytes(int index) {
+        int position = stringsOffset + buffer.getInt(termsOffset + index * TERM_BYTES);
+        byte[] bytes = new byte[buffer.getInt(position)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + 4);
+        view.get(bytes);
+        return bytes;
+    }
+
+    int documentFrequency(int term) {
+        return buffer.getInt(termsOffset + term * TERM_BYTES + 4);
+    }
+
+    int totalFrequency(int term) {
+        return buffer.getInt(termsOffset + term * TERM_BYTES + 8);
+    }
+
+    void forEachPosting(int term, PostingVisitor visitor) {
+        int position = postingsOffset + buffer.getInt(termsOffset + term * TERM_BYTES + 12);
+        int doc = -1;
+        int[] cursor = { position };
+        for (int i = documentFrequency(term); i > 0; i--) {
+            doc += readVarint(buffer, cursor);
+            visitor.accept(doc, readVarint(buffer, cursor));
+        }
+    }
+
+    // ---- Encoding helpers ----
+
+    static int compareBytes(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+            if (cmp != 0)
+                return cmp;
+        }
+        return a.length - b.length;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer, int[] cursor) {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = buffer.get(cursor[0]++);
+            value |= (b & 0x7f) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.browserstack.assignment.Results;
+
+import com.browserstack.assignment.DTO.ArticleRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Columnar snapshot of every results log, memory-mapped for queries across
+ * the whole history without reading it onto the heap. Queries touch only the
+ * pages they need: a binary search over the day column plus the matching
+ * rows for "headlines on day X", a binary search over the term table plus one
+ * postings run for "trend of word Y", in each segment.
+ *
+ * - Segments: add() writes the rows of logs not yet compacted as a new
+ *   immutable SnapshotSegment, so compacting a run costs about the size of
+ *   that run. Segments of similar size are merged as SegmentSet describes,
+ *   by a streaming k-way merge over rows and terms, so a merge's memory stays
+ *   flat.
+ *
+ * Terms are the per-article word counts (translated headline words), lower-cased.
+ * Days are UTC.
+ */
+public class ResultsSnapshot implements Closeable {
+    public static class Row {
+        public final long timestamp;
+        public final String platform;
+        public final String runId;
+        public final String key;
+        public final String title;
+        public final String translatedTitle;
+        public final String url;
+        public final String imageUrl;
+
+        Row(long timestamp, String platform, String runId, String key, String title, String translatedTitle,
+                String url, String imageUrl) {
+            this.timestamp = timestamp;
+            this.platform = platform;
+            this.runId = runId;
+            this.key = key;
+            this.title = title;
+            this.translatedTitle = translatedTitle;
+            this.url = url;
+            this.imageUrl = imageUrl;
+        }
+
+        public LocalDate getDay() {
+            return LocalDate.ofEpochDay(epochDay(timestamp));
+        }
+
+        @Override
+        public String toString() {
+            return getDay() + " [" + platform + "] " + title;
+        }
+    }
+
+    // Position of a k-way merge in one segment
+    private static final class Cursor {
+        final int segment;
+        int index;
+        String term;
+
+        Cursor(int segment) {
+            this.segment = segment;
+        }
+    }
+
+    private final SegmentSet<SnapshotSegment> segments;
+
+    private ResultsSnapshot(SegmentSet<SnapshotSegment> segments) {
+        this.segments = segments;
+    }
+
+    /** Opens the snapshot in dir, creating it if missing, and maps its segments. */
+    public static ResultsSnapshot open(Path dir) throws IOException {
+        return new ResultsSnapshot(SegmentSet.open(dir, "bin", SnapshotSegment::open));
+    }
+
+    /** Adds every log not already in the snapshot at dir. Returns the number of logs added. */
+    public static int compact(Path dir, Collection<Path> logs) throws IOException {
+        try (ResultsSnapshot snapshot = open(dir)) {
+            return snapshot.add(logs);
+        }
+    }
+
+    static int epochDay(long timestamp) {
+        return (int) Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Writes the logs not already compacted as a new segment and merges if due.
+     * Only the new logs are read; their rows and per-day term counts are sorted
+     * in memory before writing. Returns the number of logs added.
+     */
+    public synchronized int add(Collection<Path> logs) throws IOException {
+        Set<String> known = new HashSet<>(getSources());
+        List<Row> rows = new ArrayList<>();
+        Map<String, TreeMap<Integer, Integer>> terms = new HashMap<>();
+        Set<String> added = new LinkedHashSet<>();
+        for (Path log : logs) {
+            String name = log.getFileName().toString();
+            if (known.contains(name) || !added.add(name))
+                continue;
+            ResultsWriter.read(log, record -> add(record, rows, terms));
+        }
+        if (added.isEmpty())
+            return 0;
+
+        rows.sort(Comparator.comparingLong(row -> row.timestamp));
+        Path file = segments.nextFile();
+        try (SnapshotSegment.Writer writer = new SnapshotSegment.Writer(file)) {
+            for (Row row : rows)
+                writer.addRow(row);
+            for (Map.Entry<String, TreeMap<Integer, Integer>> term : new TreeMap<>(terms).entrySet())
+                writer.addTerm(term.getKey(), term.getValue());
+            for (String source : added)
+                writer.addSource(source);
+            writer.finish();
+        }
+        segments.add(file);
+        segments.commit(ResultsSnapshot::merge);
+        return added.size();
+    }
+
+    private static void add(ArticleRecord record, List<Row> rows, Map<String, TreeMap<Integer, Integer>> terms) {
+        rows.add(new Row(record.getTimestamp(), record.getPlatform(), record.getRunId(), record.getKey(),
+                record.getTitle(), record.getTranslatedTitle(), record.getUrl(), record.getImageUrl()));
+        int day = epochDay(record.getTimestamp());
+        record.getWordCounts().forEach((word, count) -> terms
+                .computeIfAbsent(word.toLowerCase(Locale.ROOT), k -> new TreeMap<>())
+                .merge(day, count, Integer::sum));
+    }
+
+    // Streams rows by timestamp and terms by name out of the inputs; only the current row or term of each
+    // input is on the heap
+    private static void merge(List<SnapshotSegment> inputs, Path file) throws IOException {
+        try (SnapshotSegment.Writer writer = new SnapshotSegment.Writer(file)) {
+            PriorityQueue<Cursor> rows = new PriorityQueue<>(Comparator
+                    .comparingLong((Cursor c) -> inputs.get(c.segment).timestamp(c.index))
+                    .thenComparingInt(c -> c.segment));
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).rowCount > 0)
+                    rows.add(new Cursor(i));
+            }
+            while (!rows.isEmpty()) {
+                Cursor cursor = rows.poll();
+                writer.addRow(inputs.get(cursor.segment).row(cursor.index));
+                if (++cursor.index < inputs.get(cursor.segment).rowCount)
+                    rows.add(cursor);
+            }
+
+            forEachTerm(inputs, (term, holders) -> {
+                TreeMap<Integer, Integer> days = new TreeMap<>();
+                for (Cursor holder : holders)
+                    inputs.get(holder.segment).addPostings(holder.index, days);
+                writer.addTerm(term, days);
+            });
+            for (SnapshotSegment input : inputs) {
+                for (String source : input.sources())
+                    writer.addSource(source);
+            }
+            writer.finish();
+        }
+    }
+
+    private interface TermVisitor {
+        void accept(String term, List<Cursor> holders) throws IOException;
+    }
+
+    // Visits each distinct term across the segments in sorted order, with the cursors of the segments holding it
+    private static void forEachTerm(List<SnapshotSegment> inputs, TermVisitor visitor) throws IOException {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing((Cursor c) -> c.term)
+                .thenComparingInt(c -> c.segment));
+        for (int i = 0; i < inputs.size(); i++) {
+            if (inputs.get(i).termCount > 0) {
+                Cursor cursor = new Cursor(i);
+                cursor.term = inputs.get(i).term(0);
+                heads.add(cursor);
+            }
+        }
+        List<Cursor> holders = new ArrayList<>();
+        while (!heads.isEmpty()) {
+            String term = heads.peek().term;
+            holders.clear();
+            while (!heads.isEmpty() && heads.peek().term.equals(term))
+                holders.add(heads.poll());
+            visitor.accept(term, holders);
+            for (Cursor cursor : holders) {
+                SnapshotSegment segment = inputs.get(cursor.segment);
+                if (++cursor.index < segment.termCount) {
+                    cursor.term = segment.term(cursor.index);
+                    heads.add(cursor);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return (int) segments.total();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.count();
+    }
+
+    /** Distinct terms across segments. */
+    public synchronized int getTermCount() {
+        int[] count = new int[1];
+        try {
+            forEachTerm(segments.list(), (term, holders) -> count[0]++);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // The counting visitor does no I/O
+        }
+        return count[0];
+    }
+
+    public synchronized List<String> getPlatforms() {
+        Set<String> names = new LinkedHashSet<>();
+        for (SnapshotSegment segment : segments)
+            names.addAll(segment.platforms());
+        return new ArrayList<>(names);
+    }
+
+    /** Log file names already compacted into this snapshot. */
+    public synchronized List<String> getSources() {
+        List<String> sources = new ArrayList<>();
+        for (SnapshotSegment segment : segments)
+            sources.addAll(segment.sources());
+        return sources;
+    }
+
+    /** Every headline scraped on day (UTC), in time order, across platforms and runs. */
+    public List<Row> headlinesOn(LocalDate day) {
+        return headlinesBetween(day, day);
+    }
+
+    /** Rows from the first to the last day, both inclusive. */
+    public synchronized List<Row> headlinesBetween(LocalDate from, LocalDate to) {
+        List<Row> rows = new ArrayList<>();
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        for (SnapshotSegment segment : segments) {
+            for (int i = segment.firstRowOnOrAfter(first); i < segment.rowCount && segment.day(i) <= last; i++)
+                rows.add(segment.row(i));
+        }
+        rows.sort(Comparator.comparingLong(row -> row.timestamp));
+        return rows;
+    }
+
+    /** Occurrences of term per day, only days where it appeared. */
+    public synchronized SortedMap<LocalDate, Integer> trend(String term) {
+        String normalized = term.toLowerCase(Locale.ROOT);
+        SortedMap<Integer, Integer> days = new TreeMap<>();
+        for (SnapshotSegment segment : segments) {
+            int index = segment.findTerm(normalized);
+            if (index >= 0)
+                segment.addPostings(index, days);
+        }
+        SortedMap<LocalDate, Integer> trend = new TreeMap<>();
+        days.forEach((day, count) -> trend.put(LocalDate.ofEpochDay(day), count));
+        return trend;
+    }
+
+    /** Total occurrences of term across the whole history. */
+    public synchronized int totalCount(String term) {
+        String normalized = term.toLowerCase(Locale.ROOT);
+        int total = 0;
+        for (SnapshotSegment segment : segments) {
+            int index = segment.findTerm(normalized);
+            if (index >= 0)
+                total += segment.totalCount(index);
+        }
+        return total;
+    }
+
+    /** Drops the segment mappings; the snapshot answers nothing afterwards. */
+    @Override
+    public synchronized void close() {
+        segments.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultsSnapshot{rows=" + size() + ", terms=" + getTermCount() + ", platforms="
+                + getPlatforms().size() + ", sources=" + getSources().size() + ", segments=" + segments.count() + "}";
+    }
+}
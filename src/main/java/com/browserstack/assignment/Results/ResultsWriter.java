@@ -0,0 +1,154 @@
+package com.browserstack.assignment.Results;
+
+import com.browserstack.assignment.DTO.ArticleRecord;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only NDJSON log of ArticleRecords, one file per run
+ * (results/&lt;runId&gt;.ndjson, or .ndjson.gz when compressed). write() only
+ * queues the record; a background thread serializes and writes it, flushing
+ * whenever the queue runs dry so little is lost if the run dies. When the
+ * queue is full, write() drops the record and counts it rather than stall a
+ * scraping thread.
+ */
+public class ResultsWriter implements AutoCloseable {
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final BlockingQueue<ArticleRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Gson gson = new Gson();
+    private final Thread thread;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private ResultsWriter(Path file, boolean compress) throws IOException {
+        this.file = file;
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        // Appending to a .gz adds a gzip member; GZIPInputStream reads concatenated members as one stream.
+        // Sync flush makes every flush readable, not just the closed file.
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (compress)
+            out = new GZIPOutputStream(out, BUFFER_SIZE, true);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.thread = new Thread(() -> drain(writer), "results-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static ResultsWriter open(Path dir, String runId, boolean compress) throws IOException {
+        return new ResultsWriter(dir.resolve(runId + (compress ? ".ndjson.gz" : ".ndjson")), compress);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** Queues the record without blocking; false when it was dropped (queue full or writer closed). */
+    public boolean write(ArticleRecord record) {
+        if (closed || !queue.offer(record)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void drain(Writer writer) {
+        try (Writer out = writer) {
+            while (!closed || !queue.isEmpty()) {
+                ArticleRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record == null)
+                    continue;
+                out.write(gson.toJson(record));
+                out.write('\n');
+                written.incrementAndGet();
+                if (queue.isEmpty())
+                    out.flush();
+            }
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Results log " + file + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Writes what is still queued and closes the file. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing " + file, e);
+        }
+        // Records offered while the writer was shutting down
+        dropped.addAndGet(queue.size());
+        queue.clear();
+        if (failure != null)
+            throw failure;
+    }
+
+    /** Streams every record of a log (plain or .gz) without holding the file in memory. */
+    public static void read(Path log, Consumer<ArticleRecord> consumer) throws IOException {
+        Gson gson = new Gson();
+        try (InputStream raw = Files.newInputStream(log);
+             InputStream in = log.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(raw, BUFFER_SIZE)
+                     : raw;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty())
+                    continue;
+                try {
+                    consumer.accept(gson.fromJson(line, ArticleRecord.class));
+                } catch (JsonParseException e) {
+                    System.err.println("Skipping unreadable line in " + log + ": " + e.getMessage());
+                }
+            }
+        } catch (EOFException e) {
+            // A run that died mid-write leaves a truncated gzip member; keep what was readable
+            System.err.println("Results log " + log + " is truncated: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ResultsWriter{file=" + file + ", written=" + getWrittenCount() + ", dropped=" + getDroppedCount()
+                + "}";
+    }
+}
@@ -0,0 +1,98 @@
+package com.browserstack.assignment.Results;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temp files next to a segment being written, one per section, so segment
+ * writers keep their memory flat however much goes in. finish() concatenates
+ * a header and the sections, in the order they were named, into the segment
+ * (temp file, then atomic rename); close() discards whatever is left over.
+ */
+final class SectionFiles implements Closeable {
+    private final Path file;
+    private final Path[] paths;
+    private final DataOutputStream[] outs;
+
+    SectionFiles(Path file, String... names) throws IOException {
+        this.file = file;
+        this.paths = new Path[names.length];
+        this.outs = new DataOutputStream[names.length];
+        try {
+            for (int i = 0; i < names.length; i++) {
+                paths[i] = file.resolveSibling(file.getFileName() + "." + names[i] + ".tmp");
+                outs[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(paths[i])));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    DataOutputStream get(int section) {
+        return outs[section];
+    }
+
+    /** Writes header (filled, not yet flipped) and then every section as the segment file. */
+    void finish(ByteBuffer header) throws IOException {
+        closeSections();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.flip();
+            while (header.hasRemaining())
+                out.write(header);
+            for (Path section : paths)
+                transfer(section, out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        deleteSections();
+    }
+
+    private static void transfer(Path section, FileChannel out) throws IOException {
+        try (FileChannel in = FileChannel.open(section, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size)
+                position += in.transferTo(position, size - position, out);
+        }
+    }
+
+    private void closeSections() throws IOException {
+        IOException failure = null;
+        for (DataOutputStream out : outs) {
+            if (out == null)
+                continue;
+            try {
+                out.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    private void deleteSections() throws IOException {
+        for (Path section : paths) {
+            if (section != null)
+                Files.deleteIfExists(section);
+        }
+    }
+
+    /** Discards the temp files of an unfinished segment; a finished one is left in place. */
+    @Override
+    public void close() throws IOException {
+        closeSections();
+        deleteSections();
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".tmp"));
+    }
+}
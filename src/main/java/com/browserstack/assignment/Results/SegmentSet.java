@@ -0,0 +1,176 @@
+package com.browserstack.assignment.Results;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The live segments of a segmented store (ResultsSnapshot, HeadlineIndex),
+ * oldest first, as files seg-NNNNNN.ext in one directory. The list is kept in
+ * segments.txt, replaced atomically by commit().
+ *
+ * commit() also merges: the oldest run of MERGE_FACTOR consecutive segments
+ * in the same size tier is replaced by one, for as long as a tier is full,
+ * which keeps the segment count logarithmic in the total size. Only runs of
+ * neighbours are merged, so segments stay in the order they were added.
+ */
+final class SegmentSet<S extends SegmentSet.Segment> implements Iterable<S> {
+    static final int MERGE_FACTOR = 8;
+    private static final String MANIFEST = "segments.txt";
+
+    interface Segment {
+        Path file();
+
+        /** Rows or documents, which decide the size tier. */
+        int size();
+    }
+
+    interface Opener<S> {
+        S open(Path file) throws IOException;
+    }
+
+    interface Merger<S> {
+        /** Writes the contents of inputs, in order, as one segment at file. */
+        void merge(List<S> inputs, Path file) throws IOException;
+    }
+
+    private final Path dir;
+    private final String extension;
+    private final Opener<S> opener;
+    private final List<S> segments = new ArrayList<>();
+    private int nextSegment;
+
+    private SegmentSet(Path dir, String extension, Opener<S> opener) {
+        this.dir = dir;
+        this.extension = extension;
+        this.opener = opener;
+    }
+
+    /** Maps the segments listed in dir's manifest, creating dir if missing. */
+    static <S extends Segment> SegmentSet<S> open(Path dir, String extension, Opener<S> opener) throws IOException {
+        Files.createDirectories(dir);
+        SegmentSet<S> set = new SegmentSet<>(dir, extension, opener);
+        Path manifest = dir.resolve(MANIFEST);
+        Set<String> live = new HashSet<>();
+        if (Files.exists(manifest)) {
+            for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (name.isEmpty())
+                    continue;
+                set.segments.add(opener.open(dir.resolve(name)));
+                live.add(name);
+                set.nextSegment = Math.max(set.nextSegment, segmentNumber(name) + 1);
+            }
+        }
+        // Segments replaced by a merge whose deletion failed last time (still mapped, or a crash)
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "seg-*")) {
+            for (Path file : files) {
+                if (!live.contains(file.getFileName().toString()))
+                    deleteQuietly(file);
+            }
+        }
+        return set;
+    }
+
+    private static int segmentNumber(String name) {
+        return Integer.parseInt(name.substring(4, name.indexOf('.')));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Still mapped on some platforms; open() retries
+        }
+    }
+
+    private static int tier(int size) {
+        int tier = 0;
+        for (long bound = MERGE_FACTOR; bound <= size; bound *= MERGE_FACTOR)
+            tier++;
+        return tier;
+    }
+
+    /** Where the next new segment is to be written. */
+    Path nextFile() {
+        return dir.resolve(String.format("seg-%06d.%s", nextSegment++, extension));
+    }
+
+    /** Maps a segment written at a nextFile() path and appends it; it is listed from the next commit(). */
+    void add(Path file) throws IOException {
+        segments.add(opener.open(file));
+    }
+
+    /** Merges while a tier is full, writes the manifest, then deletes the segments merged away. */
+    void commit(Merger<S> merger) throws IOException {
+        List<Path> replaced = new ArrayList<>();
+        while (mergeOnce(merger, replaced)) {
+            // Keep merging while a tier is full
+        }
+        StringBuilder sb = new StringBuilder();
+        for (S segment : segments)
+            sb.append(segment.file().getFileName()).append('\n');
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING);
+        for (Path old : replaced)
+            deleteQuietly(old);
+    }
+
+    // Merges the oldest run of MERGE_FACTOR consecutive segments in the same size tier
+    private boolean mergeOnce(Merger<S> merger, List<Path> replaced) throws IOException {
+        for (int start = 0; start + MERGE_FACTOR <= segments.size(); start++) {
+            int tier = tier(segments.get(start).size());
+            int end = start;
+            while (end < segments.size() && end - start < MERGE_FACTOR && tier(segments.get(end).size()) == tier)
+                end++;
+            if (end - start < MERGE_FACTOR)
+                continue;
+
+            List<S> inputs = new ArrayList<>(segments.subList(start, end));
+            Path file = nextFile();
+            merger.merge(inputs, file);
+            segments.subList(start, end).clear();
+            segments.add(start, opener.open(file));
+            for (S input : inputs)
+                replaced.add(input.file());
+            return true;
+        }
+        return false;
+    }
+
+    /** The segments, oldest first, as a read-only view. */
+    List<S> list() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    int count() {
+        return segments.size();
+    }
+
+    /** Total size over the segments. */
+    long total() {
+        long total = 0;
+        for (S segment : segments)
+            total += segment.size();
+        return total;
+    }
+
+    /** Drops the segment mappings. */
+    void clear() {
+        segments.clear();
+    }
+
+    @Override
+    public Iterator<S> iterator() {
+        return list().iterator();
+    }
+}
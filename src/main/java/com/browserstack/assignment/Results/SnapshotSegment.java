@@ -0,0 +1,333 @@
+package com.browserstack.assignment.Results;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * One immutable, memory-mapped segment of a ResultsSnapshot. Layout
+ * (big-endian, int offsets, so a segment is limited to 2 GB):
+ *
+ *   header    magic, version, row/term/platform/source counts, section offsets
+ *   rows      40 bytes each, sorted by timestamp: long timestamp, int epoch day,
+ *             int platform id, then string refs for run id, key, title,
+ *             translated title, URL and image URL (-1 for null)
+ *   terms     16 bytes each, sorted by term: string ref, first posting,
+ *             posting count, total count
+ *   postings  8 bytes each: int epoch day, int count, by day within a term
+ *   platforms string refs, indexed by platform id
+ *   sources   string refs: log file names compacted into this segment
+ *   strings   int length + UTF-8 bytes, refs relative to the section start
+ */
+final class SnapshotSegment implements SegmentSet.Segment {
+    private static final int MAGIC = 0x454c5253; // "ELRS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+    private static final int ROW_BYTES = 40;
+    private static final int TERM_BYTES = 16;
+    private static final int POSTING_BYTES = 8;
+
+    final Path file;
+    final int rowCount;
+    final int termCount;
+    private final ByteBuffer buffer;
+    private final int sourceCount;
+    private final int rowsOffset;
+    private final int termsOffset;
+    private final int postingsOffset;
+    private final int sourcesOffset;
+    private final int stringsOffset;
+    private final String[] platforms;
+
+    private SnapshotSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("Not a results snapshot segment: " + file);
+        this.rowCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        int platformCount = buffer.getInt(16);
+        this.sourceCount = buffer.getInt(20);
+        this.rowsOffset = buffer.getInt(24);
+        this.termsOffset = buffer.getInt(28);
+        this.postingsOffset = buffer.getInt(32);
+        int platformsOffset = buffer.getInt(36);
+        this.sourcesOffset = buffer.getInt(40);
+        this.stringsOffset = buffer.getInt(44);
+        // A handful of names, decoded once
+        this.platforms = new String[platformCount];
+        for (int i = 0; i < platformCount; i++)
+            platforms[i] = string(buffer.getInt(platformsOffset + i * 4));
+    }
+
+    /** Maps the segment read-only; the mapping stays valid after the channel is closed. */
+    static SnapshotSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Segment over 2 GB: " + file);
+            return new SnapshotSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    List<String> platforms() {
+        List<String> names = new ArrayList<>(platforms.length);
+        for (String platform : platforms)
+            names.add(platform);
+        return names;
+    }
+
+    List<String> sources() {
+        List<String> sources = new ArrayList<>(sourceCount);
+        for (int i = 0; i < sourceCount; i++)
+            sources.add(string(buffer.getInt(sourcesOffset + i * 4)));
+        return sources;
+    }
+
+    long timestamp(int row) {
+        return buffer.getLong(rowsOffset + row * ROW_BYTES);
+    }
+
+    int day(int row) {
+        return buffer.getInt(rowsOffset + row * ROW_BYTES + 8);
+    }
+
+    int firstRowOnOrAfter(int day) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (day(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    ResultsSnapshot.Row row(int index) {
+        int base = rowsOffset + index * ROW_BYTES;
+        int platform = buffer.getInt(base + 12);
+        return new ResultsSnapshot.Row(buffer.getLong(base), platform >= 0 ? platforms[platform] : null,
+                string(buffer.getInt(base + 16)), string(buffer.getInt(base + 20)), string(buffer.getInt(base + 24)),
+                string(buffer.getInt(base + 28)), string(buffer.getInt(base + 32)), string(buffer.getInt(base + 36)));
+    }
+
+    String term(int index) {
+        return string(buffer.getInt(termsOffset + index * TERM_BYTES));
+    }
+
+    int findTerm(String term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = term(mid).compareTo(term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    int totalCount(int term) {
+        return buffer.getInt(termsOffset + term * TERM_BYTES + 12);
+    }
+
+    /** Adds the term's per-day counts to days. */
+    void addPostings(int term, SortedMap<Integer, Integer> days) {
+        int base = termsOffset + term * TERM_BYTES;
+        int first = buffer.getInt(base + 4);
+        int count = buffer.getInt(base + 8);
+        for (int i = 0; i < count; i++) {
+            int posting = postingsOffset + (first + i) * POSTING_BYTES;
+            days.merge(buffer.getInt(posting), buffer.getInt(posting + 4), Integer::sum);
+        }
+    }
+
+    private String string(int ref) {
+        if (ref < 0)
+            return null;
+        int position = stringsOffset + ref;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a segment from rows in timestamp order and terms in sorted order.
+     * Sections are streamed to SectionFiles and concatenated by finish(), so
+     * memory stays flat however many rows go in. Strings are deduplicated
+     * against the most recent ones only.
+     */
+    static final class Writer implements Closeable {
+        private static final int STRING_CACHE = 4096;
+
+        private final Path file;
+        private final SectionFiles sections;
+        private final DataOutputStream rows;
+        private final DataOutputStream terms;
+        private final DataOutputStream postings;
+        private final DataOutputStream refs;
+        private final DataOutputStream strings;
+        private final Map<String, Integer> platformIds = new LinkedHashMap<>();
+        private final Set<String> sources = new LinkedHashSet<>();
+        private final Map<String, Integer> recentStrings = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > STRING_CACHE;
+            }
+        };
+        private int rowCount;
+        private int termCount;
+        private int postingCount;
+        private long stringBytes;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private String lastTerm;
+
+        Writer(Path file) throws IOException {
+            this.file = file;
+            this.sections = new SectionFiles(file, "rows", "terms", "postings", "refs", "strings");
+            this.rows = sections.get(0);
+            this.terms = sections.get(1);
+            this.postings = sections.get(2);
+            this.refs = sections.get(3);
+            this.strings = sections.get(4);
+        }
+
+        int rowCount() {
+            return rowCount;
+        }
+
+        void addRow(ResultsSnapshot.Row row) throws IOException {
+            if (row.timestamp < lastTimestamp)
+                throw new IllegalArgumentException("Rows must be added in timestamp order");
+            lastTimestamp = row.timestamp;
+            int platform = -1;
+            if (row.platform != null) {
+                Integer id = platformIds.get(row.platform);
+                if (id == null) {
+                    id = platformIds.size();
+                    platformIds.put(row.platform, id);
+                }
+                platform = id;
+            }
+            rows.writeLong(row.timestamp);
+            rows.writeInt(ResultsSnapshot.epochDay(row.timestamp));
+            rows.writeInt(platform);
+            rows.writeInt(ref(row.runId));
+            rows.writeInt(ref(row.key));
+            rows.writeInt(ref(row.title));
+            rows.writeInt(ref(row.translatedTitle));
+            rows.writeInt(ref(row.url));
+            rows.writeInt(ref(row.imageUrl));
+            rowCount++;
+        }
+
+        /** Adds a term with its count per epoch day. */
+        void addTerm(String term, SortedMap<Integer, Integer> days) throws IOException {
+            if (lastTerm != null && term.compareTo(lastTerm) <= 0)
+                throw new IllegalArgumentException("Terms must be added in sorted order");
+            lastTerm = term;
+            int total = 0;
+            for (Map.Entry<Integer, Integer> day : days.entrySet()) {
+                postings.writeInt(day.getKey());
+                postings.writeInt(day.getValue());
+                total += day.getValue();
+            }
+            terms.writeInt(ref(term));
+            terms.writeInt(postingCount);
+            terms.writeInt(days.size());
+            terms.writeInt(total);
+            postingCount += days.size();
+            termCount++;
+        }
+
+        void addSource(String source) {
+            sources.add(source);
+        }
+
+        private int ref(String value) throws IOException {
+            if (value == null)
+                return -1;
+            Integer cached = recentStrings.get(value);
+            if (cached != null)
+                return cached;
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            if (stringBytes + 4 + utf8.length > Integer.MAX_VALUE)
+                throw new IOException("Segment would exceed 2 GB: " + file);
+            int ref = (int) stringBytes;
+            strings.writeInt(utf8.length);
+            strings.write(utf8);
+            stringBytes += 4 + utf8.length;
+            recentStrings.put(value, ref);
+            return ref;
+        }
+
+        /** Writes the segment (temp file, then atomic rename) and removes the section files. */
+        void finish() throws IOException {
+            int[] platformRefs = new int[platformIds.size()];
+            int i = 0;
+            for (String name : platformIds.keySet())
+                platformRefs[i++] = ref(name);
+            int[] sourceRefs = new int[sources.size()];
+            i = 0;
+            for (String source : sources)
+                sourceRefs[i++] = ref(source);
+            for (int ref : platformRefs)
+                refs.writeInt(ref);
+            for (int ref : sourceRefs)
+                refs.writeInt(ref);
+
+            long rowsOffset = HEADER_BYTES;
+            long termsOffset = rowsOffset + (long) rowCount * ROW_BYTES;
+            long postingsOffset = termsOffset + (long) termCount * TERM_BYTES;
+            long platformsOffset = postingsOffset + (long) postingCount * POSTING_BYTES;
+            long sourcesOffset = platformsOffset + platformRefs.length * 4L;
+            long stringsOffset = sourcesOffset + sourceRefs.length * 4L;
+            if (stringsOffset + stringBytes > Integer.MAX_VALUE)
+                throw new IOException("Segment would exceed 2 GB: " + file);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rowCount).putInt(termCount).putInt(platformRefs.length)
+                    .putInt(sourceRefs.length).putInt((int) rowsOffset).putInt((int) termsOffset)
+                    .putInt((int) postingsOffset).putInt((int) platformsOffset).putInt((int) sourcesOffset)
+                    .putInt((int) stringsOffset);
+            sections.finish(header);
+        }
+
+        /** Discards the temp files of an unfinished segment; a finished one is left in place. */
+        @Override
+        public void close() throws IOException {
+            sections.close();
+        }
+    }
+}
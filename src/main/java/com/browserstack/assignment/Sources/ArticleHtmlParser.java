@@ -0,0 +1,483 @@
+package com.browserstack.assignment.Sources;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.ImageVariantSelector;
+import com.browserstack.assignment.Utils.TranslationCache;
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass HTML tokenizer that pulls articles out of a character stream
+ * without building a DOM. It mirrors the bulk extraction script in ElPaisPage:
+ * first h2.c_t, first p.c_d, first img (with its &lt;picture&gt; sources) and the
+ * title (or first) link inside each article element. Parsing stops as soon as limit articles are found,
+ * unless links are being collected too, which needs the whole document.
+ */
+public class ArticleHtmlParser {
+    private static final Map<String, String> ENTITIES = new HashMap<>();
+
+    static {
+        String[][] named = {
+                { "amp", "&" }, { "lt", "<" }, { "gt", ">" }, { "quot", "\"" }, { "apos", "'" },
+                { "nbsp", "\u00A0" }, { "aacute", "á" }, { "eacute", "é" }, { "iacute", "í" }, { "oacute", "ó" },
+                { "uacute", "ú" }, { "Aacute", "Á" }, { "Eacute", "É" }, { "Iacute", "Í" }, { "Oacute", "Ó" },
+                { "Uacute", "Ú" }, { "ntilde", "ñ" }, { "Ntilde", "Ñ" }, { "uuml", "ü" }, { "Uuml", "Ü" },
+                { "iexcl", "¡" }, { "iquest", "¿" }, { "laquo", "«" }, { "raquo", "»" }, { "ldquo", "“" },
+                { "rdquo", "”" }, { "lsquo", "‘" }, { "rsquo", "’" }, { "mdash", "—" }, { "ndash", "–" },
+                { "hellip", "…" }, { "euro", "€" }, { "ordf", "ª" }, { "ordm", "º" }, { "middot", "·" }
+        };
+        for (String[] entity : named)
+            ENTITIES.put(entity[0], entity[1]);
+    }
+
+    private final Reader reader;
+    private final HttpUrl baseUrl;
+    private final int limit;
+    private final List<String> links;
+    private final ImageVariantSelector imageSelector;
+    private int pushback = -1;
+
+    private final List<Article> articles = new ArrayList<>();
+
+    // Per-article state
+    private int articleDepth;
+    private String title;
+    private String content;
+    private ImageVariantSelector.Image image;
+    private List<ImageVariantSelector.Source> pictureSources;
+    private String titleLink;
+    private String firstLink;
+    private boolean sawImage;
+
+    // Text capture for h2.c_t / p.c_d
+    private String captureTag;
+    private int captureDepth;
+    private StringBuilder capture;
+
+    private ArticleHtmlParser(Reader reader, String baseUrl, int limit, List<String> links,
+            ImageVariantSelector imageSelector) {
+        this.reader = reader;
+        this.baseUrl = baseUrl != null ? HttpUrl.parse(baseUrl) : null;
+        this.limit = limit;
+        this.links = links;
+        this.imageSelector = imageSelector;
+    }
+
+    public static List<Article> parse(Reader reader, String baseUrl, int limit) throws IOException {
+        return parse(reader, baseUrl, limit, null);
+    }
+
+    /** Same as parse, also adding every resolved a[href] on the page to links (for crawling). */
+    public static List<Article> parse(Reader reader, String baseUrl, int limit, List<String> links)
+            throws IOException {
+        return parse(reader, baseUrl, limit, links, new ImageVariantSelector());
+    }
+
+    /** Same as parse, choosing image variants with imageSelector. */
+    public static List<Article> parse(Reader reader, String baseUrl, int limit, List<String> links,
+            ImageVariantSelector imageSelector) throws IOException {
+        ArticleHtmlParser parser = new ArticleHtmlParser(reader, baseUrl, limit, links, imageSelector);
+        parser.run();
+        return parser.articles;
+    }
+
+    private void run() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((articles.size() < limit || links != null) && (c = read()) != -1) {
+            if (c != '<') {
+                text.append((char) c);
+                continue;
+            }
+            int next = read();
+            if (next == '!' || next == '?') {
+                flushText(text);
+                skipDeclaration(next);
+            } else if (next == '/' || isLetter(next)) {
+                flushText(text);
+                String tag = readUntilTagEnd();
+                if (next == '/') {
+                    endTag(tagName(tag, 0));
+                } else {
+                    String raw = (char) next + tag;
+                    String name = tagName(raw, 0);
+                    startTag(name, parseAttributes(raw, name.length()));
+                    if (name.equals("script") || name.equals("style") || name.equals("textarea")
+                            || name.equals("template")) {
+                        skipRawText(name);
+                    }
+                }
+            } else {
+                // Not markup, e.g. "a < b"
+                text.append('<');
+                if (next != -1)
+                    pushback = next;
+            }
+        }
+    }
+
+    private void startTag(String name, Map<String, String> attributes) {
+        if (links != null && name.equals("a") && attributes.get("href") != null) {
+            String link = resolve(attributes.get("href"));
+            if (link != null)
+                links.add(link);
+        }
+        if (name.equals("article")) {
+            if (articleDepth++ == 0)
+                resetArticle();
+            return;
+        }
+        if (articleDepth == 0)
+            return;
+
+        if (capture != null) {
+            if (name.equals(captureTag))
+                captureDepth++;
+            if (name.equals("br") || isBlock(name))
+                capture.append(' ');
+        }
+
+        switch (name) {
+            case "h2":
+                if (title == null && capture == null && hasClass(attributes, "c_t"))
+                    beginCapture("h2");
+                break;
+            case "p":
+                if (content == null && capture == null && hasClass(attributes, "c_d"))
+                    beginCapture("p");
+                break;
+            case "a":
+                String href = attributes.get("href");
+                if (href != null) {
+                    if (firstLink == null)
+                        firstLink = resolve(href);
+                    if (titleLink == null && "h2".equals(captureTag))
+                        titleLink = resolve(href);
+                }
+                break;
+            case "picture":
+                if (!sawImage)
+                    pictureSources = new ArrayList<>();
+                break;
+            case "source":
+                if (!sawImage && pictureSources != null) {
+                    pictureSources.add(new ImageVariantSelector.Source(
+                            decodeAttribute(firstPresent(attributes, "srcset", "data-srcset")),
+                            decodeAttribute(attributes.get("sizes")), decodeAttribute(attributes.get("media")),
+                            attributes.get("type")));
+                }
+                break;
+            case "img":
+                if (!sawImage) {
+                    sawImage = true;
+                    image = new ImageVariantSelector.Image();
+                    image.src = decodeAttribute(attributes.get("src"));
+                    image.dataSrc = decodeAttribute(attributes.get("data-src"));
+                    image.srcset = decodeAttribute(firstPresent(attributes, "srcset", "data-srcset"));
+                    image.sizes = decodeAttribute(attributes.get("sizes"));
+                    image.width = parseDimension(attributes.get("width"));
+                    image.height = parseDimension(attributes.get("height"));
+                    if (pictureSources != null)
+                        image.sources.addAll(pictureSources);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void endTag(String name) {
+        if (articleDepth == 0)
+            return;
+        if (name.equals("picture"))
+            pictureSources = null;
+        if (name.equals("article")) {
+            if (--articleDepth == 0)
+                finishArticle();
+            return;
+        }
+        if (capture != null && name.equals(captureTag) && --captureDepth == 0) {
+            String captured = TranslationCache.normalize(capture.toString());
+            if (captureTag.equals("h2"))
+                title = captured;
+            else
+                content = captured;
+            capture = null;
+            captureTag = null;
+        } else if (capture != null && isBlock(name)) {
+            capture.append(' ');
+        }
+    }
+
+    private void beginCapture(String tag) {
+        captureTag = tag;
+        captureDepth = 1;
+        capture = new StringBuilder();
+    }
+
+    private void resetArticle() {
+        title = null;
+        content = null;
+        image = null;
+        pictureSources = null;
+        titleLink = null;
+        firstLink = null;
+        sawImage = false;
+        capture = null;
+        captureTag = null;
+    }
+
+    private void finishArticle() {
+        if (title == null || title.isEmpty() || articles.size() >= limit)
+            return;
+        ImageVariantSelector.Choice choice = image != null
+                ? imageSelector.choose(image, baseUrl != null ? baseUrl.toString() : null)
+                : null;
+        Article article = new Article(title, content != null ? content : "No content available",
+                choice != null ? choice.url : null);
+        if (choice != null)
+            article.setImageSize(choice.width, choice.height);
+        article.setUrl(titleLink != null ? titleLink : firstLink);
+        articles.add(article);
+    }
+
+    private void flushText(StringBuilder text) {
+        if (capture != null && text.length() > 0)
+            capture.append(decodeEntities(text));
+        text.setLength(0);
+    }
+
+    private static String firstPresent(Map<String, String> attributes, String name, String fallback) {
+        String value = attributes.get(name);
+        return value != null ? value : attributes.get(fallback);
+    }
+
+    private static int parseDimension(String value) {
+        if (value == null)
+            return 0;
+        try {
+            return Integer.parseInt(value.trim().replaceFirst("px$", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String decodeAttribute(String value) {
+        return value != null ? decodeEntities(value) : null;
+    }
+
+    private String resolve(String url) {
+        String decoded = decodeEntities(url).trim();
+        if (baseUrl == null || decoded.startsWith("data:"))
+            return decoded;
+        HttpUrl resolved = baseUrl.resolve(decoded);
+        return resolved != null ? resolved.toString() : decoded;
+    }
+
+    // ---- Tokenizer helpers ----
+
+    private int read() throws IOException {
+        if (pushback != -1) {
+            int c = pushback;
+            pushback = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isBlock(String name) {
+        switch (name) {
+            case "div":
+            case "p":
+            case "li":
+            case "ul":
+            case "ol":
+            case "h1":
+            case "h2":
+            case "h3":
+            case "h4":
+            case "h5":
+            case "h6":
+            case "figure":
+            case "figcaption":
+            case "section":
+            case "header":
+            case "footer":
+            case "blockquote":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Reads up to the closing '>' of a tag, honouring quoted attribute values
+    private String readUntilTagEnd() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int quote = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    private void skipDeclaration(int first) throws IOException {
+        if (first == '!') {
+            int a = read();
+            int b = read();
+            if (a == '-' && b == '-') {
+                // Comment: skip to "-->"
+                int prev2 = 0, prev1 = 0, c;
+                while ((c = read()) != -1) {
+                    if (c == '>' && prev1 == '-' && prev2 == '-')
+                        return;
+                    prev2 = prev1;
+                    prev1 = c;
+                }
+                return;
+            }
+            if (b == '>' || a == '>')
+                return;
+        }
+        int c;
+        while ((c = read()) != -1 && c != '>') {
+            // Doctype or processing instruction
+        }
+    }
+
+    // Skips the body of script/style-like elements up to their end tag
+    private void skipRawText(String name) throws IOException {
+        String end = "</" + name;
+        int matched = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (Character.toLowerCase(c) == end.charAt(matched)) {
+                if (++matched == end.length()) {
+                    readUntilTagEnd();
+                    return;
+                }
+            } else {
+                matched = c == '<' ? 1 : 0;
+            }
+        }
+    }
+
+    private static String tagName(String raw, int from) {
+        int i = from;
+        while (i < raw.length() && !Character.isWhitespace(raw.charAt(i)) && raw.charAt(i) != '/')
+            i++;
+        return raw.substring(from, i).toLowerCase();
+    }
+
+    static Map<String, String> parseAttributes(String raw, int from) {
+        Map<String, String> attributes = new HashMap<>();
+        int i = from;
+        int n = raw.length();
+        while (i < n) {
+            while (i < n && (Character.isWhitespace(raw.charAt(i)) || raw.charAt(i) == '/'))
+                i++;
+            int nameStart = i;
+            while (i < n && !Character.isWhitespace(raw.charAt(i)) && raw.charAt(i) != '=' && raw.charAt(i) != '/')
+                i++;
+            if (i == nameStart)
+                break;
+            String name = raw.substring(nameStart, i).toLowerCase();
+            while (i < n && Character.isWhitespace(raw.charAt(i)))
+                i++;
+            String value = "";
+            if (i < n && raw.charAt(i) == '=') {
+                i++;
+                while (i < n && Character.isWhitespace(raw.charAt(i)))
+                    i++;
+                if (i < n && (raw.charAt(i) == '"' || raw.charAt(i) == '\'')) {
+                    char quote = raw.charAt(i++);
+                    int valueStart = i;
+                    while (i < n && raw.charAt(i) != quote)
+                        i++;
+                    value = raw.substring(valueStart, Math.min(i, n));
+                    i++;
+                } else {
+                    int valueStart = i;
+                    while (i < n && !Character.isWhitespace(raw.charAt(i)))
+                        i++;
+                    value = raw.substring(valueStart, i);
+                }
+            }
+            attributes.putIfAbsent(name, value);
+        }
+        return attributes;
+    }
+
+    private static boolean hasClass(Map<String, String> attributes, String className) {
+        String classes = attributes.get("class");
+        if (classes == null)
+            return false;
+        for (String token : classes.trim().split("\\s+")) {
+            if (token.equals(className))
+                return true;
+        }
+        return false;
+    }
+
+    static String decodeEntities(CharSequence text) {
+        StringBuilder out = null;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '&') {
+                int semi = -1;
+                for (int j = i + 1; j < n && j <= i + 10; j++) {
+                    if (text.charAt(j) == ';') {
+                        semi = j;
+                        break;
+                    }
+                }
+                if (semi > i + 1) {
+                    String decoded = decodeEntity(text.subSequence(i + 1, semi).toString());
+                    if (decoded != null) {
+                        if (out == null)
+                            out = new StringBuilder(n).append(text, 0, i);
+                        out.append(decoded);
+                        i = semi;
+                        continue;
+                    }
+                }
+            }
+            if (out != null)
+                out.append(c);
+        }
+        return out != null ? out.toString() : text.toString();
+    }
+
+    private static String decodeEntity(String entity) {
+        if (entity.charAt(0) == '#') {
+            try {
+                int codePoint = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X')
+                        ? Integer.parseInt(entity.substring(2), 16)
+                        : Integer.parseInt(entity.substring(1));
+                return new String(Character.toChars(codePoint));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return ENTITIES.get(entity);
+    }
+}
@@ -0,0 +1,15 @@
+package com.browserstack.assignment.Sources;
+
+import com.browserstack.assignment.DTO.Article;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Produces Opinion-section articles. Implementations use the same selectors
+ * (article, h2.c_t, p.c_d, img) so they yield equivalent Article DTOs.
+ */
+public interface ArticleSource {
+
+    List<Article> fetchArticles(int limit) throws IOException;
+}
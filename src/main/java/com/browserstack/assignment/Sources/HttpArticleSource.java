@@ -0,0 +1,70 @@
+package com.browserstack.assignment.Sources;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.ImageVariantSelector;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser-free source: fetches the section HTML with OkHttp and streams it
+ * through ArticleHtmlParser. No cookie banner, no navigation clicks and no
+ * per-element round trips, so it suits high-volume crawling; the response is
+ * closed as soon as enough articles have been read.
+ */
+public class HttpArticleSource implements ArticleSource {
+    public static final String OPINION_URL = "https://elpais.com/opinion/";
+    public static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36";
+
+    private final OkHttpClient client;
+    private final String url;
+    private ImageVariantSelector imageSelector = new ImageVariantSelector();
+
+    public HttpArticleSource() {
+        this(OPINION_URL);
+    }
+
+    public HttpArticleSource(String url) {
+        this(new OkHttpClient.Builder()
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(20, TimeUnit.SECONDS)
+                .build(), url);
+    }
+
+    public HttpArticleSource(OkHttpClient client, String url) {
+        this.client = client;
+        this.url = url;
+    }
+
+    /** Target width or byte budget for the image variant picked from each srcset. */
+    public void setImageSelector(ImageVariantSelector imageSelector) {
+        this.imageSelector = imageSelector;
+    }
+
+    @Override
+    public List<Article> fetchArticles(int limit) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Language", "es-ES,es;q=0.9")
+                .get()
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Request failed: " + response.code() + " for " + url);
+            }
+            // charStream honours the charset from Content-Type (UTF-8 otherwise)
+            try (Reader reader = response.body().charStream()) {
+                return ArticleHtmlParser.parse(reader, response.request().url().toString(), limit, null,
+                        imageSelector);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.browserstack.assignment.Sources;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.PageObjects.ElPaisPage;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+
+/**
+ * Browser-backed source: drives the page object through the home page and the
+ * Opinion navigation. Use it where cross-browser behaviour is what is being tested.
+ */
+public class WebDriverArticleSource implements ArticleSource {
+    private final ElPaisPage page;
+
+    public WebDriverArticleSource(WebDriver driver) {
+        this.page = new ElPaisPage(driver);
+    }
+
+    @Override
+    public List<Article> fetchArticles(int limit) {
+        page.navigateToHomePage();
+        page.navigateToOpinionSection();
+        return page.getArticles(limit);
+    }
+}
@@ -0,0 +1,146 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What earlier runs already processed, keyed by Article.getKey(): the content
+ * fingerprint at the time plus the results worth reusing (translated title and
+ * per-article word counts). An article whose fingerprint still matches can
+ * skip download, translation and analysis; its image comes from the ImageStore.
+ * Stored as one JSON map, like the image store index.
+ */
+public class ArticleStateStore {
+    public enum Status {
+        NEW, CHANGED, UNCHANGED
+    }
+
+    public static class Record {
+        public String fingerprint;
+        public String translatedTitle;
+        public Map<String, Integer> wordCounts;
+        public long processedAt;
+
+        Record(String fingerprint, String translatedTitle, Map<String, Integer> wordCounts, long processedAt) {
+            this.fingerprint = fingerprint;
+            this.translatedTitle = translatedTitle;
+            this.wordCounts = wordCounts;
+            this.processedAt = processedAt;
+        }
+    }
+
+    private final Path file;
+    private final Gson gson = new Gson();
+    private final Map<String, Record> records;
+    private boolean dirty;
+
+    private final AtomicLong fresh = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+
+    /** Memory-only store. */
+    public ArticleStateStore() {
+        this.file = null;
+        this.records = new HashMap<>();
+    }
+
+    private ArticleStateStore(Path file) {
+        this.file = file;
+        this.records = load(file);
+    }
+
+    /** Reads the store saved at file, or starts empty if there is none. */
+    public static ArticleStateStore open(Path file) {
+        return new ArticleStateStore(file);
+    }
+
+    private Map<String, Record> load(Path path) {
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                Map<String, Record> loaded = gson.fromJson(reader, new TypeToken<HashMap<String, Record>>() {
+                }.getType());
+                if (loaded != null)
+                    return loaded;
+            } catch (Exception e) {
+                System.err.println("Article state unreadable, starting empty: " + e.getMessage());
+            }
+        }
+        return new HashMap<>();
+    }
+
+    /** Classifies the article against what was stored and counts the outcome. */
+    public synchronized Status classify(Article article) {
+        Record record = records.get(article.getKey());
+        if (record == null) {
+            fresh.incrementAndGet();
+            return Status.NEW;
+        }
+        if (!record.fingerprint.equals(article.getFingerprint())) {
+            changed.incrementAndGet();
+            return Status.CHANGED;
+        }
+        unchanged.incrementAndGet();
+        return Status.UNCHANGED;
+    }
+
+    /** Stored results for the article, or null unless its fingerprint is unchanged. */
+    public synchronized Record lookup(Article article) {
+        Record record = records.get(article.getKey());
+        return record != null && record.fingerprint.equals(article.getFingerprint()) ? record : null;
+    }
+
+    /** Records a fully processed article; call only once every stage succeeded for it. */
+    public synchronized void record(Article article, Map<String, Integer> wordCounts) {
+        records.put(article.getKey(), new Record(article.getFingerprint(), article.getTranslatedTitle(),
+                new LinkedHashMap<>(wordCounts), System.currentTimeMillis()));
+        dirty = true;
+    }
+
+    public synchronized int size() {
+        return records.size();
+    }
+
+    /** Writes the store if anything changed since the last save; no-op for a memory-only store. */
+    public synchronized void save() throws IOException {
+        if (file == null || !dirty)
+            return;
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            gson.toJson(records, writer);
+        }
+        ImageDownloader.moveAtomically(tmp, file);
+        dirty = false;
+    }
+
+    public long getNewCount() {
+        return fresh.get();
+    }
+
+    public long getChangedCount() {
+        return changed.get();
+    }
+
+    public long getUnchangedCount() {
+        return unchanged.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleStateStore{articles=" + size() + ", new=" + getNewCount() + ", changed=" + getChangedCount()
+                + ", unchanged=" + getUnchangedCount() + "}";
+    }
+}
@@ -0,0 +1,216 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Non-blocking front end for TranslationService. Calls run on a worker executor
+ * behind an in-flight limit and an optional token-bucket rate limit. The limit
+ * is the size of the fixed worker pool, or a semaphore when the workers are
+ * virtual threads (Java 21+, when requested), which are unbounded.
+ *
+ * Workers never sleep: a call whose rate-limit token is not yet due, and a
+ * retry waiting out its backoff, are handed to a scheduler and only reach a
+ * worker when they can run. 429/5xx responses and I/O errors are retried with
+ * full-jitter exponential backoff, waiting at least as long as the server's
+ * Retry-After; a Retry-After longer than the maximum backoff is not waited
+ * for. Once retries are exhausted the service's usual fallback applies.
+ *
+ * ElPaisTest does not use it: there translations already run on the pipeline's
+ * bounded translate stage, and go through TranslationService.translate so that
+ * parallel platforms share them via SingleFlight. This class is for callers that
+ * translate from a single thread (tools, ad-hoc scripts) and want the same
+ * concurrency, rate limit and retries without building a pipeline.
+ */
+public class AsyncTranslator implements AutoCloseable {
+    private final TranslationService service;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final Semaphore inFlight; // Only with virtual threads; a fixed pool is its own limit
+    private final TokenBucket rateLimiter;
+    private final boolean virtualThreads;
+
+    private volatile int maxRetries = 4;
+    private volatile long baseBackoffMillis = 250;
+    private volatile long maxBackoffMillis = 10_000;
+
+    private final AtomicInteger retries = new AtomicInteger();
+
+    /**
+     * @param maxInFlight           concurrent HTTP calls allowed
+     * @param requestsPerSecond     sustained request rate, or 0 for no rate limit
+     * @param preferVirtualThreads  use a virtual-thread-per-task executor when the JVM has one
+     */
+    public AsyncTranslator(TranslationService service, int maxInFlight, double requestsPerSecond,
+            boolean preferVirtualThreads) {
+        this.service = service;
+        this.rateLimiter = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, maxInFlight) : null;
+
+        ExecutorService virtual = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+        this.inFlight = virtual != null ? new Semaphore(Math.max(1, maxInFlight)) : null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(Math.max(1, maxInFlight), r -> {
+            Thread t = new Thread(r, "translation-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "translation-retry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() only exists on Java 21+, and the build targets 11
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public void setRetryPolicy(int maxRetries, long baseBackoffMillis, long maxBackoffMillis) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseBackoffMillis = Math.max(1, baseBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.baseBackoffMillis, maxBackoffMillis);
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getRetryCount() {
+        return retries.get();
+    }
+
+    public CompletableFuture<String> translateAsync(String text, String targetLang) {
+        String cached = service.getCached(text, targetLang);
+        if (cached != null)
+            return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        submit(text, targetLang, 0, result);
+        return result;
+    }
+
+    /**
+     * Streaming variant: onResult receives (index, translation) as each text
+     * completes, in completion order. The returned future completes after the
+     * last callback.
+     */
+    public CompletableFuture<Void> translateEach(List<String> texts, String targetLang,
+            BiConsumer<Integer, String> onResult) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[texts.size()];
+        for (int i = 0; i < texts.size(); i++) {
+            int index = i;
+            futures[i] = translateAsync(texts.get(i), targetLang)
+                    .thenAccept(translated -> onResult.accept(index, translated));
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /** Fans out all texts and waits for them, returning results in input order. */
+    public List<String> translateAll(List<String> texts, String targetLang) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            futures.add(translateAsync(text, targetLang));
+        }
+        List<String> results = new ArrayList<>(texts.size());
+        for (CompletableFuture<String> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    // Takes a rate-limit token now; one that is not yet due is waited out on the scheduler, not a worker
+    private void submit(String text, String targetLang, int attempt, CompletableFuture<String> result) {
+        long waitNanos = rateLimiter != null ? rateLimiter.reserve() : 0;
+        try {
+            if (waitNanos > 0)
+                scheduler.schedule(() -> execute(text, targetLang, attempt, result), waitNanos, TimeUnit.NANOSECONDS);
+            else
+                execute(text, targetLang, attempt, result);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void execute(String text, String targetLang, int attempt, CompletableFuture<String> result) {
+        try {
+            executor.execute(() -> run(text, targetLang, attempt, result));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void run(String text, String targetLang, int attempt, CompletableFuture<String> result) {
+        boolean acquired = false;
+        try {
+            // Parking a virtual thread here is cheap; it is how the unbounded executor gets its limit
+            if (inFlight != null) {
+                inFlight.acquire();
+                acquired = true;
+            }
+
+            String translated = service.translateOnce(text, targetLang);
+            service.cacheResult(text, targetLang, translated);
+            result.complete(translated);
+        } catch (IOException e) {
+            // An open circuit will not close within a backoff, so go straight to the fallback
+            boolean retryable = !(e instanceof CircuitBreaker.OpenException)
+                    && (!(e instanceof HttpStatusException) || ((HttpStatusException) e).isRetryable());
+            long retryAfter = e instanceof HttpStatusException ? ((HttpStatusException) e).getRetryAfterMillis() : -1;
+            if (retryable && attempt < maxRetries && retryAfter <= maxBackoffMillis) {
+                retries.incrementAndGet();
+                long delay = Math.max(backoffMillis(attempt), retryAfter);
+                System.out.println("Translation attempt " + (attempt + 1) + " failed (" + e.getMessage()
+                        + "), retrying in " + delay + "ms");
+                scheduleRetry(text, targetLang, attempt + 1, result, delay);
+            } else {
+                System.err.println("Translation gave up after " + (attempt + 1) + " attempts: " + e.getMessage());
+                result.complete(service.translateFallback(text, targetLang));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (acquired)
+                inFlight.release();
+        }
+    }
+
+    private void scheduleRetry(String text, String targetLang, int attempt, CompletableFuture<String> result,
+            long delayMillis) {
+        try {
+            scheduler.schedule(() -> submit(text, targetLang, attempt, result), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^attempt)]
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+}
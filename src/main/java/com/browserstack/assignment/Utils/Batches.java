@@ -0,0 +1,87 @@
+package com.browserstack.assignment.Utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Request packing shared by TranslationService (to size work for the provider
+ * expected to answer) and the providers themselves (to split what they get).
+ */
+final class Batches {
+
+    private Batches() {
+    }
+
+    /**
+     * Greedily packs consecutive texts into batches bounded by item count and
+     * total size, where size is what each text adds to the serialized request
+     * (see TranslationProvider.requestSize). A single text larger than maxChars
+     * gets its own batch.
+     */
+    static List<List<String>> plan(List<String> texts, int maxItems, int maxChars, ToIntFunction<String> size) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentChars = 0;
+        for (String text : texts) {
+            int length = size.applyAsInt(text);
+            if (!current.isEmpty() && (current.size() >= maxItems || currentChars + length > maxChars)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentChars = 0;
+            }
+            current.add(text);
+            currentChars += length;
+        }
+        if (!current.isEmpty())
+            batches.add(current);
+        return batches;
+    }
+
+    /** The non-null texts in order. Providers send only these and put nulls back with restoreNulls. */
+    static List<String> present(List<String> texts) {
+        List<String> present = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            if (text != null)
+                present.add(text);
+        }
+        return present;
+    }
+
+    /** Spreads translations of present(texts) back over texts; null texts translate to null. */
+    static List<String> restoreNulls(List<String> texts, List<String> translated) {
+        if (translated.size() == texts.size())
+            return translated;
+        List<String> results = new ArrayList<>(texts.size());
+        Iterator<String> next = translated.iterator();
+        for (String text : texts) {
+            results.add(text == null ? null : next.next());
+        }
+        return results;
+    }
+
+    /**
+     * Length of text once percent-encoded as UTF-8 in a query string or form
+     * body. Everything but unreserved ASCII counts as escaped, so this is an
+     * upper bound: accented Spanish letters take six characters each.
+     */
+    static int urlEncodedLength(String text) {
+        if (text == null)
+            return 0;
+        int length = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint < 0x80) {
+                boolean unreserved = (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= 'A' && codePoint <= 'Z')
+                        || (codePoint >= '0' && codePoint <= '9') || "-._~".indexOf(codePoint) >= 0;
+                length += unreserved ? 1 : 3;
+            } else {
+                // Three escaped characters per UTF-8 byte
+                length += 3 * (codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4);
+            }
+        }
+        return length;
+    }
+}
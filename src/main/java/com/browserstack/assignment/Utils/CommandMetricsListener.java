@@ -0,0 +1,98 @@
+package com.browserstack.assignment.Utils;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts every WebDriver command and records its latency, labelled by target
+ * and method (e.g. "driver.get", "element.getText"). Histograms are cached per
+ * label rather than per Method, since a method declared on a shared interface
+ * (TakesScreenshot, JavascriptExecutor) is called on drivers and elements
+ * alike; a command costs two nanoTime calls, one map lookup and a few
+ * LongAdder updates.
+ */
+public class CommandMetricsListener implements WebDriverListener {
+    private static final int MAX_DEPTH = 16;
+
+    private final Metrics metrics;
+    private final Map<String, Metrics.Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Metrics.Counter> errors = new ConcurrentHashMap<>();
+    // Start times of in-flight calls on this thread; calls can nest when a decorated object calls back
+    private final ThreadLocal<long[]> starts = ThreadLocal.withInitial(() -> new long[MAX_DEPTH + 1]);
+
+    public CommandMetricsListener(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Decorates the driver so every command goes through a new listener on the given registry. */
+    public static WebDriver instrument(WebDriver driver, Metrics metrics) {
+        return new EventFiringDecorator<>(new CommandMetricsListener(metrics)).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        long[] stack = starts.get();
+        int depth = (int) stack[0];
+        if (depth < MAX_DEPTH)
+            stack[depth + 1] = System.nanoTime();
+        stack[0] = depth + 1;
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        long nanos = pop();
+        if (nanos >= 0)
+            latency(name(target, method)).record(nanos);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        long nanos = pop();
+        String command = name(target, method);
+        if (nanos >= 0)
+            latency(command).record(nanos);
+        errors.computeIfAbsent(command, c -> metrics.counter("webdriver_command_errors", "command", c)).increment();
+    }
+
+    private Metrics.Histogram latency(String command) {
+        return latencies.computeIfAbsent(command, c -> metrics.histogram("webdriver_command", "command", c));
+    }
+
+    private long pop() {
+        long[] stack = starts.get();
+        int depth = (int) stack[0];
+        if (depth == 0)
+            return -1;
+        stack[0] = depth - 1;
+        return depth <= MAX_DEPTH ? System.nanoTime() - stack[depth] : -1;
+    }
+
+    static String name(Object target, Method method) {
+        String prefix;
+        if (target instanceof WebElement) {
+            prefix = "element";
+        } else if (target instanceof WebDriver) {
+            prefix = "driver";
+        } else if (target instanceof WebDriver.Navigation) {
+            prefix = "navigate";
+        } else if (target instanceof WebDriver.TargetLocator) {
+            prefix = "switchTo";
+        } else if (target instanceof Alert) {
+            prefix = "alert";
+        } else if (target instanceof WebDriver.Options || target instanceof WebDriver.Timeouts
+                || target instanceof WebDriver.Window) {
+            prefix = "manage";
+        } else {
+            prefix = method.getDeclaringClass().getSimpleName();
+        }
+        return prefix + "." + method.getName();
+    }
+}
@@ -0,0 +1,89 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consent state captured after the cookie banner was accepted once: the CMP
+ * cookies and local storage entries. Replaying them before the first page
+ * load means the banner never renders. Stored as "cookie|storage, name, value"
+ * TSV lines so later runs start with consent too.
+ */
+public class ConsentStore {
+    private final Path file;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+    private final Map<String, String> storage = new LinkedHashMap<>();
+
+    /** Memory-only store. */
+    public ConsentStore() {
+        this(null);
+    }
+
+    private ConsentStore(Path file) {
+        this.file = file;
+    }
+
+    public static ConsentStore open(Path file) throws IOException {
+        ConsentStore store = new ConsentStore(file);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length != 3)
+                    continue;
+                if ("cookie".equals(parts[0])) {
+                    store.cookies.put(parts[1], parts[2]);
+                } else if ("storage".equals(parts[0])) {
+                    store.storage.put(parts[1], parts[2]);
+                }
+            }
+        }
+        return store;
+    }
+
+    public synchronized boolean isEmpty() {
+        return cookies.isEmpty() && storage.isEmpty();
+    }
+
+    public synchronized Map<String, String> getCookies() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(cookies));
+    }
+
+    public synchronized Map<String, String> getStorage() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(storage));
+    }
+
+    /** Replaces the stored consent; ignored when nothing was captured. */
+    public synchronized void capture(Map<String, String> cookies, Map<String, String> storage) {
+        if (cookies.isEmpty() && storage.isEmpty())
+            return;
+        this.cookies.clear();
+        this.cookies.putAll(cookies);
+        this.storage.clear();
+        this.storage.putAll(storage);
+    }
+
+    /** Forgets consent that no longer suppresses the banner. */
+    public synchronized void clear() {
+        cookies.clear();
+        storage.clear();
+    }
+
+    public synchronized void save() throws IOException {
+        if (file == null)
+            return;
+        StringBuilder sb = new StringBuilder();
+        cookies.forEach((name, value) -> sb.append("cookie\t").append(name).append('\t').append(value).append('\n'));
+        storage.forEach((name, value) -> sb.append("storage\t").append(name).append('\t').append(value).append('\n'));
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,158 @@
+package com.browserstack.assignment.Utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The unofficial Google Translate web endpoint (no key needed):
+ * https://translate.googleapis.com/translate_a/single?client=gtx&sl=es&tl=en&dt=t&q=...
+ *
+ * It only takes a single q, so a batch is joined with line breaks and the
+ * translated text split on them again. Line breaks inside a text are
+ * flattened first; if the split does not line up the batch is translated one
+ * text at a time.
+ */
+public class FreeGoogleProvider implements TranslationProvider {
+    public static final String API_URL = "https://translate.googleapis.com/translate_a/single";
+
+    // q goes in the URL, so its encoded length has to stay well below common 8K URL limits
+    private static final int DEFAULT_MAX_BATCH_CHARS = 4000;
+    // Line breaks survive translation untouched, so they are used to join/split batches
+    private static final String BATCH_DELIMITER = "\n";
+
+    private final OkHttpClient client;
+    private final String apiUrl;
+    private volatile int maxBatchItems = 128;
+    private volatile int maxBatchChars = DEFAULT_MAX_BATCH_CHARS;
+
+    public FreeGoogleProvider(OkHttpClient client) {
+        this(client, API_URL);
+    }
+
+    public FreeGoogleProvider(OkHttpClient client, String apiUrl) {
+        this.client = client;
+        this.apiUrl = apiUrl;
+    }
+
+    public void setBatchLimits(int maxItems, int maxChars) {
+        this.maxBatchItems = Math.max(1, maxItems);
+        this.maxBatchChars = Math.max(1, maxChars);
+    }
+
+    @Override
+    public String getName() {
+        return "google-free";
+    }
+
+    @Override
+    public int getMaxBatchItems() {
+        return maxBatchItems;
+    }
+
+    @Override
+    public int getMaxBatchChars() {
+        return maxBatchChars;
+    }
+
+    /** The text URL-encoded into q, with line breaks flattened, plus the encoded delimiter. */
+    @Override
+    public int requestSize(String text) {
+        return Batches.urlEncodedLength(text) + "%0A".length();
+    }
+
+    @Override
+    public List<String> translate(List<String> texts, String sourceLang, String targetLang) throws IOException {
+        // A null text has nothing to send and comes back null rather than failing the whole call
+        List<String> present = Batches.present(texts);
+        List<String> results = new ArrayList<>(present.size());
+        for (List<String> batch : Batches.plan(present, maxBatchItems, maxBatchChars, this::requestSize)) {
+            results.addAll(translateBatch(batch, sourceLang, targetLang));
+        }
+        return Batches.restoreNulls(texts, results);
+    }
+
+    private List<String> translateBatch(List<String> batch, String sourceLang, String targetLang) throws IOException {
+        if (batch.size() > 1) {
+            List<String> flattened = new ArrayList<>(batch.size());
+            for (String text : batch) {
+                flattened.add(text.replace('\r', ' ').replace('\n', ' '));
+            }
+            String joined = request(String.join(BATCH_DELIMITER, flattened), sourceLang, targetLang);
+            String[] parts = joined.split(BATCH_DELIMITER, -1);
+            if (parts.length == batch.size()) {
+                List<String> results = new ArrayList<>(parts.length);
+                for (String part : parts) {
+                    results.add(part.trim());
+                }
+                return results;
+            }
+            System.err.println("Free batch translation could not be split. Translating individually.");
+        }
+
+        List<String> results = new ArrayList<>(batch.size());
+        for (String text : batch) {
+            results.add(request(text, sourceLang, targetLang));
+        }
+        return results;
+    }
+
+    private String request(String text, String sourceLang, String targetLang) throws IOException {
+        HttpUrl url = HttpUrl.parse(apiUrl).newBuilder()
+                .addQueryParameter("client", "gtx")
+                .addQueryParameter("sl", sourceLang)
+                .addQueryParameter("tl", targetLang)
+                .addQueryParameter("dt", "t")
+                .addQueryParameter("q", text)
+                .build();
+        Request request = new Request.Builder().url(url).get().build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new HttpStatusException(response.code(), url.host(), response.header("Retry-After"));
+            }
+            String translated = parseResponse(response.body().charStream());
+            if (translated == null)
+                throw new IOException("Empty translation response from " + url.host());
+            return translated;
+        }
+    }
+
+    // [[["Translated Text","Original Text",...],...],...] with one inner entry per
+    // translated sentence. Only the first block is read; the rest is never parsed.
+    static String parseResponse(Reader body) throws IOException {
+        try (JsonReader reader = new JsonReader(body)) {
+            reader.beginArray();
+            if (!reader.hasNext() || reader.peek() != JsonToken.BEGIN_ARRAY)
+                return null;
+            StringBuilder translated = new StringBuilder();
+            boolean any = false;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        translated.append(reader.nextString());
+                    }
+                    any = true;
+                }
+                while (reader.hasNext())
+                    reader.skipValue();
+                reader.endArray();
+            }
+            return any ? translated.toString() : null;
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Malformed translation response: " + e.getMessage(), e);
+        }
+    }
+}
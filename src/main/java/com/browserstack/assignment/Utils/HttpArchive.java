@@ -0,0 +1,478 @@
+package com.browserstack.assignment.Utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Record/replay layer for the OkHttp clients (translation, HTML fetching,
+ * image downloads), so selector and analyzer changes can be iterated on
+ * without the live site, translator or image CDN.
+ *
+ * - RECORD: requests go to the network and every response except 304 is
+ *   appended to the archive. Conditional headers are dropped for requests
+ *   not archived yet, so the full body is captured once.
+ * - REPLAY: responses come from the archive only; a request that was never
+ *   recorded fails with an IOException, like an unreachable host.
+ *
+ * The archive is one append-only file (archive.dat). Opening it scans the
+ * record headers into an in-memory index and leaves the bodies on disk; a
+ * body is read with one positional read when it is replayed. Text bodies are
+ * deflated. Requests are keyed by method, URL and a hash of the request body,
+ * and the latest recording of a key wins.
+ *
+ * Enabled with -DhttpArchive=record|replay (directory: -DhttpArchiveDir,
+ * default cache/http-archive).
+ */
+public class HttpArchive implements Interceptor, AutoCloseable {
+    private static final int MAGIC = 0x454c4841; // "ELHA"
+    private static final int VERSION = 1;
+    private static final int FLAG_DEFLATED = 1;
+    // Smaller text bodies are not worth a deflate stream
+    private static final int MIN_DEFLATE_BYTES = 256;
+    private static final String DEFAULT_DIR = "cache/http-archive";
+    // Longer key or content type lengths can only come from a torn header
+    private static final int MAX_STRING_BYTES = 1 << 20;
+
+    public enum Mode {
+        RECORD, REPLAY
+    }
+
+    /** Where an archived response lives in the file. */
+    public static class Entry {
+        public final int status;
+        public final String contentType;
+        final long offset;
+        final int storedLength;
+        final int length;
+        final int flags;
+        final int crc;
+
+        Entry(int status, String contentType, long offset, int storedLength, int length, int flags, int crc) {
+            this.status = status;
+            this.contentType = contentType;
+            this.offset = offset;
+            this.storedLength = storedLength;
+            this.length = length;
+            this.flags = flags;
+            this.crc = crc;
+        }
+    }
+
+    private final Path file;
+    private final Mode mode;
+    private final FileChannel channel;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private long end;
+
+    private HttpArchive(Path file, Mode mode) throws IOException {
+        this.file = file;
+        this.mode = mode;
+        if (mode == Mode.RECORD) {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } else {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+        if (channel.size() == 0) {
+            if (mode == Mode.RECORD)
+                writeHeader();
+            end = channel.size();
+        } else {
+            end = scan();
+            if (end < channel.size()) {
+                // A run that died mid-append; later appends start after the last complete record
+                System.err.println("HTTP archive " + file + " has a truncated record at " + end + ", ignoring it");
+                if (mode == Mode.RECORD)
+                    channel.truncate(end);
+            }
+        }
+    }
+
+    public static HttpArchive open(Path dir, Mode mode) throws IOException {
+        return new HttpArchive(dir.resolve("archive.dat"), mode);
+    }
+
+    /** The archive selected by -DhttpArchive, or null when record/replay is off. */
+    public static HttpArchive fromSystemProperties() {
+        String mode = System.getProperty("httpArchive");
+        if (mode == null || mode.isEmpty() || mode.equalsIgnoreCase("off"))
+            return null;
+        Path dir = Paths.get(System.getProperty("httpArchiveDir", DEFAULT_DIR));
+        try {
+            return open(dir, Mode.valueOf(mode.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown httpArchive mode '" + mode + "', expected record or replay");
+        } catch (IOException e) {
+            System.err.println("HTTP archive " + dir + " unavailable: " + e.getMessage());
+        }
+        return null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    /** A copy of client that records or replays through this archive; the connection pool is shared. */
+    public OkHttpClient wrap(OkHttpClient client) {
+        return client.newBuilder().addInterceptor(this).build();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        channel.write(header, 0);
+    }
+
+    // Builds the index from the record headers; returns the offset after the last complete record
+    private long scan() throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new IOException(file + " is not an HTTP archive");
+        long position = 8;
+        try {
+            while (true) {
+                String key = readString(in);
+                int status = in.readInt();
+                String contentType = readString(in);
+                int flags = in.readByte();
+                int storedLength = in.readInt();
+                int length = in.readInt();
+                int crc = in.readInt();
+                long headerBytes = 4 + utf8Length(key) + 4 + 4 + (contentType != null ? utf8Length(contentType) : 0)
+                        + 1 + 12;
+                long bodyOffset = position + headerBytes;
+                if (storedLength < 0 || bodyOffset + storedLength > channel.size())
+                    break;
+                for (int skipped = 0; skipped < storedLength; )
+                    skipped += in.skipBytes(storedLength - skipped);
+                index.put(key, new Entry(status, contentType, bodyOffset, storedLength, length, flags, crc));
+                position = bodyOffset + storedLength;
+            }
+        } catch (EOFException e) {
+            // Truncated header; position still points at the last complete record
+        }
+        return position;
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+        if (length > MAX_STRING_BYTES)
+            throw new EOFException("Torn record header");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Method, URL and, for requests with a body, the body's SHA-256. */
+    static String key(Request request) throws IOException {
+        StringBuilder key = new StringBuilder(request.method()).append(' ').append(request.url());
+        if (request.body() != null) {
+            Buffer body = new Buffer();
+            request.body().writeTo(body);
+            key.append(' ').append(body.sha256().hex());
+        }
+        return key.toString();
+    }
+
+    /** The latest archived response to method url, or null. */
+    public Entry lookup(String method, String url) {
+        return index.get(method + ' ' + HttpUrl.get(url));
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String key = key(request);
+        if (mode == Mode.REPLAY) {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                throw new IOException("Not in HTTP archive: " + request.method() + " " + request.url());
+            }
+            hits.incrementAndGet();
+            byte[] body = read(entry);
+            Response.Builder response = new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(entry.status)
+                    .message("Replayed")
+                    .body(ResponseBody.create(body, entry.contentType != null ? MediaType.parse(entry.contentType)
+                            : null));
+            if (entry.contentType != null)
+                response.header("Content-Type", entry.contentType);
+            return response.build();
+        }
+
+        if (!index.containsKey(key) && (request.header("If-None-Match") != null
+                || request.header("If-Modified-Since") != null)) {
+            request = request.newBuilder().removeHeader("If-None-Match").removeHeader("If-Modified-Since").build();
+        }
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        if (response.code() == 304 || body == null)
+            return response;
+        MediaType type = body.contentType();
+        byte[] bytes = body.bytes();
+        append(key, response.code(), type != null ? type.toString() : null, bytes);
+        return response.newBuilder().body(ResponseBody.create(bytes, type)).build();
+    }
+
+    /** Archives a document fetched outside OkHttp, such as a page source captured from the browser. */
+    public void record(String url, String contentType, byte[] body) throws IOException {
+        append("GET " + HttpUrl.get(url), 200, contentType, body);
+    }
+
+    private void append(String key, int status, String contentType, byte[] body) throws IOException {
+        if (mode != Mode.RECORD)
+            return;
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        byte[] stored = body;
+        int flags = 0;
+        if (body.length >= MIN_DEFLATE_BYTES && isText(contentType)) {
+            stored = deflate(body);
+            flags = FLAG_DEFLATED;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(stored.length + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, key);
+        out.writeInt(status);
+        writeString(out, contentType);
+        out.writeByte(flags);
+        out.writeInt(stored.length);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        int headerBytes = out.size();
+        out.write(stored);
+
+        synchronized (this) {
+            Entry previous = index.get(key);
+            // Re-recording an unchanged response would only grow the file
+            if (previous != null && previous.status == status && previous.length == body.length
+                    && previous.crc == (int) crc.getValue())
+                return;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long position = end;
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            index.put(key, new Entry(status, contentType, end + headerBytes, stored.length, body.length, flags,
+                    (int) crc.getValue()));
+            end = position;
+        }
+        recorded.incrementAndGet();
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null)
+            return false;
+        String type = contentType.toLowerCase();
+        return type.startsWith("text/") || type.contains("json") || type.contains("javascript")
+                || type.contains("xml");
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished())
+                out.write(chunk, 0, deflater.deflate(chunk));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** The original body of an archived response. */
+    public byte[] read(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.storedLength);
+        long position = entry.offset;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0)
+                throw new EOFException("HTTP archive " + file + " ends inside a record");
+            position += n;
+        }
+        byte[] body = buffer.array();
+        if ((entry.flags & FLAG_DEFLATED) != 0) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(body);
+                byte[] inflated = new byte[entry.length];
+                int n = 0;
+                while (n < inflated.length && !inflater.finished())
+                    n += inflater.inflate(inflated, n, inflated.length - n);
+                body = inflated;
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt record in HTTP archive " + file, e);
+            } finally {
+                inflater.end();
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != entry.crc)
+            throw new IOException("Checksum mismatch in HTTP archive " + file);
+        return body;
+    }
+
+    /**
+     * Serves archived GET responses of origin (e.g. https://elpais.com) from a
+     * local port, for the browser path. Links to origin in HTML are rewritten
+     * to the server so navigation stays local. Port 0 picks a free port.
+     */
+    public Server serve(String origin, int port) throws IOException {
+        return new Server(this, origin, port);
+    }
+
+    public static class Server implements AutoCloseable {
+        private final HttpArchive archive;
+        private final String origin;
+        private final HttpServer server;
+        private final ExecutorService executor;
+        private final String baseUrl;
+
+        Server(HttpArchive archive, String origin, int port) throws IOException {
+            this.archive = archive;
+            this.origin = origin.endsWith("/") ? origin.substring(0, origin.length() - 1) : origin;
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+            executor = Executors.newFixedThreadPool(4);
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+            baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        /** The live URL behind a URL on this server; other URLs are returned unchanged. */
+        public String toOriginal(String url) {
+            return url != null && url.startsWith(baseUrl + "/") ? origin + url.substring(baseUrl.length()) : url;
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try {
+                Entry entry = "GET".equals(exchange.getRequestMethod())
+                        ? archive.lookup("GET", origin + exchange.getRequestURI().toString())
+                        : null;
+                if (entry == null) {
+                    archive.misses.incrementAndGet();
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                archive.hits.incrementAndGet();
+                byte[] body = archive.read(entry);
+                if (entry.contentType != null && entry.contentType.contains("html")) {
+                    String html = new String(body, StandardCharsets.UTF_8);
+                    body = html.replace(origin + "/", baseUrl + "/").getBytes(StandardCharsets.UTF_8);
+                }
+                if (entry.contentType != null)
+                    exchange.getResponseHeaders().add("Content-Type", entry.contentType);
+                exchange.sendResponseHeaders(entry.status, body.length == 0 ? -1 : body.length);
+                if (body.length > 0) {
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (mode == Mode.RECORD)
+            channel.force(false);
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpArchive{mode=" + mode + ", entries=" + index.size() + ", hits=" + hits + ", misses=" + misses
+                + ", recorded=" + recorded + "}";
+    }
+}
@@ -0,0 +1,60 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Non-2xx HTTP response. 429 and 5xx are worth retrying; anything else is not.
+ * Carries the server's Retry-After, if it sent one, so retries can honour it.
+ */
+public class HttpStatusException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    public HttpStatusException(int statusCode, String host) {
+        this(statusCode, host, null);
+    }
+
+    /** @param retryAfter the response's Retry-After header, or null */
+    public HttpStatusException(int statusCode, String host, String retryAfter) {
+        super("HTTP " + statusCode + " from " + host);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = parseRetryAfter(retryAfter);
+    }
+
+    // Retry-After is either delta-seconds or an HTTP-date; -1 when absent or unreadable
+    static long parseRetryAfter(String value) {
+        if (value == null || value.trim().isEmpty())
+            return -1;
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed)) * 1000;
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try a date
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /** How long the server asked us to wait before retrying, or -1 if it did not say. */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,506 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads article images concurrently over one pooled OkHttp client (HTTP/2
+ * where the server offers it). Bodies are streamed straight into a FileChannel
+ * on a temp file which is then renamed into place, and the file extension
+ * comes from the response Content-Type. With an ImageStore attached, bodies are
+ * hashed on the way to disk and revalidated on later runs instead.
+ */
+public class ImageDownloader {
+    private static final int DEFAULT_PARALLELISM = 8;
+    // Files older than this are leftovers from earlier runs; newer ones may belong to a parallel platform
+    private static final long LOADED_AT_MILLIS = System.currentTimeMillis();
+    private static final AtomicLong FLIGHT_IDS = new AtomicLong();
+    private static Path flightDir;
+
+    // One pool for every downloader in the JVM so parallel tests reuse connections to the image CDN
+    private static final OkHttpClient SHARED_CLIENT = new OkHttpClient.Builder()
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectionPool(new ConnectionPool(16, 5, TimeUnit.MINUTES))
+            .dispatcher(sharedDispatcher())
+            .connectTimeout(5, TimeUnit.SECONDS) // same limits as the old URLConnection loop
+            .readTimeout(10, TimeUnit.SECONDS)
+            .build();
+
+    private OkHttpClient client;
+    private final int parallelism;
+    private ImageStore store;
+    private SingleFlight singleFlight;
+    private Metrics metrics;
+
+    public static class Result {
+        public final int index;
+        public final String url;
+        public final Path path;
+        public final long bytes;
+        public final long latencyMillis;
+        public final String error;
+        public final boolean notModified;
+
+        Result(int index, String url, Path path, long bytes, long latencyMillis, String error) {
+            this(index, url, path, bytes, latencyMillis, error, false);
+        }
+
+        Result(int index, String url, Path path, long bytes, long latencyMillis, String error, boolean notModified) {
+            this.index = index;
+            this.url = url;
+            this.path = path;
+            this.bytes = bytes;
+            this.latencyMillis = latencyMillis;
+            this.error = error;
+            this.notModified = notModified;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    public ImageDownloader() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    public ImageDownloader(int parallelism) {
+        this(SHARED_CLIENT, parallelism);
+    }
+
+    ImageDownloader(OkHttpClient client, int parallelism) {
+        this.client = client;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Routes downloads through a content-addressed store: known URLs are
+     * revalidated with conditional GETs and identical bodies are kept once.
+     */
+    public void setStore(ImageStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Shares image fetches with other downloaders (e.g. other platforms' runs):
+     * a URL already in flight or fetched earlier in the suite is not requested
+     * again; its file is linked (or copied) into this caller's target instead.
+     * Without a store, the shared body lives in a temp file owned by the flight,
+     * never in a caller's article_N, which other platforms overwrite.
+     */
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    /** Records or replays image downloads; see HttpArchive. */
+    public void setArchive(HttpArchive archive) {
+        if (archive != null)
+            client = archive.wrap(client);
+    }
+
+    /**
+     * Records per-image latency, bytes and outcome (downloaded, not_modified,
+     * failed) plus the aggregate throughput of each downloadAll call.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private static Dispatcher sharedDispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(16);
+        return dispatcher;
+    }
+
+    /**
+     * Downloads every article image into targetDir as article_N.ext (N is the
+     * 1-based article position). Articles without an image are skipped.
+     */
+    public List<Result> downloadAll(List<Article> articles, Path targetDir) throws IOException {
+        Files.createDirectories(targetDir);
+
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < articles.size(); i++) {
+            String url = articles.get(i).getImageUrl();
+            if (url != null && !url.isEmpty())
+                indexes.add(i);
+        }
+        if (indexes.isEmpty())
+            return Collections.emptyList();
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, indexes.size()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int index : indexes) {
+                String url = articles.get(index).getImageUrl();
+                futures.add(pool.submit(() -> download(index, url, targetDir, "article_" + (index + 1))));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (Exception e) {
+                    throw new IOException("Image download interrupted", e);
+                }
+            }
+            flush();
+            recordThroughput(results, System.nanoTime() - start);
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Downloads one article's image as article_N.ext, for callers that stream
+     * articles instead of collecting a list. Returns null when the article has
+     * no image. Call flush once the last image is done.
+     */
+    public Result download(Article article, int index, Path targetDir) throws IOException {
+        String url = article.getImageUrl();
+        if (url == null || url.isEmpty())
+            return null;
+        Files.createDirectories(targetDir);
+        return download(index, url, targetDir, "article_" + (index + 1));
+    }
+
+    /**
+     * Links the stored copy of an unchanged article's image into place as
+     * article_N.ext without any request. Returns null when there is no store or
+     * it does not hold the image, in which case the caller downloads it.
+     */
+    public Result reuse(Article article, int index, Path targetDir) throws IOException {
+        String url = article.getImageUrl();
+        if (store == null || url == null || url.isEmpty())
+            return null;
+        ImageStore.Entry known = store.lookup(url);
+        if (known == null)
+            return null;
+        Files.createDirectories(targetDir);
+        String baseName = "article_" + (index + 1);
+        Path target = targetDir.resolve(baseName + known.extension);
+        store.link(store.objectPath(known.hash, known.extension), target);
+        removeStaleVariants(targetDir, baseName, target);
+        if (metrics != null)
+            metrics.counter("image_reused").increment();
+        return new Result(index, url, target, 0, 0, null, true);
+    }
+
+    /** Persists the attached store's index, if any. */
+    public void flush() throws IOException {
+        if (store != null)
+            store.save();
+    }
+
+    Result download(int index, String url, Path targetDir, String baseName) {
+        long start = System.nanoTime();
+        Result result = singleFlight != null ? downloadShared(index, url, targetDir, baseName)
+                : fetch(index, url, targetDir, baseName);
+        if (metrics != null) {
+            String outcome = !result.isSuccess() ? "failed" : result.notModified ? "not_modified" : "downloaded";
+            metrics.histogram("image_download", "result", outcome).record(System.nanoTime() - start);
+            metrics.counter("image_bytes").add(result.bytes);
+        }
+        return result;
+    }
+
+    private Result fetch(int index, String url, Path targetDir, String baseName) {
+        return store != null ? downloadToStore(index, url, targetDir, baseName)
+                : downloadDirect(index, url, targetDir, baseName);
+    }
+
+    private Result downloadShared(int index, String url, Path targetDir, String baseName) {
+        long start = System.nanoTime();
+        boolean[] executed = { false };
+        Result shared;
+        try {
+            shared = singleFlight.execute("image", url, () -> {
+                executed[0] = true;
+                return store != null ? fetch(index, url, targetDir, baseName) : downloadForFlight(index, url);
+            }, Result::isSuccess);
+        } catch (Exception e) {
+            return new Result(index, url, null, 0, elapsedMillis(start), e.getMessage());
+        }
+        if (executed[0] && store != null)
+            return shared;
+        if (!shared.isSuccess())
+            return new Result(index, url, null, 0, elapsedMillis(start), shared.error);
+
+        // Put the shared file in place under this caller's name
+        try {
+            String extension = shared.path.getFileName().toString();
+            extension = extension.substring(extension.lastIndexOf('.'));
+            Path target = targetDir.resolve(baseName + extension);
+            ImageStore.Entry known = store != null ? store.lookup(url) : null;
+            if (known != null) {
+                store.link(store.objectPath(known.hash, known.extension), target);
+            } else {
+                Path tmp = Files.createTempFile(targetDir, baseName, ".part");
+                Files.copy(shared.path, tmp, StandardCopyOption.REPLACE_EXISTING);
+                moveAtomically(tmp, target);
+            }
+            removeStaleVariants(targetDir, baseName, target);
+            if (executed[0])
+                return new Result(index, url, target, shared.bytes, shared.latencyMillis, null, false);
+            return new Result(index, url, target, 0, elapsedMillis(start), null, true);
+        } catch (IOException e) {
+            System.err.println("Failed to place shared image: " + url + " - " + e.getMessage());
+            return new Result(index, url, null, 0, elapsedMillis(start), e.getMessage());
+        }
+    }
+
+    // Downloads into a file of its own that stays until the JVM exits, since the flight's result is kept
+    private Result downloadForFlight(int index, String url) throws IOException {
+        Result result = downloadDirect(index, url, flightDirectory(), "flight-" + FLIGHT_IDS.incrementAndGet());
+        if (result.isSuccess())
+            result.path.toFile().deleteOnExit();
+        return result;
+    }
+
+    private static synchronized Path flightDirectory() throws IOException {
+        if (flightDir == null) {
+            flightDir = Files.createTempDirectory("image-flights");
+            // Registered first, so deleted after the files in it
+            flightDir.toFile().deleteOnExit();
+        }
+        return flightDir;
+    }
+
+    /** Bytes per second over the wall-clock time of a batch, exported as a gauge. */
+    public void recordThroughput(List<Result> results, long wallClockNanos) {
+        if (metrics == null || wallClockNanos <= 0)
+            return;
+        long bytes = 0;
+        for (Result result : results)
+            bytes += result.bytes;
+        metrics.gauge("image_throughput_bytes_per_second").set(bytes / (wallClockNanos / 1e9));
+    }
+
+    private Result downloadDirect(int index, String url, Path targetDir, String baseName) {
+        long start = System.nanoTime();
+        Path tmp = null;
+        try {
+            Request request = new Request.Builder().url(url).get().build();
+            try (Response response = client.newCall(request).execute()) {
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    throw new HttpStatusException(response.code(), request.url().host());
+                }
+                String contentType = body.contentType() != null ? body.contentType().toString() : null;
+                Path target = targetDir.resolve(baseName + extensionFor(contentType));
+                tmp = Files.createTempFile(targetDir, baseName, ".part");
+
+                long bytes = streamToFile(body.source(), tmp);
+                moveAtomically(tmp, target);
+                tmp = null;
+                removeStaleVariants(targetDir, baseName, target);
+                return new Result(index, url, target, bytes, elapsedMillis(start), null);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to download image: " + url + " - " + e.getMessage());
+            return new Result(index, url, null, 0, elapsedMillis(start), e.getMessage());
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+
+    private Result downloadToStore(int index, String url, Path targetDir, String baseName) {
+        long start = System.nanoTime();
+        Path tmp = null;
+        try {
+            ImageStore.Entry known = store.lookup(url);
+            Request.Builder builder = new Request.Builder().url(url).get();
+            if (known != null) {
+                if (known.etag != null)
+                    builder.header("If-None-Match", known.etag);
+                if (known.lastModified != null)
+                    builder.header("If-Modified-Since", known.lastModified);
+            }
+            Request request = builder.build();
+
+            try (Response response = client.newCall(request).execute()) {
+                if (response.code() == 304 && known != null) {
+                    store.markNotModified(url, known, response.header("ETag"), response.header("Last-Modified"));
+                    Path target = targetDir.resolve(baseName + known.extension);
+                    store.link(store.objectPath(known.hash, known.extension), target);
+                    removeStaleVariants(targetDir, baseName, target);
+                    return new Result(index, url, target, 0, elapsedMillis(start), null, true);
+                }
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    throw new HttpStatusException(response.code(), request.url().host());
+                }
+                String contentType = body.contentType() != null ? body.contentType().toString() : null;
+                String extension = extensionFor(contentType);
+                tmp = Files.createTempFile(targetDir, baseName, ".part");
+
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                long bytes = streamToFile(body.source(), tmp, digest);
+                Path object = store.put(url, tmp, toHex(digest.digest()), extension, response.header("ETag"),
+                        response.header("Last-Modified"));
+                tmp = null;
+
+                Path target = targetDir.resolve(baseName + extension);
+                store.link(object, target);
+                removeStaleVariants(targetDir, baseName, target);
+                return new Result(index, url, target, bytes, elapsedMillis(start), null, false);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to download image: " + url + " - " + e.getMessage());
+            return new Result(index, url, null, 0, elapsedMillis(start), e.getMessage());
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+
+    // Same single pass as streamToFile, feeding each chunk to the digest on its way to disk
+    private static long streamToFile(BufferedSource source, Path file, MessageDigest digest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long total = 0;
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining())
+                    total += channel.write(buffer);
+                buffer.clear();
+            }
+            return total;
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+
+    // Okio's source is itself a ReadableByteChannel, so the channel pulls directly from the socket buffer
+    private static long streamToFile(BufferedSource source, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, 1 << 20)) > 0) {
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // A previous run may have written article_N with a different extension. Files written since this
+    // class loaded are left alone: a parallel platform may have just put its own article_N there.
+    private static void removeStaleVariants(Path dir, String baseName, Path keep) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, baseName + ".*")) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (path.equals(keep) || name.endsWith(".part") || name.endsWith(".link"))
+                    continue;
+                try {
+                    if (Files.getLastModifiedTime(path).toMillis() < LOADED_AT_MILLIS)
+                        Files.deleteIfExists(path);
+                } catch (NoSuchFileException e) {
+                    // Removed by someone else meanwhile
+                }
+            }
+        }
+    }
+
+    static String extensionFor(String contentType) {
+        if (contentType == null)
+            return ".jpg";
+        String mime = contentType.toLowerCase();
+        int semicolon = mime.indexOf(';');
+        if (semicolon >= 0)
+            mime = mime.substring(0, semicolon);
+        switch (mime.trim()) {
+            case "image/png":
+                return ".png";
+            case "image/webp":
+                return ".webp";
+            case "image/gif":
+                return ".gif";
+            case "image/avif":
+                return ".avif";
+            case "image/svg+xml":
+                return ".svg";
+            default:
+                return ".jpg";
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /** One-line summary: count, bytes, latency percentiles and aggregate throughput. */
+    public static String summarize(List<Result> results, long wallClockMillis) {
+        List<Long> latencies = new ArrayList<>();
+        long bytes = 0;
+        int ok = 0;
+        for (Result result : results) {
+            if (result.isSuccess()) {
+                ok++;
+                bytes += result.bytes;
+                latencies.add(result.latencyMillis);
+            }
+        }
+        Collections.sort(latencies);
+        long p50 = latencies.isEmpty() ? 0 : latencies.get(latencies.size() / 2);
+        long max = latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1);
+        double kbPerSecond = wallClockMillis > 0 ? (bytes / 1024.0) / (wallClockMillis / 1000.0) : 0;
+        return String.format("Images: %d/%d downloaded, %d bytes in %d ms (p50 %d ms, max %d ms, %.1f KB/s)",
+                ok, results.size(), bytes, wallClockMillis, p50, max, kbPerSecond);
+    }
+}
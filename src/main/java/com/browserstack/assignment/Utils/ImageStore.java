@@ -0,0 +1,212 @@
+package com.browserstack.assignment.Utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed image store. Each distinct image body is kept once under
+ * objects/ab/abcdef....ext (SHA-256 of the bytes), and index.json maps every
+ * source URL to its hash plus the ETag/Last-Modified validators needed for
+ * conditional GETs. Per-run names such as images/article_1.jpg are hard links
+ * to the stored object (copies where links are not supported).
+ *
+ * Every open() reads the index afresh. Callers that work in parallel (e.g. the
+ * platforms of one suite) should share one instance, or index updates made by
+ * one are lost when the other saves. Objects that no index entry refers to any
+ * more are removed by collectGarbage.
+ */
+public class ImageStore {
+    private final Path root;
+    private final Path indexPath;
+    private final Gson gson = new Gson();
+    private final Map<String, Entry> index;
+    private boolean dirty;
+
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong collected = new AtomicLong();
+
+    public static class Entry {
+        public String hash;
+        public String extension;
+        public String etag;
+        public String lastModified;
+        public long size;
+
+        Entry(String hash, String extension, String etag, String lastModified, long size) {
+            this.hash = hash;
+            this.extension = extension;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+
+    private ImageStore(Path root) throws IOException {
+        this.root = root;
+        this.indexPath = root.resolve("index.json");
+        Files.createDirectories(root.resolve("objects"));
+        this.index = loadIndex();
+    }
+
+    /** Opens the store under root, creating it if missing, and reads its index. */
+    public static ImageStore open(Path root) throws IOException {
+        return new ImageStore(root);
+    }
+
+    private Map<String, Entry> loadIndex() {
+        if (Files.exists(indexPath)) {
+            try (Reader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+                Map<String, Entry> loaded = gson.fromJson(reader, new TypeToken<HashMap<String, Entry>>() {
+                }.getType());
+                if (loaded != null)
+                    return loaded;
+            } catch (Exception e) {
+                System.err.println("Image store index unreadable, starting empty: " + e.getMessage());
+            }
+        }
+        return new HashMap<>();
+    }
+
+    /** The index entry for url, or null when unknown or its object has gone missing. */
+    public synchronized Entry lookup(String url) {
+        Entry entry = index.get(url);
+        if (entry != null && !Files.exists(objectPath(entry.hash, entry.extension)))
+            return null;
+        return entry;
+    }
+
+    public Path objectPath(String hash, String extension) {
+        return root.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash + extension);
+    }
+
+    /**
+     * Moves a freshly downloaded file into the store, or drops it if identical
+     * bytes are already stored, and records url against the hash.
+     */
+    public Path put(String url, Path downloaded, String hash, String extension, String etag, String lastModified)
+            throws IOException {
+        Path object = objectPath(hash, extension);
+        long size = Files.size(downloaded);
+        Files.createDirectories(object.getParent());
+        synchronized (this) {
+            if (Files.exists(object)) {
+                Files.deleteIfExists(downloaded);
+                deduplicated.incrementAndGet();
+                bytesSaved.addAndGet(size);
+            } else {
+                ImageDownloader.moveAtomically(downloaded, object);
+                stored.incrementAndGet();
+            }
+            index.put(url, new Entry(hash, extension, etag, lastModified, size));
+            dirty = true;
+        }
+        return object;
+    }
+
+    /**
+     * Records a 304 for url. A 304 may carry fresh validators (e.g. a server
+     * that rotated its ETag for the same bytes); those replace the stored ones
+     * so the next conditional GET sends what the server now expects. Null
+     * means the response did not include that header.
+     */
+    public void markNotModified(String url, Entry entry, String etag, String lastModified) {
+        notModified.incrementAndGet();
+        bytesSaved.addAndGet(entry.size);
+        String newEtag = etag != null ? etag : entry.etag;
+        String newLastModified = lastModified != null ? lastModified : entry.lastModified;
+        if (Objects.equals(newEtag, entry.etag) && Objects.equals(newLastModified, entry.lastModified))
+            return;
+        synchronized (this) {
+            index.put(url, new Entry(entry.hash, entry.extension, newEtag, newLastModified, entry.size));
+            dirty = true;
+        }
+    }
+
+    /** Points target at the stored object, replacing whatever was there. */
+    public void link(Path object, Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + "." + Thread.currentThread().getId() + ".link");
+        Files.deleteIfExists(tmp);
+        try {
+            Files.createLink(tmp, object);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Different file system or links not permitted
+            Files.copy(object, tmp);
+        }
+        ImageDownloader.moveAtomically(tmp, target);
+    }
+
+    /** Writes the index if anything changed since the last save. */
+    public synchronized void save() throws IOException {
+        if (!dirty)
+            return;
+        Path tmp = indexPath.resolveSibling("index.json.tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            gson.toJson(index, writer);
+        }
+        ImageDownloader.moveAtomically(tmp, indexPath);
+        dirty = false;
+    }
+
+    /**
+     * Deletes stored objects that no index entry refers to, e.g. the old body
+     * of an image whose URL now serves different bytes. Returns how many went.
+     */
+    public synchronized int collectGarbage() throws IOException {
+        Set<Path> live = new HashSet<>();
+        for (Entry entry : index.values())
+            live.add(objectPath(entry.hash, entry.extension));
+        int removed = 0;
+        try (Stream<Path> objects = Files.walk(root.resolve("objects"))) {
+            for (Path object : (Iterable<Path>) objects::iterator) {
+                if (Files.isRegularFile(object) && !live.contains(object) && Files.deleteIfExists(object))
+                    removed++;
+            }
+        }
+        collected.addAndGet(removed);
+        return removed;
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    public long getDeduplicatedCount() {
+        return deduplicated.get();
+    }
+
+    public long getStoredCount() {
+        return stored.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public long getCollectedCount() {
+        return collected.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ImageStore{stored=" + getStoredCount() + ", notModified=" + getNotModifiedCount()
+                + ", deduplicated=" + getDeduplicatedCount() + ", bytesSaved=" + getBytesSaved()
+                + ", collected=" + getCollectedCount() + "}";
+    }
+}
@@ -0,0 +1,348 @@
+package com.browserstack.assignment.Utils;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks which variant of a responsive image to download, from the markup
+ * alone (srcset, sizes and &lt;picture&gt; sources), so nothing has to be
+ * scrolled into view for lazy loading and the download does not depend on
+ * the resolution the browser happened to load.
+ *
+ * - The needed width is the target width when one is set, otherwise the slot
+ *   width from sizes (100vw without it), times the pixel ratio.
+ * - The smallest variant at least that wide wins, or the widest if none is.
+ * - With a byte budget, variants whose estimated size exceeds it are skipped
+ *   (the smallest variant is still taken when none fits).
+ *
+ * The first &lt;picture&gt; source whose media matches the viewport (and whose
+ * type is supported) is used instead of the img's srcset, as a browser would.
+ */
+public class ImageVariantSelector {
+    private static final int DEFAULT_VIEWPORT_WIDTH = 1280;
+    // Ballpark for news photos as JPEG/WebP; only used to compare variants against a byte budget
+    private static final double BYTES_PER_PIXEL = 0.25;
+    // Aspect ratio assumed when neither the markup nor the URL gives one (El Pais crops are 16:9)
+    private static final double DEFAULT_ASPECT = 9.0 / 16.0;
+    private static final int EM_PIXELS = 16;
+    // Source types the downloader knows an extension for; others (e.g. image/jxl) are passed over
+    private static final List<String> SUPPORTED_TYPES = Arrays.asList("image/jpeg", "image/png", "image/webp",
+            "image/gif", "image/avif", "image/svg+xml");
+
+    private static final Pattern MEDIA_FEATURE = Pattern
+            .compile("\\(\\s*(min|max)-width\\s*:\\s*([\\d.]+)(px|em)\\s*\\)");
+    private static final Pattern LENGTH = Pattern.compile("([\\d.]+)(px|vw|em)");
+    private static final Pattern URL_DIMENSION = Pattern.compile("[?&](width|w|height|h)=(\\d+)");
+
+    /** A &lt;source&gt; of a &lt;picture&gt;, in document order. */
+    public static class Source {
+        public final String srcset;
+        public final String sizes;
+        public final String media;
+        public final String type;
+
+        public Source(String srcset, String sizes, String media, String type) {
+            this.srcset = srcset;
+            this.sizes = sizes;
+            this.media = media;
+            this.type = type;
+        }
+    }
+
+    /** What the markup says about one image; attributes that are missing stay null (or 0). */
+    public static class Image {
+        public String src;
+        public String dataSrc;
+        public String srcset;
+        public String sizes;
+        public int width;
+        public int height;
+        public final List<Source> sources = new ArrayList<>();
+    }
+
+    public static class Candidate {
+        public final String url;
+        // One of the two descriptors is set: a w descriptor, or a density (1 when neither was given)
+        public final int width;
+        public final double density;
+
+        Candidate(String url, int width, double density) {
+            this.url = url;
+            this.width = width;
+            this.density = density;
+        }
+    }
+
+    /** The variant to download and its size in pixels (0 when unknown). */
+    public static class Choice {
+        public final String url;
+        public final int width;
+        public final int height;
+
+        Choice(String url, int width, int height) {
+            this.url = url;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public String toString() {
+            return url + " (" + width + "x" + height + ")";
+        }
+    }
+
+    private int viewportWidth = DEFAULT_VIEWPORT_WIDTH;
+    private double pixelRatio = 1;
+    private int targetWidth;
+    private long byteBudget;
+
+    /** Layout the sizes and media conditions are evaluated against. */
+    public void setViewport(int width, double pixelRatio) {
+        this.viewportWidth = Math.max(1, width);
+        this.pixelRatio = pixelRatio > 0 ? pixelRatio : 1;
+    }
+
+    /** A copy with the same target and budget, for a page rendered at another viewport. */
+    public ImageVariantSelector withViewport(int width, double pixelRatio) {
+        ImageVariantSelector copy = new ImageVariantSelector();
+        copy.setViewport(width, pixelRatio);
+        copy.targetWidth = targetWidth;
+        copy.byteBudget = byteBudget;
+        return copy;
+    }
+
+    /** CSS pixels the image should cover, instead of its slot from sizes; 0 uses sizes. */
+    public void setTargetWidth(int targetWidth) {
+        this.targetWidth = Math.max(0, targetWidth);
+    }
+
+    /** Largest estimated download in bytes; 0 for no budget. */
+    public void setByteBudget(long byteBudget) {
+        this.byteBudget = Math.max(0, byteBudget);
+    }
+
+    /** Selector configured from -DimageWidth and -DimageByteBudget (both optional). */
+    public static ImageVariantSelector fromSystemProperties() {
+        ImageVariantSelector selector = new ImageVariantSelector();
+        selector.setTargetWidth(Integer.getInteger("imageWidth", 0));
+        selector.setByteBudget(Long.getLong("imageByteBudget", 0L));
+        return selector;
+    }
+
+    /** The variant to fetch, with its URL resolved against baseUrl (may be null); null when there is no image. */
+    public Choice choose(Image image, String baseUrl) {
+        String sizes = image.sizes;
+        List<Candidate> candidates = null;
+        for (Source source : image.sources) {
+            if (source.srcset != null && (source.media == null || matches(source.media))
+                    && (source.type == null || SUPPORTED_TYPES.contains(source.type.trim().toLowerCase(Locale.ROOT)))) {
+                candidates = parseSrcset(source.srcset);
+                if (source.sizes != null)
+                    sizes = source.sizes;
+                if (!candidates.isEmpty())
+                    break;
+            }
+        }
+        if (candidates == null || candidates.isEmpty())
+            candidates = parseSrcset(image.srcset);
+        if (candidates.isEmpty()) {
+            String url = usable(image.src) ? image.src : usable(image.dataSrc) ? image.dataSrc : null;
+            if (url == null)
+                return null;
+            url = resolve(baseUrl, url);
+            int[] fromUrl = urlDimensions(url);
+            int width = fromUrl[0] > 0 ? fromUrl[0] : image.width;
+            int height = fromUrl[1] > 0 ? fromUrl[1] : image.height;
+            return new Choice(url, width, height);
+        }
+
+        double slot = targetWidth > 0 ? targetWidth : slotWidth(sizes);
+        double needed = slot * pixelRatio;
+        double aspect = image.width > 0 && image.height > 0 ? (double) image.height / image.width : 0;
+
+        // Density descriptors scale the image's layout width
+        double layoutWidth = image.width > 0 ? image.width : slot;
+        Candidate best = null;
+        double bestWidth = 0;
+        Candidate narrower = null;
+        double narrowerWidth = 0;
+        Candidate smallest = null;
+        double smallestWidth = 0;
+        for (Candidate candidate : candidates) {
+            double width = candidate.width > 0 ? candidate.width : candidate.density * layoutWidth;
+            if (smallest == null || width < smallestWidth) {
+                smallest = candidate;
+                smallestWidth = width;
+            }
+            if (byteBudget > 0 && estimatedBytes(candidate.url, width, aspect) > byteBudget)
+                continue;
+            if (width >= needed) {
+                if (best == null || width < bestWidth) {
+                    best = candidate;
+                    bestWidth = width;
+                }
+            } else if (narrower == null || width > narrowerWidth) {
+                narrower = candidate;
+                narrowerWidth = width;
+            }
+        }
+        // Nothing wide enough (within budget): the widest that is, else the smallest of all
+        if (best == null)
+            best = narrower != null ? narrower : smallest;
+
+        String url = resolve(baseUrl, best.url);
+        int[] fromUrl = urlDimensions(url);
+        int width = fromUrl[0] > 0 ? fromUrl[0]
+                : best.width > 0 ? best.width
+                : image.width > 0 ? (int) Math.round(image.width * best.density) : 0;
+        int height = fromUrl[1];
+        if (height == 0 && width > 0 && aspect > 0)
+            height = (int) Math.round(width * aspect);
+        return new Choice(url, width, height);
+    }
+
+    private static boolean usable(String url) {
+        return url != null && !url.isEmpty() && !url.startsWith("data:");
+    }
+
+    private static double estimatedBytes(String url, double width, double aspect) {
+        int[] fromUrl = urlDimensions(url);
+        double height = fromUrl[1] > 0 && fromUrl[0] > 0 ? width * fromUrl[1] / fromUrl[0]
+                : width * (aspect > 0 ? aspect : DEFAULT_ASPECT);
+        return width * height * BYTES_PER_PIXEL;
+    }
+
+    /** srcset candidates in order; data: URLs and malformed descriptors are skipped. */
+    public static List<Candidate> parseSrcset(String srcset) {
+        List<Candidate> candidates = new ArrayList<>();
+        if (srcset == null)
+            return candidates;
+        int i = 0;
+        int n = srcset.length();
+        while (i < n) {
+            while (i < n && (Character.isWhitespace(srcset.charAt(i)) || srcset.charAt(i) == ','))
+                i++;
+            int start = i;
+            while (i < n && !Character.isWhitespace(srcset.charAt(i)))
+                i++;
+            if (start == i)
+                break;
+            String url = srcset.substring(start, i);
+            String descriptor = "";
+            // A URL may itself end in commas before the descriptor list (per the HTML spec they are trimmed)
+            if (url.endsWith(",")) {
+                url = url.replaceAll(",+$", "");
+            } else {
+                int end = srcset.indexOf(',', i);
+                if (end < 0)
+                    end = n;
+                descriptor = srcset.substring(i, end).trim().toLowerCase(Locale.ROOT);
+                i = end;
+            }
+            if (url.isEmpty() || url.startsWith("data:"))
+                continue;
+            try {
+                if (descriptor.isEmpty()) {
+                    candidates.add(new Candidate(url, 0, 1));
+                } else if (descriptor.endsWith("w")) {
+                    int width = Integer.parseInt(descriptor.substring(0, descriptor.length() - 1));
+                    candidates.add(new Candidate(url, width, 0));
+                } else if (descriptor.endsWith("x")) {
+                    double density = Double.parseDouble(descriptor.substring(0, descriptor.length() - 1));
+                    candidates.add(new Candidate(url, 0, density));
+                }
+            } catch (NumberFormatException e) {
+                // Unsupported descriptor (e.g. "h"), skip the candidate like a browser would
+            }
+        }
+        return candidates;
+    }
+
+    /** Slot width in CSS pixels for a sizes attribute: the first entry whose condition matches. */
+    public int slotWidth(String sizes) {
+        if (sizes != null) {
+            for (String entry : sizes.split(",")) {
+                entry = entry.trim().toLowerCase(Locale.ROOT);
+                if (entry.isEmpty())
+                    continue;
+                int close = entry.lastIndexOf(')');
+                String condition = close >= 0 ? entry.substring(0, close + 1) : null;
+                String length = close >= 0 ? entry.substring(close + 1).trim() : entry;
+                if (condition != null && !matches(condition))
+                    continue;
+                Matcher m = LENGTH.matcher(length);
+                if (m.matches())
+                    return (int) Math.round(toPixels(Double.parseDouble(m.group(1)), m.group(2)));
+                // calc() and other lengths: fall through to the next entry
+            }
+        }
+        return viewportWidth;
+    }
+
+    private double toPixels(double value, String unit) {
+        switch (unit) {
+            case "vw":
+                return value * viewportWidth / 100;
+            case "em":
+                return value * EM_PIXELS;
+            default:
+                return value;
+        }
+    }
+
+    /** Evaluates min-width/max-width conditions joined by "and"; anything else does not match. */
+    boolean matches(String media) {
+        String remaining = media.toLowerCase(Locale.ROOT).trim();
+        if (remaining.isEmpty() || remaining.equals("all") || remaining.equals("screen"))
+            return true;
+        remaining = remaining.replaceFirst("^(only\\s+)?(screen|all)\\s+and\\s+", "");
+        Matcher m = MEDIA_FEATURE.matcher(remaining);
+        int end = 0;
+        boolean any = false;
+        while (m.find()) {
+            String between = remaining.substring(end, m.start()).trim();
+            if (!between.isEmpty() && !between.equals("and"))
+                return false;
+            double limit = toPixels(Double.parseDouble(m.group(2)), m.group(3));
+            boolean ok = m.group(1).equals("min") ? viewportWidth >= limit : viewportWidth <= limit;
+            if (!ok)
+                return false;
+            any = true;
+            end = m.end();
+        }
+        return any && remaining.substring(end).trim().isEmpty();
+    }
+
+    // Image CDNs (El Pais' resizer included) put the served size in the query
+    private static int[] urlDimensions(String url) {
+        int[] dimensions = new int[2];
+        Matcher m = URL_DIMENSION.matcher(url);
+        while (m.find()) {
+            try {
+                int value = Integer.parseInt(m.group(2));
+                if (m.group(1).startsWith("w"))
+                    dimensions[0] = value;
+                else
+                    dimensions[1] = value;
+            } catch (NumberFormatException e) {
+                // Out of range, ignore
+            }
+        }
+        return dimensions;
+    }
+
+    private static String resolve(String baseUrl, String url) {
+        if (baseUrl == null || url.startsWith("http://") || url.startsWith("https://"))
+            return url;
+        try {
+            return URI.create(baseUrl).resolve(url.trim()).toString();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
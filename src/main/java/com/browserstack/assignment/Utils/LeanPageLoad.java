@@ -0,0 +1,124 @@
+package com.browserstack.assignment.Utils;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.edge.EdgeOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lean page load: the scraper only reads text and image URLs from the DOM
+ * (images are fetched separately by ImageDownloader), so images, media, fonts
+ * and ad/tracking scripts are not loaded at all.
+ *
+ * - Chromium drivers with DevTools block matching requests through
+ *   Network.setBlockedURLs (raw CDP commands, so no dependency on one
+ *   devtools version).
+ * - Everywhere else the capabilities do what they can: the eager page load
+ *   strategy (return at DOMContentLoaded) plus browser prefs that turn off
+ *   image loading on Chromium and Firefox.
+ */
+public class LeanPageLoad {
+    private static final List<String> BLOCKED_EXTENSIONS = Arrays.asList(
+            "jpg", "jpeg", "png", "gif", "webp", "avif", "svg", "ico", // images
+            "mp4", "webm", "m3u8", "ts", "mp3", "m4a", // media
+            "woff", "woff2", "ttf", "otf", "eot"); // fonts
+
+    // Ad, analytics and recommendation hosts seen on elpais.com. The consent platform is not blocked:
+    // navigation waits for its banner and stores the consent it records
+    private static final List<String> BLOCKED_HOSTS = Arrays.asList(
+            "doubleclick.net", "googlesyndication.com", "googletagservices.com", "googletagmanager.com",
+            "google-analytics.com", "adsafeprotected.com", "amazon-adsystem.com", "chartbeat.com",
+            "chartbeat.net", "scorecardresearch.com", "facebook.net", "taboola.com", "outbrain.com",
+            "permutive.com", "krxd.net", "adnxs.com", "smartadserver.com");
+
+    private final List<String> blockedPatterns = new ArrayList<>();
+
+    public LeanPageLoad() {
+        for (String extension : BLOCKED_EXTENSIONS) {
+            blockedPatterns.add("*." + extension);
+            blockedPatterns.add("*." + extension + "?*");
+        }
+        for (String host : BLOCKED_HOSTS)
+            blockedPatterns.add("*" + host + "/*");
+    }
+
+    /** Adds a CDP URL pattern ('*' matches any run of characters) to the blocklist. */
+    public void addBlockedPattern(String pattern) {
+        blockedPatterns.add(pattern);
+    }
+
+    public List<String> getBlockedPatterns() {
+        return Collections.unmodifiableList(blockedPatterns);
+    }
+
+    /**
+     * Capability side of the mode, applied before the session starts: eager page
+     * load strategy everywhere and image-blocking prefs where the browser has them.
+     * Prefs and browser options already set are kept.
+     */
+    public void applyTo(MutableCapabilities capabilities) {
+        capabilities.setCapability("pageLoadStrategy", PageLoadStrategy.EAGER.toString());
+        if (capabilities instanceof ChromiumOptions) {
+            String key = capabilities instanceof EdgeOptions ? EdgeOptions.CAPABILITY : ChromeOptions.CAPABILITY;
+            Object options = capabilities.getCapability(key);
+            Map<String, Object> prefs = merged(options instanceof Map ? ((Map<?, ?>) options).get("prefs") : null,
+                    Collections.singletonMap("profile.managed_default_content_settings.images", 2));
+            ((ChromiumOptions<?>) capabilities).setExperimentalOption("prefs", prefs);
+            return;
+        }
+        String browser = capabilities.getBrowserName() == null ? "" : capabilities.getBrowserName().toLowerCase();
+        if (browser.equals("chrome") || browser.equals("microsoftedge") || browser.equals("edge")) {
+            addPrefs(capabilities, browser.equals("chrome") ? ChromeOptions.CAPABILITY : EdgeOptions.CAPABILITY,
+                    Collections.singletonMap("profile.managed_default_content_settings.images", 2));
+        } else if (browser.equals("firefox")) {
+            addPrefs(capabilities, "moz:firefoxOptions", Collections.singletonMap("permissions.default.image", 2));
+        }
+    }
+
+    private static void addPrefs(MutableCapabilities capabilities, String key, Map<String, Object> prefs) {
+        Map<String, Object> options = merged(capabilities.getCapability(key), Collections.emptyMap());
+        options.put("prefs", merged(options.get("prefs"), prefs));
+        capabilities.setCapability(key, options);
+    }
+
+    // A copy of existing (when it is a map) with additions put over it
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> merged(Object existing, Map<String, Object> additions) {
+        Map<String, Object> merged = existing instanceof Map ? new HashMap<>((Map<String, Object>) existing)
+                : new HashMap<>();
+        merged.putAll(additions);
+        return merged;
+    }
+
+    /**
+     * Request side of the mode, applied to a running session. Returns false when
+     * the driver has no DevTools connection, leaving only the capability settings.
+     */
+    public boolean enableBlocking(WebDriver driver) {
+        if (!(driver instanceof HasDevTools))
+            return false;
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<Void>("Network.enable", Collections.emptyMap()));
+            devTools.send(new Command<Void>("Network.setBlockedURLs",
+                    Collections.singletonMap("urls", new ArrayList<>(blockedPatterns))));
+            return true;
+        } catch (Exception e) {
+            System.out.println("DevTools request blocking unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.browserstack.assignment.Utils;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight metrics registry for one test run on one platform: counters,
+ * gauges and fixed-bucket latency histograms, exported as JSON and as a
+ * Prometheus text-format file. Recording is a LongAdder increment plus a
+ * bucket scan, cheap enough to leave on; callers on hot paths keep the
+ * metric handle instead of looking it up by name each time.
+ */
+public class Metrics {
+    private static final String PREFIX = "elpais_";
+    // Bucket upper bounds in seconds, from a local stub call up to a stalled page load
+    private static final double[] BUCKETS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5,
+            10, 30 };
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final class Gauge {
+        private volatile double value;
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        public double get() {
+            return value;
+        }
+    }
+
+    public static final class Histogram {
+        private static final long[] BOUNDS_NANOS = new long[BUCKETS.length];
+        static {
+            for (int i = 0; i < BUCKETS.length; i++)
+                BOUNDS_NANOS[i] = (long) (BUCKETS[i] * 1e9);
+        }
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++)
+                buckets[i] = new LongAdder();
+        }
+
+        public void record(long nanos) {
+            int i = 0;
+            while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i])
+                i++;
+            buckets[i].increment();
+            count.increment();
+            sumNanos.add(nanos);
+            if (nanos > maxNanos.get())
+                maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSumSeconds() {
+            return sumNanos.sum() / 1e9;
+        }
+
+        /** Upper bound of the bucket holding the q-quantile, capped at the largest value seen. */
+        public double quantileSeconds(double q) {
+            long total = count.sum();
+            if (total == 0)
+                return 0;
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            double max = maxNanos.get() / 1e9;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank)
+                    return Math.min(BUCKETS[i], max);
+            }
+            return max;
+        }
+    }
+
+    /** Records the time from creation until stop() into a histogram; stop it in a finally block. */
+    public static final class Timing {
+        /** Records nothing, for callers whose metrics are off. */
+        public static final Timing NONE = new Timing(null);
+
+        private final Histogram histogram;
+        private final long start = System.nanoTime();
+
+        private Timing(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        public void stop() {
+            if (histogram != null)
+                histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+        final String name;
+        final String[] labels;
+        final String id;
+
+        Key(String name, String[] labels) {
+            if (labels.length % 2 != 0)
+                throw new IllegalArgumentException("Labels must be name/value pairs");
+            this.name = name;
+            this.labels = labels;
+            StringBuilder sb = new StringBuilder(name);
+            for (String label : labels)
+                sb.append('\u0000').append(label);
+            this.id = sb.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return id.compareTo(other.id);
+        }
+    }
+
+    private final Map<String, String> commonLabels = new LinkedHashMap<>();
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Key, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /** Label added to every exported series, e.g. test and platform. */
+    public synchronized void setLabel(String name, String value) {
+        commonLabels.put(name, value);
+    }
+
+    /** @param labels alternating label names and values */
+    public Counter counter(String name, String... labels) {
+        return counters.computeIfAbsent(new Key(name, labels), k -> new Counter());
+    }
+
+    public Gauge gauge(String name, String... labels) {
+        return gauges.computeIfAbsent(new Key(name, labels), k -> new Gauge());
+    }
+
+    /** Latency histogram; exported in seconds. */
+    public Histogram histogram(String name, String... labels) {
+        return histograms.computeIfAbsent(new Key(name, labels), k -> new Histogram());
+    }
+
+    public Timing time(String name, String... labels) {
+        return new Timing(histogram(name, labels));
+    }
+
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        String lastName = null;
+        for (Map.Entry<Key, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            Key key = entry.getKey();
+            String name = PREFIX + key.name + "_total";
+            if (!name.equals(lastName))
+                sb.append("# TYPE ").append(name).append(" counter\n");
+            lastName = name;
+            sb.append(name).append(labels(key, null, null)).append(' ').append(entry.getValue().get()).append('\n');
+        }
+        for (Map.Entry<Key, Gauge> entry : new TreeMap<>(gauges).entrySet()) {
+            Key key = entry.getKey();
+            String name = PREFIX + key.name;
+            if (!name.equals(lastName))
+                sb.append("# TYPE ").append(name).append(" gauge\n");
+            lastName = name;
+            sb.append(name).append(labels(key, null, null)).append(' ').append(entry.getValue().get()).append('\n');
+        }
+        for (Map.Entry<Key, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Key key = entry.getKey();
+            Histogram histogram = entry.getValue();
+            String name = PREFIX + key.name + "_seconds";
+            if (!name.equals(lastName))
+                sb.append("# TYPE ").append(name).append(" histogram\n");
+            lastName = name;
+            long cumulative = 0;
+            for (int i = 0; i <= BUCKETS.length; i++) {
+                cumulative += histogram.buckets[i].sum();
+                String le = i < BUCKETS.length ? Double.toString(BUCKETS[i]) : "+Inf";
+                sb.append(name).append("_bucket").append(labels(key, "le", le)).append(' ').append(cumulative)
+                        .append('\n');
+            }
+            sb.append(name).append("_sum").append(labels(key, null, null)).append(' ')
+                    .append(histogram.getSumSeconds()).append('\n');
+            sb.append(name).append("_count").append(labels(key, null, null)).append(' ')
+                    .append(histogram.getCount()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public String toJson() {
+        JsonObject root = new JsonObject();
+        JsonObject common = new JsonObject();
+        synchronized (this) {
+            commonLabels.forEach(common::addProperty);
+        }
+        root.add("labels", common);
+
+        JsonArray counterArray = new JsonArray();
+        new TreeMap<>(counters).forEach((key, counter) -> {
+            JsonObject json = series(key);
+            json.addProperty("value", counter.get());
+            counterArray.add(json);
+        });
+        root.add("counters", counterArray);
+
+        JsonArray gaugeArray = new JsonArray();
+        new TreeMap<>(gauges).forEach((key, gauge) -> {
+            JsonObject json = series(key);
+            json.addProperty("value", gauge.get());
+            gaugeArray.add(json);
+        });
+        root.add("gauges", gaugeArray);
+
+        JsonArray histogramArray = new JsonArray();
+        new TreeMap<>(histograms).forEach((key, histogram) -> {
+            JsonObject json = series(key);
+            json.addProperty("count", histogram.getCount());
+            json.addProperty("sumSeconds", histogram.getSumSeconds());
+            json.addProperty("p50Seconds", histogram.quantileSeconds(0.5));
+            json.addProperty("p95Seconds", histogram.quantileSeconds(0.95));
+            json.addProperty("p99Seconds", histogram.quantileSeconds(0.99));
+            json.addProperty("maxSeconds", histogram.maxNanos.get() / 1e9);
+            histogramArray.add(json);
+        });
+        root.add("histograms", histogramArray);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    /** Writes dir/baseName.json and dir/baseName.prom. */
+    public void export(Path dir, String baseName) throws IOException {
+        Files.createDirectories(dir);
+        String safe = baseName.replaceAll("[^A-Za-z0-9._-]+", "_");
+        Files.write(dir.resolve(safe + ".json"), toJson().getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve(safe + ".prom"), toPrometheus().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** One-line summary of the slowest histograms by total time. */
+    public String summarize(int top) {
+        List<Map.Entry<Key, Histogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue().getSumSeconds(), a.getValue().getSumSeconds()));
+        StringBuilder sb = new StringBuilder("Metrics:");
+        for (int i = 0; i < Math.min(top, entries.size()); i++) {
+            Key key = entries.get(i).getKey();
+            Histogram histogram = entries.get(i).getValue();
+            sb.append(String.format(" %s%s n=%d total=%dms p95=%dms;", key.name, labelSuffix(key),
+                    histogram.getCount(), TimeUnit.NANOSECONDS.toMillis(histogram.sumNanos.sum()),
+                    (long) (histogram.quantileSeconds(0.95) * 1000)));
+        }
+        return sb.toString();
+    }
+
+    private JsonObject series(Key key) {
+        JsonObject json = new JsonObject();
+        json.addProperty("name", key.name);
+        JsonObject labels = new JsonObject();
+        for (int i = 0; i < key.labels.length; i += 2)
+            labels.addProperty(key.labels[i], key.labels[i + 1]);
+        json.add("labels", labels);
+        return json;
+    }
+
+    private static String labelSuffix(Key key) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i < key.labels.length; i += 2)
+            sb.append('[').append(key.labels[i]).append(']');
+        return sb.toString();
+    }
+
+    private synchronized String labels(Key key, String extraName, String extraValue) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, String> label : commonLabels.entrySet())
+            appendLabel(sb, label.getKey(), label.getValue());
+        for (int i = 0; i < key.labels.length; i += 2)
+            appendLabel(sb, key.labels[i], key.labels[i + 1]);
+        if (extraName != null)
+            appendLabel(sb, extraName, extraValue);
+        if (sb.length() == 1)
+            return "";
+        sb.setLength(sb.length() - 1);
+        return sb.append('}').toString();
+    }
+
+    private static void appendLabel(StringBuilder sb, String name, String value) {
+        sb.append(name).append("=\"");
+        String v = value == null ? "" : value;
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '\\' || c == '"') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append("\",");
+    }
+}
@@ -0,0 +1,72 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline provider backed by a phrase table for one language pair, e.g. a
+ * file of reviewed headline translations (source TAB translation per line).
+ * Only whole texts in the table are translated; anything else fails the call
+ * so the coordinator moves on to the next provider.
+ */
+public class PhraseTableProvider implements TranslationProvider {
+    private final String sourceLang;
+    private final String targetLang;
+    private final Map<String, String> phrases;
+
+    public PhraseTableProvider(String sourceLang, String targetLang, Map<String, String> phrases) {
+        this.sourceLang = sourceLang;
+        this.targetLang = targetLang;
+        this.phrases = new HashMap<>();
+        phrases.forEach((source, translation) -> this.phrases.put(normalize(source), translation));
+    }
+
+    /** Loads a UTF-8 file of "source\ttranslation" lines; blank lines and lines starting with # are skipped. */
+    public static PhraseTableProvider load(Path file, String sourceLang, String targetLang) throws IOException {
+        Map<String, String> phrases = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (line.isEmpty() || line.startsWith("#") || tab < 0)
+                    continue;
+                phrases.put(line.substring(0, tab), line.substring(tab + 1));
+            }
+        }
+        return new PhraseTableProvider(sourceLang, targetLang, phrases);
+    }
+
+    @Override
+    public String getName() {
+        return "phrase-table";
+    }
+
+    @Override
+    public List<String> translate(List<String> texts, String sourceLang, String targetLang) throws IOException {
+        if (!this.sourceLang.equals(sourceLang) || !this.targetLang.equals(targetLang))
+            throw new UnsupportedException("Phrase table only covers " + this.sourceLang + "->" + this.targetLang);
+        List<String> results = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            String translated = phrases.get(normalize(text));
+            if (translated == null)
+                throw new UnsupportedException("No offline translation for: " + text);
+            results.add(translated);
+        }
+        return results;
+    }
+
+    public int size() {
+        return phrases.size();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ");
+    }
+}
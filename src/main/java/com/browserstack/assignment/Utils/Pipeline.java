@@ -0,0 +1,254 @@
+package com.browserstack.assignment.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming pipeline of stages connected by bounded queues. Each stage runs its
+ * own worker threads and hands every item to the stages that declared it as
+ * upstream (stages with no upstream are fed by submit). A full queue blocks the
+ * producer, so a slow stage applies backpressure rather than buffering without
+ * bound. A step that throws is counted and the item still moves on.
+ *
+ * Per-stage timings show which stage bounds end-to-end latency.
+ */
+public class Pipeline<T> {
+
+    public interface Step<T> {
+        /** @param sequence 0-based submission order of the item */
+        void accept(T item, int sequence) throws Exception;
+    }
+
+    private static final Object END = new Object();
+
+    private static final class Envelope<T> {
+        final T item;
+        final int sequence;
+
+        Envelope(T item, int sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+
+    public final class Stage {
+        private final String name;
+        private final int parallelism;
+        private final Step<T> step;
+        private final BlockingQueue<Object> queue;
+        private final List<Stage> downstream = new ArrayList<>();
+        private final AtomicInteger openUpstreams;
+        private final AtomicInteger liveWorkers;
+
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private final AtomicLong firstStart = new AtomicLong();
+        private final AtomicLong lastEnd = new AtomicLong();
+
+        private Stage(String name, int parallelism, Step<T> step, int upstreams) {
+            this.name = name;
+            this.parallelism = Math.max(1, parallelism);
+            this.step = step;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.openUpstreams = new AtomicInteger(upstreams);
+            this.liveWorkers = new AtomicInteger(this.parallelism);
+        }
+
+        private void work() {
+            try {
+                while (true) {
+                    Object next = queue.take();
+                    if (next == END)
+                        break;
+                    @SuppressWarnings("unchecked")
+                    Envelope<T> envelope = (Envelope<T>) next;
+                    long start = System.nanoTime();
+                    firstStart.compareAndSet(0, start);
+                    try {
+                        step.accept(envelope.item, envelope.sequence);
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                        System.err.println("Pipeline stage '" + name + "' failed on item " + envelope.sequence
+                                + ": " + e.getMessage());
+                    }
+                    long end = System.nanoTime();
+                    busyNanos.addAndGet(end - start);
+                    lastEnd.accumulateAndGet(end, Math::max);
+                    processed.incrementAndGet();
+                    for (Stage target : downstream)
+                        target.offer(envelope, this);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (liveWorkers.decrementAndGet() == 0) {
+                    for (Stage next : downstream)
+                        next.upstreamDone();
+                    done.countDown();
+                }
+            }
+        }
+
+        // Blocks while this stage's queue is full; the time spent is charged to the producer
+        private void offer(Envelope<T> envelope, Stage producer) throws InterruptedException {
+            if (queue.offer(envelope))
+                return;
+            long start = System.nanoTime();
+            queue.put(envelope);
+            long blocked = System.nanoTime() - start;
+            if (producer != null)
+                producer.blockedNanos.addAndGet(blocked);
+            else
+                sourceBlockedNanos.addAndGet(blocked);
+        }
+
+        private void upstreamDone() {
+            if (openUpstreams.decrementAndGet() == 0) {
+                for (int i = 0; i < parallelism; i++) {
+                    try {
+                        queue.put(END);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getProcessed() {
+            return processed.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /** Busy time divided by workers: the wall-clock this stage needs on its own. */
+        public long getWorkMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(busyNanos.get() / parallelism);
+        }
+
+        public long getBlockedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+        }
+
+        public long getActiveSpanMillis() {
+            long first = firstStart.get();
+            return first == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(lastEnd.get() - first);
+        }
+    }
+
+    private final int capacity;
+    private final List<Stage> stages = new ArrayList<>();
+    private final List<Stage> sources = new ArrayList<>();
+    private final AtomicLong sourceBlockedNanos = new AtomicLong();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private CountDownLatch done;
+    private long startNanos;
+    private long endNanos;
+    private boolean started;
+
+    /** @param capacity size of the bounded queue in front of every stage */
+    public Pipeline(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Adds a stage. It receives every item completed by each upstream stage,
+     * or every submitted item when no upstream is given. Upstreams must be
+     * added first, so the graph cannot contain cycles.
+     */
+    @SafeVarargs
+    public final Stage stage(String name, int parallelism, Step<T> step, Stage... upstream) {
+        if (started)
+            throw new IllegalStateException("Pipeline already started");
+        Stage stage = new Stage(name, parallelism, step, Math.max(1, upstream.length));
+        if (upstream.length == 0) {
+            sources.add(stage);
+        } else {
+            for (Stage up : upstream)
+                up.downstream.add(stage);
+        }
+        stages.add(stage);
+        return stage;
+    }
+
+    public void start() {
+        if (started)
+            throw new IllegalStateException("Pipeline already started");
+        started = true;
+        done = new CountDownLatch(stages.size());
+        startNanos = System.nanoTime();
+        for (Stage stage : stages) {
+            for (int i = 0; i < stage.parallelism; i++) {
+                Thread worker = new Thread(stage::work, "pipeline-" + stage.name + "-" + i);
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+    }
+
+    /** Feeds an item to the source stages, blocking while they are saturated. */
+    public void submit(T item) throws InterruptedException {
+        Envelope<T> envelope = new Envelope<>(item, submitted.getAndIncrement());
+        for (Stage source : sources)
+            source.offer(envelope, null);
+    }
+
+    /** Signals that no more items will be submitted. */
+    public void complete() {
+        for (Stage source : sources)
+            source.upstreamDone();
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean finished = done.await(timeout, unit);
+        endNanos = System.nanoTime();
+        return finished;
+    }
+
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /** The stage whose own work takes longest, i.e. the one bounding throughput. */
+    public Stage getBottleneck() {
+        Stage slowest = null;
+        for (Stage stage : stages) {
+            if (slowest == null || stage.getWorkMillis() > slowest.getWorkMillis())
+                slowest = stage;
+        }
+        return slowest;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos);
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Pipeline: %d items in %d ms (source blocked %d ms)%n", submitted.get(),
+                getElapsedMillis(), TimeUnit.NANOSECONDS.toMillis(sourceBlockedNanos.get())));
+        for (Stage stage : stages) {
+            sb.append(String.format("  %-10s x%d  items=%d failed=%d work=%d ms active=%d ms blocked=%d ms%n",
+                    stage.name, stage.parallelism, stage.getProcessed(), stage.getFailures(), stage.getWorkMillis(),
+                    stage.getActiveSpanMillis(), stage.getBlockedMillis()));
+        }
+        Stage bottleneck = getBottleneck();
+        if (bottleneck != null)
+            sb.append("  bottleneck: ").append(bottleneck.name);
+        return sb.toString();
+    }
+}
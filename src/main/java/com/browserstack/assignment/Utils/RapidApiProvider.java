@@ -0,0 +1,143 @@
+package com.browserstack.assignment.Utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.FormBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Google Translate v2 through RapidAPI: one POST with a repeated q parameter
+ * per text. The response is read with a streaming JsonReader straight off the
+ * body instead of being buffered into a String and a tree.
+ */
+public class RapidApiProvider implements TranslationProvider {
+    public static final String API_URL = "https://google-translate1.p.rapidapi.com/language/translate/v2";
+
+    // Google v2 accepts up to 128 q parameters and recommends keeping a request under ~5K characters;
+    // the limit is applied to the form-encoded body
+    private static final int DEFAULT_MAX_BATCH_ITEMS = 128;
+    private static final int DEFAULT_MAX_BATCH_CHARS = 5000;
+
+    private final OkHttpClient client;
+    private final String apiKey;
+    private final String apiUrl;
+    private volatile int maxBatchItems = DEFAULT_MAX_BATCH_ITEMS;
+    private volatile int maxBatchChars = DEFAULT_MAX_BATCH_CHARS;
+
+    public RapidApiProvider(OkHttpClient client, String apiKey) {
+        this(client, apiKey, API_URL);
+    }
+
+    public RapidApiProvider(OkHttpClient client, String apiKey, String apiUrl) {
+        this.client = client;
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+    }
+
+    public void setBatchLimits(int maxItems, int maxChars) {
+        this.maxBatchItems = Math.max(1, maxItems);
+        this.maxBatchChars = Math.max(1, maxChars);
+    }
+
+    @Override
+    public String getName() {
+        return "rapidapi";
+    }
+
+    @Override
+    public int getMaxBatchItems() {
+        return maxBatchItems;
+    }
+
+    @Override
+    public int getMaxBatchChars() {
+        return maxBatchChars;
+    }
+
+    /** One form-encoded q=...& pair. */
+    @Override
+    public int requestSize(String text) {
+        return Batches.urlEncodedLength(text) + "q=&".length();
+    }
+
+    @Override
+    public List<String> translate(List<String> texts, String sourceLang, String targetLang) throws IOException {
+        List<String> present = Batches.present(texts);
+        List<String> results = new ArrayList<>(present.size());
+        for (List<String> batch : Batches.plan(present, maxBatchItems, maxBatchChars, this::requestSize)) {
+            List<String> translated = translateBatch(batch, sourceLang, targetLang);
+            if (translated.size() != batch.size())
+                throw new IOException("RapidAPI returned " + translated.size() + " of " + batch.size() + " translations");
+            results.addAll(translated);
+        }
+        return Batches.restoreNulls(texts, results);
+    }
+
+    private List<String> translateBatch(List<String> batch, String sourceLang, String targetLang) throws IOException {
+        FormBody.Builder form = new FormBody.Builder();
+        for (String text : batch) {
+            form.add("q", text);
+        }
+        Request request = new Request.Builder()
+                .url(apiUrl)
+                .post(form.add("target", targetLang).add("source", sourceLang).build())
+                .addHeader("content-type", "application/x-www-form-urlencoded")
+                .addHeader("Accept-Encoding", "application/gzip")
+                .addHeader("X-RapidAPI-Key", apiKey)
+                .addHeader("X-RapidAPI-Host", "google-translate1.p.rapidapi.com")
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new HttpStatusException(response.code(), request.url().host(), response.header("Retry-After"));
+            }
+            return parseResponse(response.body().charStream());
+        }
+    }
+
+    // {"data":{"translations":[{"translatedText":"...","detectedSourceLanguage":"es"},...]}}
+    static List<String> parseResponse(Reader body) throws IOException {
+        List<String> results = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(body)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"data".equals(reader.nextName()) || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (!"translations".equals(reader.nextName()) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if ("translatedText".equals(reader.nextName()))
+                                results.add(reader.nextString());
+                            else
+                                reader.skipValue();
+                        }
+                        reader.endObject();
+                    }
+                    reader.endArray();
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            // Unexpected token types
+            throw new IOException("Malformed translation response: " + e.getMessage(), e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,142 @@
+package com.browserstack.assignment.Utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Suite-wide single flight for external work (translations, image downloads).
+ * Parallel platform runs scrape nearly the same articles, so they ask for the
+ * same work at about the same time:
+ *
+ * - a caller whose key is already in flight waits for that call and gets its
+ *   result (or its exception) instead of starting another one;
+ * - results the caller marks as reusable are kept for the rest of the suite,
+ *   so a later caller gets them without any call at all.
+ *
+ * Failures are shared with whoever joined the failing call but never kept, so
+ * the next caller tries again. Keys are namespaced by kind, which is also how
+ * report() breaks the savings down.
+ */
+public class SingleFlight {
+
+    public static class Stats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder joined = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+        private final LongAdder workNanos = new LongAdder();
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getExecuted() {
+            return executed.sum();
+        }
+
+        /** Callers that waited on an identical in-flight call. */
+        public long getJoined() {
+            return joined.sum();
+        }
+
+        /** Callers served from a result an earlier call left behind. */
+        public long getReused() {
+            return reused.sum();
+        }
+
+        public long getSaved() {
+            return getJoined() + getReused();
+        }
+
+        /** Estimated work avoided: saved calls times the average executed call. */
+        public long getSavedMillis() {
+            long executedCalls = getExecuted();
+            return executedCalls == 0 ? 0 : workNanos.sum() / executedCalls * getSaved() / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            long total = getRequests();
+            return String.format("%d requests, %d executed, %d joined in flight, %d reused (%.0f%% saved, ~%d ms)",
+                    total, getExecuted(), getJoined(), getReused(), total > 0 ? 100.0 * getSaved() / total : 0.0,
+                    getSavedMillis());
+        }
+    }
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Object> completed = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Runs work for (kind, key) unless an identical call is in flight or a kept
+     * result exists. keep decides whether a successful result is reused later.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String kind, String key, Callable<V> work, Predicate<V> keep) throws Exception {
+        Stats kindStats = stats(kind);
+        kindStats.requests.increment();
+        String id = kind + '\u0000' + key;
+
+        Object done = completed.get(id);
+        if (done != null) {
+            kindStats.reused.increment();
+            return (V) done;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            kindStats.joined.increment();
+            try {
+                return (V) running.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+
+        try {
+            // A result is kept before its flight ends, so a call that just finished shows up here
+            done = completed.get(id);
+            if (done != null) {
+                kindStats.reused.increment();
+                mine.complete(done);
+                return (V) done;
+            }
+            long start = System.nanoTime();
+            V value;
+            try {
+                value = work.call();
+            } finally {
+                kindStats.executed.increment();
+                kindStats.workNanos.add(System.nanoTime() - start);
+            }
+            if (value != null && keep.test(value))
+                completed.put(id, value);
+            mine.complete(value);
+            return value;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    public Stats stats(String kind) {
+        return stats.computeIfAbsent(kind, k -> new Stats());
+    }
+
+    /** One line per kind of work, e.g. for the end of the suite. */
+    public String report() {
+        StringBuilder sb = new StringBuilder("Shared work across platforms:");
+        for (Map.Entry<String, Stats> entry : new TreeMap<>(stats).entrySet())
+            sb.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+        return sb.toString();
+    }
+}
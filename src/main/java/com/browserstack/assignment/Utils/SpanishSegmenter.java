@@ -0,0 +1,183 @@
+package com.browserstack.assignment.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Splits Spanish prose into paragraphs and sentences for translation, and puts
+ * translated segments back together in the original order and layout.
+ *
+ * A sentence ends at . ! ? or an ellipsis (plus any closing quotes or brackets)
+ * when whitespace and a capital, digit, opening quote, inverted mark or dialogue
+ * dash follow. Periods after common abbreviations (Sr., Dña., núm., EE. UU.)
+ * and initials do not end a sentence. Any whitespace run holding a line break
+ * is a paragraph break. Sentences over maxSize are cut at the last clause mark
+ * (; : , or a dash) that fits, else at the last space, so every segment fits
+ * in a single provider request. Size is measured by a function such as a
+ * provider's requestSize, since the encoded request is what the limit applies
+ * to. Segments never contain line breaks, which the free endpoint uses to
+ * separate batch items.
+ */
+public class SpanishSegmenter {
+    private static final Set<String> ABBREVIATIONS = new HashSet<>(Arrays.asList(
+            "sr", "sra", "srta", "sres", "sras", "d", "d\u00f1a", "ud", "uds", "vd", "vds", "dr", "dra", "lic",
+            "ing", "prof", "profa", "gral", "excmo", "excma", "ilmo", "ilma", "mons", "pte", "jr", "sto", "sta",
+            "n\u00fam", "n\u00ba", "p\u00e1g", "p\u00e1gs", "art", "arts", "cap", "vol", "fig", "tel", "av", "avda",
+            "c\u00eda", "adm\u00f3n", "etc", "aprox", "m\u00e1x", "m\u00edn", "ej", "p", "pp", "ee", "uu", "vs",
+            "a.c", "d.c", "a", "c", "s"));
+    private static final String CLOSERS = "\"'\u00bb\u201d\u2019)]";
+    private static final String CLAUSE_MARKS = ";:,\u2014\u2013";
+    private static final String OPENERS = "\"'\u00ab\u201c\u2018([\u00bf\u00a1\u2014\u2013-";
+
+    /** A piece of the input and the whitespace that followed it there ("" after the last one). */
+    public static class Segment {
+        public final String text;
+        public final String separator;
+
+        Segment(String text, String separator) {
+            this.text = text;
+            this.separator = separator;
+        }
+
+        /** False for numbers, dates and punctuation, which read the same in any language. */
+        public boolean isTranslatable() {
+            for (int i = 0; i < text.length(); i++) {
+                if (Character.isLetter(text.charAt(i)))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private final int maxSize;
+    private final ToIntFunction<String> size;
+
+    /** Segments of at most maxChars characters. */
+    public SpanishSegmenter(int maxChars) {
+        this(maxChars, String::length);
+    }
+
+    /** Segments whose size is at most maxSize; a single character over it still becomes its own segment. */
+    public SpanishSegmenter(int maxSize, ToIntFunction<String> size) {
+        if (maxSize < 2)
+            throw new IllegalArgumentException("maxSize must be at least 2");
+        this.maxSize = maxSize;
+        this.size = size;
+    }
+
+    public List<Segment> split(String text) {
+        List<Segment> segments = new ArrayList<>();
+        if (text == null)
+            return segments;
+        String trimmed = text.trim();
+        int start = 0;
+        int i = 0;
+        while (i < trimmed.length()) {
+            char c = trimmed.charAt(i);
+            if (Character.isWhitespace(c)) {
+                int end = i;
+                while (i < trimmed.length() && Character.isWhitespace(trimmed.charAt(i)))
+                    i++;
+                String gap = trimmed.substring(end, i);
+                if (gap.indexOf('\n') >= 0 || gap.indexOf('\r') >= 0 || endsSentence(trimmed, start, end, i)) {
+                    addSentence(segments, trimmed.substring(start, end), gap);
+                    start = i;
+                }
+            } else {
+                i++;
+            }
+        }
+        if (start < trimmed.length())
+            addSentence(segments, trimmed.substring(start), "");
+        return segments;
+    }
+
+    /** Rebuilds the text from one translation per segment, in segment order. */
+    public static String join(List<Segment> segments, List<String> translated) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segments.size(); i++) {
+            sb.append(translated.get(i)).append(segments.get(i).separator);
+        }
+        return sb.toString();
+    }
+
+    // end is where the whitespace before next begins
+    private static boolean endsSentence(String text, int start, int end, int next) {
+        int last = end - 1;
+        while (last > start && CLOSERS.indexOf(text.charAt(last)) >= 0)
+            last--;
+        char mark = text.charAt(last);
+        if (mark != '.' && mark != '!' && mark != '?' && mark != '\u2026')
+            return false;
+        char following = text.charAt(next);
+        if (!Character.isUpperCase(following) && !Character.isDigit(following) && OPENERS.indexOf(following) < 0)
+            return false;
+        if (mark != '.' || (last > 0 && text.charAt(last - 1) == '.'))
+            return true;
+        // The word before the period: an abbreviation or an initial continues the sentence
+        int wordStart = last;
+        while (wordStart > start && !Character.isWhitespace(text.charAt(wordStart - 1))
+                && OPENERS.indexOf(text.charAt(wordStart - 1)) < 0)
+            wordStart--;
+        String word = text.substring(wordStart, last);
+        if (word.length() == 1 && Character.isUpperCase(word.charAt(0)))
+            return false;
+        return !ABBREVIATIONS.contains(word.toLowerCase(Locale.ROOT));
+    }
+
+    private void addSentence(List<Segment> segments, String sentence, String separator) {
+        while (sentence.length() > 1 && size.applyAsInt(sentence) > maxSize) {
+            int cut = cutPoint(sentence, longestFittingPrefix(sentence));
+            int resume = cut;
+            while (resume < sentence.length() && Character.isWhitespace(sentence.charAt(resume)))
+                resume++;
+            segments.add(new Segment(sentence.substring(0, cut), sentence.substring(cut, resume)));
+            sentence = sentence.substring(resume);
+        }
+        if (!sentence.isEmpty())
+            segments.add(new Segment(sentence, separator));
+    }
+
+    // Length of the longest prefix within maxSize, at least one character and never splitting a surrogate pair;
+    // sizes only grow with length, so a binary search finds it
+    private int longestFittingPrefix(String sentence) {
+        int low = 1;
+        int high = sentence.length() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (size.applyAsInt(sentence.substring(0, mid)) <= maxSize)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        if (low > 1 && Character.isHighSurrogate(sentence.charAt(low - 1)))
+            low--;
+        return low;
+    }
+
+    // Index of the space after the last clause mark within limit, or of the last space; a clause mark
+    // in the first half would leave pieces too small to pack well
+    private static int cutPoint(String sentence, int limit) {
+        int lastSpace = -1;
+        for (int i = limit; i > 0; i--) {
+            if (!Character.isWhitespace(sentence.charAt(i)))
+                continue;
+            char before = sentence.charAt(i - 1);
+            if (CLAUSE_MARKS.indexOf(before) >= 0 && i >= limit / 2)
+                return i;
+            if (lastSpace < 0)
+                lastSpace = i;
+        }
+        return lastSpace > 0 ? lastSpace : limit;
+    }
+}
@@ -0,0 +1,301 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier translation cache keyed by (source language, target language, normalized text).
+ *
+ * Tier one is a bounded in-memory LRU. Tier two is an optional append-only log on
+ * disk: each record is [keyLength][valueLength][key][value] and only keys plus value
+ * offsets are kept in memory, so startup is a single sequential scan. Rewriting an
+ * entry with the value it already has appends nothing; records made dead by real
+ * overwrites are dropped by rewriting the log once it is more than twice the size
+ * of its live records.
+ */
+public class TranslationCache implements AutoCloseable {
+    private static final int HEADER_BYTES = 8;
+    // Dead bytes tolerated before the size ratio is checked, so small logs are never rewritten
+    private static final long MIN_DEAD_BYTES_FOR_COMPACTION = 4096;
+
+    private final int maxMemoryEntries;
+    private final Map<String, String> memory;
+    private final Path logPath;
+    private final Map<String, long[]> diskIndex = new HashMap<>(); // key -> {valueOffset, valueLength}
+    private FileChannel log;
+    private long liveBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Memory-only cache. */
+    public TranslationCache(int maxMemoryEntries) {
+        this(maxMemoryEntries, null);
+    }
+
+    /** Memory cache backed by the append-only log at logPath, created if missing. */
+    public TranslationCache(int maxMemoryEntries, Path logPath) {
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.memory = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() > TranslationCache.this.maxMemoryEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.logPath = logPath;
+        if (logPath != null) {
+            try {
+                openLog();
+            } catch (IOException e) {
+                System.err.println("Translation cache disabled on disk (" + logPath + "): " + e.getMessage());
+                this.log = null;
+            }
+        }
+    }
+
+    /** The cached translation, or null on a miss; a null text is always a miss. */
+    public String get(String sourceLang, String targetLang, String text) {
+        if (text == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        String key = key(sourceLang, targetLang, text);
+        synchronized (memory) {
+            String value = memory.get(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return value;
+            }
+        }
+
+        String value = readFromDisk(key);
+        if (value != null) {
+            diskHits.incrementAndGet();
+            synchronized (memory) {
+                memory.put(key, value);
+            }
+            return value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String sourceLang, String targetLang, String text, String translation) {
+        if (text == null || translation == null)
+            return;
+        String key = key(sourceLang, targetLang, text);
+        String previous;
+        synchronized (memory) {
+            previous = memory.put(key, translation);
+        }
+        if (!translation.equals(previous))
+            writeToDisk(key, translation);
+    }
+
+    public long getHits() {
+        return hits.get() + diskHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getDiskEntries() {
+        return diskIndex.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TranslationCache{hits=" + getHits() + ", diskHits=" + getDiskHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + "}";
+    }
+
+    /**
+     * Trims, collapses whitespace runs (including nbsp) to one space and applies NFC, so visually identical
+     * headlines share an entry. Scraped text goes through the same rules, which match WebElement.getText().
+     * Null normalizes to "".
+     */
+    public static String normalize(String text) {
+        if (text == null)
+            return "";
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        StringBuilder sb = new StringBuilder(nfc.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00A0') {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace)
+                    sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String key(String sourceLang, String targetLang, String text) {
+        return sourceLang + '\u0000' + targetLang + '\u0000' + normalize(text);
+    }
+
+    private synchronized String readFromDisk(String key) {
+        long[] location = diskIndex.get(key);
+        if (location == null || log == null)
+            return null;
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate((int) location[1]);
+            readFully(log, buffer, location[0]);
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Translation cache read failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void writeToDisk(String key, String value) {
+        if (log == null)
+            return;
+        try {
+            long offset = log.size();
+            long valueOffset = append(log, key, value, offset);
+            int valueLength = value.getBytes(StandardCharsets.UTF_8).length;
+            long[] previous = diskIndex.put(key, new long[] { valueOffset, valueLength });
+            liveBytes += valueOffset + valueLength - offset;
+            if (previous != null)
+                liveBytes -= valueOffset - offset + previous[1];
+            if (needsCompaction(valueOffset + valueLength))
+                compact();
+        } catch (IOException e) {
+            System.err.println("Translation cache write failed: " + e.getMessage());
+        }
+    }
+
+    private boolean needsCompaction(long logSize) {
+        long dead = logSize - liveBytes;
+        return dead >= MIN_DEAD_BYTES_FOR_COMPACTION && dead > liveBytes;
+    }
+
+    /** Rewrites the log with only the live record for every key. */
+    public synchronized void compact() throws IOException {
+        if (log == null)
+            return;
+        Path tmp = logPath.resolveSibling(logPath.getFileName() + ".compact");
+        Map<String, long[]> compacted = new HashMap<>();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            for (Map.Entry<String, long[]> entry : diskIndex.entrySet()) {
+                ByteBuffer value = ByteBuffer.allocate((int) entry.getValue()[1]);
+                readFully(log, value, entry.getValue()[0]);
+                String valueString = new String(value.array(), StandardCharsets.UTF_8);
+                long valueOffset = append(out, entry.getKey(), valueString, position);
+                compacted.put(entry.getKey(), new long[] { valueOffset, entry.getValue()[1] });
+                position = valueOffset + entry.getValue()[1];
+            }
+            out.force(true);
+        }
+        log.close();
+        Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        diskIndex.clear();
+        diskIndex.putAll(compacted);
+        liveBytes = log.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (log != null) {
+            try {
+                log.force(true);
+                log.close();
+            } catch (IOException e) {
+                System.err.println("Translation cache close failed: " + e.getMessage());
+            }
+            log = null;
+        }
+    }
+
+    private void openLog() throws IOException {
+        if (logPath.getParent() != null)
+            Files.createDirectories(logPath.getParent());
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Scan headers and keys only; values are read lazily by offset
+        long size = log.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(log, header, position);
+            header.flip();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            long valueOffset = position + HEADER_BYTES + keyLength;
+            if (keyLength < 0 || valueLength < 0 || valueOffset + valueLength > size)
+                break; // torn write at the tail
+            ByteBuffer key = ByteBuffer.allocate(keyLength);
+            readFully(log, key, position + HEADER_BYTES);
+            long[] previous = diskIndex.put(new String(key.array(), StandardCharsets.UTF_8),
+                    new long[] { valueOffset, valueLength });
+            liveBytes += valueOffset + valueLength - position;
+            if (previous != null)
+                liveBytes -= HEADER_BYTES + keyLength + previous[1];
+            position = valueOffset + valueLength;
+        }
+        if (position < size) {
+            System.err.println("Translation cache: dropping " + (size - position) + " trailing bytes from " + logPath);
+            log.truncate(position);
+        }
+        // A log left bloated by an earlier run is rewritten before it is used
+        if (needsCompaction(position))
+            compact();
+    }
+
+    // Writes one record at position and returns the offset of its value bytes
+    private static long append(FileChannel channel, String key, String value, long position) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + valueBytes.length);
+        record.putInt(keyBytes.length).putInt(valueBytes.length).put(keyBytes).put(valueBytes);
+        record.flip();
+        long writePosition = position;
+        while (record.hasRemaining()) {
+            writePosition += channel.write(record, writePosition);
+        }
+        return position + HEADER_BYTES + keyBytes.length;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0)
+                throw new IOException("Unexpected end of cache log");
+        }
+    }
+}
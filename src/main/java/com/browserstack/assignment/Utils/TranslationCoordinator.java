@@ -0,0 +1,373 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs translations across several providers instead of a fixed serial
+ * fallback.
+ *
+ * - Providers are tried fastest first: a later provider moves ahead once its
+ *   median latency is clearly lower. Providers without enough samples keep
+ *   registration order.
+ * - Hedging: if the current attempt has not answered by its provider's p95
+ *   latency for calls of that size (one text, a few, a batch), the next
+ *   provider is started too. The first good answer wins.
+ * - A failed attempt starts the next provider at once.
+ * - Each provider has a circuit breaker, so a provider that keeps failing is
+ *   skipped until its cool-down ends.
+ */
+public class TranslationCoordinator {
+    private static final int LATENCY_WINDOW = 128;
+    private static final int MIN_SAMPLES = 10;
+    // A provider must be this much faster before it overtakes one registered ahead of it
+    private static final double REORDER_MARGIN = 1.25;
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    // Upper bounds of the call sizes (texts per call) whose latencies are tracked apart for hedging
+    private static final int[] SIZE_BUCKETS = { 1, 4, 16, Integer.MAX_VALUE };
+
+    // Hedge attempts of every coordinator; idle threads exit, so nothing needs shutting down
+    private static final ExecutorService HEDGE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "translation-provider");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class LatencyWindow {
+        final long[] latencies = new long[LATENCY_WINDOW];
+        int samples;
+        int next;
+
+        synchronized void record(long nanos) {
+            latencies[next] = nanos;
+            next = (next + 1) % latencies.length;
+            samples = Math.min(samples + 1, latencies.length);
+        }
+
+        synchronized int sampleCount() {
+            return samples;
+        }
+
+        synchronized long percentile(double p) {
+            if (samples == 0)
+                return 0;
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            return sorted[Math.min(samples - 1, (int) Math.ceil(p * samples) - 1)];
+        }
+    }
+
+    private static final class ProviderState {
+        final TranslationProvider provider;
+        final CircuitBreaker breaker;
+        // Every call, for ordering providers; and per size bucket, for hedge delays
+        final LatencyWindow latency = new LatencyWindow();
+        final LatencyWindow[] latencyBySize = new LatencyWindow[SIZE_BUCKETS.length];
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+
+        ProviderState(TranslationProvider provider, CircuitBreaker breaker) {
+            this.provider = provider;
+            this.breaker = breaker;
+            for (int i = 0; i < latencyBySize.length; i++)
+                latencyBySize[i] = new LatencyWindow();
+        }
+
+        void recordLatency(int size, long nanos) {
+            latency.record(nanos);
+            latencyBySize[sizeBucket(size)].record(nanos);
+        }
+    }
+
+    private static int sizeBucket(int size) {
+        int bucket = 0;
+        while (size > SIZE_BUCKETS[bucket])
+            bucket++;
+        return bucket;
+    }
+
+    private static final class Outcome {
+        final ProviderState state;
+        final List<String> result;
+        final IOException error;
+        final boolean hedge;
+
+        Outcome(ProviderState state, List<String> result, IOException error, boolean hedge) {
+            this.state = state;
+            this.result = result;
+            this.error = error;
+            this.hedge = hedge;
+        }
+    }
+
+    private final List<ProviderState> providers = new ArrayList<>();
+    private volatile boolean hedging = true;
+    private volatile long defaultHedgeDelayNanos = TimeUnit.SECONDS.toNanos(2);
+    private volatile Metrics metrics;
+
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public TranslationCoordinator(List<TranslationProvider> providers) {
+        this(providers, 5, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param failureThreshold consecutive failures that open a provider's circuit
+     * @param openDuration     how long an open circuit skips its provider
+     */
+    public TranslationCoordinator(List<TranslationProvider> providers, int failureThreshold, Duration openDuration) {
+        if (providers.isEmpty())
+            throw new IllegalArgumentException("At least one translation provider is required");
+        for (TranslationProvider provider : providers)
+            this.providers.add(new ProviderState(provider, new CircuitBreaker(failureThreshold, openDuration)));
+    }
+
+    /**
+     * @param defaultDelay hedge delay used until a provider has enough latency samples for a p95
+     */
+    public void setHedging(boolean enabled, Duration defaultDelay) {
+        this.hedging = enabled;
+        this.defaultHedgeDelayNanos = defaultDelay.toNanos();
+    }
+
+    /** Records every provider call as elpais_translation_provider_call_seconds{provider, result}. */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Providers in registration order. */
+    public List<TranslationProvider> getProviders() {
+        List<TranslationProvider> list = new ArrayList<>();
+        for (ProviderState state : providers)
+            list.add(state.provider);
+        return list;
+    }
+
+    /** Providers in the order the next translate call will try them. */
+    public List<TranslationProvider> getOrder() {
+        List<TranslationProvider> list = new ArrayList<>();
+        for (ProviderState state : currentOrder(null))
+            list.add(state.provider);
+        return list;
+    }
+
+    public TranslationProvider getPreferred() {
+        return currentOrder(null).get(0).provider;
+    }
+
+    public List<String> translate(List<String> texts, String sourceLang, String targetLang) throws IOException {
+        return translate(texts, sourceLang, targetLang, null);
+    }
+
+    /** Same as translate, but never uses the excluded provider. */
+    List<String> translate(List<String> texts, String sourceLang, String targetLang, TranslationProvider exclude)
+            throws IOException {
+        List<ProviderState> candidates = currentOrder(exclude);
+        BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+        IOException lastError = null;
+        int next = 0;
+        int running = 0;
+        long hedgeDeadline = Long.MAX_VALUE;
+
+        try {
+            while (true) {
+                if (running == 0 || System.nanoTime() - hedgeDeadline >= 0) {
+                    ProviderState launched = null;
+                    while (launched == null && next < candidates.size()) {
+                        ProviderState candidate = candidates.get(next++);
+                        if (candidate.breaker.allowRequest()) {
+                            launched = candidate;
+                        } else {
+                            candidate.skipped.incrementAndGet();
+                        }
+                    }
+                    if (launched != null) {
+                        boolean hedge = running > 0;
+                        if (hedge)
+                            hedges.incrementAndGet();
+                        launch(launched, texts, sourceLang, targetLang, hedge, outcomes);
+                        running++;
+                        long delay = hedgeDelayNanos(launched, texts.size());
+                        hedgeDeadline = next < candidates.size() && delay != Long.MAX_VALUE
+                                ? System.nanoTime() + delay : Long.MAX_VALUE;
+                    } else if (running == 0) {
+                        throw lastError != null ? lastError
+                                : new CircuitBreaker.OpenException("No translation provider available");
+                    } else {
+                        hedgeDeadline = Long.MAX_VALUE;
+                    }
+                }
+
+                Outcome outcome;
+                if (hedgeDeadline == Long.MAX_VALUE) {
+                    outcome = outcomes.take();
+                } else {
+                    outcome = outcomes.poll(Math.max(0, hedgeDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (outcome == null)
+                        continue; // Time to hedge
+                }
+                running--;
+                if (outcome.error == null) {
+                    if (outcome.hedge)
+                        hedgeWins.incrementAndGet();
+                    return outcome.result;
+                }
+                lastError = outcome.error;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for translation");
+        }
+    }
+
+    /**
+     * One attempt on one provider, no hedging or fallback, for callers running
+     * their own retry policy. Still honours and feeds the provider's breaker.
+     */
+    List<String> translateWith(TranslationProvider provider, List<String> texts, String sourceLang,
+            String targetLang) throws IOException {
+        ProviderState state = stateOf(provider);
+        if (!state.breaker.allowRequest()) {
+            state.skipped.incrementAndGet();
+            throw new CircuitBreaker.OpenException("Circuit open for " + provider.getName());
+        }
+        return call(state, texts, sourceLang, targetLang);
+    }
+
+    private void launch(ProviderState state, List<String> texts, String sourceLang, String targetLang, boolean hedge,
+            BlockingQueue<Outcome> outcomes) {
+        HEDGE_EXECUTOR.execute(() -> {
+            try {
+                outcomes.add(new Outcome(state, call(state, texts, sourceLang, targetLang), null, hedge));
+            } catch (IOException e) {
+                outcomes.add(new Outcome(state, null, e, hedge));
+            }
+        });
+    }
+
+    private List<String> call(ProviderState state, List<String> texts, String sourceLang, String targetLang)
+            throws IOException {
+        state.calls.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            List<String> result = state.provider.translate(texts, sourceLang, targetLang);
+            if (result == null || result.size() != texts.size())
+                throw new IOException(state.provider.getName() + " returned an incomplete batch");
+            state.recordLatency(texts.size(), System.nanoTime() - start);
+            state.breaker.recordSuccess();
+            recordCall(state, "ok", start);
+            return result;
+        } catch (TranslationProvider.UnsupportedException e) {
+            // Healthy answer, just not for this input
+            state.breaker.recordSuccess();
+            recordCall(state, "unsupported", start);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            recordCall(state, "failed", start);
+            state.failures.incrementAndGet();
+            state.breaker.recordFailure();
+            System.err.println("Translation provider " + state.provider.getName() + " failed: " + e.getMessage());
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
+    private void recordCall(ProviderState state, String result, long startNanos) {
+        Metrics current = metrics;
+        if (current != null)
+            current.histogram("translation_provider_call", "provider", state.provider.getName(), "result", result)
+                    .record(System.nanoTime() - startNanos);
+    }
+
+    private long hedgeDelayNanos(ProviderState state, int size) {
+        if (!hedging)
+            return Long.MAX_VALUE;
+        LatencyWindow window = state.latencyBySize[sizeBucket(size)];
+        if (window.sampleCount() < MIN_SAMPLES)
+            return defaultHedgeDelayNanos;
+        return Math.max(MIN_HEDGE_DELAY_NANOS, window.percentile(0.95));
+    }
+
+    // Registration order, with a single bubble pass per position letting clearly faster providers move up
+    private List<ProviderState> currentOrder(TranslationProvider exclude) {
+        List<ProviderState> order = new ArrayList<>();
+        for (ProviderState state : providers) {
+            if (state.provider != exclude)
+                order.add(state);
+        }
+        long[] medians = new long[order.size()];
+        for (int pass = 0; pass < order.size(); pass++) {
+            for (int i = 0; i < order.size(); i++)
+                medians[i] = order.get(i).latency.sampleCount() >= MIN_SAMPLES
+                        ? order.get(i).latency.percentile(0.5) : -1;
+            boolean swapped = false;
+            for (int i = 0; i + 1 < order.size(); i++) {
+                if (medians[i] >= 0 && medians[i + 1] >= 0 && medians[i + 1] * REORDER_MARGIN < medians[i]) {
+                    Collections.swap(order, i, i + 1);
+                    long tmp = medians[i];
+                    medians[i] = medians[i + 1];
+                    medians[i + 1] = tmp;
+                    swapped = true;
+                }
+            }
+            if (!swapped)
+                break;
+        }
+        // Open circuits go last; translate skips them unless their cool-down is over
+        List<ProviderState> available = new ArrayList<>();
+        List<ProviderState> open = new ArrayList<>();
+        for (ProviderState state : order)
+            (state.breaker.isAvailable() ? available : open).add(state);
+        available.addAll(open);
+        return available;
+    }
+
+    private ProviderState stateOf(TranslationProvider provider) {
+        for (ProviderState state : providers) {
+            if (state.provider == provider)
+                return state;
+        }
+        throw new IllegalArgumentException("Unknown provider " + provider.getName());
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public long getCallCount(TranslationProvider provider) {
+        return stateOf(provider).calls.get();
+    }
+
+    public CircuitBreaker.State getCircuitState(TranslationProvider provider) {
+        return stateOf(provider).breaker.getState();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TranslationCoordinator{hedges=").append(hedges.get())
+                .append(", hedgeWins=").append(hedgeWins.get());
+        for (ProviderState state : providers) {
+            sb.append(String.format(", %s={calls=%d, failures=%d, skipped=%d, p50=%dms, p95=%dms, circuit=%s}",
+                    state.provider.getName(), state.calls.get(), state.failures.get(), state.skipped.get(),
+                    TimeUnit.NANOSECONDS.toMillis(state.latency.percentile(0.5)),
+                    TimeUnit.NANOSECONDS.toMillis(state.latency.percentile(0.95)), state.breaker.getState()));
+        }
+        return sb.append('}').toString();
+    }
+}
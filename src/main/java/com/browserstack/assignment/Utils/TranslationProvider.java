@@ -0,0 +1,44 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A translation backend. A call either returns one translation per input, in
+ * input order, or throws; non-2xx responses surface as HttpStatusException.
+ * Providers split oversized batches into as many requests as they need.
+ */
+public interface TranslationProvider {
+
+    /** The provider is healthy but cannot handle this input (e.g. an offline table miss). */
+    class UnsupportedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public UnsupportedException(String message) {
+            super(message);
+        }
+    }
+
+    /** Short name used in logs and metrics. */
+    String getName();
+
+    /** Largest batch the service should hand over in one call. */
+    default int getMaxBatchItems() {
+        return 128;
+    }
+
+    /** Largest request, in the units of requestSize, the service should hand over in one call. */
+    default int getMaxBatchChars() {
+        return 5000;
+    }
+
+    /**
+     * What text adds to a request as actually serialized (encoding, delimiters,
+     * parameter names), counted against getMaxBatchChars. Defaults to its length.
+     */
+    default int requestSize(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    List<String> translate(List<String> texts, String sourceLang, String targetLang) throws IOException;
+}
@@ -1,109 +1,321 @@
 package com.browserstack.assignment.Utils;
 
-import okhttp3.*;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import okhttp3.OkHttpClient;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Translates headlines through a TranslationCoordinator: RapidAPI first when a
+ * key is set, the free Google endpoint otherwise or as the hedge/fallback.
+ * Other providers (e.g. an offline PhraseTableProvider) can be plugged in by
+ * building the coordinator directly.
+ */
 public class TranslationService {
-    private static final String API_URL = "https://google-translate1.p.rapidapi.com/language/translate/v2";
-    private final OkHttpClient client;
-    private final Gson gson;
-    private final String apiKey;
+    private static final String SOURCE_LANG = "es"; // Assuming source is Spanish
+    private static final String FAILED_PREFIX = "[Translation Failed] ";
+
+    private final TranslationCoordinator coordinator;
+    // The built-in providers, kept so setBatchLimits can reach them
+    private final RapidApiProvider rapidProvider;
+    private final FreeGoogleProvider freeProvider;
+    private TranslationCache cache;
+    private SingleFlight singleFlight;
+    private Metrics metrics;
+    private volatile HttpArchive archive;
 
     public TranslationService(String apiKey) {
-        this.client = new OkHttpClient.Builder()
+        this(apiKey, RapidApiProvider.API_URL, FreeGoogleProvider.API_URL);
+    }
+
+    TranslationService(String apiKey, String apiUrl, String freeApiUrl) {
+        OkHttpClient client = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
+                .addInterceptor(chain -> {
+                    HttpArchive current = archive;
+                    return current != null ? current.intercept(chain) : chain.proceed(chain.request());
+                })
                 .build();
-        this.gson = new Gson();
-        this.apiKey = apiKey;
+        List<TranslationProvider> providers = new ArrayList<>();
+        if (apiKey != null && !apiKey.isEmpty()) {
+            rapidProvider = new RapidApiProvider(client, apiKey, apiUrl);
+            providers.add(rapidProvider);
+        } else {
+            rapidProvider = null;
+        }
+        freeProvider = new FreeGoogleProvider(client, freeApiUrl);
+        providers.add(freeProvider);
+        this.coordinator = new TranslationCoordinator(providers);
+    }
+
+    public TranslationService(TranslationCoordinator coordinator) {
+        this.coordinator = coordinator;
+        this.rapidProvider = null;
+        this.freeProvider = null;
+    }
+
+    public TranslationCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * Overrides the limits used by translateAll to split input into requests.
+     * maxChars applies to the RapidAPI endpoint, maxFreeChars to the free one;
+     * both count characters of the encoded request (see requestSize).
+     */
+    public void setBatchLimits(int maxItems, int maxChars, int maxFreeChars) {
+        if (rapidProvider != null)
+            rapidProvider.setBatchLimits(maxItems, maxChars);
+        if (freeProvider != null)
+            freeProvider.setBatchLimits(maxItems, maxFreeChars);
+    }
+
+    /**
+     * Puts a cache in front of every translation. The cache may be shared
+     * between services running on different threads.
+     */
+    public void setCache(TranslationCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Shares translate calls with other services (e.g. other platforms' runs):
+     * identical headlines in flight elsewhere are awaited instead of sent again.
+     */
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    /** Records or replays the built-in providers' requests; see HttpArchive. */
+    public void setArchive(HttpArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Records end-to-end translate latency, cache hits and misses, and (through
+     * the coordinator) the latency of every provider call.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        coordinator.setMetrics(metrics);
     }
 
     public String translate(String text, String targetLang) {
-        if (apiKey == null || apiKey.isEmpty()) {
-            return translateFree(text, targetLang);
+        long start = System.nanoTime();
+        if (cache != null) {
+            String cached = cache.get(SOURCE_LANG, targetLang, text);
+            if (metrics != null)
+                metrics.counter("translation_cache", "result", cached != null ? "hit" : "miss").increment();
+            if (cached != null)
+                return cached;
         }
+        String translated = singleFlight != null ? translateShared(text, targetLang)
+                : translateUncached(text, targetLang);
+        if (metrics != null)
+            metrics.histogram("translation_request", "result", translated.startsWith(FAILED_PREFIX) ? "failed" : "ok")
+                    .record(System.nanoTime() - start);
+        return translated;
+    }
 
+    private String translateUncached(String text, String targetLang) {
+        String translated = translateBatch(Collections.singletonList(text), targetLang).get(0);
+        cacheResult(text, targetLang, translated);
+        return translated;
+    }
+
+    private String translateShared(String text, String targetLang) {
         try {
-            // RapidAPI / Google Translate Implementation
-            RequestBody body = new FormBody.Builder()
-                    .add("q", text)
-                    .add("target", targetLang)
-                    .add("source", "es") // Assuming source is Spanish
-                    .build();
-
-            Request request = new Request.Builder()
-                    .url(API_URL)
-                    .post(body)
-                    .addHeader("content-type", "application/x-www-form-urlencoded")
-                    .addHeader("Accept-Encoding", "application/gzip")
-                    .addHeader("X-RapidAPI-Key", apiKey)
-                    .addHeader("X-RapidAPI-Host", "google-translate1.p.rapidapi.com")
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                if (response.isSuccessful() && response.body() != null) {
-                    String responseBody = response.body().string();
-                    JsonObject json = gson.fromJson(responseBody, JsonObject.class);
-                    if (json.has("data")) {
-                        JsonObject data = json.getAsJsonObject("data");
-                        if (data.has("translations")) {
-                            JsonArray translations = data.getAsJsonArray("translations");
-                            if (translations.size() > 0) {
-                                return translations.get(0).getAsJsonObject().get("translatedText").getAsString();
-                            }
-                        }
-                    }
-                }
-            }
+            return singleFlight.execute("translation", targetLang + ':' + text, () -> {
+                // The cache is filled before a flight ends, so a call that just finished shows up here
+                String cached = getCached(text, targetLang);
+                return cached != null ? cached : translateUncached(text, targetLang);
+            }, translated -> !isFailure(translated));
         } catch (Exception e) {
-            System.err.println("RapidAPI Translation failed. Falling back to free endpoint. Error: " + e.getMessage());
+            return FAILED_PREFIX + text;
         }
+    }
+
+    /** True for the placeholder translate returns when every provider failed. */
+    public static boolean isFailure(String translated) {
+        return translated == null || translated.startsWith(FAILED_PREFIX);
+    }
+
+    String getCached(String text, String targetLang) {
+        return cache != null ? cache.get(SOURCE_LANG, targetLang, text) : null;
+    }
 
-        // Fallback if API fails
-        return translateFree(text, targetLang);
+    void cacheResult(String text, String targetLang, String translated) {
+        if (cache != null && translated != null && !translated.startsWith(FAILED_PREFIX)) {
+            cache.put(SOURCE_LANG, targetLang, text, translated);
+        }
     }
 
     /**
-     * Uses the unofficial Google Translate web endpoint (Free).
-     * URL:
-     * https://translate.googleapis.com/translate_a/single?client=gtx&sl=es&tl=en&dt=t&q=...
+     * Single attempt against the primary provider (RapidAPI when a key is set,
+     * otherwise the free endpoint) with no hedging or fallback, so callers can
+     * decide whether to retry. Non-2xx responses surface as HttpStatusException.
      */
-    private String translateFree(String text, String targetLang) {
+    String translateOnce(String text, String targetLang) throws IOException {
+        return coordinator.translateWith(primary(), Collections.singletonList(text), SOURCE_LANG, targetLang).get(0);
+    }
+
+    /** What translate falls back to once the primary provider has given up. */
+    String translateFallback(String text, String targetLang) {
         try {
-            HttpUrl.Builder urlBuilder = HttpUrl.parse("https://translate.googleapis.com/translate_a/single")
-                    .newBuilder();
-            urlBuilder.addQueryParameter("client", "gtx");
-            urlBuilder.addQueryParameter("sl", "es"); // Source Language: Spanish
-            urlBuilder.addQueryParameter("tl", targetLang); // Target Language
-            urlBuilder.addQueryParameter("dt", "t");
-            urlBuilder.addQueryParameter("q", text);
-
-            Request request = new Request.Builder()
-                    .url(urlBuilder.build())
-                    .get()
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                if (response.isSuccessful() && response.body() != null) {
-                    // Response is a JSON Array: [[["Translated Text","Original Text",...],...],...]
-                    String responseBody = response.body().string();
-                    JsonArray jsonArray = gson.fromJson(responseBody, JsonArray.class);
-
-                    if (jsonArray.size() > 0) {
-                        JsonArray firstBlock = jsonArray.get(0).getAsJsonArray();
-                        if (firstBlock.size() > 0) {
-                            return firstBlock.get(0).getAsJsonArray().get(0).getAsString();
-                        }
-                    }
-                }
+            return coordinator.translate(Collections.singletonList(text), SOURCE_LANG, targetLang, primary()).get(0);
+        } catch (IOException e) {
+            return FAILED_PREFIX + text;
+        }
+    }
+
+    private TranslationProvider primary() {
+        return coordinator.getProviders().get(0);
+    }
+
+    /**
+     * Translates many strings with as few HTTP calls as possible. Duplicates are
+     * sent once and results are returned in input order.
+     */
+    public List<String> translateAll(List<String> texts, String targetLang) {
+        // Unique texts, each mapped to every input position it occurs at
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            positions.computeIfAbsent(texts.get(i), k -> new ArrayList<>()).add(i);
+        }
+
+        // Only texts missing from the cache go over the wire
+        Map<String, String> translatedUnique = new LinkedHashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String text : positions.keySet()) {
+            String cached = cache != null ? cache.get(SOURCE_LANG, targetLang, text) : null;
+            if (cached != null) {
+                translatedUnique.put(text, cached);
+            } else {
+                pending.add(text);
+            }
+        }
+
+        // Batches are sized for the provider expected to answer; the others re-split if they must
+        TranslationProvider preferred = coordinator.getPreferred();
+        for (List<String> batch : Batches.plan(pending, preferred.getMaxBatchItems(), preferred.getMaxBatchChars(),
+                preferred::requestSize)) {
+            List<String> translated = translateBatch(batch, targetLang);
+            for (int i = 0; i < batch.size(); i++) {
+                translatedUnique.put(batch.get(i), translated.get(i));
+                cacheResult(batch.get(i), targetLang, translated.get(i));
             }
+        }
+
+        String[] results = new String[texts.size()];
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            for (int position : entry.getValue()) {
+                results[position] = translatedUnique.get(entry.getKey());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Translates whole article bodies. Each body is split into sentences and
+     * paragraphs by SpanishSegmenter and the segments of every body go through
+     * translateAll together: repeated sentences (bylines, boilerplate) are sent
+     * once per call and, with a cache, once across runs, and the rest are packed
+     * into as few requests as the provider limits allow. Segments without letters
+     * are kept as they are. Results are in input order; a body with any failed
+     * segment comes back as the failure placeholder.
+     */
+    public List<String> translateContents(List<String> contents, String targetLang) {
+        SpanishSegmenter segmenter = segmenter();
+        List<List<SpanishSegmenter.Segment>> split = new ArrayList<>(contents.size());
+        List<String> pending = new ArrayList<>();
+        for (String content : contents) {
+            List<SpanishSegmenter.Segment> segments = segmenter.split(content);
+            split.add(segments);
+            for (SpanishSegmenter.Segment segment : segments) {
+                if (segment.isTranslatable())
+                    pending.add(segment.text);
+            }
+        }
+        if (metrics != null)
+            metrics.counter("translation_segments").add(pending.size());
+
+        List<String> translated = translateAll(pending, targetLang);
+        List<String> results = new ArrayList<>(contents.size());
+        int next = 0;
+        for (int i = 0; i < contents.size(); i++) {
+            List<SpanishSegmenter.Segment> segments = split.get(i);
+            List<String> parts = new ArrayList<>(segments.size());
+            boolean failed = false;
+            for (SpanishSegmenter.Segment segment : segments) {
+                String part = segment.isTranslatable() ? translated.get(next++) : segment.text;
+                failed |= isFailure(part);
+                parts.add(part);
+            }
+            if (contents.get(i) == null)
+                results.add(null);
+            else
+                results.add(failed ? FAILED_PREFIX + contents.get(i) : SpanishSegmenter.join(segments, parts));
+        }
+        return results;
+    }
+
+    /**
+     * translateContents for a single body. With a SingleFlight set, the same
+     * body requested elsewhere at the same time is translated once.
+     */
+    public String translateContent(String content, String targetLang) {
+        if (singleFlight == null || content == null)
+            return translateContents(Collections.singletonList(content), targetLang).get(0);
+        try {
+            return singleFlight.execute("content", targetLang + ':' + content,
+                    () -> translateContents(Collections.singletonList(content), targetLang).get(0),
+                    translated -> !isFailure(translated));
         } catch (Exception e) {
-            System.err.println("Free Translation failed: " + e.getMessage());
+            return FAILED_PREFIX + content;
+        }
+    }
+
+    // Segments must fit in one request to any provider: the largest requestSize against the smallest limit
+    private SpanishSegmenter segmenter() {
+        List<TranslationProvider> providers = coordinator.getProviders();
+        int max = Integer.MAX_VALUE;
+        for (TranslationProvider provider : providers) {
+            max = Math.min(max, provider.getMaxBatchChars());
+        }
+        return new SpanishSegmenter(Math.max(2, max), text -> {
+            int size = 0;
+            for (TranslationProvider provider : providers) {
+                size = Math.max(size, provider.requestSize(text));
+            }
+            return size;
+        });
+    }
+
+    private List<String> translateBatch(List<String> batch, String targetLang) {
+        if (metrics != null) {
+            long chars = 0;
+            for (String text : batch) {
+                chars += text == null ? 0 : text.length();
+            }
+            // Characters are what the providers bill for
+            metrics.counter("translation_chars").add(chars);
+        }
+        try {
+            return coordinator.translate(batch, SOURCE_LANG, targetLang);
+        } catch (IOException e) {
+            System.err.println("Translation failed on every provider: " + e.getMessage());
+            List<String> failed = new ArrayList<>(batch.size());
+            for (String text : batch) {
+                failed.add(FAILED_PREFIX + text);
+            }
+            return failed;
         }
-        return "[Translation Failed] " + text;
     }
 }
@@ -0,0 +1,145 @@
+package com.browserstack.assignment.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers how long each named wait took on each platform, so waits can use
+ * a timeout learned from history instead of a fixed constant.
+ *
+ * A wait that was satisfied records its duration; a wait that timed out records
+ * a miss. The learned timeout is the p99 of recent satisfied waits plus a
+ * margin, capped at the caller's default. If recent waits that ran the full
+ * default were mostly misses (e.g. a cookie banner that no longer renders)
+ * only the floor is used. A miss under a shorter learned timeout only says the
+ * timeout was too short, so it does not count towards that; instead the next
+ * wait runs the full default, as does every PROBE_INTERVAL-th wait, so the
+ * estimate can grow again.
+ * History is kept as one "platform, wait, millis, outcome" TSV line per sample,
+ * where outcome is 1 for satisfied, 0 for a full-timeout miss and 2 for a miss
+ * cut short by a learned timeout.
+ */
+public class WaitHistory {
+    private static final int WINDOW = 200;
+    private static final int MIN_SAMPLES = 5;
+    private static final double MARGIN = 1.5;
+    private static final long FLOOR_MILLIS = 500;
+    private static final int PROBE_INTERVAL = 10;
+    private static final long MISS = -1;
+    private static final long CUT_SHORT = -2;
+
+    private final Path file;
+    // platform + '\t' + wait -> recent samples, oldest first; misses are stored as MISS or CUT_SHORT
+    private final Map<String, List<Long>> samples = new HashMap<>();
+    // platform + '\t' + wait -> timeouts handed out, for spacing the probes
+    private final Map<String, Integer> lookups = new HashMap<>();
+
+    /** Memory-only history. */
+    public WaitHistory() {
+        this(null);
+    }
+
+    private WaitHistory(Path file) {
+        this.file = file;
+    }
+
+    /** Loads the history at file, or starts empty if it does not exist yet. */
+    public static WaitHistory open(Path file) throws IOException {
+        WaitHistory history = new WaitHistory(file);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t");
+                if (parts.length != 4)
+                    continue;
+                try {
+                    history.add(parts[0], parts[1], "1".equals(parts[3]) ? Long.parseLong(parts[2])
+                            : "2".equals(parts[3]) ? CUT_SHORT : MISS);
+                } catch (NumberFormatException e) {
+                    // Skip damaged lines
+                }
+            }
+        }
+        return history;
+    }
+
+    public void recordSatisfied(String platform, String wait, long millis) {
+        add(platform, wait, Math.max(0, millis));
+    }
+
+    /** A wait that timed out after the caller's full default: what it waited for is taken to be absent. */
+    public void recordMiss(String platform, String wait) {
+        add(platform, wait, MISS);
+    }
+
+    /**
+     * A wait that timed out under timeout. Below the caller's default that is a
+     * learned timeout that was too short, not evidence of absence.
+     */
+    public void recordMiss(String platform, String wait, Duration timeout, Duration fallback) {
+        add(platform, wait, timeout.compareTo(fallback) < 0 ? CUT_SHORT : MISS);
+    }
+
+    private synchronized void add(String platform, String wait, long millis) {
+        List<Long> list = samples.computeIfAbsent(platform + "\t" + wait, k -> new ArrayList<>());
+        list.add(millis);
+        if (list.size() > WINDOW)
+            list.remove(0);
+    }
+
+    /** Learned timeout for this wait on this platform, or fallback until there is enough history. */
+    public synchronized Duration timeout(String platform, String wait, Duration fallback) {
+        String key = platform + "\t" + wait;
+        List<Long> list = samples.get(key);
+        if (list == null || list.size() < MIN_SAMPLES)
+            return fallback;
+        // Waits only ever finish within the timeout they ran under, so without a full-length wait now and
+        // then the estimate could shrink but never grow
+        int lookup = lookups.merge(key, 1, Integer::sum);
+        if (lookup % PROBE_INTERVAL == 0 || list.get(list.size() - 1) == CUT_SHORT)
+            return fallback;
+        List<Long> satisfied = new ArrayList<>();
+        int decided = 0;
+        for (long millis : list) {
+            if (millis >= 0)
+                satisfied.add(millis);
+            if (millis != CUT_SHORT)
+                decided++;
+        }
+        long millis;
+        if (satisfied.size() < MIN_SAMPLES || satisfied.size() * 2 < decided) {
+            millis = FLOOR_MILLIS;
+        } else {
+            Collections.sort(satisfied);
+            long p99 = satisfied.get(Math.min(satisfied.size() - 1, (int) Math.ceil(0.99 * satisfied.size()) - 1));
+            millis = Math.max(FLOOR_MILLIS, (long) (p99 * MARGIN));
+        }
+        return Duration.ofMillis(Math.min(millis, fallback.toMillis()));
+    }
+
+    /** Rewrites the history file with the retained window; no-op for memory-only history. */
+    public synchronized void save() throws IOException {
+        if (file == null)
+            return;
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+            for (long millis : entry.getValue()) {
+                sb.append(entry.getKey()).append('\t').append(Math.max(0, millis)).append('\t')
+                        .append(millis >= 0 ? '1' : millis == CUT_SHORT ? '2' : '0').append('\n');
+            }
+        }
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,303 @@
+package com.browserstack.assignment.Utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of WebDriver sessions keyed by browser, version, OS and device, so
+ * tests lease a warm session instead of paying session startup every time.
+ * Idle sessions are health-checked before each lease and reset on return
+ * (cookies, web storage, about:blank). A session is retired after maxReuse leases or once it is
+ * older than maxAge.
+ */
+public class WebDriverPool implements AutoCloseable {
+
+    public interface DriverFactory {
+        WebDriver create(Capabilities capabilities) throws Exception;
+    }
+
+    private static class Session {
+        final WebDriver driver;
+        final String key;
+        final long createdAt = System.nanoTime();
+        int uses;
+
+        Session(WebDriver driver, String key) {
+            this.driver = driver;
+            this.key = key;
+        }
+    }
+
+    private final DriverFactory factory;
+    private final int maxSessionsPerKey;
+    private final int maxReuse;
+    private final long maxAgeNanos;
+    private volatile long leaseTimeoutNanos = TimeUnit.MINUTES.toNanos(10);
+
+    private final Map<String, Deque<Session>> idle = new HashMap<>();
+    private final Map<String, Integer> open = new HashMap<>();
+    private final Map<WebDriver, Session> leased = new IdentityHashMap<>();
+    private boolean closed;
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param maxSessionsPerKey concurrent sessions allowed per capability set (e.g. the grid's parallel limit)
+     * @param maxReuse          leases served by one session before it is quit
+     * @param maxAge            age after which a session is quit instead of reused
+     */
+    public WebDriverPool(DriverFactory factory, int maxSessionsPerKey, int maxReuse, Duration maxAge) {
+        this.factory = factory;
+        this.maxSessionsPerKey = Math.max(1, maxSessionsPerKey);
+        this.maxReuse = Math.max(1, maxReuse);
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public void setLeaseTimeout(Duration timeout) {
+        this.leaseTimeoutNanos = timeout.toNanos();
+    }
+
+    /** Opens up to count idle sessions for capabilities ahead of the first lease. */
+    public void warmUp(Capabilities capabilities, int count) throws Exception {
+        List<WebDriver> drivers = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++)
+                drivers.add(lease(capabilities));
+        } finally {
+            for (WebDriver driver : drivers)
+                release(driver);
+        }
+    }
+
+    public WebDriver lease(Capabilities capabilities) throws Exception {
+        String key = keyOf(capabilities);
+        long start = System.nanoTime();
+        long deadline = start + leaseTimeoutNanos;
+
+        while (true) {
+            Session candidate = null;
+            boolean mayCreate = false;
+            synchronized (this) {
+                if (closed)
+                    throw new IllegalStateException("WebDriver pool is closed");
+                Deque<Session> queue = idle.computeIfAbsent(key, k -> new ArrayDeque<>());
+                candidate = queue.pollFirst();
+                if (candidate == null) {
+                    int count = open.getOrDefault(key, 0);
+                    if (count < maxSessionsPerKey) {
+                        open.put(key, count + 1);
+                        mayCreate = true;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0)
+                            throw new IllegalStateException("Timed out waiting for a WebDriver session for " + key);
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        continue;
+                    }
+                }
+            }
+
+            if (candidate != null) {
+                if (isExpired(candidate) || !isHealthy(candidate.driver)) {
+                    retire(candidate);
+                    continue;
+                }
+                reuses.incrementAndGet();
+                return checkOut(candidate, start);
+            }
+
+            if (mayCreate) {
+                WebDriver driver;
+                try {
+                    driver = factory.create(capabilities);
+                } catch (Exception e) {
+                    synchronized (this) {
+                        open.merge(key, -1, Integer::sum);
+                        notifyAll();
+                    }
+                    throw e;
+                }
+                created.incrementAndGet();
+                return checkOut(new Session(driver, key), start);
+            }
+        }
+    }
+
+    private WebDriver checkOut(Session session, long leaseStart) {
+        long waited = System.nanoTime() - leaseStart;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        leases.incrementAndGet();
+        synchronized (this) {
+            leased.put(session.driver, session);
+        }
+        return session.driver;
+    }
+
+    /** Returns a leased session; it is reset and kept for reuse unless its reuse or age budget is spent. */
+    public void release(WebDriver driver) {
+        Session session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        if (session == null)
+            return;
+        session.uses++;
+        if (closed || session.uses >= maxReuse || isExpired(session) || !reset(session.driver)) {
+            retire(session);
+            return;
+        }
+        synchronized (this) {
+            idle.computeIfAbsent(session.key, k -> new ArrayDeque<>()).addLast(session);
+            notifyAll();
+        }
+    }
+
+    /** Quits a leased session that must not be reused, e.g. after a failed test. */
+    public void invalidate(WebDriver driver) {
+        Session session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        if (session != null)
+            retire(session);
+    }
+
+    private void retire(Session session) {
+        try {
+            session.driver.quit();
+        } catch (Exception e) {
+            // Session already gone
+        }
+        retired.incrementAndGet();
+        synchronized (this) {
+            open.merge(session.key, -1, Integer::sum);
+            notifyAll();
+        }
+    }
+
+    private boolean isExpired(Session session) {
+        return System.nanoTime() - session.createdAt > maxAgeNanos;
+    }
+
+    // Cheapest round trip that fails on a dead or timed-out session
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean reset(WebDriver driver) {
+        try {
+            if (driver instanceof JavascriptExecutor) {
+                try {
+                    ((JavascriptExecutor) driver).executeScript(
+                            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+                } catch (Exception e) {
+                    // about:blank and some mobile browsers refuse storage access
+                }
+            }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Could not reset pooled session, discarding it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Capabilities that decide which browser a session runs; credentials, build and project names stay out
+    // so they never end up in log or exception messages
+    private static final String[] KEY_CAPABILITIES = { "browserName", "browserVersion", "platformName" };
+    private static final String[] KEY_VENDOR_OPTIONS = { "os", "osVersion", "deviceName", "realMobile",
+            "browserVersion" };
+
+    static String keyOf(Capabilities capabilities) {
+        Map<String, Object> key = new TreeMap<>();
+        for (String name : KEY_CAPABILITIES) {
+            Object value = capabilities.getCapability(name);
+            if (value != null)
+                key.put(name, value);
+        }
+        for (Map.Entry<String, Object> entry : capabilities.asMap().entrySet()) {
+            if (!entry.getKey().endsWith(":options") || !(entry.getValue() instanceof Map))
+                continue;
+            Map<?, ?> options = (Map<?, ?>) entry.getValue();
+            for (String name : KEY_VENDOR_OPTIONS) {
+                Object value = options.get(name);
+                if (value != null)
+                    key.put(entry.getKey() + "." + name, value);
+            }
+        }
+        return key.toString();
+    }
+
+    public long getLeaseCount() {
+        return leases.get();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getReuseCount() {
+        return reuses.get();
+    }
+
+    public double getReuseRatio() {
+        long total = leases.get();
+        return total == 0 ? 0 : (double) reuses.get() / total;
+    }
+
+    public long getMaxLeaseWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    public double getAverageLeaseWaitMillis() {
+        long total = leases.get();
+        return total == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WebDriverPool{leases=%d, created=%d, reused=%d, retired=%d, reuseRatio=%.2f, "
+                + "avgWait=%.1fms, maxWait=%dms}", getLeaseCount(), getCreatedCount(), getReuseCount(),
+                retired.get(), getReuseRatio(), getAverageLeaseWaitMillis(), getMaxLeaseWaitMillis());
+    }
+
+    /** Quits every idle session; sessions still leased are quit when released. */
+    @Override
+    public void close() {
+        List<Session> toQuit = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Deque<Session> queue : idle.values())
+                toQuit.addAll(queue);
+            idle.clear();
+            notifyAll();
+        }
+        for (Session session : toQuit)
+            retire(session);
+    }
+}
@@ -1,34 +1,219 @@
 package com.browserstack.assignment.Utils;
 
-import java.util.HashMap;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Counts words across headlines. The tokenizer walks code points by hand
+ * instead of using regexes: letters and digits of any script are kept and
+ * lower-cased, so accented Spanish titles survive intact. Apostrophes, hyphens
+ * and periods inside a word are dropped without splitting it ("don't" becomes
+ * "dont"), and any other character separates words.
+ *
+ * Large corpora can be counted in parallel; each worker fills its own
+ * WordCountMap and the partial counts are merged at the end.
+ */
 public class WordAnalyzer {
+    public static final int DEFAULT_MIN_WORD_LENGTH = 3;
+    public static final int DEFAULT_MIN_OCCURRENCES = 3;
+
+    // Below this many headers the thread handoff costs more than the counting
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final int minWordLength;
+    private final int minOccurrences;
+
+    public WordAnalyzer() {
+        this(DEFAULT_MIN_WORD_LENGTH, DEFAULT_MIN_OCCURRENCES);
+    }
+
+    /**
+     * @param minWordLength  shortest word counted, in code points
+     * @param minOccurrences count a word needs to be reported as repeated
+     */
+    public WordAnalyzer(int minWordLength, int minOccurrences) {
+        this.minWordLength = Math.max(1, minWordLength);
+        this.minOccurrences = Math.max(1, minOccurrences);
+    }
+
+    /** Running word counts that can be fed one header at a time, e.g. from a pipeline stage. */
+    public static class WordCounter {
+        private final WordAnalyzer analyzer;
+        private final Tokenizer tokenizer;
+        private final WordCountMap counts = new WordCountMap();
+
+        public WordCounter() {
+            this(new WordAnalyzer());
+        }
+
+        public WordCounter(WordAnalyzer analyzer) {
+            this.analyzer = analyzer;
+            this.tokenizer = new Tokenizer(analyzer.minWordLength);
+        }
+
+        public synchronized void add(String header) {
+            tokenizer.count(header, counts);
+        }
+
+        /** Merges counts produced earlier, e.g. stored for an unchanged article. */
+        public synchronized void addCounts(Map<String, Integer> wordCounts) {
+            wordCounts.forEach(counts::add);
+        }
+
+        /** Words seen at least minOccurrences times so far. */
+        public synchronized Map<String, Integer> repeatedWords() {
+            return counts.toMap(analyzer.minOccurrences);
+        }
+
+        public synchronized List<Map.Entry<String, Integer>> topWords(int k) {
+            return counts.top(k);
+        }
+    }
 
     public static Map<String, Integer> analyzeRepeatedWords(List<String> headers) {
-        Map<String, Integer> wordCounts = new HashMap<>();
+        return new WordAnalyzer().repeatedWords(headers);
+    }
+
+    public Map<String, Integer> repeatedWords(List<String> headers) {
+        return count(headers).toMap(minOccurrences);
+    }
+
+    /** The k most frequent words, highest first, whether or not they reach minOccurrences. */
+    public List<Map.Entry<String, Integer>> topWords(List<String> headers, int k) {
+        return count(headers).top(k);
+    }
 
-        for (String header : headers) {
-            // clean header: remove punctuation, to lowercase
-            String cleanHeader = header.replaceAll("[^a-zA-Z0-9\\s]", "").toLowerCase();
-            String[] words = cleanHeader.split("\\s+");
+    /** The words count() would see in text, in order, for callers that need positions (n-grams, indexing). */
+    public List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        new Tokenizer(minWordLength).scan(text, (buffer, length) -> words.add(new String(buffer, 0, length)));
+        return words;
+    }
+
+    public WordCountMap count(List<String> headers) {
+        WordCountMap counts = new WordCountMap();
+        Tokenizer tokenizer = new Tokenizer(minWordLength);
+        for (String header : headers)
+            tokenizer.count(header, counts);
+        return counts;
+    }
 
-            for (String word : words) {
-                if (word.length() > 2) { // Filter out very short words
-                    wordCounts.put(word, wordCounts.getOrDefault(word, 0) + 1);
+    /**
+     * Same result as count, split across threads. Small inputs are counted on
+     * the calling thread.
+     */
+    public WordCountMap countParallel(List<String> headers, int threads) {
+        int workers = Math.min(Math.max(1, threads), headers.size() / (PARALLEL_THRESHOLD / 4) + 1);
+        if (workers == 1 || headers.size() < PARALLEL_THRESHOLD)
+            return count(headers);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<WordCountMap>> partials = new ArrayList<>();
+            int chunk = (headers.size() + workers - 1) / workers;
+            for (int from = 0; from < headers.size(); from += chunk) {
+                List<String> slice = headers.subList(from, Math.min(headers.size(), from + chunk));
+                partials.add(pool.submit(() -> count(slice)));
+            }
+            WordCountMap merged = null;
+            for (Future<WordCountMap> partial : partials) {
+                WordCountMap counts = partial.get();
+                if (merged == null) {
+                    merged = counts;
+                } else if (counts.size() > merged.size()) {
+                    // Merging the smaller map into the larger one probes fewer keys
+                    counts.addAll(merged);
+                    merged = counts;
+                } else {
+                    merged.addAll(counts);
                 }
             }
+            return merged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Word counting interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Word counting failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Splits text into lower-cased words in a reusable buffer; one per thread. */
+    static final class Tokenizer {
+        interface WordSink {
+            /** The word is buffer[0, length); the buffer is reused for the next word. */
+            void word(char[] buffer, int length);
         }
 
-        // Filter for counts > 2
-        Map<String, Integer> repeatedWords = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : wordCounts.entrySet()) {
-            if (entry.getValue() > 2) {
-                repeatedWords.put(entry.getKey(), entry.getValue());
+        private final int minWordLength;
+        private char[] buffer = new char[32];
+
+        Tokenizer(int minWordLength) {
+            this.minWordLength = minWordLength;
+        }
+
+        void count(String text, WordCountMap counts) {
+            scan(text, (word, length) -> counts.add(word, length, 1));
+        }
+
+        void scan(String text, WordSink sink) {
+            if (text == null)
+                return;
+            // Decomposed input (e + combining accent) would otherwise count apart from the composed form
+            if (!Normalizer.isNormalized(text, Normalizer.Form.NFC))
+                text = Normalizer.normalize(text, Normalizer.Form.NFC);
+
+            int length = 0;
+            int codePoints = 0;
+            int i = 0;
+            while (i < text.length()) {
+                int cp = text.codePointAt(i);
+                i += Character.charCount(cp);
+                boolean letterOrDigit = Character.isLetterOrDigit(cp);
+                if (letterOrDigit || (codePoints > 0 && isMark(cp))) {
+                    if (length + 2 > buffer.length)
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    length += Character.toChars(Character.toLowerCase(cp), buffer, length);
+                    if (letterOrDigit)
+                        codePoints++;
+                } else if (!isJoiner(cp)) {
+                    if (codePoints >= minWordLength)
+                        sink.word(buffer, length);
+                    length = 0;
+                    codePoints = 0;
+                }
             }
+            if (codePoints >= minWordLength)
+                sink.word(buffer, length);
+        }
+
+        private static boolean isMark(int cp) {
+            int type = Character.getType(cp);
+            return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK;
         }
 
-        return repeatedWords;
+        // Punctuation that sits inside words and is dropped rather than treated as a break
+        private static boolean isJoiner(int cp) {
+            switch (cp) {
+                case '\'':
+                case '\u2019': // right single quotation mark, the typographic apostrophe
+                case '-':
+                case '\u2010': // hyphen
+                case '.':
+                case '\u00AD': // soft hyphen
+                    return true;
+                default:
+                    return false;
+            }
+        }
     }
 }
@@ -0,0 +1,229 @@
+package com.browserstack.assignment.Utils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Open-addressing String to int counter. Counts live in a plain int[] instead
+ * of boxed Integers, and the tokenizer probes with its reusable char buffer,
+ * so a String is only allocated the first time a word is seen. Not
+ * thread-safe; parallel callers count into their own map and merge.
+ */
+public final class WordCountMap {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private int resizeAt;
+
+    public WordCountMap() {
+        this(16);
+    }
+
+    public WordCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(String word) {
+        int slot = find(word, spread(word.hashCode()));
+        return keys[slot] == null ? 0 : counts[slot];
+    }
+
+    public void add(String word, int delta) {
+        int hash = spread(word.hashCode());
+        int slot = find(word, hash);
+        if (keys[slot] == null) {
+            insert(slot, word, hash, delta);
+        } else {
+            counts[slot] += delta;
+        }
+    }
+
+    /** Counts chars[0, length) as one word; hashes the same way as String.hashCode. */
+    void add(char[] chars, int length, int delta) {
+        int h = 0;
+        for (int i = 0; i < length; i++)
+            h = 31 * h + chars[i];
+        int hash = spread(h);
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && sameChars(keys[slot], chars, length)) {
+                counts[slot] += delta;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, new String(chars, 0, length), hash, delta);
+    }
+
+    /** Adds every count from other into this map. */
+    public void addAll(WordCountMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            String key = other.keys[i];
+            if (key == null)
+                continue;
+            int slot = find(key, other.hashes[i]);
+            if (keys[slot] == null) {
+                insert(slot, key, other.hashes[i], other.counts[i]);
+            } else {
+                counts[slot] += other.counts[i];
+            }
+        }
+    }
+
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null)
+                action.accept(keys[i], counts[i]);
+        }
+    }
+
+    /** Boxed copy of the words counted at least minCount times. */
+    public Map<String, Integer> toMap(int minCount) {
+        Map<String, Integer> map = new HashMap<>();
+        forEach((word, count) -> {
+            if (count >= minCount)
+                map.put(word, count);
+        });
+        return map;
+    }
+
+    /**
+     * The k most frequent words, highest first, ties broken alphabetically.
+     * Uses a k-sized min-heap of slot indexes, so only the results are boxed.
+     */
+    public List<Map.Entry<String, Integer>> top(int k) {
+        if (k <= 0 || size == 0)
+            return Collections.emptyList();
+        int[] heap = new int[Math.min(k, size)];
+        int heapSize = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null)
+                continue;
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (ranksAbove(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(heapSize);
+        // Draining a min-heap yields the weakest first
+        while (heapSize > 0) {
+            int slot = heap[0];
+            result.add(new AbstractMap.SimpleImmutableEntry<>(keys[slot], counts[slot]));
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private boolean ranksAbove(int a, int b) {
+        if (counts[a] != counts[b])
+            return counts[a] > counts[b];
+        return keys[a].compareTo(keys[b]) < 0;
+    }
+
+    private void siftUp(int[] heap, int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAbove(heap[parent], slot))
+                break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        if (heapSize == 0)
+            return;
+        int index = 0;
+        int slot = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && ranksAbove(heap[child], heap[child + 1]))
+                child++;
+            if (!ranksAbove(slot, heap[child]))
+                break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    private int find(String word, int hash) {
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null && !(hashes[slot] == hash && keys[slot].equals(word)))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void insert(int slot, String word, int hash, int count) {
+        keys[slot] = word;
+        hashes[slot] = hash;
+        counts[slot] = count;
+        if (++size > resizeAt)
+            rehash();
+    }
+
+    private void rehash() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null)
+                continue;
+            int slot = oldHashes[i] & mask;
+            while (keys[slot] != null)
+                slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    private static boolean sameChars(String key, char[] chars, int length) {
+        if (key.length() != length)
+            return false;
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != chars[i])
+                return false;
+        }
+        return true;
+    }
+
+    // Linear probing clusters on String.hashCode's weak low bits without this
+    private static int spread(int h) {
+        h = (h ^ (h >>> 16)) * 0x9E3779B1;
+        return h ^ (h >>> 16);
+    }
+}
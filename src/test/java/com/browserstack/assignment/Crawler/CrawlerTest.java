@@ -0,0 +1,169 @@
+package com.browserstack.assignment.Crawler;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.StubHttpServer;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CrawlerTest {
+    private static final int SECTIONS = 6;
+    private static final int PAGES_PER_SECTION = 5;
+    private static final int ARTICLES_PER_PAGE = 3;
+    // Home plus every section page; each page also shows one shared featured article
+    private static final int LISTING_PAGES = 1 + SECTIONS * PAGES_PER_SECTION;
+    private static final int UNIQUE_ARTICLES = SECTIONS * PAGES_PER_SECTION * ARTICLES_PER_PAGE + 1;
+
+    /** Section listings with pagination, heavy cross-linking, trailing-slash and fragment duplicates. */
+    private static String page(String path) {
+        StringBuilder html = new StringBuilder("<html><body><nav><a href=\"/\">Portada</a>");
+        for (int s = 0; s < SECTIONS; s++) {
+            html.append("<a href=\"/seccion-").append(s).append("/\">Sección ").append(s).append("</a>");
+            html.append("<a href=\"/seccion-").append(s).append("#top\">").append(s).append("</a>");
+        }
+        html.append("</nav>");
+        html.append("<article><h2 class=\"c_t\"><a href=\"/portada/2026-10-16/destacado.html\">Destacado</a></h2>"
+                + "<p class=\"c_d\">Tema del día.</p></article>");
+        if (path.startsWith("/seccion-")) {
+            String[] parts = path.split("/");
+            int section = Integer.parseInt(parts[1].substring("seccion-".length()));
+            int number = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+            for (int a = 0; a < ARTICLES_PER_PAGE; a++) {
+                String slug = "s" + section + "-p" + number + "-a" + a;
+                html.append("<article><h2 class=\"c_t\"><a href=\"/seccion-").append(section)
+                        .append("/2026-10-16/").append(slug).append(".html\">Noticia ").append(slug)
+                        .append("</a></h2><p class=\"c_d\">Resumen ").append(slug).append("</p></article>");
+            }
+            if (number < PAGES_PER_SECTION)
+                html.append("<a href=\"/seccion-").append(section).append('/').append(number + 1)
+                        .append("/\">Siguiente</a>");
+            html.append("<a href=\"/seccion-").append(section).append("/\">Primera</a>");
+        }
+        html.append("<a href=\"https://other.example/\">Fuera</a><link href=\"/estilos.css\"></body></html>");
+        return html.toString();
+    }
+
+    private static StubHttpServer fixtureSite(AtomicInteger active, AtomicInteger maxActive) throws Exception {
+        return new StubHttpServer(request -> {
+            if (request.path.endsWith(".html"))
+                return StubResponse.status(404);
+            int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(10);
+            } finally {
+                active.decrementAndGet();
+            }
+            return new StubResponse(200, "text/html; charset=utf-8", page(request.path)
+                    .getBytes(StandardCharsets.UTF_8), 0);
+        });
+    }
+
+    private static Map<String, Integer> requestCounts(StubHttpServer site) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (StubHttpServer.RecordedRequest request : site.getRequests())
+            counts.merge(request.path, 1, Integer::sum);
+        return counts;
+    }
+
+    private static SiteCrawler crawler(int workers, int maxInFlight) {
+        PageFetcher fetcher = new HttpPageFetcher();
+        return new SiteCrawler(Collections.nCopies(workers, fetcher),
+                new HostPoliteness(Duration.ofMillis(2), maxInFlight), 1000);
+    }
+
+    @Test
+    public void testCrawlsEveryListingPageOnceAcrossWorkers() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        try (StubHttpServer site = fixtureSite(active, maxActive)) {
+            SiteCrawler crawler = crawler(3, 2);
+            List<Article> sunk = Collections.synchronizedList(new ArrayList<>());
+            crawler.setArticleSink(sunk::add);
+            SiteCrawler.Result result = crawler.crawl(Collections.singletonList(site.url("/")));
+
+            Map<String, Integer> counts = requestCounts(site);
+            Assert.assertEquals(counts.size(), LISTING_PAGES, counts.toString());
+            counts.forEach((path, count) -> Assert.assertEquals((int) count, 1, path + " fetched " + count + " times"));
+            Assert.assertEquals(result.getPagesFetched(), LISTING_PAGES);
+            Assert.assertEquals(result.getFailures(), 0);
+            Assert.assertTrue(result.isComplete());
+
+            Assert.assertEquals(result.getArticles().size(), UNIQUE_ARTICLES);
+            Assert.assertEquals(sunk.size(), UNIQUE_ARTICLES);
+            // One seed, three workers: the others only got work by stealing
+            Assert.assertTrue(result.getSteals() > 0, result.toString());
+            Assert.assertTrue(maxActive.get() <= 2, "Host saw " + maxActive + " concurrent requests");
+        }
+    }
+
+    @Test
+    public void testInterruptedCrawlResumesFromCheckpoint() throws Exception {
+        Path checkpoint = Files.createTempDirectory("crawl").resolve("frontier.bin");
+        try (StubHttpServer site = fixtureSite(new AtomicInteger(), new AtomicInteger())) {
+            List<String> seeds = Collections.singletonList(site.url("/"));
+
+            SiteCrawler first = crawler(2, 2);
+            first.setCheckpoint(checkpoint, 4);
+            first.setMaxPages(10);
+            SiteCrawler.Result partial = first.crawl(seeds);
+            Assert.assertFalse(partial.isComplete());
+            Assert.assertTrue(Files.exists(checkpoint));
+
+            SiteCrawler second = crawler(2, 2);
+            second.setCheckpoint(checkpoint, 4);
+            SiteCrawler.Result rest = second.crawl(seeds);
+            Assert.assertTrue(rest.isResumed());
+            Assert.assertTrue(rest.isComplete());
+            Assert.assertFalse(Files.exists(checkpoint), "Checkpoint kept after a complete crawl");
+
+            // Together the two runs fetched every page exactly once and emitted every article once
+            Map<String, Integer> counts = requestCounts(site);
+            Assert.assertEquals(counts.size(), LISTING_PAGES);
+            counts.forEach((path, count) -> Assert.assertEquals((int) count, 1, path + " fetched " + count + " times"));
+            Assert.assertEquals(partial.getPagesFetched() + rest.getPagesFetched(), LISTING_PAGES);
+            Assert.assertEquals(partial.getArticles().size() + rest.getArticles().size(), UNIQUE_ARTICLES);
+        }
+    }
+
+    @Test
+    public void testFrontierScalesToTensOfThousandsOfUrls() throws Exception {
+        int urls = 50_000;
+        SeenSet seen = new SeenSet(urls);
+        for (int i = 0; i < urls; i++)
+            Assert.assertTrue(seen.add("https://elpais.com/seccion/" + i + "/"));
+        for (int i = 0; i < urls; i += 97)
+            Assert.assertFalse(seen.add("https://ElPais.com/seccion/" + i + "#top"));
+        Assert.assertEquals(seen.size(), urls);
+        // About 1% of new URLs hit the Bloom filter and were confirmed against the exact set
+        Assert.assertTrue(seen.getFalsePositives() < urls / 30, "False positives: " + seen.getFalsePositives());
+
+        // In-memory site: page n links to 2n+1, 2n+2 and back to the root, 4 workers, no delay
+        int pages = 20_000;
+        PageFetcher tree = url -> {
+            int n = Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+            List<String> links = new ArrayList<>(Arrays.asList("http://fixture/p/0"));
+            for (int child = 2 * n + 1; child <= 2 * n + 2 && child < pages; child++)
+                links.add("http://fixture/p/" + child);
+            return new PageFetcher.Page(url, Collections.emptyList(), links);
+        };
+        SiteCrawler crawler = new SiteCrawler(Collections.nCopies(4, tree),
+                new HostPoliteness(Duration.ZERO, 4), 1000);
+        SiteCrawler.Result result = crawler.crawl(Collections.singletonList("http://fixture/p/0"));
+        Assert.assertEquals(result.getPagesFetched(), pages);
+        Assert.assertEquals(result.getUrlsSeen(), pages);
+        Assert.assertTrue(result.isComplete());
+    }
+}
@@ -1,9 +1,28 @@
 package com.browserstack.assignment;
 
 import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.DTO.ArticleRecord;
 import com.browserstack.assignment.PageObjects.ElPaisPage;
+import com.browserstack.assignment.Results.HeadlineIndex;
+import com.browserstack.assignment.Results.ResultsSnapshot;
+import com.browserstack.assignment.Results.ResultsWriter;
+import com.browserstack.assignment.Utils.ArticleStateStore;
+import com.browserstack.assignment.Utils.CommandMetricsListener;
+import com.browserstack.assignment.Utils.ConsentStore;
+import com.browserstack.assignment.Utils.HttpArchive;
+import com.browserstack.assignment.Utils.ImageDownloader;
+import com.browserstack.assignment.Utils.ImageStore;
+import com.browserstack.assignment.Utils.ImageVariantSelector;
+import com.browserstack.assignment.Utils.LeanPageLoad;
+import com.browserstack.assignment.Utils.Metrics;
+import com.browserstack.assignment.Utils.Pipeline;
+import com.browserstack.assignment.Utils.SingleFlight;
+import com.browserstack.assignment.Utils.TranslationCache;
 import com.browserstack.assignment.Utils.TranslationService;
+import com.browserstack.assignment.Utils.WaitHistory;
+import com.browserstack.assignment.Utils.WebDriverPool;
 import com.browserstack.assignment.Utils.WordAnalyzer;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -11,26 +30,155 @@ import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class ElPaisTest {
+    // Shared by all parallel platform runs and persisted between runs
+    private static final TranslationCache TRANSLATION_CACHE = new TranslationCache(1000,
+            Paths.get("cache", "translations.log"));
+
+    // Sessions are leased per platform and reused across tests instead of being created each time; the
+    // pool keys them on browser, version, OS and device only
+    private static final WebDriverPool DRIVER_POOL = new WebDriverPool(ElPaisTest::createDriver, 5, 5,
+            Duration.ofMinutes(15));
+
+    // Computed once so every platform's session lands in the same BrowserStack build
+    private static final String BUILD_NAME = System.getProperty("buildName",
+            "Build " + new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm").format(new java.util.Date()));
+
+    // -DfastNavigation=true carries consent and per-platform wait timings over between runs, see
+    // ElPaisPage.enableFastNavigation
+    private static final boolean FAST_NAVIGATION = Boolean.getBoolean("fastNavigation");
+    // -DtranslateContent=true also translates article bodies, sentence by sentence through the translation cache
+    private static final boolean TRANSLATE_CONTENT = Boolean.getBoolean("translateContent");
+    private static final WaitHistory WAIT_HISTORY = openWaitHistory();
+    private static final ConsentStore CONSENT_STORE = openConsentStore();
+
+    // Articles whose fingerprint is unchanged since an earlier run reuse its results instead of being
+    // reprocessed; one instance for every platform, so none of them saves over another's records
+    private static final ArticleStateStore ARTICLE_STATE = ArticleStateStore.open(Paths.get("cache", "articles.json"));
+
+    // One instance for every platform, so none of them overwrites the index with a stale copy on save
+    private static final ImageStore IMAGE_STORE = openImageStore();
+
+    // -DleanPageLoad=true skips images, media, fonts and trackers while scraping
+    private static final LeanPageLoad LEAN_PAGE_LOAD = Boolean.getBoolean("leanPageLoad") ? new LeanPageLoad() : null;
+
+    // Platforms run in parallel on nearly the same articles: identical translations and image
+    // fetches are made once for the whole suite and shared
+    private static final SingleFlight SHARED_WORK = new SingleFlight();
+
+    // -DhttpArchive=record captures translation, image and page responses; =replay serves them back with
+    // no network (pages only for the local browser, from a server on localhost)
+    private static final HttpArchive HTTP_ARCHIVE = HttpArchive.fromSystemProperties();
+    private static final HttpArchive.Server REPLAY_SERVER = openReplayServer();
+
+    // One JSON and one Prometheus file per test and platform
+    private static final Path METRICS_DIR = Paths.get("metrics");
+
+    // Every scraped article is appended to results/<run>.ndjson.gz and compacted into a queryable
+    // snapshot and the headline index at the end of the suite
+    private static final Path RESULTS_DIR = Paths.get("results");
+    private static final Path RESULTS_SNAPSHOT = RESULTS_DIR.resolve("snapshot");
+    private static final Path RESULTS_INDEX = RESULTS_DIR.resolve("index");
+    private static final String RUN_ID = new java.text.SimpleDateFormat("yyyyMMdd-HHmmss").format(new java.util.Date())
+            + "-" + Long.toHexString(System.nanoTime() & 0xffffff);
+    private static final ResultsWriter RESULTS = openResults();
+
     private WebDriver driver;
+    private Metrics metrics;
+    private String platform;
+    private boolean localBrowser;
+
+    private static ImageStore openImageStore() {
+        try {
+            return ImageStore.open(ElPaisPage.IMAGE_STORE_DIR);
+        } catch (IOException e) {
+            System.err.println("Image store unavailable, downloading without it: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static WaitHistory openWaitHistory() {
+        try {
+            return WaitHistory.open(Paths.get("cache", "wait-history.tsv"));
+        } catch (IOException e) {
+            System.err.println("Wait history not loaded: " + e.getMessage());
+            return new WaitHistory();
+        }
+    }
+
+    private static ConsentStore openConsentStore() {
+        try {
+            return ConsentStore.open(Paths.get("cache", "consent.tsv"));
+        } catch (IOException e) {
+            System.err.println("Stored consent not loaded: " + e.getMessage());
+            return new ConsentStore();
+        }
+    }
+
+    private static ResultsWriter openResults() {
+        try {
+            return ResultsWriter.open(RESULTS_DIR, RUN_ID, true);
+        } catch (IOException e) {
+            System.err.println("Results will not be persisted: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static HttpArchive.Server openReplayServer() {
+        if (HTTP_ARCHIVE == null || HTTP_ARCHIVE.getMode() != HttpArchive.Mode.REPLAY)
+            return null;
+        try {
+            return HTTP_ARCHIVE.serve(ElPaisPage.SITE_URL, 0);
+        } catch (IOException e) {
+            System.err.println("Could not start the replay server, pages load from the live site: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static WebDriver createDriver(Capabilities capabilities) throws MalformedURLException {
+        if (capabilities.getCapability("bstack:options") != null) {
+            return new RemoteWebDriver(new URL("https://hub-cloud.browserstack.com/wd/hub"), capabilities);
+        }
+        return new ChromeDriver(new ChromeOptions().merge(capabilities));
+    }
 
     @BeforeMethod
     @Parameters({ "browser", "os", "os_version", "device", "browser_version", "real_mobile" })
     public void setup(@Optional String browser, @Optional String os, @Optional String osVersion,
             @Optional String device, @Optional String browserVersion,
-            @Optional String realMobile) throws MalformedURLException {
+            @Optional String realMobile) throws Exception {
+        platform = platformName(browser, browserVersion, os, osVersion, device);
+        localBrowser = browser == null && device == null;
+        metrics = new Metrics();
+        metrics.setLabel("platform", platform);
+
         if (browser != null || device != null) {
             // BrowserStack Execution
             String username = System.getenv("BROWSERSTACK_USERNAME");
@@ -53,11 +201,7 @@ public class ElPaisTest {
             bstackOptions.put("userName", username);
             bstackOptions.put("accessKey", accessKey);
             bstackOptions.put("projectName", "El Pais Assignment");
-            String buildName = System.getProperty("buildName");
-            if (buildName == null) {
-                buildName = "Build " + new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm").format(new java.util.Date());
-            }
-            bstackOptions.put("buildName", buildName);
+            bstackOptions.put("buildName", BUILD_NAME);
 
             if (device != null) {
                 bstackOptions.put("deviceName", device);
@@ -77,8 +221,10 @@ public class ElPaisTest {
                 capabilities.setCapability("browserVersion", browserVersion);
 
             capabilities.setCapability("bstack:options", bstackOptions);
+            if (LEAN_PAGE_LOAD != null)
+                LEAN_PAGE_LOAD.applyTo(capabilities);
 
-            driver = new RemoteWebDriver(new URL("https://hub-cloud.browserstack.com/wd/hub"), capabilities);
+            driver = DRIVER_POOL.lease(capabilities);
         } else {
             // Local Execution
             ChromeOptions options = new ChromeOptions();
@@ -86,9 +232,14 @@ public class ElPaisTest {
             options.addArguments("--no-sandbox");
             options.addArguments("--disable-dev-shm-usage");
             options.addArguments("--remote-allow-origins=*");
+            if (LEAN_PAGE_LOAD != null)
+                LEAN_PAGE_LOAD.applyTo(options);
 
-            driver = new ChromeDriver(options);
+            driver = DRIVER_POOL.lease(options);
         }
+        if (LEAN_PAGE_LOAD != null && LEAN_PAGE_LOAD.enableBlocking(driver))
+            System.out.println("Lean page load: blocking " + LEAN_PAGE_LOAD.getBlockedPatterns().size()
+                    + " URL patterns");
         try {
             driver.manage().window().maximize();
         } catch (Exception e) {
@@ -96,8 +247,30 @@ public class ElPaisTest {
         }
     }
 
+    private static String platformName(String browser, String browserVersion, String os, String osVersion,
+            String device) {
+        if (browser == null && device == null)
+            return "local-chrome";
+        StringBuilder sb = new StringBuilder();
+        for (String part : new String[] { device, os, osVersion, browser, browserVersion }) {
+            if (part != null)
+                sb.append(sb.length() > 0 ? "-" : "").append(part);
+        }
+        return sb.toString();
+    }
+
     @AfterMethod
     public void tearDown(org.testng.ITestResult result) {
+        if (metrics != null) {
+            String test = result.getMethod().getMethodName();
+            metrics.setLabel("test", test);
+            try {
+                metrics.export(METRICS_DIR, platform + "-" + test);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics: " + e.getMessage());
+            }
+        }
+
         if (driver != null) {
             String status = "passed";
             String reason = "Test Passed";
@@ -114,38 +287,198 @@ public class ElPaisTest {
             } catch (Exception e) {
                 // Ignore if not running on BrowserStack or driver is already closed
             }
-            driver.quit();
+            // A failed test may leave the browser in an odd state, so only healthy sessions go back
+            if ("passed".equals(status)) {
+                DRIVER_POOL.release(driver);
+            } else {
+                DRIVER_POOL.invalidate(driver);
+            }
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void closeSharedState() {
+        System.out.println("Session pool: " + DRIVER_POOL);
+        DRIVER_POOL.close();
+        System.out.println(SHARED_WORK.report());
+        if (REPLAY_SERVER != null)
+            REPLAY_SERVER.close();
+        if (HTTP_ARCHIVE != null) {
+            System.out.println(HTTP_ARCHIVE);
+            try {
+                HTTP_ARCHIVE.close();
+            } catch (IOException e) {
+                System.err.println("Could not close the HTTP archive: " + e.getMessage());
+            }
+        }
+        System.out.println("Translation cache: " + TRANSLATION_CACHE + ", " + TRANSLATION_CACHE.getDiskEntries()
+                + " entries on disk");
+        TRANSLATION_CACHE.close();
+        try {
+            WAIT_HISTORY.save();
+            CONSENT_STORE.save();
+            ARTICLE_STATE.save();
+        } catch (IOException e) {
+            System.err.println("Could not save navigation state: " + e.getMessage());
+        }
+        if (IMAGE_STORE != null) {
+            try {
+                IMAGE_STORE.save();
+                IMAGE_STORE.collectGarbage();
+                System.out.println("Image store: " + IMAGE_STORE);
+            } catch (IOException e) {
+                System.err.println("Could not save the image store: " + e.getMessage());
+            }
+        }
+        if (RESULTS != null) {
+            try (Stream<Path> files = Files.list(RESULTS_DIR);
+                    ResultsSnapshot snapshot = ResultsSnapshot.open(RESULTS_SNAPSHOT);
+                    HeadlineIndex index = HeadlineIndex.open(RESULTS_INDEX)) {
+                RESULTS.close();
+                System.out.println("Results: " + RESULTS);
+                List<Path> logs = new ArrayList<>();
+                files.filter(f -> f.getFileName().toString().contains(".ndjson")).forEach(logs::add);
+                snapshot.add(logs);
+                System.out.println("Results history: " + snapshot + ", "
+                        + snapshot.headlinesOn(LocalDate.now(ZoneOffset.UTC)).size()
+                        + " headlines today");
+
+                // Only this run's log: earlier runs are already indexed, and repeats are skipped by key
+                ResultsWriter.read(RESULTS.getFile(), index::add);
+                index.commit();
+                LocalDate today = LocalDate.now(ZoneOffset.UTC);
+                System.out.println("Headline index: " + index + ", top bigrams this week: "
+                        + index.topNgrams(HeadlineIndex.Field.TRANSLATED, 2, 5, today.minusDays(6), today));
+            } catch (IOException e) {
+                System.err.println("Could not compact results: " + e.getMessage());
+            }
+        }
+    }
+
+    // The rendered page as the scraper saw it, so a replay run can serve it to the local browser
+    private void archivePage() {
+        if (HTTP_ARCHIVE == null || HTTP_ARCHIVE.getMode() != HttpArchive.Mode.RECORD || !localBrowser)
+            return;
+        try {
+            HTTP_ARCHIVE.record(driver.getCurrentUrl(), "text/html; charset=utf-8",
+                    driver.getPageSource().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            System.err.println("Could not archive page: " + e.getMessage());
         }
     }
 
     @Test
-    public void testScrapeAndAnalyze() {
-        ElPaisPage page = new ElPaisPage(driver);
+    public void testScrapeAndAnalyze() throws Exception {
+        // Commands go through the instrumented view; the pool keeps handling the raw session
+        ElPaisPage page = new ElPaisPage(CommandMetricsListener.instrument(driver, metrics));
+        page.setMetrics(metrics);
+        page.setImageSelector(ImageVariantSelector.fromSystemProperties());
+        if (FAST_NAVIGATION)
+            page.enableFastNavigation(WAIT_HISTORY, CONSENT_STORE, platform);
+        // Remote browsers cannot reach the replay server
+        if (REPLAY_SERVER != null && localBrowser)
+            page.setSiteUrl(REPLAY_SERVER.getBaseUrl());
+
+        // As each new article is scraped, its image download and header translation start side by side,
+        // and word counts update as each translation lands, so scraping and processing overlap and the run
+        // costs roughly the slowest stage
+        TranslationService translator = new TranslationService("");
+        translator.setCache(TRANSLATION_CACHE);
+        translator.setSingleFlight(SHARED_WORK);
+        translator.setMetrics(metrics);
+        translator.setArchive(HTTP_ARCHIVE);
+        ImageDownloader downloader = ElPaisPage.newImageDownloader(IMAGE_STORE);
+        downloader.setMetrics(metrics);
+        downloader.setSingleFlight(SHARED_WORK);
+        downloader.setArchive(HTTP_ARCHIVE);
+        WordAnalyzer analyzer = new WordAnalyzer();
+        WordAnalyzer.WordCounter wordCounter = new WordAnalyzer.WordCounter(analyzer);
+        List<ImageDownloader.Result> imageResults = new CopyOnWriteArrayList<>();
+        // Page position of each article (names its image file) and word counts of the ones analyzed this run
+        Map<Article, Integer> positions = new ConcurrentHashMap<>();
+        Map<Article, Map<String, Integer>> analyzed = new ConcurrentHashMap<>();
+
+        Pipeline<Article> pipeline = new Pipeline<>(8);
+        pipeline.stage("download", 4, (art, i) -> {
+            ImageDownloader.Result result = downloader.download(art, positions.get(art), ElPaisPage.IMAGES_DIR);
+            if (result != null)
+                imageResults.add(result);
+        });
+        Pipeline<Article>.Stage translate = pipeline.stage("translate", 4,
+                (art, i) -> art.setTranslatedTitle(translator.translate(art.getTitle(), "en")));
+        pipeline.stage("analyze", 1, (art, i) -> {
+            Map<String, Integer> counts = analyzer.count(Collections.singletonList(art.getTranslatedTitle())).toMap(1);
+            wordCounter.addCounts(counts);
+            analyzed.put(art, counts);
+        }, translate);
+        pipeline.start();
 
-        // 1. Visit El Pais
-        page.navigateToHomePage();
-        // page.ensureSpanishLanguage(); // Optional
+        // complete() must run even if navigation fails, or the stage workers stay parked for the rest of the suite
+        List<Article> articles;
+        AtomicInteger reused = new AtomicInteger();
+        try {
+            // 1. Visit El Pais
+            page.navigateToHomePage();
+            archivePage();
+            // page.ensureSpanishLanguage(); // Optional
 
-        // 2. Navigate to Opinion
-        page.navigateToOpinionSection();
+            // 2. Navigate to Opinion
+            page.navigateToOpinionSection();
+            archivePage();
 
-        // 3. Scrape Articles
-        List<Article> articles = page.getArticles(5);
+            // 3. Scrape Articles; each new or changed one enters the pipeline as soon as it is extracted, so
+            // downloads and translations start while the rest are still being read
+            AtomicInteger position = new AtomicInteger();
+            articles = page.getArticles(5, art -> {
+                int i = position.getAndIncrement();
+                // Replayed pages link to the replay server; keys and results keep the live URLs
+                if (REPLAY_SERVER != null)
+                    art.setUrl(REPLAY_SERVER.toOriginal(art.getUrl()));
+                positions.put(art, i);
+                ArticleStateStore.Status status = ARTICLE_STATE.classify(art);
+                ArticleStateStore.Record prior = ARTICLE_STATE.lookup(art);
+                ImageDownloader.Result image = null;
+                try {
+                    if (prior != null)
+                        image = downloader.reuse(art, i, ElPaisPage.IMAGES_DIR);
+                } catch (IOException e) {
+                    System.err.println("Could not reuse the stored image, downloading it: " + e.getMessage());
+                }
+                if (prior != null && (image != null || art.getImageUrl() == null || art.getImageUrl().isEmpty())) {
+                    art.setTranslatedTitle(prior.translatedTitle);
+                    wordCounter.addCounts(prior.wordCounts);
+                    if (image != null)
+                        imageResults.add(image);
+                    reused.incrementAndGet();
+                } else {
+                    System.out.println("Processing " + status + " article: " + art.getKey());
+                    try {
+                        pipeline.submit(art);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted feeding the pipeline", e);
+                    }
+                }
+            });
+        } finally {
+            pipeline.complete();
+        }
 
-        // QUIT DRIVER HERE to prevent BrowserStack Idle Timeout
-        // The subsequent steps (Image Download, Translation) are local and do not
-        // require the browser.
+        // RELEASE DRIVER HERE so the session is reset and available to the pool
+        // The remaining stages are local and do not require the browser, so they
+        // overlap with the session reset. A session that idles out on BrowserStack
+        // fails the pool's health check and is replaced on the next lease.
         if (driver != null) {
             try {
-                // Mark session as passed before quitting, assuming scrape was successful up to
+                // Mark session as passed before releasing, assuming scrape was successful up to
                 // here
                 ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
                         "browserstack_executor: {\"action\": \"setSessionStatus\", \"arguments\": {\"status\": \"passed\", \"reason\": \"Articles Scraped Successfully\"}}");
             } catch (Exception e) {
                 System.out.println("Could not mark session status: " + e.getMessage());
             }
-            driver.quit();
-            driver = null; // Prevent tearDown from trying to quit again
+            DRIVER_POOL.release(driver);
+            driver = null; // Prevent tearDown from releasing again
         }
 
         if (articles.isEmpty()) {
@@ -158,28 +491,69 @@ public class ElPaisTest {
             System.out.println("Content: " + art.getContent());
         }
 
-        // 4. Download Images
-        // Only download if we are running locally? Or always?
-        // If remote, saving to local disk works if we use bytes, but we are using URLs.
-        // The code downloads to local machine where code is running.
-        page.downloadImages(articles);
+        // One body at a time through the shared SingleFlight, so a body another platform is translating right
+        // now is sent once; the pipeline keeps working meanwhile
+        if (TRANSLATE_CONTENT) {
+            for (Article art : articles)
+                art.setTranslatedContent(translator.translateContent(art.getContent(), "en"));
+        }
+
+        // 4-6. Wait for downloads, translations and word counts
+        Assert.assertTrue(pipeline.await(2, TimeUnit.MINUTES), "Pipeline did not finish in time");
+        downloader.flush();
 
-        // 5. Translate Headers
-        TranslationService translator = new TranslationService("");
-        List<String> translatedHeaders = new ArrayList<>();
+        // Only articles that made it through every stage are remembered as processed
+        for (Map.Entry<Article, Map<String, Integer>> entry : analyzed.entrySet()) {
+            Article art = entry.getKey();
+            boolean imageOk = art.getImageUrl() == null || art.getImageUrl().isEmpty();
+            for (ImageDownloader.Result result : imageResults) {
+                if (result.index == positions.get(art))
+                    imageOk = result.isSuccess();
+            }
+            if (imageOk && !TranslationService.isFailure(art.getTranslatedTitle()))
+                ARTICLE_STATE.record(art, entry.getValue());
+        }
+        ARTICLE_STATE.save();
+        if (RESULTS != null) {
+            long scrapedAt = System.currentTimeMillis();
+            for (Article art : articles) {
+                ArticleStateStore.Record stored = ARTICLE_STATE.lookup(art);
+                Map<String, Integer> counts = analyzed.containsKey(art) ? analyzed.get(art)
+                        : stored != null ? stored.wordCounts : null;
+                RESULTS.write(new ArticleRecord(art, RUN_ID, platform, scrapedAt, counts));
+            }
+        }
+        System.out.println("Incremental crawl: " + reused.get() + " of " + articles.size() + " articles reused, "
+                + ARTICLE_STATE);
+
+        for (ImageDownloader.Result result : imageResults) {
+            if (result.isSuccess()) {
+                System.out.println((result.notModified ? "Reused image for article " : "Downloaded image for article ")
+                        + (result.index + 1) + " (" + result.bytes + " bytes, " + result.latencyMillis + " ms)");
+            }
+        }
+        System.out.println(ImageDownloader.summarize(imageResults, pipeline.getElapsedMillis()));
+        downloader.recordThroughput(imageResults, TimeUnit.MILLISECONDS.toNanos(pipeline.getElapsedMillis()));
 
         System.out.println("--- Translated Headers ---");
         for (Article art : articles) {
-            String translated = translator.translate(art.getTitle(), "en");
-            art.setTranslatedTitle(translated);
-            translatedHeaders.add(translated);
-            System.out.println("Original: " + art.getTitle() + " -> Translated: " + translated);
+            System.out.println("Original: " + art.getTitle() + " -> Translated: " + art.getTranslatedTitle());
+            if (art.getTranslatedContent() != null)
+                System.out.println("Translated content: " + art.getTranslatedContent());
+        }
+        System.out.println("Translation cache: " + TRANSLATION_CACHE);
+        System.out.println("Translation providers: " + translator.getCoordinator());
+        System.out.println(pipeline.report());
+        for (Pipeline<Article>.Stage stage : pipeline.getStages()) {
+            metrics.gauge("pipeline_stage_work_millis", "stage", stage.getName()).set(stage.getWorkMillis());
+            metrics.gauge("pipeline_stage_blocked_millis", "stage", stage.getName()).set(stage.getBlockedMillis());
         }
+        System.out.println(metrics.summarize(5));
 
-        // 6. Analyze Headers
-        Map<String, Integer> repeatedWords = WordAnalyzer.analyzeRepeatedWords(translatedHeaders);
+        Map<String, Integer> repeatedWords = wordCounter.repeatedWords();
         System.out.println("--- Repeated Words (>2 occurrences) ---");
         repeatedWords.forEach((word, count) -> System.out.println(word + ": " + count));
+        System.out.println("Top words: " + wordCounter.topWords(5));
 
         Assert.assertFalse(articles.isEmpty(), "Zero articles scrapped!");
     }
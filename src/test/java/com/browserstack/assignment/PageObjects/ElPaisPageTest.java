@@ -0,0 +1,167 @@
+package com.browserstack.assignment.PageObjects;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.ConsentStore;
+import com.browserstack.assignment.Utils.ImageVariantSelector;
+import com.browserstack.assignment.Utils.StubWebDriver;
+import com.browserstack.assignment.Utils.WaitHistory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ElPaisPageTest {
+
+    @Test
+    public void testBulkExtractionUsesSingleCommand() {
+        StubWebDriver driver = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        List<Article> articles = new ElPaisPage(driver).getArticles(5);
+
+        Assert.assertEquals(driver.getCommandCount(), 1, "Commands: " + driver.getCommandCounts());
+        Assert.assertEquals(articles.size(), 5);
+        Assert.assertEquals(articles.get(1).getImageUrl(), "https://imagenes.elpais.com/resizer/europa.jpg");
+        Assert.assertEquals(articles.get(2).getContent(), "No content available");
+        // No sizes: the slot is the whole (default 1280px) viewport, so the widest variant
+        Assert.assertEquals(articles.get(2).getImageUrl(), "https://imagenes.elpais.com/resizer/vivienda-828.jpg");
+        Assert.assertEquals(articles.get(2).getImageWidth(), 828);
+        Assert.assertEquals(articles.get(4).getUrl(), "https://elpais.com/opinion/2026-10-16/vinetas.html");
+    }
+
+    @Test
+    public void testEachArticleIsHandedOutAsItIsExtracted() {
+        for (boolean bulkFails : new boolean[] { false, true }) {
+            StubWebDriver driver = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+            driver.setBulkScriptFails(bulkFails);
+            List<Article> seen = new ArrayList<>();
+            List<Article> articles = new ElPaisPage(driver).getArticles(4, seen::add);
+
+            Assert.assertEquals(articles.size(), 4);
+            Assert.assertEquals(seen, articles, "Handed out once each, in page order");
+        }
+    }
+
+    @Test
+    public void testImageVariantFollowsTargetWidthWithoutScrolling() {
+        ImageVariantSelector selector = new ImageVariantSelector();
+        selector.setTargetWidth(400);
+        StubWebDriver driver = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        driver.setBulkScriptFails(true);
+        ElPaisPage page = new ElPaisPage(driver);
+        page.setImageSelector(selector);
+        List<Article> articles = page.getArticles(3);
+
+        Assert.assertEquals(articles.get(1).getImageUrl(), "https://imagenes.elpais.com/resizer/europa.jpg");
+        Assert.assertEquals(articles.get(2).getImageUrl(), "https://imagenes.elpais.com/resizer/vivienda-414.jpg");
+        Assert.assertEquals(articles.get(2).getImageWidth(), 414);
+        // Bulk attempt plus one image script per article with an image; no scrollIntoView per article
+        Assert.assertEquals(driver.getCommandCounts().get("executeScript"), Integer.valueOf(4),
+                "Commands: " + driver.getCommandCounts());
+    }
+
+    @Test
+    public void testPerElementFallbackWhenScriptFails() {
+        StubWebDriver bulkDriver = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        List<Article> bulk = new ElPaisPage(bulkDriver).getArticles(3);
+
+        StubWebDriver driver = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        driver.setBulkScriptFails(true);
+        List<Article> fallback = new ElPaisPage(driver).getArticles(3);
+
+        Assert.assertEquals(fallback.size(), 3);
+        for (int i = 0; i < fallback.size(); i++) {
+            Assert.assertEquals(fallback.get(i).getTitle(), bulk.get(i).getTitle());
+            Assert.assertEquals(fallback.get(i).getContent(), bulk.get(i).getContent());
+            // Same URL, so the state store sees the same article whichever path scraped it
+            Assert.assertNotNull(fallback.get(i).getUrl());
+            Assert.assertEquals(fallback.get(i).getKey(), bulk.get(i).getKey());
+        }
+        Assert.assertTrue(driver.getCommandCount() > 3 * bulkDriver.getCommandCount(),
+                "Commands: " + driver.getCommandCounts());
+    }
+
+    @Test
+    public void testFastNavigationRacesLocatorsWithLearnedTimeout() {
+        WaitHistory history = new WaitHistory();
+        for (int i = 0; i < 10; i++)
+            history.recordSatisfied("stub", "opinionLink", 120);
+        Assert.assertEquals(history.timeout("stub", "opinionLink", Duration.ofSeconds(10)), Duration.ofMillis(500));
+
+        // The link shows up on the third poll and is clicked, with no direct navigation
+        StubWebDriver found = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        found.setOpinionLinkAfterPolls(3);
+        ElPaisPage page = new ElPaisPage(found);
+        page.enableFastNavigation(history, new ConsentStore(), "stub");
+        page.navigateToOpinionSection();
+        Assert.assertEquals(found.getCurrentUrl(), "https://elpais.com/opinion/");
+        Assert.assertEquals(found.getCommandCounts().get("executeScript"), Integer.valueOf(3));
+        Assert.assertEquals(found.getCommandCounts().get("element.click"), Integer.valueOf(1));
+        Assert.assertNull(found.getCommandCounts().get("get"));
+
+        // No link at all: the learned timeout replaces two fixed 10 s waits before the direct URL
+        StubWebDriver missing = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        page = new ElPaisPage(missing);
+        page.enableFastNavigation(history, new ConsentStore(), "stub");
+        long start = System.nanoTime();
+        page.navigateToOpinionSection();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue(elapsed < 2000, "Fast navigation took " + elapsed + " ms");
+        Assert.assertEquals(missing.getCurrentUrl(), "https://elpais.com/opinion/");
+        Assert.assertEquals(missing.getCommandCounts().get("get"), Integer.valueOf(1));
+    }
+
+    @Test
+    public void testBulkMatchesPerElementOnFixturePage() {
+        WebDriver chrome;
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--headless=new", "--no-sandbox", "--disable-dev-shm-usage");
+            chrome = new ChromeDriver(options);
+        } catch (Exception e) {
+            throw new SkipException("Local Chrome not available: " + e.getMessage());
+        }
+
+        try {
+            AtomicInteger commands = new AtomicInteger();
+            WebDriver counted = new EventFiringDecorator<>(new WebDriverListener() {
+                @Override
+                public void beforeAnyCall(Object target, Method method, Object[] args) {
+                    commands.incrementAndGet();
+                }
+            }).decorate(chrome);
+
+            counted.get(Paths.get("src/test/resources/fixtures/opinion.html").toUri().toString());
+            ElPaisPage page = new ElPaisPage(counted);
+
+            commands.set(0);
+            List<Article> bulk = page.getArticles(10);
+            int bulkCommands = commands.get();
+
+            page.setBulkExtraction(false);
+            commands.set(0);
+            List<Article> perElement = page.getArticles(10);
+            int perElementCommands = commands.get();
+
+            Assert.assertEquals(bulk.size(), perElement.size());
+            for (int i = 0; i < bulk.size(); i++) {
+                Assert.assertEquals(bulk.get(i).getTitle(), perElement.get(i).getTitle());
+                Assert.assertEquals(bulk.get(i).getContent(), perElement.get(i).getContent());
+            }
+            Assert.assertTrue(bulkCommands < perElementCommands,
+                    "Bulk: " + bulkCommands + " vs per-element: " + perElementCommands);
+        } finally {
+            chrome.quit();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.browserstack.assignment.Results;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.DTO.ArticleRecord;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class HeadlineIndexTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 6, 1);
+    private static final String[] TOPICS = { "housing", "pensions", "tourism", "drought", "elections" };
+
+    private static ArticleRecord record(LocalDate day, int n) {
+        String topic = TOPICS[n % TOPICS.length];
+        // "climate change" only appears in the second half of the period
+        String lead = day.isBefore(FIRST_DAY.plusDays(50)) ? "the " + topic + " debate" : "climate change and " + topic;
+        Article article = new Article("Titular " + n + " sobre " + topic, "Texto del artículo " + n + " sobre "
+                + topic + " y la economía", "https://imagenes.elpais.com/" + n);
+        article.setUrl("https://elpais.com/opinion/" + day + "/articulo-" + n + ".html");
+        article.setTranslatedTitle(lead + " " + n);
+        long timestamp = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        return new ArticleRecord(article, "run-" + day, "local-chrome", timestamp, Collections.emptyMap());
+    }
+
+    @Test
+    public void testSearchRanksByTfIdfAndDeduplicatesKeys() throws Exception {
+        HeadlineIndex index = HeadlineIndex.open(Files.createTempDirectory("index"));
+        Assert.assertTrue(index.add("a", FIRST_DAY, "Vivienda", "Housing prices housing crisis", "", "https://a"));
+        Assert.assertTrue(index.add("b", FIRST_DAY, "Vivienda", "Housing and pensions debate in parliament today",
+                "", "https://b"));
+        Assert.assertTrue(index.add("c", FIRST_DAY, "Turismo", "Tourism record", "", "https://c"));
+        Assert.assertFalse(index.add("a", FIRST_DAY, "Otra", "Duplicate", "", "https://a"));
+        Assert.assertTrue(index.search("housing", 10).isEmpty(), "Pending documents are not searchable");
+        Assert.assertEquals(index.commit(), 3);
+        Assert.assertFalse(index.add("c", FIRST_DAY, "Otra", "Duplicate", "", "https://c"));
+
+        List<HeadlineIndex.Hit> hits = index.search("Housing", 10, HeadlineIndex.Field.TRANSLATED);
+        Assert.assertEquals(hits.size(), 2);
+        // Twice the term in a shorter title ranks first
+        Assert.assertEquals(hits.get(0).key, "a");
+        Assert.assertTrue(hits.get(0).score > hits.get(1).score);
+        Assert.assertEquals(index.search("vivienda", 10, HeadlineIndex.Field.TRANSLATED).size(), 0);
+        Assert.assertEquals(index.search("vivienda", 10).size(), 2);
+        Assert.assertEquals(index.search("tourism housing", 1).size(), 1);
+        Assert.assertEquals(index.documentFrequency("housing crisis", HeadlineIndex.Field.TRANSLATED), 1);
+    }
+
+    @Test
+    public void testDailyCommitsMergeAndAnswerAnalytics() throws Exception {
+        Path dir = Files.createTempDirectory("index");
+        HeadlineIndex index = HeadlineIndex.open(dir);
+        int perDay = 500;
+        long started = System.nanoTime();
+        for (int d = 0; d < 100; d++) {
+            LocalDate day = FIRST_DAY.plusDays(d);
+            for (int n = 0; n < perDay; n++)
+                index.add(record(day, d * perDay + n));
+            Assert.assertEquals(index.commit(), perDay);
+        }
+        System.out.printf("Indexed %d headlines in %d ms, %d segments%n", index.size(),
+                (System.nanoTime() - started) / 1_000_000, index.getSegmentCount());
+        Assert.assertEquals(index.size(), 100 * perDay);
+        Assert.assertTrue(index.getSegmentCount() < 20, index.toString());
+
+        HeadlineIndex reopened = HeadlineIndex.open(dir);
+        Assert.assertEquals(reopened.size(), 100 * perDay);
+        Assert.assertFalse(reopened.add(record(FIRST_DAY, 7)));
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            Assert.assertEquals(files.filter(f -> f.getFileName().toString().startsWith("seg-")).count(),
+                    reopened.getSegmentCount(), "Merged segments should be deleted");
+        }
+
+        started = System.nanoTime();
+        List<HeadlineIndex.Hit> hits = reopened.search("drought", 5, HeadlineIndex.Field.TITLE);
+        SortedMap<LocalDate, Integer> trend = reopened.trend("Climate change", FIRST_DAY, FIRST_DAY.plusDays(99), 7,
+                HeadlineIndex.Field.TRANSLATED);
+        List<Map.Entry<String, Integer>> bigrams = reopened.topNgrams(HeadlineIndex.Field.TRANSLATED, 2, 3,
+                FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(19));
+        System.out.printf("Queries took %d ms%n", (System.nanoTime() - started) / 1_000_000);
+
+        Assert.assertEquals(hits.size(), 5);
+        for (HeadlineIndex.Hit hit : hits)
+            Assert.assertTrue(hit.title.endsWith("drought"), hit.toString());
+
+        Assert.assertEquals(trend.size(), 15);
+        Assert.assertEquals(trend.get(FIRST_DAY), Integer.valueOf(0));
+        // Week starting day 49 holds one day before the switch and six after
+        Assert.assertEquals(trend.get(FIRST_DAY.plusDays(49)), Integer.valueOf(6 * perDay));
+        Assert.assertEquals(trend.get(FIRST_DAY.plusDays(98)), Integer.valueOf(2 * perDay));
+
+        // 10 days of "the <topic> debate": each topic bigram appears 1000 times
+        Assert.assertEquals(bigrams.size(), 3);
+        Assert.assertEquals(bigrams.get(0).getValue(), Integer.valueOf(10 * perDay / TOPICS.length));
+        for (Map.Entry<String, Integer> bigram : bigrams)
+            Assert.assertTrue(bigram.getKey().startsWith("the ") || bigram.getKey().endsWith(" debate"),
+                    bigram.toString());
+        Assert.assertTrue(reopened.topNgrams(HeadlineIndex.Field.TRANSLATED, 2, 3, FIRST_DAY.minusDays(30),
+                FIRST_DAY.minusDays(1)).isEmpty());
+    }
+}
@@ -0,0 +1,170 @@
+package com.browserstack.assignment.Results;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.DTO.ArticleRecord;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class ResultsTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 10, 1);
+    private static final List<String> PLATFORMS = Arrays.asList("local-chrome", "Windows-11-Chrome",
+            "Samsung Galaxy S23");
+
+    private static ArticleRecord record(String runId, String platform, LocalDate day, int n, String word,
+            int count) {
+        Article article = new Article("Titular " + day + " " + n, "Texto " + n, "https://imagenes.elpais.com/" + n);
+        article.setUrl("https://elpais.com/opinion/" + day + "/articulo-" + n + ".html");
+        article.setTranslatedTitle("Headline " + day + " " + n);
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put(word, count);
+        counts.put("government", 1);
+        long timestamp = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() + n * 60_000L;
+        return new ArticleRecord(article, runId, platform, timestamp, counts);
+    }
+
+    @Test
+    public void testWriterRoundTripsCompressedLog() throws Exception {
+        Path dir = Files.createTempDirectory("results");
+        ResultsWriter writer = ResultsWriter.open(dir, "run-1", true);
+        for (int i = 0; i < 2000; i++)
+            Assert.assertTrue(writer.write(record("run-1", PLATFORMS.get(i % 3), FIRST_DAY, i, "climate", 2)));
+        writer.close();
+        Assert.assertEquals(writer.getWrittenCount(), 2000);
+        Assert.assertFalse(writer.write(record("run-1", "late", FIRST_DAY, 0, "climate", 1)));
+        Assert.assertEquals(writer.getDroppedCount(), 1);
+
+        byte[] bytes = Files.readAllBytes(writer.getFile());
+        Assert.assertEquals(bytes[0] & 0xff, 0x1f, "Not gzip");
+        Assert.assertEquals(bytes[1] & 0xff, 0x8b, "Not gzip");
+
+        // A later append adds a gzip member; both read back as one stream
+        try (ResultsWriter again = ResultsWriter.open(dir, "run-1", true)) {
+            again.write(record("run-1", "local-chrome", FIRST_DAY, 2000, "climate", 1));
+        }
+        List<ArticleRecord> read = new ArrayList<>();
+        ResultsWriter.read(writer.getFile(), read::add);
+        Assert.assertEquals(read.size(), 2001);
+        Assert.assertEquals(read.get(7).getTitle(), "Titular " + FIRST_DAY + " 7");
+        Assert.assertEquals(read.get(7).getPlatform(), "Windows-11-Chrome");
+        Assert.assertEquals(read.get(7).getWordCounts().get("climate"), Integer.valueOf(2));
+        Assert.assertEquals(read.get(7).getKey(), "https://elpais.com/opinion/" + FIRST_DAY + "/articulo-7.html");
+    }
+
+    @Test
+    public void testSnapshotQueriesHistoryAndCompactsIncrementally() throws Exception {
+        Path dir = Files.createTempDirectory("results");
+        // 300 runs over 30 days, 3 platforms, 5 articles each; "climate" appears on even days only
+        List<Path> logs = new ArrayList<>();
+        for (int run = 0; run < 300; run++) {
+            LocalDate day = FIRST_DAY.plusDays(run / 10);
+            String runId = "run-" + run;
+            try (ResultsWriter writer = ResultsWriter.open(dir, runId, run % 2 == 0)) {
+                for (int n = 0; n < 5; n++) {
+                    String word = day.getDayOfMonth() % 2 == 0 ? "Climate" : "housing";
+                    writer.write(record(runId, PLATFORMS.get(run % 3), day, n, word, 2));
+                }
+                logs.add(writer.getFile());
+            }
+        }
+
+        Path snapshotDir = dir.resolve("snapshot");
+        Assert.assertEquals(ResultsSnapshot.compact(snapshotDir, logs), 300);
+        try (ResultsSnapshot snapshot = ResultsSnapshot.open(snapshotDir)) {
+            assertHistory(snapshot);
+        }
+
+        // Only the new log is read on the next compaction, into a segment of its own
+        Assert.assertEquals(ResultsSnapshot.compact(snapshotDir, logs), 0);
+        Path next;
+        try (ResultsWriter writer = ResultsWriter.open(dir, "run-300", true)) {
+            writer.write(record("run-300", "local-chrome", FIRST_DAY.plusDays(1), 9, "climate", 3));
+            next = writer.getFile();
+        }
+        List<Path> all = new ArrayList<>(logs);
+        all.add(next);
+        Assert.assertEquals(ResultsSnapshot.compact(snapshotDir, all), 1);
+        try (ResultsSnapshot updated = ResultsSnapshot.open(snapshotDir)) {
+            Assert.assertEquals(updated.getSegmentCount(), 2);
+            Assert.assertEquals(updated.size(), 1501);
+            Assert.assertEquals(updated.trend("climate").get(LocalDate.of(2026, 10, 2)), Integer.valueOf(103));
+            Assert.assertEquals(updated.getSources().size(), 301);
+        }
+        Assert.assertEquals(ResultsSnapshot.compact(dir.resolve("empty"), Collections.emptyList()), 0);
+    }
+
+    @Test
+    public void testSmallSegmentsAreMergedWithoutLosingHistory() throws Exception {
+        Path dir = Files.createTempDirectory("results");
+        Path snapshotDir = dir.resolve("snapshot");
+        List<Path> logs = new ArrayList<>();
+        try (ResultsSnapshot snapshot = ResultsSnapshot.open(snapshotDir)) {
+            // One run per compaction: the eighth fills the smallest tier and merges it into one segment
+            for (int run = 0; run < 8; run++) {
+                String runId = "run-" + run;
+                try (ResultsWriter writer = ResultsWriter.open(dir, runId, true)) {
+                    writer.write(record(runId, PLATFORMS.get(run % 3), FIRST_DAY.plusDays(7 - run), 0, "Climate",
+                            run + 1));
+                    logs.add(writer.getFile());
+                }
+                Assert.assertEquals(snapshot.add(logs), 1);
+                Assert.assertEquals(snapshot.getSegmentCount(), run < 7 ? run + 1 : 1);
+            }
+            Assert.assertEquals(snapshot.size(), 8);
+            Assert.assertEquals(snapshot.getTermCount(), 2);
+            Assert.assertEquals(snapshot.totalCount("climate"), 36);
+            Assert.assertEquals(snapshot.getSources().size(), 8);
+            Assert.assertEquals(snapshot.getPlatforms().size(), 3);
+        }
+        try (ResultsSnapshot reopened = ResultsSnapshot.open(snapshotDir);
+                DirectoryStream<Path> files = Files.newDirectoryStream(snapshotDir, "seg-*")) {
+            Assert.assertEquals(reopened.getSegmentCount(), 1);
+            int segmentFiles = 0;
+            for (Path ignored : files)
+                segmentFiles++;
+            Assert.assertEquals(segmentFiles, 1, "Merged inputs should be deleted");
+            // Rows come back in time order although later runs scraped earlier days
+            List<ResultsSnapshot.Row> rows = reopened.headlinesBetween(FIRST_DAY, FIRST_DAY.plusDays(7));
+            Assert.assertEquals(rows.size(), 8);
+            Assert.assertEquals(rows.get(0).runId, "run-7");
+            Assert.assertEquals(rows.get(7).runId, "run-0");
+            SortedMap<LocalDate, Integer> climate = reopened.trend("climate");
+            Assert.assertEquals(climate.get(FIRST_DAY), Integer.valueOf(8));
+            Assert.assertEquals(climate.get(FIRST_DAY.plusDays(7)), Integer.valueOf(1));
+        }
+    }
+
+    private static void assertHistory(ResultsSnapshot snapshot) {
+        Assert.assertEquals(snapshot.size(), 1500);
+        Assert.assertEquals(snapshot.getPlatforms().size(), 3);
+
+        LocalDate day = FIRST_DAY.plusDays(4);
+        List<ResultsSnapshot.Row> rows = snapshot.headlinesOn(day);
+        Assert.assertEquals(rows.size(), 50);
+        for (ResultsSnapshot.Row row : rows) {
+            Assert.assertEquals(row.getDay(), day);
+            Assert.assertTrue(row.title.startsWith("Titular " + day), row.title);
+        }
+        Assert.assertTrue(snapshot.headlinesOn(FIRST_DAY.minusDays(1)).isEmpty());
+        Assert.assertEquals(snapshot.headlinesBetween(FIRST_DAY, FIRST_DAY.plusDays(2)).size(), 150);
+
+        SortedMap<LocalDate, Integer> climate = snapshot.trend("climate");
+        Assert.assertEquals(climate.size(), 15);
+        Assert.assertEquals(climate.get(LocalDate.of(2026, 10, 2)), Integer.valueOf(100));
+        Assert.assertNull(climate.get(LocalDate.of(2026, 10, 3)));
+        Assert.assertEquals(snapshot.totalCount("government"), 1500);
+        Assert.assertTrue(snapshot.trend("unknown").isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.browserstack.assignment.Sources;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.PageObjects.ElPaisPage;
+import com.browserstack.assignment.Utils.ImageVariantSelector;
+import com.browserstack.assignment.Utils.StubHttpServer;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import com.browserstack.assignment.Utils.StubWebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class HttpArticleSourceTest {
+
+    static byte[] opinionFixture() throws Exception {
+        return Files.readAllBytes(Paths.get("src/test/resources/fixtures/opinion.html"));
+    }
+
+    @Test
+    public void testHttpSourceMatchesWebDriverSourceOnFixture() throws Exception {
+        byte[] html = opinionFixture();
+        try (StubHttpServer server = new StubHttpServer(
+                request -> new StubResponse(200, "text/html; charset=utf-8", html, 0))) {
+            List<Article> http = new HttpArticleSource(server.url("/opinion/")).fetchArticles(10);
+            List<Article> browser = new ElPaisPage(new StubWebDriver(StubWebDriver.articlesFromHtml(html)))
+                    .getArticles(10);
+
+            Assert.assertEquals(http.size(), 5);
+            Assert.assertEquals(http.size(), browser.size());
+            for (int i = 0; i < http.size(); i++) {
+                Assert.assertEquals(http.get(i).getTitle(), browser.get(i).getTitle());
+                Assert.assertEquals(http.get(i).getContent(), browser.get(i).getContent());
+                Assert.assertEquals(http.get(i).getImageUrl(), browser.get(i).getImageUrl());
+                Assert.assertEquals(http.get(i).getUrl(), browser.get(i).getUrl());
+            }
+        }
+    }
+
+    @Test
+    public void testParserHandlesMarkupQuirks() throws Exception {
+        String html = "<!DOCTYPE html><html><head><script>var s = '<article><h2 class=\"c_t\">no</h2></article>';</script>"
+                + "<style>article { color: red }</style></head><body>"
+                + "<!-- <article><h2 class=c_t>comentario</h2></article> -->"
+                + "<article class='story'><header><h2 class=\"c_t big\"><a href=\"/opinion/a.html?x=1&amp;y=2\">"
+                + "Caf&eacute; &amp; <span>pol&#237;tica</span>&nbsp;hoy</a></h2></header>"
+                + "<p class=c_d>Primera l&iacute;nea<br>segunda   l&#xED;nea</p>"
+                + "<img src=/img/a.jpg alt='a > b'></article>"
+                + "<article><h2 class=\"c_t\">Segundo</h2></article>"
+                + "<article><h2 class=\"c_t\">Tercero</h2></article>";
+
+        List<Article> articles = ArticleHtmlParser.parse(new StringReader(html), "https://elpais.com/opinion/", 2);
+
+        Assert.assertEquals(articles.size(), 2);
+        Article first = articles.get(0);
+        Assert.assertEquals(first.getTitle(), "Café & política hoy");
+        Assert.assertEquals(first.getContent(), "Primera línea segunda línea");
+        Assert.assertEquals(first.getImageUrl(), "https://elpais.com/img/a.jpg");
+        Assert.assertEquals(first.getUrl(), "https://elpais.com/opinion/a.html?x=1&y=2");
+        Assert.assertEquals(articles.get(1).getContent(), "No content available");
+        Assert.assertNull(articles.get(1).getImageUrl());
+    }
+
+    @Test
+    public void testParserPicksImageVariantFromPictureSources() throws Exception {
+        String html = "<article><h2 class=c_t>Foto</h2><figure><picture>"
+                + "<source media=\"(max-width: 767px)\" srcset=\"/m-400.webp 400w, /m-800.webp 800w\">"
+                + "<source srcset=\"/d-640.jpg 640w, /d-1280.jpg 1280w\" sizes=\"(min-width: 1000px) 600px, 100vw\">"
+                + "<img src=\"data:image/gif;base64,R0lGODlhAQABAAAAACw=\" width=\"640\" height=\"360\">"
+                + "</picture></figure></article>";
+        ImageVariantSelector selector = new ImageVariantSelector();
+
+        List<Article> articles = ArticleHtmlParser.parse(new StringReader(html), "https://elpais.com/opinion/", 1,
+                null, selector);
+
+        Assert.assertEquals(articles.get(0).getImageUrl(), "https://elpais.com/d-640.jpg");
+        Assert.assertEquals(articles.get(0).getImageWidth(), 640);
+        Assert.assertEquals(articles.get(0).getImageHeight(), 360);
+    }
+}
@@ -0,0 +1,77 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class ArticleStateStoreTest {
+
+    private static Article article(String title, String content, String url) {
+        Article article = new Article(title, content, "https://imagenes.elpais.com/resizer/clima.jpg");
+        article.setUrl(url);
+        return article;
+    }
+
+    @Test
+    public void testKeyAndFingerprintAreStable() {
+        Article a = article("La crisis  climática", "Texto",
+                "https://ElPais.com/opinion/2026-10-16/clima.html?rel=mas#x");
+        Article b = article(" La crisis climática ", "Texto", "https://elpais.com/opinion/2026-10-16/clima.html");
+        Assert.assertEquals(a.getKey(), "https://elpais.com/opinion/2026-10-16/clima.html");
+        Assert.assertEquals(a.getKey(), b.getKey());
+        // Whitespace alone is not a change
+        Assert.assertEquals(a.getFingerprint(), b.getFingerprint());
+
+        Article edited = article("La crisis climática", "Texto corregido", b.getUrl());
+        Assert.assertEquals(edited.getKey(), b.getKey());
+        Assert.assertNotEquals(edited.getFingerprint(), b.getFingerprint());
+
+        // Platforms pick different variants of the same image
+        Article mobile = new Article("Vivienda", "Texto", "https://imagenes.elpais.com/resizer/vivienda-414.jpg");
+        Article desktop = new Article("Vivienda", "Texto",
+                "https://imagenes.elpais.com/resizer/828x0/vivienda-828.webp?auth=abc&width=828");
+        Assert.assertEquals(Article.imageIdentity(desktop.getImageUrl()),
+                "https://imagenes.elpais.com/resizer/vivienda");
+        Assert.assertEquals(mobile.getFingerprint(), desktop.getFingerprint());
+        Article replaced = new Article("Vivienda", "Texto", "https://imagenes.elpais.com/resizer/alquiler-414.jpg");
+        Assert.assertNotEquals(replaced.getFingerprint(), mobile.getFingerprint());
+
+        Article unlinked = new Article("Viñetas", null, null);
+        Assert.assertEquals(unlinked.getKey(), "title:Viñetas");
+    }
+
+    @Test
+    public void testUnchangedArticlesReuseStoredResultsAcrossRuns() throws Exception {
+        Path file = Files.createTempDirectory("state").resolve("articles.json");
+        ArticleStateStore store = ArticleStateStore.open(file);
+        Article first = article("La crisis climática", "Texto", "https://elpais.com/opinion/a.html");
+        Assert.assertEquals(store.classify(first), ArticleStateStore.Status.NEW);
+        Assert.assertNull(store.lookup(first));
+
+        first.setTranslatedTitle("The climate crisis");
+        store.record(first, Collections.singletonMap("climate", 1));
+        store.save();
+
+        // A later run reads the file back
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Assert.assertTrue(json.contains("The climate crisis"), json);
+        ArticleStateStore reloaded = ArticleStateStore.open(file);
+
+        Article again = article("La crisis climática", "Texto", "https://elpais.com/opinion/a.html?utm=x");
+        Assert.assertEquals(reloaded.classify(again), ArticleStateStore.Status.UNCHANGED);
+        ArticleStateStore.Record record = reloaded.lookup(again);
+        Assert.assertEquals(record.translatedTitle, "The climate crisis");
+        Assert.assertEquals(record.wordCounts, Collections.singletonMap("climate", 1));
+
+        Article changed = article("La crisis climática, hoy", "Texto", "https://elpais.com/opinion/a.html");
+        Assert.assertEquals(reloaded.classify(changed), ArticleStateStore.Status.CHANGED);
+        Assert.assertNull(reloaded.lookup(changed));
+        Assert.assertEquals(reloaded.getUnchangedCount(), 1);
+        Assert.assertEquals(reloaded.getChangedCount(), 1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncTranslatorTest {
+
+    @Test
+    public void testRetriesOn429And5xx() throws Exception {
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        StubHttpServer.Responder flaky = request -> {
+            int attempt = attempts.computeIfAbsent(request.param("q"), k -> new AtomicInteger()).incrementAndGet();
+            if (attempt == 1)
+                return StubResponse.status(429);
+            if (attempt == 2)
+                return StubResponse.status(503);
+            return TranslationServiceTest.rapidEcho(request);
+        };
+        try (StubHttpServer server = new StubHttpServer(flaky);
+                AsyncTranslator translator = new AsyncTranslator(
+                        new TranslationService("key", server.url("/v2"), server.url("/free")), 4, 0, false)) {
+            translator.setRetryPolicy(3, 5, 20);
+
+            String translated = translator.translateAsync("hola", "en").get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(translated, "EN hola");
+            Assert.assertEquals(attempts.get("hola").get(), 3);
+            Assert.assertEquals(translator.getRetryCount(), 2);
+        }
+    }
+
+    @Test
+    public void testFallsBackAfterRetriesAndSkipsRetryOnClientErrors() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> request.path.equals("/free")
+                ? TranslationServiceTest.freeEcho(request)
+                : StubResponse.status("malo".equals(request.param("q")) ? 400 : 429));
+                AsyncTranslator translator = new AsyncTranslator(
+                        new TranslationService("key", server.url("/v2"), server.url("/free")), 2, 0, false)) {
+            translator.setRetryPolicy(2, 1, 5);
+
+            Assert.assertEquals(translator.translateAsync("hola", "en").get(5, TimeUnit.SECONDS), "EN hola");
+            Assert.assertEquals(translator.translateAsync("malo", "en").get(5, TimeUnit.SECONDS), "EN malo");
+            // hola: 3 primary attempts + free fallback; malo: 1 primary attempt + free fallback
+            Assert.assertEquals(server.getRequests().size(), 6);
+            Assert.assertEquals(translator.getRetryCount(), 2);
+        }
+    }
+
+    @Test
+    public void testRetryWaitsOutRetryAfter() throws Exception {
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        try (StubHttpServer server = new StubHttpServer(request -> {
+            if (request.path.equals("/free"))
+                return TranslationServiceTest.freeEcho(request);
+            String text = request.param("q");
+            if (attempts.computeIfAbsent(text, k -> new AtomicInteger()).incrementAndGet() > 1)
+                return TranslationServiceTest.rapidEcho(request);
+            return StubResponse.status(429).header("Retry-After", "hola".equals(text) ? "1" : "3600");
+        });
+                AsyncTranslator translator = new AsyncTranslator(
+                        new TranslationService("key", server.url("/v2"), server.url("/free")), 2, 0, false)) {
+            translator.setRetryPolicy(3, 1, 2000);
+
+            long start = System.nanoTime();
+            Assert.assertEquals(translator.translateAsync("hola", "en").get(5, TimeUnit.SECONDS), "EN hola");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue(elapsedMillis >= 1000, "Retry-After not honoured: " + elapsedMillis + "ms");
+
+            // An hour is past the maximum backoff, so the call falls back instead of waiting
+            Assert.assertEquals(translator.translateAsync("adios", "en").get(5, TimeUnit.SECONDS), "EN adios");
+            Assert.assertEquals(attempts.get("adios").get(), 1);
+            Assert.assertEquals(translator.getRetryCount(), 1);
+        }
+    }
+
+    @Test
+    public void testInFlightLimitUnderLatency() throws Exception {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        StubHttpServer.Responder slow = request -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return TranslationServiceTest.freeEcho(request);
+            } finally {
+                current.decrementAndGet();
+            }
+        };
+        try (StubHttpServer server = new StubHttpServer(slow);
+                AsyncTranslator translator = new AsyncTranslator(
+                        new TranslationService("", server.url("/v2"), server.url("/free")), 3, 0, true)) {
+            List<String> texts = new ArrayList<>();
+            for (int i = 0; i < 12; i++)
+                texts.add("titular " + i);
+
+            List<String> translated = translator.translateAll(texts, "en");
+
+            Assert.assertEquals(translated.get(7), "EN titular 7");
+            Assert.assertTrue(peak.get() <= 3, "Peak in-flight: " + peak.get());
+            Assert.assertTrue(peak.get() > 1, "Requests never overlapped");
+        }
+    }
+
+    @Test
+    public void testRateLimitAndStreamingCallbacks() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::freeEcho);
+                AsyncTranslator translator = new AsyncTranslator(
+                        new TranslationService("", server.url("/v2"), server.url("/free")), 2, 20, false)) {
+            List<String> texts = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                texts.add("texto " + i);
+            String[] results = new String[texts.size()];
+
+            long start = System.nanoTime();
+            translator.translateEach(texts, "en", (index, translated) -> results[index] = translated)
+                    .get(10, TimeUnit.SECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            for (int i = 0; i < texts.size(); i++)
+                Assert.assertEquals(results[i], "EN texto " + i);
+            // Burst of 2, then 6 more tokens at 20/s
+            Assert.assertTrue(elapsedMillis >= 250, "Rate limit not applied: " + elapsedMillis + "ms");
+        }
+    }
+}
@@ -8,6 +8,10 @@ import java.io.IOException;
 public class HTMLFetcher {
     public static void main(String[] args) {
         OkHttpClient client = new OkHttpClient();
+        // -DhttpArchive=record|replay, see HttpArchive
+        HttpArchive archive = HttpArchive.fromSystemProperties();
+        if (archive != null)
+            client = archive.wrap(client);
         String url = args.length > 0 ? args[0] : "https://elpais.com/opinion/";
 
         Request request = new Request.Builder()
@@ -22,6 +26,14 @@ public class HTMLFetcher {
             }
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            if (archive != null) {
+                try {
+                    archive.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,143 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+public class HttpArchiveTest {
+    private static final List<String> HEADLINES = Arrays.asList("La crisis climática", "Europa y la defensa");
+    private static final byte[] IMAGE = new byte[5000];
+
+    static {
+        for (int i = 0; i < IMAGE.length; i++)
+            IMAGE[i] = (byte) (i * 31);
+    }
+
+    private static StubResponse respond(StubHttpServer.RecordedRequest request) {
+        if (request.path.startsWith("/free"))
+            return TranslationServiceTest.freeEcho(request);
+        if (request.path.startsWith("/img"))
+            return new StubResponse(200, "image/jpeg", IMAGE, 0);
+        if (request.header("If-None-Match") != null)
+            return StubResponse.status(304);
+        return new StubResponse(200, "text/html; charset=utf-8",
+                "<html><a href=\"/opinion/\">Opinión</a></html>".getBytes(StandardCharsets.UTF_8), 0);
+    }
+
+    private static String get(OkHttpClient client, String url, String etag) throws IOException {
+        Request.Builder request = new Request.Builder().url(url);
+        if (etag != null)
+            request.header("If-None-Match", etag);
+        try (Response response = client.newCall(request.build()).execute()) {
+            return response.code() + " " + response.body().string();
+        }
+    }
+
+    @Test
+    public void testRecordedRunReplaysWithoutNetwork() throws Exception {
+        Path dir = Files.createTempDirectory("archive");
+        String freeUrl;
+        String imageUrl;
+        String pageUrl;
+        List<String> live;
+        try (StubHttpServer server = new StubHttpServer(HttpArchiveTest::respond);
+             HttpArchive archive = HttpArchive.open(dir, HttpArchive.Mode.RECORD)) {
+            freeUrl = server.url("/free");
+            imageUrl = server.url("/img/1.jpg");
+            pageUrl = server.url("/opinion/");
+
+            TranslationService translator = new TranslationService("", server.url("/v2"), freeUrl);
+            translator.setArchive(archive);
+            live = translator.translateAll(HEADLINES, "en");
+            ImageDownloader downloader = new ImageDownloader(new OkHttpClient(), 2);
+            downloader.setArchive(archive);
+            Assert.assertTrue(downloader.download(new Article("t", "c", imageUrl), 0,
+                    Files.createTempDirectory("images")).isSuccess());
+            // Not archived yet: the validator is dropped so the full page is captured, not a 304
+            OkHttpClient client = archive.wrap(new OkHttpClient());
+            Assert.assertTrue(get(client, pageUrl, "\"v1\"").startsWith("200 "));
+            Assert.assertNull(server.getRequests().get(server.getRequests().size() - 1).header("If-None-Match"));
+            // Archived now: validators go through, and the 304 does not replace the archived page
+            Assert.assertTrue(get(client, pageUrl, "\"v1\"").startsWith("304"));
+            Assert.assertEquals(archive.size(), 3);
+        }
+
+        // The stub server is gone: anything not served from the archive fails
+        try (HttpArchive archive = HttpArchive.open(dir, HttpArchive.Mode.REPLAY)) {
+            long start = System.nanoTime();
+            TranslationService translator = new TranslationService("", "http://127.0.0.1:9/v2", freeUrl);
+            translator.setArchive(archive);
+            Assert.assertEquals(translator.translateAll(HEADLINES, "en"), live);
+            Assert.assertEquals(live.get(0), "EN La crisis climática");
+
+            ImageDownloader downloader = new ImageDownloader(new OkHttpClient(), 2);
+            downloader.setArchive(archive);
+            ImageDownloader.Result image = downloader.download(new Article("t", "c", imageUrl), 0,
+                    Files.createTempDirectory("images"));
+            Assert.assertTrue(image.isSuccess(), image.error);
+            Assert.assertEquals(Files.readAllBytes(image.path), IMAGE);
+
+            OkHttpClient client = archive.wrap(new OkHttpClient());
+            Assert.assertTrue(get(client, pageUrl, null).contains("Opinión"));
+            try {
+                get(client, pageUrl + "?page=2", null);
+                Assert.fail("Unrecorded request reached the network");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Not in HTTP archive"), e.getMessage());
+            }
+            System.out.printf("Replayed in %d ms: %s%n", (System.nanoTime() - start) / 1_000_000, archive);
+            Assert.assertEquals(archive.getMisses(), 1);
+            Assert.assertEquals(archive.getHits(), 3);
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDroppedAndServerReplaysPages() throws Exception {
+        Path dir = Files.createTempDirectory("archive");
+        String html = "<html><a href=\"https://elpais.com/opinion/\">Opinión</a>"
+                + "<img src=\"https://imagenes.elpais.com/a.jpg\">" + "x".repeat(1000) + "</html>";
+        try (HttpArchive archive = HttpArchive.open(dir, HttpArchive.Mode.RECORD)) {
+            archive.record("https://elpais.com/", "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+            archive.record("https://elpais.com/", "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(archive.getRecorded(), 1, "An unchanged response is not appended again");
+        }
+        long size = Files.size(dir.resolve("archive.dat"));
+        Assert.assertTrue(size < html.length(), "Text bodies are stored deflated");
+        // A run killed halfway through an append
+        Files.write(dir.resolve("archive.dat"), new byte[] { 0, 0, 0, 40, 'G', 'E' }, StandardOpenOption.APPEND);
+
+        try (HttpArchive archive = HttpArchive.open(dir, HttpArchive.Mode.RECORD)) {
+            Assert.assertEquals(archive.size(), 1);
+            Assert.assertEquals(Files.size(dir.resolve("archive.dat")), size);
+            archive.record("https://elpais.com/opinion/", "text/html",
+                    "<p>Opinión</p>".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (HttpArchive archive = HttpArchive.open(dir, HttpArchive.Mode.REPLAY);
+             HttpArchive.Server server = archive.serve("https://elpais.com", 0)) {
+            Assert.assertEquals(archive.size(), 2);
+            OkHttpClient client = new OkHttpClient();
+            String home = get(client, server.getBaseUrl() + "/", null);
+            Assert.assertTrue(home.startsWith("200 "));
+            // Same-site links stay on the replay server; other hosts are left alone
+            Assert.assertTrue(home.contains("href=\"" + server.getBaseUrl() + "/opinion/\""), home);
+            Assert.assertTrue(home.contains("https://imagenes.elpais.com/a.jpg"));
+            Assert.assertEquals(get(client, server.getBaseUrl() + "/opinion/", null), "200 <p>Opinión</p>");
+            Assert.assertTrue(get(client, server.getBaseUrl() + "/missing", null).startsWith("404"));
+            Assert.assertEquals(server.toOriginal(server.getBaseUrl() + "/opinion/a.html"),
+                    "https://elpais.com/opinion/a.html");
+        }
+    }
+}
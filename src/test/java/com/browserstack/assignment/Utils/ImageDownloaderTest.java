@@ -0,0 +1,103 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ImageDownloaderTest {
+
+    static byte[] imageBytes(int size, int seed) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++)
+            bytes[i] = (byte) (i * 31 + seed);
+        return bytes;
+    }
+
+    static StubResponse image(String path) {
+        if (path.endsWith(".png"))
+            return new StubResponse(200, "image/png", imageBytes(2048, 1), 0);
+        if (path.endsWith(".webp"))
+            return new StubResponse(200, "image/webp", imageBytes(300_000, 2), 0);
+        if (path.endsWith(".jpg"))
+            return new StubResponse(200, "image/jpeg; charset=binary", imageBytes(4096, 3), 0);
+        return StubResponse.status(404);
+    }
+
+    @Test
+    public void testDownloadsWithContentTypeExtensions() throws Exception {
+        Path dir = Files.createTempDirectory("images");
+        // Stale file from an earlier run; files newer than the downloader class may be a parallel platform's
+        Files.write(dir.resolve("article_1.jpg"), new byte[] { 1 });
+        Files.setLastModifiedTime(dir.resolve("article_1.jpg"), FileTime.fromMillis(0));
+        try (StubHttpServer server = new StubHttpServer(request -> image(request.path))) {
+            List<Article> articles = Arrays.asList(
+                    new Article("uno", "", server.url("/a.png")),
+                    new Article("dos", "", null),
+                    new Article("tres", "", server.url("/c.webp")),
+                    new Article("cuatro", "", server.url("/missing")),
+                    new Article("cinco", "", server.url("/e.jpg")));
+
+            List<ImageDownloader.Result> results = new ImageDownloader(3).downloadAll(articles, dir);
+
+            Assert.assertEquals(results.size(), 4);
+            Assert.assertFalse(results.get(2).isSuccess());
+            Assert.assertEquals(Files.readAllBytes(dir.resolve("article_1.png")), imageBytes(2048, 1));
+            Assert.assertEquals(Files.size(dir.resolve("article_3.webp")), 300_000);
+            Assert.assertEquals(results.get(1).bytes, 300_000);
+            Assert.assertTrue(Files.exists(dir.resolve("article_5.jpg")));
+
+            try (Stream<Path> files = Files.list(dir)) {
+                List<String> names = files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+                Assert.assertEquals(names, Arrays.asList("article_1.png", "article_3.webp", "article_5.jpg"));
+            }
+            Assert.assertTrue(ImageDownloader.summarize(results, 10).startsWith("Images: 3/4 downloaded"));
+        }
+    }
+
+    @Test
+    public void testDownloadsRunInParallel() throws Exception {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (StubHttpServer server = new StubHttpServer(request -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+                return image(request.path);
+            } finally {
+                current.decrementAndGet();
+            }
+        })) {
+            List<Article> articles = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                articles.add(new Article("t" + i, "", server.url("/img" + i + ".jpg")));
+
+            long start = System.currentTimeMillis();
+            List<ImageDownloader.Result> results = new ImageDownloader(4).downloadAll(articles,
+                    Files.createTempDirectory("images"));
+            long elapsed = System.currentTimeMillis() - start;
+
+            Assert.assertTrue(results.stream().allMatch(ImageDownloader.Result::isSuccess));
+            Assert.assertTrue(peak.get() > 1 && peak.get() <= 4, "Peak concurrency: " + peak.get());
+            Assert.assertTrue(elapsed < 8 * 100, "Downloads look sequential: " + elapsed + "ms");
+        }
+    }
+
+    @Test
+    public void testExtensionFor() {
+        Assert.assertEquals(ImageDownloader.extensionFor("image/PNG"), ".png");
+        Assert.assertEquals(ImageDownloader.extensionFor("image/svg+xml"), ".svg");
+        Assert.assertEquals(ImageDownloader.extensionFor("application/octet-stream"), ".jpg");
+        Assert.assertEquals(ImageDownloader.extensionFor(null), ".jpg");
+    }
+}
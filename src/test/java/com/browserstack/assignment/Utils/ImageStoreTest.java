@@ -0,0 +1,128 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ImageStoreTest {
+
+    // Serves the same bytes under two URLs and honours If-None-Match
+    static StubResponse cdn(StubHttpServer.RecordedRequest request) {
+        if ("\"v1\"".equals(request.header("If-None-Match")))
+            return StubResponse.status(304);
+        byte[] bytes = request.path.equals("/other.png")
+                ? ImageDownloaderTest.imageBytes(1024, 9)
+                : ImageDownloaderTest.imageBytes(50_000, 4);
+        return new StubResponse(200, request.path.endsWith(".png") ? "image/png" : "image/jpeg", bytes, 0)
+                .header("ETag", "\"v1\"")
+                .header("Last-Modified", "Fri, 16 Oct 2026 08:00:00 GMT");
+    }
+
+    @Test
+    public void testDeduplicatesAndRevalidatesAcrossRuns() throws Exception {
+        Path storeDir = Files.createTempDirectory("image-store");
+        Path runDir = Files.createTempDirectory("images");
+        try (StubHttpServer server = new StubHttpServer(ImageStoreTest::cdn)) {
+            List<Article> articles = Arrays.asList(
+                    new Article("uno", "", server.url("/hero.jpg")),
+                    new Article("dos", "", server.url("/hero-copy.jpg")),
+                    new Article("tres", "", server.url("/other.png")));
+
+            ImageStore store = ImageStore.open(storeDir);
+            ImageDownloader downloader = new ImageDownloader(1);
+            downloader.setStore(store);
+            downloader.downloadAll(articles, runDir);
+
+            Assert.assertEquals(store.getStoredCount(), 2);
+            Assert.assertEquals(store.getDeduplicatedCount(), 1);
+            try (Stream<Path> objects = Files.walk(storeDir.resolve("objects"))) {
+                Assert.assertEquals(objects.filter(Files::isRegularFile).count(), 2);
+            }
+            Assert.assertEquals(Files.readAllBytes(runDir.resolve("article_2.jpg")),
+                    ImageDownloaderTest.imageBytes(50_000, 4));
+            Assert.assertTrue(Files.exists(storeDir.resolve("index.json")));
+
+            // Second run: every URL revalidates with a 304 and is relinked from the store
+            Path nextRun = Files.createTempDirectory("images");
+            List<ImageDownloader.Result> results = downloader.downloadAll(articles, nextRun);
+
+            Assert.assertTrue(results.stream().allMatch(r -> r.notModified));
+            Assert.assertEquals(store.getNotModifiedCount(), 3);
+            Assert.assertEquals(Files.readAllBytes(nextRun.resolve("article_3.png")),
+                    ImageDownloaderTest.imageBytes(1024, 9));
+            List<StubHttpServer.RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.get(3).header("If-Modified-Since"), "Fri, 16 Oct 2026 08:00:00 GMT");
+        }
+    }
+
+    @Test
+    public void testIndexIsReloadedAndMissingObjectsAreRefetched() throws Exception {
+        Path storeDir = Files.createTempDirectory("image-store");
+        try (StubHttpServer server = new StubHttpServer(ImageStoreTest::cdn)) {
+            List<Article> articles = Arrays.asList(new Article("uno", "", server.url("/hero.jpg")));
+            ImageDownloader downloader = new ImageDownloader(1);
+            downloader.setStore(ImageStore.open(storeDir));
+            downloader.downloadAll(articles, Files.createTempDirectory("images"));
+
+            // A later run: a fresh instance reads the saved index
+            ImageStore reopened = ImageStore.open(storeDir);
+            ImageStore.Entry entry = reopened.lookup(server.url("/hero.jpg"));
+            Assert.assertNotNull(entry);
+            Assert.assertEquals(entry.etag, "\"v1\"");
+            Files.delete(reopened.objectPath(entry.hash, entry.extension));
+
+            ImageDownloader nextRun = new ImageDownloader(1);
+            nextRun.setStore(reopened);
+            List<ImageDownloader.Result> results = nextRun.downloadAll(articles, Files.createTempDirectory("images"));
+            Assert.assertFalse(results.get(0).notModified);
+            Assert.assertNull(server.getRequests().get(1).header("If-None-Match"));
+            Assert.assertEquals(reopened.getStoredCount(), 1);
+        }
+    }
+
+    @Test
+    public void testNotModifiedUpdatesValidators() throws Exception {
+        Path storeDir = Files.createTempDirectory("image-store");
+        ImageStore store = ImageStore.open(storeDir);
+        String url = "https://imagenes.elpais.com/hero.jpg";
+        Path part = Files.write(Files.createTempFile("image", ".part"), new byte[] { 1 });
+        store.put(url, part, "aa01", ".jpg", "\"v1\"", "Fri, 16 Oct 2026 08:00:00 GMT");
+        store.save();
+
+        // The 304 rotates the ETag but says nothing of Last-Modified, which is kept
+        store.markNotModified(url, store.lookup(url), "\"v2\"", null);
+        store.save();
+
+        ImageStore.Entry entry = ImageStore.open(storeDir).lookup(url);
+        Assert.assertEquals(entry.etag, "\"v2\"");
+        Assert.assertEquals(entry.lastModified, "Fri, 16 Oct 2026 08:00:00 GMT");
+        Assert.assertEquals(entry.hash, "aa01");
+        Assert.assertEquals(store.getNotModifiedCount(), 1);
+    }
+
+    @Test
+    public void testUnreferencedObjectsAreCollected() throws Exception {
+        Path storeDir = Files.createTempDirectory("image-store");
+        ImageStore store = ImageStore.open(storeDir);
+        Path first = Files.write(Files.createTempFile("image", ".part"), new byte[] { 1 });
+        Path second = Files.write(Files.createTempFile("image", ".part"), new byte[] { 2 });
+        String url = "https://imagenes.elpais.com/hero.jpg";
+
+        Path oldObject = store.put(url, first, "aa01", ".jpg", null, null);
+        // The URL now serves other bytes, so its first object is no longer referenced
+        Path newObject = store.put(url, second, "bb02", ".jpg", null, null);
+
+        Assert.assertEquals(store.collectGarbage(), 1);
+        Assert.assertFalse(Files.exists(oldObject));
+        Assert.assertTrue(Files.exists(newObject));
+        Assert.assertEquals(store.collectGarbage(), 0);
+        Assert.assertEquals(store.getCollectedCount(), 1);
+    }
+}
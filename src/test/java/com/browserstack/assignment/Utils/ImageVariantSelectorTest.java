@@ -0,0 +1,100 @@
+package com.browserstack.assignment.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class ImageVariantSelectorTest {
+    private static final String RESIZER = "https://imagenes.elpais.com/resizer/v2/foto.jpg?auth=abc";
+    private static final String SRCSET = RESIZER + "&width=414&height=233 414w, "
+            + RESIZER + "&width=828&height=466 828w, "
+            + RESIZER + "&width=1200&height=675 1200w, "
+            + RESIZER + "&width=1960&height=1103 1960w";
+
+    private static ImageVariantSelector.Image image(String srcset, String sizes) {
+        ImageVariantSelector.Image image = new ImageVariantSelector.Image();
+        image.src = "data:image/gif;base64,R0lGODlhAQABAAAAACw=";
+        image.srcset = srcset;
+        image.sizes = sizes;
+        return image;
+    }
+
+    @Test
+    public void testParsesSrcsetAndSizes() {
+        List<ImageVariantSelector.Candidate> candidates = ImageVariantSelector.parseSrcset(
+                " a.jpg 1x,b.jpg  2x , c, d.jpg 300w, data:image/gif;base64,AAAA 10w, e.jpg 100h");
+        Assert.assertEquals(candidates.size(), 4);
+        Assert.assertEquals(candidates.get(1).url, "b.jpg");
+        Assert.assertEquals(candidates.get(1).density, 2.0);
+        // A URL ending in a comma has no descriptor
+        Assert.assertEquals(candidates.get(2).url, "c");
+        Assert.assertEquals(candidates.get(3).width, 300);
+
+        ImageVariantSelector selector = new ImageVariantSelector().withViewport(1000, 1);
+        Assert.assertEquals(selector.slotWidth("(max-width: 767px) 100vw, (min-width: 768px) and (max-width: 1200px)"
+                + " 50vw, 600px"), 500);
+        Assert.assertEquals(selector.slotWidth("(max-width: 40em) 100vw, 30em"), 480);
+        Assert.assertEquals(selector.slotWidth("calc(100vw - 2rem), 320px"), 320);
+        Assert.assertEquals(selector.slotWidth(null), 1000);
+        Assert.assertTrue(selector.matches("screen and (min-width: 768px)"));
+        Assert.assertFalse(selector.matches("(orientation: portrait)"));
+    }
+
+    @Test
+    public void testPicksSmallestVariantThatIsWideEnough() {
+        ImageVariantSelector selector = new ImageVariantSelector().withViewport(1280, 1);
+        // A 400px slot on a 1x screen
+        ImageVariantSelector.Choice choice = selector.choose(image(SRCSET, "(min-width: 1000px) 400px, 100vw"), null);
+        Assert.assertEquals(choice.url, RESIZER + "&width=414&height=233");
+        Assert.assertEquals(choice.width, 414);
+        Assert.assertEquals(choice.height, 233);
+
+        // The same slot on a 2x phone needs 2 * 375 device pixels
+        choice = selector.withViewport(375, 2).choose(image(SRCSET, "(min-width: 1000px) 400px, 100vw"), null);
+        Assert.assertEquals(choice.width, 828);
+
+        // Nothing is wide enough: the widest
+        ImageVariantSelector wide = new ImageVariantSelector();
+        wide.setTargetWidth(2400);
+        Assert.assertEquals(wide.choose(image(SRCSET, null), null).width, 1960);
+
+        // Density descriptors scale the declared width; relative URLs resolve against the page
+        ImageVariantSelector.Image dense = image("a-1x.jpg 1x, a-2x.jpg 2x", null);
+        dense.width = 300;
+        dense.height = 200;
+        ImageVariantSelector.Choice retina = new ImageVariantSelector().withViewport(1280, 2)
+                .choose(dense, "https://elpais.com/opinion/");
+        Assert.assertEquals(retina.url, "https://elpais.com/opinion/a-2x.jpg");
+        Assert.assertEquals(retina.width, 600);
+        Assert.assertEquals(retina.height, 400);
+    }
+
+    @Test
+    public void testByteBudgetAndPictureSources() {
+        ImageVariantSelector selector = new ImageVariantSelector();
+        // 1200x675 at a quarter byte per pixel is ~200 kB; 828x466 is ~96 kB
+        selector.setByteBudget(150_000);
+        Assert.assertEquals(selector.choose(image(SRCSET, null), null).width, 828);
+        selector.setByteBudget(1_000);
+        Assert.assertEquals(selector.choose(image(SRCSET, null), null).width, 414,
+                "Smallest variant when none fits");
+
+        // The first source whose media matches wins over the img's own srcset
+        ImageVariantSelector.Image picture = image(SRCSET, null);
+        picture.sources.add(new ImageVariantSelector.Source("next.jxl 720w", null, null, "image/jxl"));
+        picture.sources.add(new ImageVariantSelector.Source("mobile-640.webp 640w", "100vw",
+                "(max-width: 767px)", "image/webp"));
+        picture.sources.add(new ImageVariantSelector.Source("desktop-720.webp 720w, desktop-1440.webp 1440w",
+                "720px", "(min-width: 768px)", "image/webp"));
+        ImageVariantSelector desktop = new ImageVariantSelector().withViewport(1280, 1);
+        Assert.assertEquals(desktop.choose(picture, "https://elpais.com/").url, "https://elpais.com/desktop-720.webp");
+        Assert.assertEquals(desktop.withViewport(390, 1).choose(picture, null).url, "mobile-640.webp");
+
+        // Plain images keep src, then data-src
+        ImageVariantSelector.Image lazy = image(null, null);
+        lazy.dataSrc = "https://imagenes.elpais.com/lazy.jpg";
+        Assert.assertEquals(desktop.choose(lazy, null).url, "https://imagenes.elpais.com/lazy.jpg");
+        Assert.assertNull(desktop.choose(image(null, null), null));
+    }
+}
@@ -0,0 +1,166 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.PageObjects.ElPaisPage;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LeanPageLoadTest {
+    private static final int ASSET_DELAY_MILLIS = 150;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCapabilitiesFallBackToEagerLoadAndImagePrefs() {
+        LeanPageLoad lean = new LeanPageLoad();
+
+        ChromeOptions chrome = new ChromeOptions();
+        chrome.addArguments("--headless=new");
+        chrome.setExperimentalOption("prefs", Collections.singletonMap("intl.accept_languages", "es"));
+        lean.applyTo(chrome);
+        Assert.assertEquals(chrome.getCapability("pageLoadStrategy"), "eager");
+        Map<String, Object> chromeOptions = (Map<String, Object>) chrome.getCapability("goog:chromeOptions");
+        Map<String, Object> chromePrefs = (Map<String, Object>) chromeOptions.get("prefs");
+        Assert.assertEquals(chromePrefs.get("profile.managed_default_content_settings.images"), 2);
+        Assert.assertEquals(chromePrefs.get("intl.accept_languages"), "es");
+        Assert.assertEquals(chromeOptions.get("args"), Collections.singletonList("--headless=new"));
+
+        MutableCapabilities firefox = new MutableCapabilities();
+        firefox.setCapability("browserName", "firefox");
+        Map<String, Object> existing = new HashMap<>();
+        existing.put("args", Collections.singletonList("-headless"));
+        existing.put("prefs", Collections.singletonMap("intl.accept_languages", "es"));
+        firefox.setCapability("moz:firefoxOptions", existing);
+        lean.applyTo(firefox);
+        Map<String, Object> firefoxOptions = (Map<String, Object>) firefox.getCapability("moz:firefoxOptions");
+        Map<String, Object> firefoxPrefs = (Map<String, Object>) firefoxOptions.get("prefs");
+        Assert.assertEquals(firefoxPrefs.get("permissions.default.image"), 2);
+        Assert.assertEquals(firefoxPrefs.get("intl.accept_languages"), "es");
+        Assert.assertEquals(firefoxOptions.get("args"), Collections.singletonList("-headless"));
+
+        // Safari has neither prefs nor DevTools, only the load strategy
+        MutableCapabilities safari = new MutableCapabilities();
+        safari.setCapability("browserName", "safari");
+        lean.applyTo(safari);
+        Assert.assertEquals(safari.getCapability("pageLoadStrategy"), "eager");
+        Assert.assertEquals(safari.asMap().size(), 2);
+
+        Assert.assertFalse(lean.enableBlocking(new StubWebDriver(StubWebDriver.opinionFixtureArticles())));
+    }
+
+    /** The opinion fixture plus slow heavy assets: images, a font, a video and a third-party tag. */
+    private static StubHttpServer heavySite(AtomicLong bytesServed) throws Exception {
+        String fixture = new String(Files.readAllBytes(Paths.get("src/test/resources/fixtures/opinion.html")),
+                StandardCharsets.UTF_8);
+        StubHttpServer[] holder = new StubHttpServer[1];
+        holder[0] = new StubHttpServer(request -> {
+            StubResponse response;
+            String path = request.path;
+            if (path.equals("/opinion/")) {
+                String html = fixture.replace("https://imagenes.elpais.com/", holder[0].url("/imagenes/"))
+                        .replace("</body>", "<style>@font-face{font-family:H;src:url(/fonts/headline.woff2)}"
+                                + "body{font-family:H}</style>"
+                                + "<video src=\"/media/intro.mp4\" autoplay muted></video>"
+                                + "<img src=\"/imagenes/hero.jpg?w=1920\">"
+                                + "<script src=\"/ads/securepubads.doubleclick.net/tag.js\"></script></body>");
+                response = new StubResponse(200, "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8),
+                        0);
+            } else if (path.startsWith("/imagenes/")) {
+                response = new StubResponse(200, "image/jpeg", new byte[300_000], ASSET_DELAY_MILLIS);
+            } else if (path.startsWith("/fonts/")) {
+                response = new StubResponse(200, "font/woff2", new byte[150_000], ASSET_DELAY_MILLIS);
+            } else if (path.startsWith("/media/")) {
+                response = new StubResponse(200, "video/mp4", new byte[1_000_000], ASSET_DELAY_MILLIS);
+            } else if (path.startsWith("/ads/")) {
+                response = new StubResponse(200, "text/javascript", new byte[80_000], ASSET_DELAY_MILLIS * 2);
+            } else {
+                response = StubResponse.status(404);
+            }
+            bytesServed.addAndGet(response.body.length);
+            return response;
+        });
+        return holder[0];
+    }
+
+    private static WebDriver startChrome(LeanPageLoad lean) {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--no-sandbox", "--disable-dev-shm-usage");
+        if (lean != null)
+            lean.applyTo(options);
+        try {
+            WebDriver chrome = new ChromeDriver(options);
+            if (lean != null)
+                Assert.assertTrue(lean.enableBlocking(chrome), "DevTools blocking was not enabled");
+            return chrome;
+        } catch (AssertionError e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SkipException("Local Chrome not available: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLeanLoadKeepsArticlesAndSkipsHeavyAssets() throws Exception {
+        AtomicLong fullBytes = new AtomicLong();
+        AtomicLong leanBytes = new AtomicLong();
+        List<Article> full;
+        List<Article> lean;
+        long fullMillis;
+        long leanMillis;
+
+        try (StubHttpServer site = heavySite(fullBytes)) {
+            WebDriver chrome = startChrome(null);
+            try {
+                long start = System.nanoTime();
+                chrome.get(site.url("/opinion/"));
+                fullMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                full = new ElPaisPage(chrome).getArticles(10);
+            } finally {
+                chrome.quit();
+            }
+        }
+        try (StubHttpServer site = heavySite(leanBytes)) {
+            WebDriver chrome = startChrome(new LeanPageLoad());
+            try {
+                long start = System.nanoTime();
+                chrome.get(site.url("/opinion/"));
+                leanMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                lean = new ElPaisPage(chrome).getArticles(10);
+            } finally {
+                chrome.quit();
+            }
+            for (StubHttpServer.RecordedRequest request : site.getRequests())
+                Assert.assertEquals(request.path, "/opinion/", "Lean load fetched " + request.path);
+        }
+
+        // Load times of two separate browser launches on a shared machine are only reported; the byte count and
+        // the request paths are what show the heavy assets were skipped
+        System.out.println("Page load full: " + fullMillis + " ms, " + fullBytes.get() + " bytes; lean: "
+                + leanMillis + " ms, " + leanBytes.get() + " bytes");
+        Assert.assertTrue(leanBytes.get() * 10 < fullBytes.get(), "Lean bytes " + leanBytes + " vs " + fullBytes);
+
+        // Same Article data either way, image URLs included
+        Assert.assertEquals(lean.size(), full.size());
+        for (int i = 0; i < full.size(); i++) {
+            Assert.assertEquals(lean.get(i).getTitle(), full.get(i).getTitle());
+            Assert.assertEquals(lean.get(i).getContent(), full.get(i).getContent());
+            Assert.assertEquals(lean.get(i).getImageUrl(), full.get(i).getImageUrl());
+            Assert.assertEquals(lean.get(i).getUrl(), full.get(i).getUrl());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.PageObjects.ElPaisPage;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsTest {
+
+    private static JsonObject find(JsonObject root, String section, String name, String label, String value) {
+        for (JsonElement element : root.getAsJsonArray(section)) {
+            JsonObject series = element.getAsJsonObject();
+            if (series.get("name").getAsString().equals(name)
+                    && (label == null || value.equals(series.getAsJsonObject("labels").get(label).getAsString())))
+                return series;
+        }
+        return null;
+    }
+
+    @Test
+    public void testListenerCountsEveryCommandAndPageStep() {
+        StubWebDriver stub = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        stub.setBulkScriptFails(true);
+        Metrics metrics = new Metrics();
+        ElPaisPage page = new ElPaisPage(CommandMetricsListener.instrument(stub, metrics));
+        page.setMetrics(metrics);
+
+        List<Article> articles = page.getArticles(3);
+        Assert.assertEquals(articles.size(), 3);
+
+        JsonObject json = JsonParser.parseString(metrics.toJson()).getAsJsonObject();
+        long recorded = 0;
+        for (JsonElement element : json.getAsJsonArray("histograms")) {
+            JsonObject series = element.getAsJsonObject();
+            if (series.get("name").getAsString().equals("webdriver_command"))
+                recorded += series.get("count").getAsLong();
+        }
+        Assert.assertEquals(recorded, stub.getCommandCount(), "Commands: " + stub.getCommandCounts());
+
+        // The failed bulk script is timed and counted as an error
+        JsonObject errors = find(json, "counters", "webdriver_command_errors", "command", "driver.executeScript");
+        Assert.assertNotNull(errors, json.toString());
+        Assert.assertEquals(errors.get("value").getAsLong(), 1);
+        JsonObject step = find(json, "histograms", "page_step", "step", "getArticles");
+        Assert.assertNotNull(step, json.toString());
+        Assert.assertEquals(step.get("count").getAsLong(), 1);
+    }
+
+    @Test
+    public void testSharedInterfaceMethodsAreLabelledByTarget() {
+        StubWebDriver stub = new StubWebDriver(StubWebDriver.opinionFixtureArticles());
+        stub.setBulkScriptFails(true);
+        Metrics metrics = new Metrics();
+        new ElPaisPage(CommandMetricsListener.instrument(stub, metrics)).getArticles(3);
+
+        // findElements is declared once, on SearchContext, but is called on the driver and on elements
+        JsonObject json = JsonParser.parseString(metrics.toJson()).getAsJsonObject();
+        JsonObject onDriver = find(json, "histograms", "webdriver_command", "command", "driver.findElements");
+        JsonObject onElement = find(json, "histograms", "webdriver_command", "command", "element.findElements");
+        Assert.assertNotNull(onDriver, json.toString());
+        Assert.assertNotNull(onElement, json.toString());
+    }
+
+    @Test
+    public void testPrometheusExportIsCumulativeAndLabelled() throws Exception {
+        Metrics metrics = new Metrics();
+        metrics.setLabel("platform", "iPhone 14 \"Safari\"");
+        metrics.setLabel("test", "testScrapeAndAnalyze");
+        Metrics.Histogram histogram = metrics.histogram("translation_provider_call", "provider", "rapidapi");
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(40));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(40));
+        histogram.record(TimeUnit.SECONDS.toNanos(60));
+        metrics.counter("image_bytes").add(2048);
+        metrics.gauge("image_throughput_bytes_per_second").set(1024.5);
+
+        String prom = metrics.toPrometheus();
+        String labels = "platform=\"iPhone 14 \\\"Safari\\\"\",test=\"testScrapeAndAnalyze\",provider=\"rapidapi\"";
+        Assert.assertTrue(prom.contains("# TYPE elpais_translation_provider_call_seconds histogram\n"), prom);
+        Assert.assertTrue(prom.contains("elpais_translation_provider_call_seconds_bucket{" + labels
+                + ",le=\"0.001\"} 1\n"), prom);
+        Assert.assertTrue(prom.contains("elpais_translation_provider_call_seconds_bucket{" + labels
+                + ",le=\"0.05\"} 3\n"), prom);
+        Assert.assertTrue(prom.contains("elpais_translation_provider_call_seconds_bucket{" + labels
+                + ",le=\"30.0\"} 3\n"), prom);
+        Assert.assertTrue(prom.contains("elpais_translation_provider_call_seconds_bucket{" + labels
+                + ",le=\"+Inf\"} 4\n"), prom);
+        Assert.assertTrue(prom.contains("elpais_translation_provider_call_seconds_count{" + labels + "} 4\n"), prom);
+        Assert.assertTrue(prom.contains("elpais_image_bytes_total{platform=\"iPhone 14 \\\"Safari\\\"\","
+                + "test=\"testScrapeAndAnalyze\"} 2048\n"), prom);
+
+        Assert.assertEquals(histogram.quantileSeconds(0.5), 0.05);
+        Assert.assertEquals(histogram.quantileSeconds(0.99), 60.0);
+
+        Path dir = Files.createTempDirectory("metrics");
+        metrics.export(dir, "iPhone 14-testScrapeAndAnalyze");
+        JsonObject json = JsonParser.parseString(new String(
+                Files.readAllBytes(dir.resolve("iPhone_14-testScrapeAndAnalyze.json")), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        Assert.assertEquals(json.getAsJsonObject("labels").get("test").getAsString(), "testScrapeAndAnalyze");
+        JsonObject gauge = find(json, "gauges", "image_throughput_bytes_per_second", null, null);
+        Assert.assertEquals(gauge.get("value").getAsDouble(), 1024.5);
+        Assert.assertTrue(Files.exists(dir.resolve("iPhone_14-testScrapeAndAnalyze.prom")));
+    }
+}
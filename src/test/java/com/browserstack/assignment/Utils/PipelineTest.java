@@ -0,0 +1,95 @@
+package com.browserstack.assignment.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PipelineTest {
+
+    @Test
+    public void testBranchesRunConcurrentlyAndDependentStageSeesResults() throws Exception {
+        Map<Integer, String> translated = new ConcurrentHashMap<>();
+        List<Integer> downloaded = new CopyOnWriteArrayList<>();
+        List<String> analyzed = new CopyOnWriteArrayList<>();
+
+        Pipeline<String> pipeline = new Pipeline<>(4);
+        pipeline.stage("download", 1, (item, i) -> {
+            Thread.sleep(40);
+            downloaded.add(i);
+        });
+        Pipeline<String>.Stage translate = pipeline.stage("translate", 1, (item, i) -> {
+            Thread.sleep(40);
+            translated.put(i, item.toUpperCase());
+        });
+        pipeline.stage("analyze", 1, (item, i) -> analyzed.add(translated.get(i)), translate);
+        pipeline.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++)
+            pipeline.submit("titular " + i);
+        pipeline.complete();
+        Assert.assertTrue(pipeline.await(10, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertEquals(downloaded.size(), 10);
+        Assert.assertEquals(analyzed.size(), 10);
+        Assert.assertTrue(analyzed.contains("TITULAR 7"));
+        // Two 400 ms branches overlap instead of adding up to 800 ms
+        Assert.assertTrue(elapsed < 700, "Stages did not overlap: " + elapsed + " ms");
+        for (Pipeline<String>.Stage stage : pipeline.getStages())
+            Assert.assertEquals(stage.getProcessed(), 10);
+    }
+
+    @Test
+    public void testSlowStageAppliesBackpressure() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Pipeline<Integer> pipeline = new Pipeline<>(2);
+        Pipeline<Integer>.Stage fast = pipeline.stage("fast", 1, (item, i) -> inFlight.incrementAndGet());
+        Pipeline<Integer>.Stage slow = pipeline.stage("slow", 1, (item, i) -> {
+            maxInFlight.accumulateAndGet(inFlight.get(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+        }, fast);
+        pipeline.start();
+
+        for (int i = 0; i < 20; i++)
+            pipeline.submit(i);
+        pipeline.complete();
+        Assert.assertTrue(pipeline.await(10, TimeUnit.SECONDS));
+
+        // Queue of 2, one item in the slow stage and one held by the blocked fast worker
+        Assert.assertTrue(maxInFlight.get() <= 4, "Unbounded buffering: " + maxInFlight.get());
+        Assert.assertTrue(fast.getBlockedMillis() > 0);
+        Assert.assertSame(pipeline.getBottleneck(), slow);
+        Assert.assertTrue(pipeline.report().contains("bottleneck: slow"));
+    }
+
+    @Test
+    public void testFailedStepIsCountedAndItemContinues() throws Exception {
+        AtomicInteger reached = new AtomicInteger();
+
+        Pipeline<Integer> pipeline = new Pipeline<>(4);
+        Pipeline<Integer>.Stage flaky = pipeline.stage("flaky", 2, (item, i) -> {
+            if (item % 2 == 0)
+                throw new IllegalStateException("boom");
+        });
+        pipeline.stage("sink", 1, (item, i) -> reached.incrementAndGet(), flaky);
+        pipeline.start();
+
+        for (int i = 0; i < 6; i++)
+            pipeline.submit(i);
+        pipeline.complete();
+        Assert.assertTrue(pipeline.await(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(flaky.getFailures(), 3);
+        Assert.assertEquals(reached.get(), 6);
+    }
+}
@@ -0,0 +1,156 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.DTO.Article;
+import com.browserstack.assignment.Utils.StubHttpServer.RecordedRequest;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+    private static final int PLATFORMS = 5;
+    private static final List<String> HEADLINES = Arrays.asList("La crisis climática", "Europa y la defensa",
+            "El precio de la vivienda", "Cartas a la directora");
+
+    @Test
+    public void testJoinersShareResultsAndFailuresAreNotKept() throws Exception {
+        SingleFlight flight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(PLATFORMS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < PLATFORMS; i++) {
+                results.add(pool.submit(() -> flight.execute("translation", "hola", () -> {
+                    calls.incrementAndGet();
+                    release.await();
+                    return "hello";
+                }, v -> true)));
+            }
+            // Every caller is in (one running, the others waiting on it) before the call returns
+            while (flight.stats("translation").getRequests() < PLATFORMS)
+                Thread.sleep(5);
+            release.countDown();
+            for (Future<String> result : results)
+                Assert.assertEquals(result.get(5, TimeUnit.SECONDS), "hello");
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(calls.get(), 1);
+        Assert.assertEquals(flight.execute("translation", "hola", () -> "again", v -> true), "hello");
+        SingleFlight.Stats stats = flight.stats("translation");
+        Assert.assertEquals(stats.getExecuted(), 1);
+        Assert.assertEquals(stats.getJoined(), PLATFORMS - 1);
+        Assert.assertEquals(stats.getReused(), 1);
+
+        // A failure is not kept: the next caller runs the work again
+        try {
+            flight.execute("image", "/missing.jpg", () -> {
+                throw new IOException("HTTP 503");
+            }, v -> true);
+            Assert.fail("Expected the failure to propagate");
+        } catch (IOException e) {
+            Assert.assertEquals(e.getMessage(), "HTTP 503");
+        }
+        Assert.assertEquals(flight.execute("image", "/missing.jpg", () -> "ok", v -> true), "ok");
+        Assert.assertEquals(flight.stats("image").getExecuted(), 2);
+        Assert.assertTrue(flight.report().contains("translation: 6 requests, 1 executed"), flight.report());
+    }
+
+    @Test
+    public void testParallelPlatformsMakeOneCallPerDistinctArticle() throws Exception {
+        AtomicInteger translations = new AtomicInteger();
+        try (StubHttpServer server = new StubHttpServer(request -> {
+            if (request.path.startsWith("/free")) {
+                translations.incrementAndGet();
+                return TranslationServiceTest.freeEcho(request).delayed(50);
+            }
+            return new StubResponse(200, "image/jpeg", ImageDownloaderTest.imageBytes(20_000, 7), 50);
+        })) {
+            SingleFlight flight = new SingleFlight();
+            ImageStore store = ImageStore.open(Files.createTempDirectory("image-store"));
+            List<Path> dirs = new ArrayList<>();
+            ExecutorService pool = Executors.newFixedThreadPool(PLATFORMS);
+            try {
+                List<Future<List<String>>> runs = new ArrayList<>();
+                for (int p = 0; p < PLATFORMS; p++) {
+                    Path dir = Files.createTempDirectory("platform-" + p);
+                    dirs.add(dir);
+                    runs.add(pool.submit(() -> {
+                        // Each platform has its own service and downloader, as in ElPaisTest
+                        TranslationService translator = new TranslationService("", server.url("/v2"),
+                                server.url("/free"));
+                        translator.setSingleFlight(flight);
+                        ImageDownloader downloader = new ImageDownloader(1);
+                        downloader.setStore(store);
+                        downloader.setSingleFlight(flight);
+                        List<String> translated = new ArrayList<>();
+                        for (int i = 0; i < HEADLINES.size(); i++) {
+                            translated.add(translator.translate(HEADLINES.get(i), "en"));
+                            Article article = new Article(HEADLINES.get(i), "", server.url("/img/" + i + ".jpg"));
+                            Assert.assertTrue(downloader.download(article, i, dir).isSuccess());
+                        }
+                        return translated;
+                    }));
+                }
+                for (Future<List<String>> run : runs)
+                    Assert.assertEquals(run.get(30, TimeUnit.SECONDS).get(0), "EN La crisis climática");
+            } finally {
+                pool.shutdownNow();
+            }
+
+            // External calls scale with distinct articles, not with platforms
+            Assert.assertEquals(translations.get(), HEADLINES.size());
+            long imageRequests = 0;
+            for (RecordedRequest request : server.getRequests()) {
+                if (request.path.startsWith("/img/"))
+                    imageRequests++;
+            }
+            Assert.assertEquals(imageRequests, HEADLINES.size());
+            for (Path dir : dirs) {
+                for (int i = 0; i < HEADLINES.size(); i++)
+                    Assert.assertEquals(Files.readAllBytes(dir.resolve("article_" + (i + 1) + ".jpg")),
+                            ImageDownloaderTest.imageBytes(20_000, 7));
+            }
+            SingleFlight.Stats images = flight.stats("image");
+            Assert.assertEquals(images.getRequests(), PLATFORMS * HEADLINES.size());
+            Assert.assertEquals(images.getSaved(), (PLATFORMS - 1) * HEADLINES.size());
+            System.out.println(flight.report());
+        }
+    }
+
+    @Test
+    public void testSharedDownloadsWithoutStoreCopyFromTheFlightsOwnFile() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> new StubResponse(200, "image/jpeg",
+                ImageDownloaderTest.imageBytes(5_000, request.path.contains("x") ? 1 : 2), 0))) {
+            SingleFlight flight = new SingleFlight();
+            Path shared = Files.createTempDirectory("images");
+            ImageDownloader first = new ImageDownloader(1);
+            first.setSingleFlight(flight);
+            ImageDownloader second = new ImageDownloader(1);
+            second.setSingleFlight(flight);
+
+            Assert.assertEquals(first.download(new Article("x", "", server.url("/x.jpg")), 0, shared).bytes, 5_000);
+            // Another platform puts a different article at position 1 in the same directory
+            Assert.assertTrue(second.download(new Article("y", "", server.url("/y.jpg")), 0, shared).isSuccess());
+            ImageDownloader.Result reused = second.download(new Article("x", "", server.url("/x.jpg")), 2, shared);
+
+            Assert.assertTrue(reused.notModified);
+            Assert.assertEquals(Files.readAllBytes(shared.resolve("article_3.jpg")),
+                    ImageDownloaderTest.imageBytes(5_000, 1));
+            Assert.assertEquals(server.getRequests().size(), 2);
+        }
+    }
+}
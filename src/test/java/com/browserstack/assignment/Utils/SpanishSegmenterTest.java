@@ -0,0 +1,72 @@
+package com.browserstack.assignment.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpanishSegmenterTest {
+
+    private static List<String> texts(List<SpanishSegmenter.Segment> segments) {
+        List<String> texts = new ArrayList<>();
+        for (SpanishSegmenter.Segment segment : segments)
+            texts.add(segment.text);
+        return texts;
+    }
+
+    @Test
+    public void testSplitsSentencesButNotAbbreviations() {
+        SpanishSegmenter segmenter = new SpanishSegmenter(1800);
+        String text = "  El Sr. García llegó a EE. UU. el 3 de mayo. ¡Qué sorpresa! «Nadie lo esperaba.» "
+                + "Según J. R. Martín, la cifra es 3.5 millones... —Lo sé, dijo.\n\nSegundo párrafo (pág. 4) sigue "
+                + "aquí? No.\nTercero";
+
+        List<SpanishSegmenter.Segment> segments = segmenter.split(text);
+
+        Assert.assertEquals(texts(segments), Arrays.asList(
+                "El Sr. García llegó a EE. UU. el 3 de mayo.",
+                "¡Qué sorpresa!",
+                "«Nadie lo esperaba.»",
+                "Según J. R. Martín, la cifra es 3.5 millones...",
+                "—Lo sé, dijo.",
+                "Segundo párrafo (pág. 4) sigue aquí?",
+                "No.",
+                "Tercero"));
+        Assert.assertEquals(segments.get(4).separator, "\n\n");
+        Assert.assertEquals(segments.get(7).separator, "");
+        Assert.assertEquals(SpanishSegmenter.join(segments, texts(segments)), text.trim());
+    }
+
+    @Test
+    public void testLongSentencesAreCutToFit() {
+        SpanishSegmenter segmenter = new SpanishSegmenter(40);
+        String text = "Una frase muy larga que no cabe, y que sigue sin parar hasta el final del texto";
+
+        List<SpanishSegmenter.Segment> segments = segmenter.split(text);
+
+        // At the comma when it is late enough, otherwise at the last space
+        Assert.assertEquals(texts(segments), Arrays.asList("Una frase muy larga que no cabe,",
+                "y que sigue sin parar hasta el final del", "texto"));
+        for (SpanishSegmenter.Segment segment : segments)
+            Assert.assertTrue(segment.text.length() <= 40);
+        Assert.assertEquals(SpanishSegmenter.join(segments, texts(segments)), text);
+        Assert.assertFalse(segmenter.split("12,5 % - 2024").get(0).isTranslatable());
+        Assert.assertEquals(texts(new SpanishSegmenter(4).split("abcdefghij")), Arrays.asList("abcd", "efgh", "ij"));
+    }
+
+    @Test
+    public void testCutsAreSizedByTheEncodedRequest() {
+        // Every accented letter and space costs more than one character once URL-encoded
+        SpanishSegmenter segmenter = new SpanishSegmenter(60, Batches::urlEncodedLength);
+        String text = "La educación pública, según la información del año, mejoró también en Cádiz y León";
+
+        List<SpanishSegmenter.Segment> segments = segmenter.split(text);
+
+        Assert.assertTrue(segments.size() > 1);
+        for (SpanishSegmenter.Segment segment : segments)
+            Assert.assertTrue(Batches.urlEncodedLength(segment.text) <= 60, segment.text);
+        Assert.assertEquals(SpanishSegmenter.join(segments, texts(segments)), text);
+    }
+}
@@ -0,0 +1,165 @@
+package com.browserstack.assignment.Utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal local HTTP server for tests. Every request is recorded and answered by
+ * a caller-supplied responder, which can add latency or return error codes.
+ */
+public class StubHttpServer implements AutoCloseable {
+
+    public static class RecordedRequest {
+        public final String method;
+        public final String path;
+        public final String query;
+        public final String body;
+        public final Map<String, String> headers;
+
+        RecordedRequest(String method, String path, String query, String body, Map<String, String> headers) {
+            this.method = method;
+            this.path = path;
+            this.query = query;
+            this.body = body;
+            this.headers = headers;
+        }
+
+        public String header(String name) {
+            return headers.get(name.toLowerCase());
+        }
+
+        /** Decoded values of a repeated parameter, read from the query string and a form body. */
+        public List<String> params(String name) {
+            List<String> values = new ArrayList<>();
+            collect(query, name, values);
+            collect(body, name, values);
+            return values;
+        }
+
+        public String param(String name) {
+            List<String> values = params(name);
+            return values.isEmpty() ? null : values.get(0);
+        }
+
+        private static void collect(String encoded, String name, List<String> values) {
+            if (encoded == null || encoded.isEmpty())
+                return;
+            for (String pair : encoded.split("&")) {
+                int eq = pair.indexOf('=');
+                String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                if (key.equals(name)) {
+                    values.add(eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    public static class StubResponse {
+        final int code;
+        final String contentType;
+        final byte[] body;
+        final long delayMillis;
+        final Map<String, String> headers = new HashMap<>();
+
+        public StubResponse(int code, String contentType, byte[] body, long delayMillis) {
+            this.code = code;
+            this.contentType = contentType;
+            this.body = body;
+            this.delayMillis = delayMillis;
+        }
+
+        public static StubResponse json(String json) {
+            return new StubResponse(200, "application/json", json.getBytes(StandardCharsets.UTF_8), 0);
+        }
+
+        public static StubResponse status(int code) {
+            return new StubResponse(code, "text/plain", new byte[0], 0);
+        }
+
+        public StubResponse delayed(long millis) {
+            StubResponse copy = new StubResponse(code, contentType, body, millis);
+            copy.headers.putAll(headers);
+            return copy;
+        }
+
+        public StubResponse header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+    }
+
+    public interface Responder {
+        StubResponse respond(RecordedRequest request) throws Exception;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<RecordedRequest> requests = Collections.synchronizedList(new ArrayList<>());
+
+    public StubHttpServer(Responder responder) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> handle(exchange, responder));
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange, Responder responder) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            Map<String, String> headers = new HashMap<>();
+            exchange.getRequestHeaders().forEach((k, v) -> headers.put(k.toLowerCase(), v.get(0)));
+            RecordedRequest request = new RecordedRequest(exchange.getRequestMethod(),
+                    exchange.getRequestURI().getPath(), exchange.getRequestURI().getRawQuery(),
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8), headers);
+            requests.add(request);
+
+            StubResponse response = responder.respond(request);
+            if (response.delayMillis > 0)
+                Thread.sleep(response.delayMillis);
+
+            exchange.getResponseHeaders().add("Content-Type", response.contentType);
+            response.headers.forEach((k, v) -> exchange.getResponseHeaders().add(k, v));
+            boolean noBody = response.body.length == 0 || response.code == 304 || "HEAD".equals(request.method);
+            exchange.sendResponseHeaders(response.code, noBody ? -1 : response.body.length);
+            if (!noBody) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response.body);
+                }
+            }
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    public List<RecordedRequest> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,437 @@
+package com.browserstack.assignment.Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory WebDriver that serves a fixed list of articles and counts every
+ * command it receives, so page objects can be exercised without a browser.
+ */
+public class StubWebDriver implements WebDriver, JavascriptExecutor {
+
+    public static class StubArticle {
+        final String title;
+        final String content;
+        final String src;
+        final String dataSrc;
+        final String srcset;
+        final String url;
+
+        public StubArticle(String title, String content, String src, String dataSrc, String srcset, String url) {
+            this.title = title;
+            this.content = content;
+            this.src = src;
+            this.dataSrc = dataSrc;
+            this.srcset = srcset;
+            this.url = url;
+        }
+    }
+
+    /** The articles of src/test/resources/fixtures/opinion.html. */
+    public static List<StubArticle> opinionFixtureArticles() {
+        try {
+            return articlesFromHtml(Files.readAllBytes(Paths.get("src/test/resources/fixtures/opinion.html")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads articles from well-formed (XHTML) markup with the JDK's DOM parser, picking the same elements the
+     * page's scripts query: article, h2.c_t and its link, p.c_d and the first img.
+     */
+    public static List<StubArticle> articlesFromHtml(byte[] html) {
+        Document document;
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new ByteArrayInputStream(html));
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalArgumentException("Fixture is not well-formed XHTML", e);
+        }
+        List<StubArticle> articles = new ArrayList<>();
+        NodeList nodes = document.getElementsByTagName("article");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element article = (Element) nodes.item(i);
+            Element heading = first(article, "h2", "c_t");
+            Element link = heading == null ? null : first(heading, "a", null);
+            Element img = first(article, "img", null);
+            articles.add(new StubArticle(text(heading), text(first(article, "p", "c_d")), attribute(img, "src"),
+                    attribute(img, "data-src"), attribute(img, "srcset"), attribute(link, "href")));
+        }
+        return articles;
+    }
+
+    private static Element first(Element parent, String tag, String className) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element element = (Element) nodes.item(i);
+            if (className == null || Arrays.asList(element.getAttribute("class").split("\\s+")).contains(className))
+                return element;
+        }
+        return null;
+    }
+
+    // What WebElement.getText() gives for a plain inline element
+    private static String text(Element element) {
+        return element == null ? null : element.getTextContent().trim().replaceAll("\\s+", " ");
+    }
+
+    private static String attribute(Element element, String name) {
+        return element == null || !element.hasAttribute(name) ? null : element.getAttribute(name);
+    }
+
+    private final List<StubArticle> articles;
+    private final Map<String, Integer> commandCounts = new LinkedHashMap<>();
+    private boolean bulkScriptFails;
+    private int opinionLinkAfterPolls = -1;
+    private int opinionPolls;
+    private String currentUrl = "about:blank";
+
+    public StubWebDriver(List<StubArticle> articles) {
+        this.articles = articles;
+    }
+
+    public void setBulkScriptFails(boolean bulkScriptFails) {
+        this.bulkScriptFails = bulkScriptFails;
+    }
+
+    /** The Opinion link becomes visible on this poll of the locator race script; -1 means never. */
+    public void setOpinionLinkAfterPolls(int polls) {
+        this.opinionLinkAfterPolls = polls;
+    }
+
+    public int getCommandCount() {
+        int total = 0;
+        for (int count : commandCounts.values())
+            total += count;
+        return total;
+    }
+
+    public Map<String, Integer> getCommandCounts() {
+        return Collections.unmodifiableMap(commandCounts);
+    }
+
+    private void record(String command) {
+        commandCounts.merge(command, 1, Integer::sum);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        record("executeScript");
+        if (script.contains("document.evaluate")) {
+            opinionPolls++;
+            return opinionLinkAfterPolls >= 0 && opinionPolls >= opinionLinkAfterPolls ? new OpinionLinkElement()
+                    : null;
+        }
+        if (script.contains("querySelectorAll('article')")) {
+            if (bulkScriptFails)
+                throw new JavascriptException("Bulk scripts disabled in stub");
+            int limit = ((Number) args[0]).intValue();
+            List<Object> items = new ArrayList<>();
+            for (StubArticle a : articles) {
+                if (items.size() >= limit)
+                    break;
+                if (a.title == null)
+                    continue;
+                Map<String, Object> item = new HashMap<>();
+                item.put("title", a.title);
+                item.put("content", a.content);
+                item.put("image", a.src != null || a.dataSrc != null ? imageInfo(a.src, a.dataSrc, a.srcset) : null);
+                item.put("url", a.url);
+                items.add(item);
+            }
+            Map<String, Object> result = new HashMap<>();
+            result.put("count", (long) articles.size());
+            result.put("items", items);
+            return result;
+        }
+        if (script.contains("baseURI") && args.length == 1 && args[0] instanceof TextElement) {
+            Map<String, String> attributes = ((TextElement) args[0]).attributes;
+            return imageInfo(attributes.get("src"), attributes.get("data-src"), attributes.get("srcset"));
+        }
+        return null;
+    }
+
+    // What the image info script returns for a plain img outside any picture
+    private static Map<String, Object> imageInfo(String src, String dataSrc, String srcset) {
+        Map<String, Object> image = new HashMap<>();
+        image.put("src", src);
+        image.put("dataSrc", dataSrc);
+        image.put("srcset", srcset);
+        image.put("sources", new ArrayList<>());
+        image.put("base", "https://elpais.com/opinion/");
+        return image;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        record("executeAsyncScript");
+        return null;
+    }
+
+    @Override
+    public void get(String url) {
+        record("get");
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        record("getCurrentUrl");
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        record("getTitle");
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        record("findElements");
+        List<WebElement> found = new ArrayList<>();
+        if (by.equals(By.tagName("article"))) {
+            for (StubArticle a : articles)
+                found.add(new ArticleElement(a));
+        }
+        return found;
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        List<WebElement> found = findElements(by);
+        if (found.isEmpty())
+            throw new NoSuchElementException("No element for " + by);
+        return found.get(0);
+    }
+
+    @Override
+    public String getPageSource() {
+        record("getPageSource");
+        return "";
+    }
+
+    @Override
+    public void close() {
+        record("close");
+    }
+
+    @Override
+    public void quit() {
+        record("quit");
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        record("getWindowHandles");
+        return Collections.singleton("stub");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        record("getWindowHandle");
+        return "stub";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException();
+    }
+
+    private class ArticleElement extends BaseElement {
+        private final StubArticle article;
+
+        ArticleElement(StubArticle article) {
+            this.article = article;
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            record("element.findElements");
+            List<WebElement> found = new ArrayList<>();
+            if (by.equals(By.cssSelector("h2.c_t")) && article.title != null) {
+                found.add(new TextElement(article.title, null));
+            } else if (by.equals(By.cssSelector("p.c_d")) && article.content != null) {
+                found.add(new TextElement(article.content, null));
+            } else if (by.equals(By.tagName("img")) && (article.src != null || article.dataSrc != null)) {
+                Map<String, String> attributes = new HashMap<>();
+                attributes.put("src", article.src);
+                attributes.put("data-src", article.dataSrc);
+                attributes.put("srcset", article.srcset);
+                found.add(new TextElement("", attributes));
+            } else if (by.equals(By.cssSelector("a[href]")) && article.url != null) {
+                found.add(new TextElement(article.title, Collections.singletonMap("href", article.url)));
+            }
+            return found;
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            List<WebElement> found = findElements(by);
+            if (found.isEmpty())
+                throw new NoSuchElementException("No element for " + by);
+            return found.get(0);
+        }
+    }
+
+    private class OpinionLinkElement extends BaseElement {
+        @Override
+        public void click() {
+            record("element.click");
+            currentUrl = "https://elpais.com/opinion/";
+        }
+    }
+
+    private class TextElement extends BaseElement {
+        private final String text;
+        private final Map<String, String> attributes;
+
+        TextElement(String text, Map<String, String> attributes) {
+            this.text = text;
+            this.attributes = attributes == null ? Collections.emptyMap() : attributes;
+        }
+
+        @Override
+        public String getText() {
+            record("element.getText");
+            return text;
+        }
+
+        @Override
+        public String getAttribute(String name) {
+            record("element.getAttribute");
+            return attributes.get(name);
+        }
+    }
+
+    private abstract class BaseElement implements WebElement {
+        @Override
+        public void click() {
+            record("element.click");
+        }
+
+        @Override
+        public void submit() {
+            record("element.submit");
+        }
+
+        @Override
+        public void sendKeys(CharSequence... keysToSend) {
+            record("element.sendKeys");
+        }
+
+        @Override
+        public void clear() {
+            record("element.clear");
+        }
+
+        @Override
+        public String getTagName() {
+            record("element.getTagName");
+            return "div";
+        }
+
+        @Override
+        public String getAttribute(String name) {
+            record("element.getAttribute");
+            return null;
+        }
+
+        @Override
+        public boolean isSelected() {
+            return false;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public String getText() {
+            record("element.getText");
+            return "";
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            record("element.findElements");
+            return new ArrayList<>();
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            record("element.findElement");
+            throw new NoSuchElementException("No element for " + by);
+        }
+
+        @Override
+        public boolean isDisplayed() {
+            return true;
+        }
+
+        @Override
+        public Point getLocation() {
+            return new Point(0, 0);
+        }
+
+        @Override
+        public Dimension getSize() {
+            return new Dimension(0, 0);
+        }
+
+        @Override
+        public Rectangle getRect() {
+            return new Rectangle(0, 0, 0, 0);
+        }
+
+        @Override
+        public String getCssValue(String propertyName) {
+            return "";
+        }
+
+        @Override
+        public <X> X getScreenshotAs(OutputType<X> target) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
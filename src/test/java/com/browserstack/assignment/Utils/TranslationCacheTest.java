@@ -0,0 +1,112 @@
+package com.browserstack.assignment.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TranslationCacheTest {
+
+    @Test
+    public void testLruEvictsAndCounts() {
+        TranslationCache cache = new TranslationCache(2);
+        cache.put("es", "en", "uno", "one");
+        cache.put("es", "en", "dos", "two");
+        Assert.assertEquals(cache.get("es", "en", "uno"), "one"); // uno is now most recent
+        cache.put("es", "en", "tres", "three");
+
+        Assert.assertNull(cache.get("es", "en", "dos"));
+        Assert.assertEquals(cache.get("es", "en", "  tres \n"), "three");
+        Assert.assertNull(cache.get("es", "fr", "tres"));
+        Assert.assertEquals(cache.getHits(), 2);
+        Assert.assertEquals(cache.getMisses(), 2);
+        Assert.assertEquals(cache.getEvictions(), 1);
+    }
+
+    @Test
+    public void testNullTextIsAMiss() {
+        TranslationCache cache = new TranslationCache(2);
+        cache.put("es", "en", "", "empty");
+        cache.put("es", "en", null, "ignored");
+
+        Assert.assertNull(cache.get("es", "en", null));
+        Assert.assertEquals(cache.getMisses(), 1);
+        Assert.assertEquals(TranslationCache.normalize(null), "");
+    }
+
+    @Test
+    public void testDiskTierSurvivesRestartAndTornTail() throws Exception {
+        Path log = Files.createTempDirectory("translation-cache").resolve("translations.log");
+        try (TranslationCache cache = new TranslationCache(1, log)) {
+            cache.put("es", "en", "La crisis climática", "The climate crisis");
+            cache.put("es", "en", "Europa", "Europe");
+            // Evicted from memory but still served from disk
+            Assert.assertEquals(cache.get("es", "en", "La crisis climática"), "The climate crisis");
+            Assert.assertEquals(cache.getDiskHits(), 1);
+        }
+
+        Files.write(log, new byte[] { 0, 0, 0, 9, 0 }, StandardOpenOption.APPEND);
+
+        try (TranslationCache reopened = new TranslationCache(10, log)) {
+            Assert.assertEquals(reopened.getDiskEntries(), 2);
+            Assert.assertEquals(reopened.get("es", "en", "Europa"), "Europe");
+            reopened.put("es", "en", "Viñetas", "Cartoons");
+        }
+
+        try (TranslationCache reopened = new TranslationCache(10, log)) {
+            Assert.assertEquals(reopened.get("es", "en", "Viñetas"), "Cartoons");
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLatestValues() throws Exception {
+        Path log = Files.createTempDirectory("translation-cache").resolve("translations.log");
+        try (TranslationCache cache = new TranslationCache(10, log)) {
+            for (int round = 0; round < 1000; round++) {
+                cache.put("es", "en", "a", "A" + round);
+                cache.put("es", "en", "b", "B" + round);
+            }
+            // Uncompacted, 2000 records of ~19 bytes each
+            long compactedSize = Files.size(log);
+            Assert.assertTrue(compactedSize < 5000, "Log was not compacted: " + compactedSize);
+
+            // Writing back an unchanged value appends nothing
+            for (int round = 0; round < 100; round++)
+                cache.put("es", "en", "a", "A999");
+            Assert.assertEquals(Files.size(log), compactedSize);
+        }
+        try (TranslationCache reopened = new TranslationCache(10, log)) {
+            Assert.assertEquals(reopened.get("es", "en", "a"), "A999");
+            Assert.assertEquals(reopened.get("es", "en", "b"), "B999");
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        Path log = Files.createTempDirectory("translation-cache").resolve("translations.log");
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try (TranslationCache cache = new TranslationCache(50, log)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 5; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        cache.put("es", "en", "texto " + i, "text " + i);
+                        Assert.assertEquals(cache.get("es", "en", "texto " + i), "text " + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+            Assert.assertEquals(cache.getDiskEntries(), 200);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import okhttp3.OkHttpClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TranslationCoordinatorTest {
+    private static final OkHttpClient CLIENT = new OkHttpClient();
+
+    /** Rapid-style stub whose latency and failure can be changed mid-test. */
+    private static StubHttpServer rapidServer(AtomicLong delayMillis, AtomicBoolean failing) throws IOException {
+        return new StubHttpServer(request -> (failing.get() ? StubResponse.status(503)
+                : TranslationServiceTest.rapidEcho(request)).delayed(delayMillis.get()));
+    }
+
+    private static StubHttpServer freeServer(AtomicLong delayMillis) throws IOException {
+        return new StubHttpServer(request -> TranslationServiceTest.freeEcho(request).delayed(delayMillis.get()));
+    }
+
+    private static List<String> one(String text) {
+        return Collections.singletonList(text);
+    }
+
+    @Test
+    public void testHedgesToSecondaryOncePrimaryPassesItsP95() throws Exception {
+        AtomicLong rapidDelay = new AtomicLong();
+        try (StubHttpServer rapid = rapidServer(rapidDelay, new AtomicBoolean());
+                StubHttpServer free = freeServer(new AtomicLong())) {
+            RapidApiProvider primary = new RapidApiProvider(CLIENT, "key", rapid.url("/v2"));
+            FreeGoogleProvider secondary = new FreeGoogleProvider(CLIENT, free.url("/free"));
+            TranslationCoordinator coordinator = new TranslationCoordinator(Arrays.asList(primary, secondary));
+
+            for (int i = 0; i < 12; i++)
+                coordinator.translate(one("calentamiento " + i), "es", "en");
+            // A warm-up call can outlast the 20 ms hedge floor on a loaded machine, so count from here
+            long hedges = coordinator.getHedgeCount();
+            long wins = coordinator.getHedgeWins();
+
+            rapidDelay.set(1500);
+            long start = System.nanoTime();
+            List<String> result = coordinator.translate(one("titular lento"), "es", "en");
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertEquals(result, one("EN titular lento"));
+            Assert.assertTrue(elapsed < 1000, "Waited for the slow primary: " + elapsed + " ms");
+            Assert.assertEquals(coordinator.getHedgeCount() - hedges, 1);
+            Assert.assertEquals(coordinator.getHedgeWins() - wins, 1);
+            // A warm-up hedge may still reach the stub late, so only count this headline's requests
+            long slowRequests = free.getRequests().stream()
+                    .filter(request -> "titular lento".equals(request.param("q"))).count();
+            Assert.assertEquals(slowRequests, 1);
+        }
+    }
+
+    @Test
+    public void testSlowBatchesDoNotDelaySingleTextHedges() throws Exception {
+        AtomicLong rapidDelay = new AtomicLong();
+        try (StubHttpServer rapid = rapidServer(rapidDelay, new AtomicBoolean());
+                StubHttpServer free = freeServer(new AtomicLong())) {
+            RapidApiProvider primary = new RapidApiProvider(CLIENT, "key", rapid.url("/v2"));
+            FreeGoogleProvider secondary = new FreeGoogleProvider(CLIENT, free.url("/free"));
+            TranslationCoordinator coordinator = new TranslationCoordinator(Arrays.asList(primary, secondary));
+
+            for (int i = 0; i < 12; i++)
+                coordinator.translate(one("calentamiento " + i), "es", "en");
+            // Two slow batches would be the p95 of a window shared with the single-text calls
+            rapidDelay.set(1200);
+            for (int i = 0; i < 2; i++)
+                coordinator.translate(Collections.nCopies(20, "lote " + i), "es", "en");
+
+            rapidDelay.set(1500);
+            long start = System.nanoTime();
+            List<String> result = coordinator.translate(one("titular lento"), "es", "en");
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertEquals(result, one("EN titular lento"));
+            Assert.assertTrue(elapsed < 1000, "Hedge waited for batch latencies: " + elapsed + " ms");
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerSkipsFailingProviderAndRecovers() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        try (StubHttpServer rapid = rapidServer(new AtomicLong(), failing);
+                StubHttpServer free = freeServer(new AtomicLong())) {
+            RapidApiProvider primary = new RapidApiProvider(CLIENT, "key", rapid.url("/v2"));
+            FreeGoogleProvider secondary = new FreeGoogleProvider(CLIENT, free.url("/free"));
+            TranslationCoordinator coordinator = new TranslationCoordinator(Arrays.asList(primary, secondary), 3,
+                    Duration.ofMillis(300));
+            coordinator.setHedging(false, Duration.ofSeconds(2));
+
+            for (int i = 0; i < 6; i++)
+                Assert.assertEquals(coordinator.translate(one("texto " + i), "es", "en"), one("EN texto " + i));
+
+            // Three failures open the circuit; later calls go straight to the secondary
+            Assert.assertEquals(rapid.getRequests().size(), 3);
+            Assert.assertEquals(free.getRequests().size(), 6);
+            Assert.assertEquals(coordinator.getCircuitState(primary), CircuitBreaker.State.OPEN);
+            Assert.assertEquals(coordinator.getOrder().get(0), secondary);
+
+            // After the cool-down a single trial request reaches the recovered primary
+            failing.set(false);
+            Thread.sleep(350);
+            Assert.assertEquals(coordinator.translate(one("de nuevo"), "es", "en"), one("EN de nuevo"));
+            Assert.assertEquals(rapid.getRequests().size(), 4);
+            Assert.assertEquals(coordinator.getCircuitState(primary), CircuitBreaker.State.CLOSED);
+        }
+    }
+
+    @Test
+    public void testFasterProviderMovesAhead() throws Exception {
+        try (StubHttpServer rapid = rapidServer(new AtomicLong(250), new AtomicBoolean());
+                StubHttpServer free = freeServer(new AtomicLong())) {
+            RapidApiProvider primary = new RapidApiProvider(CLIENT, "key", rapid.url("/v2"));
+            FreeGoogleProvider secondary = new FreeGoogleProvider(CLIENT, free.url("/free"));
+            TranslationCoordinator coordinator = new TranslationCoordinator(Arrays.asList(primary, secondary));
+            coordinator.setHedging(true, Duration.ofMillis(30));
+
+            // Every call hedges, so both providers collect latency samples
+            for (int i = 0; i < 12; i++)
+                coordinator.translate(one("muestra " + i), "es", "en");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (coordinator.getOrder().get(0) != secondary && System.nanoTime() < deadline)
+                Thread.sleep(20);
+            Assert.assertEquals(coordinator.getOrder().get(0), secondary);
+
+            int rapidRequests = rapid.getRequests().size();
+            coordinator.translate(one("rápido"), "es", "en");
+            Assert.assertEquals(rapid.getRequests().size(), rapidRequests);
+        }
+    }
+
+    @Test
+    public void testOfflinePhraseTableFallsThroughOnMiss() throws Exception {
+        try (StubHttpServer free = freeServer(new AtomicLong())) {
+            PhraseTableProvider offline = new PhraseTableProvider("es", "en",
+                    Collections.singletonMap("La crisis climática", "The climate crisis"));
+            FreeGoogleProvider online = new FreeGoogleProvider(CLIENT, free.url("/free"));
+            TranslationService service = new TranslationService(
+                    new TranslationCoordinator(Arrays.asList(offline, online)));
+
+            Assert.assertEquals(service.translate("La  crisis climática ", "en"), "The climate crisis");
+            Assert.assertEquals(free.getRequests().size(), 0);
+            for (int i = 0; i < 8; i++)
+                Assert.assertEquals(service.translate("otro " + i, "en"), "EN otro " + i);
+            // Misses are not failures, so the offline table stays in front
+            Assert.assertEquals(service.getCoordinator().getCircuitState(offline), CircuitBreaker.State.CLOSED);
+            Assert.assertEquals(service.getCoordinator().getOrder().get(0), offline);
+        }
+    }
+
+    @Test
+    public void testStreamingParsersSkipUnknownFields() throws Exception {
+        List<String> rapid = RapidApiProvider.parseResponse(new StringReader("{\"meta\":{\"x\":[1,2]},"
+                + "\"data\":{\"extra\":true,\"translations\":[{\"detectedSourceLanguage\":\"es\","
+                + "\"translatedText\":\"One\"},{\"translatedText\":\"Two\"}]}}"));
+        Assert.assertEquals(rapid, Arrays.asList("One", "Two"));
+
+        String free = FreeGoogleProvider.parseResponse(new StringReader(
+                "[[[\"Hello. \",\"Hola. \",null,null,10],[null,\"x\"],[\"Bye\",\"Adiós\"]],null,\"es\",[[\"es\"]]]"));
+        Assert.assertEquals(free, "Hello. Bye");
+
+        try {
+            RapidApiProvider.parseResponse(new StringReader("{\"data\":{\"translations\":{}}"));
+            Assert.fail("Truncated body was accepted");
+        } catch (IOException expected) {
+            // Malformed bodies surface as IOException so the coordinator moves on
+        }
+    }
+}
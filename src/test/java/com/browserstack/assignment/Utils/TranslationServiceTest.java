@@ -0,0 +1,187 @@
+package com.browserstack.assignment.Utils;
+
+import com.browserstack.assignment.Utils.StubHttpServer.RecordedRequest;
+import com.browserstack.assignment.Utils.StubHttpServer.StubResponse;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import okhttp3.OkHttpClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TranslationServiceTest {
+
+    // Mimics Google v2: one translation per q, in request order
+    static StubResponse rapidEcho(RecordedRequest request) {
+        JsonArray translations = new JsonArray();
+        for (String q : request.params("q")) {
+            JsonObject t = new JsonObject();
+            t.addProperty("translatedText", "EN " + q);
+            translations.add(t);
+        }
+        JsonObject data = new JsonObject();
+        data.add("translations", translations);
+        JsonObject root = new JsonObject();
+        root.add("data", data);
+        return StubResponse.json(root.toString());
+    }
+
+    // Mimics the free endpoint: one segment per line, line breaks kept at segment ends
+    static StubResponse freeEcho(RecordedRequest request) {
+        JsonArray segments = new JsonArray();
+        String[] lines = request.param("q").split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String suffix = i < lines.length - 1 ? "\n" : "";
+            JsonArray segment = new JsonArray();
+            segment.add("EN " + lines[i] + suffix);
+            segment.add(lines[i] + suffix);
+            segments.add(segment);
+        }
+        JsonArray root = new JsonArray();
+        root.add(segments);
+        return StubResponse.json(root.toString());
+    }
+
+    @Test
+    public void testRapidBatchesBySizeAndKeepsOrder() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::rapidEcho)) {
+            TranslationService service = new TranslationService("key", server.url("/v2"), server.url("/free"));
+            service.setBatchLimits(2, 5000, 1800);
+
+            List<String> result = service.translateAll(Arrays.asList("uno", "dos", "tres", "cuatro", "cinco"), "en");
+
+            Assert.assertEquals(result, Arrays.asList("EN uno", "EN dos", "EN tres", "EN cuatro", "EN cinco"));
+            List<RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), 3);
+            Assert.assertEquals(requests.get(0).params("q"), Arrays.asList("uno", "dos"));
+            Assert.assertEquals(requests.get(2).params("q"), Arrays.asList("cinco"));
+            Assert.assertEquals(requests.get(0).param("target"), "en");
+            Assert.assertEquals(requests.get(0).header("X-RapidAPI-Key"), "key");
+        }
+    }
+
+    @Test
+    public void testRapidSplitsOnCharacterLimitAndSendsDuplicatesOnce() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::rapidEcho)) {
+            TranslationService service = new TranslationService("key", server.url("/v2"), server.url("/free"));
+            // Each q costs its encoded length plus "q=" and "&"
+            service.setBatchLimits(128, 14, 1800);
+
+            List<String> result = service.translateAll(Arrays.asList("aaaaaa", "bbbbbb", "aaaaaa", "cc"), "en");
+
+            Assert.assertEquals(result, Arrays.asList("EN aaaaaa", "EN bbbbbb", "EN aaaaaa", "EN cc"));
+            List<RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), 2);
+            Assert.assertEquals(requests.get(0).params("q"), Arrays.asList("aaaaaa"));
+            Assert.assertEquals(requests.get(1).params("q"), Arrays.asList("bbbbbb", "cc"));
+        }
+    }
+
+    @Test
+    public void testFreeEndpointBatchesWithLineDelimiter() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::freeEcho)) {
+            TranslationService service = new TranslationService("", server.url("/v2"), server.url("/free"));
+
+            List<String> result = service.translateAll(Arrays.asList("La crisis", "El clima\nhoy", "Europa"), "en");
+
+            Assert.assertEquals(result, Arrays.asList("EN La crisis", "EN El clima hoy", "EN Europa"));
+            List<RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), 1);
+            Assert.assertEquals(requests.get(0).method, "GET");
+            Assert.assertEquals(requests.get(0).param("q"), "La crisis\nEl clima hoy\nEuropa");
+        }
+    }
+
+    @Test
+    public void testFreeBatchesAreSizedByEncodedLength() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::freeEcho)) {
+            TranslationService service = new TranslationService("", server.url("/v2"), server.url("/free"));
+            // Five raw characters, but each accented letter is six once percent-encoded
+            service.setBatchLimits(128, 5000, 30);
+
+            List<String> result = service.translateAll(Arrays.asList("ññ", "áé", "x"), "en");
+
+            Assert.assertEquals(result, Arrays.asList("EN ññ", "EN áé", "EN x"));
+            List<RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), 2);
+            Assert.assertEquals(requests.get(0).param("q"), "ññ\náé");
+            Assert.assertEquals(Batches.urlEncodedLength("año 1-2"), 14);
+        }
+    }
+
+    @Test
+    public void testProvidersPassNullTextsThrough() throws Exception {
+        try (StubHttpServer free = new StubHttpServer(TranslationServiceTest::freeEcho);
+             StubHttpServer rapid = new StubHttpServer(TranslationServiceTest::rapidEcho)) {
+            OkHttpClient client = new OkHttpClient();
+            List<String> input = Arrays.asList("uno", null, "dos");
+
+            Assert.assertEquals(new FreeGoogleProvider(client, free.url("/free")).translate(input, "es", "en"),
+                    Arrays.asList("EN uno", null, "EN dos"));
+            Assert.assertEquals(new RapidApiProvider(client, "key", rapid.url("/v2")).translate(input, "es", "en"),
+                    Arrays.asList("EN uno", null, "EN dos"));
+            Assert.assertEquals(free.getRequests().get(0).param("q"), "uno\ndos");
+        }
+    }
+
+    @Test
+    public void testFreeBatchFallsBackToSingleRequestsWhenSplitFails() throws Exception {
+        // Collapses the whole batch into one segment, as if delimiters were lost
+        try (StubHttpServer server = new StubHttpServer(request -> StubResponse.json(
+                "[[[\"EN " + request.param("q").replace("\n", " ") + "\",\"x\"]]]"))) {
+            TranslationService service = new TranslationService(null, server.url("/v2"), server.url("/free"));
+
+            List<String> result = service.translateAll(Arrays.asList("uno", "dos"), "en");
+
+            Assert.assertEquals(result, Arrays.asList("EN uno", "EN dos"));
+            Assert.assertEquals(server.getRequests().size(), 3);
+        }
+    }
+
+    @Test
+    public void testCachedTranslationsSkipTheNetwork() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::rapidEcho)) {
+            TranslationService service = new TranslationService("key", server.url("/v2"), server.url("/free"));
+            service.setCache(new TranslationCache(100));
+
+            service.translateAll(Arrays.asList("uno", "dos"), "en");
+            Assert.assertEquals(service.translate("uno", "en"), "EN uno");
+            List<String> again = service.translateAll(Arrays.asList("dos", "tres"), "en");
+
+            Assert.assertEquals(again, Arrays.asList("EN dos", "EN tres"));
+            List<RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), 2);
+            Assert.assertEquals(requests.get(1).params("q"), Arrays.asList("tres"));
+        }
+    }
+
+    @Test
+    public void testContentIsSegmentedDedupedAndReassembled() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(TranslationServiceTest::rapidEcho)) {
+            TranslationService service = new TranslationService("key", server.url("/v2"), server.url("/free"));
+            service.setCache(new TranslationCache(100));
+            String byline = "Por Ana López, desde Madrid.";
+            String first = "El Sr. Pérez dimitió ayer. ¿Por qué?\n\n" + byline;
+            String second = "La economía crece. 2024.\n" + byline;
+
+            List<String> result = service.translateContents(Arrays.asList(first, second, null), "en");
+
+            Assert.assertEquals(result.get(0), "EN El Sr. Pérez dimitió ayer. EN ¿Por qué?\n\nEN " + byline);
+            Assert.assertEquals(result.get(1), "EN La economía crece. 2024.\nEN " + byline);
+            Assert.assertNull(result.get(2));
+            // One request; the shared byline goes once and the bare year not at all
+            List<RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), 1);
+            Assert.assertEquals(requests.get(0).params("q"), Arrays.asList("El Sr. Pérez dimitió ayer.",
+                    "¿Por qué?", byline, "La economía crece."));
+
+            // Sentences seen before come from the cache
+            Assert.assertEquals(service.translateContent("La economía crece. Sube el paro.", "en"),
+                    "EN La economía crece. EN Sube el paro.");
+            Assert.assertEquals(server.getRequests().size(), 2);
+            Assert.assertEquals(server.getRequests().get(1).params("q"), Arrays.asList("Sube el paro."));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.browserstack.assignment.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class WaitHistoryTest {
+    private static final Duration DEFAULT = Duration.ofSeconds(5);
+
+    @Test
+    public void testTimeoutTracksP99PerPlatformAndSurvivesReload() throws Exception {
+        Path file = Files.createTempDirectory("waits").resolve("wait-history.tsv");
+        WaitHistory history = WaitHistory.open(file);
+        Assert.assertEquals(history.timeout("iPhone 14", "cookieBanner", DEFAULT), DEFAULT);
+
+        for (int i = 1; i <= 100; i++)
+            history.recordSatisfied("iPhone 14", "cookieBanner", 10L * i);
+        history.recordSatisfied("Windows-Chrome", "cookieBanner", 300);
+
+        // p99 of 10..1000 ms is 990 ms, plus the 1.5x margin
+        Assert.assertEquals(history.timeout("iPhone 14", "cookieBanner", DEFAULT), Duration.ofMillis(1485));
+        // Too few samples on the other platform, and never above the caller's default
+        Assert.assertEquals(history.timeout("Windows-Chrome", "cookieBanner", DEFAULT), DEFAULT);
+        Assert.assertEquals(history.timeout("iPhone 14", "cookieBanner", Duration.ofSeconds(1)),
+                Duration.ofSeconds(1));
+
+        history.save();
+        WaitHistory reloaded = WaitHistory.open(file);
+        Assert.assertEquals(reloaded.timeout("iPhone 14", "cookieBanner", DEFAULT), Duration.ofMillis(1485));
+    }
+
+    @Test
+    public void testMostlyMissedWaitDropsToFloor() {
+        WaitHistory history = new WaitHistory();
+        for (int i = 0; i < 5; i++)
+            history.recordSatisfied("Galaxy S23", "cookieBanner", 2000);
+        for (int i = 0; i < 20; i++)
+            history.recordMiss("Galaxy S23", "cookieBanner");
+        // The banner has stopped rendering, so waiting the full p99 would be pure idle time
+        Assert.assertEquals(history.timeout("Galaxy S23", "cookieBanner", DEFAULT), Duration.ofMillis(500));
+    }
+
+    @Test
+    public void testMissesUnderLearnedTimeoutDoNotDropToFloor() {
+        WaitHistory history = new WaitHistory();
+        for (int i = 0; i < 5; i++)
+            history.recordSatisfied("Galaxy S23", "cookieBanner", 2000);
+        Duration learned = history.timeout("Galaxy S23", "cookieBanner", DEFAULT);
+        Assert.assertEquals(learned, Duration.ofMillis(3000));
+        for (int i = 0; i < 20; i++)
+            history.recordMiss("Galaxy S23", "cookieBanner", learned, DEFAULT);
+
+        // The last wait was cut short, so the next one runs the full default
+        Assert.assertEquals(history.timeout("Galaxy S23", "cookieBanner", DEFAULT), DEFAULT);
+        history.recordSatisfied("Galaxy S23", "cookieBanner", 4000);
+        // The slower sample raises the estimate instead of the misses pinning it to the floor
+        Assert.assertEquals(history.timeout("Galaxy S23", "cookieBanner", DEFAULT), DEFAULT);
+        Assert.assertEquals(history.timeout("Galaxy S23", "cookieBanner", Duration.ofSeconds(10)),
+                Duration.ofMillis(6000));
+    }
+
+    @Test
+    public void testEveryTenthWaitProbesTheDefault() {
+        WaitHistory history = new WaitHistory();
+        for (int i = 0; i < 10; i++)
+            history.recordSatisfied("iPhone 14", "opinionLink", 200);
+        int probes = 0;
+        for (int i = 0; i < 30; i++) {
+            if (history.timeout("iPhone 14", "opinionLink", DEFAULT).equals(DEFAULT))
+                probes++;
+        }
+        Assert.assertEquals(probes, 3);
+    }
+}
@@ -0,0 +1,165 @@
+package com.browserstack.assignment.Utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WebDriverPoolTest {
+
+    /** Fake session recording every call; getWindowHandle fails once it is marked dead. */
+    static class FakeSession {
+        final List<String> calls = new CopyOnWriteArrayList<>();
+        volatile boolean dead;
+        final WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    switch (method.getName()) {
+                        case "getWindowHandle":
+                            if (dead)
+                                throw new NoSuchSessionException("Session timed out");
+                            return "main";
+                        case "manage":
+                            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                    new Class<?>[] { WebDriver.Options.class }, (p, m, a) -> {
+                                        calls.add(m.getName());
+                                        return null;
+                                    });
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeSession";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static MutableCapabilities caps(String browser) {
+        MutableCapabilities capabilities = new MutableCapabilities();
+        capabilities.setCapability("browserName", browser);
+        return capabilities;
+    }
+
+    @Test
+    public void testReusesAndResetsSessions() throws Exception {
+        List<FakeSession> sessions = new CopyOnWriteArrayList<>();
+        try (WebDriverPool pool = new WebDriverPool(c -> {
+            FakeSession session = new FakeSession();
+            sessions.add(session);
+            return session.driver;
+        }, 2, 3, Duration.ofMinutes(5))) {
+            for (int i = 0; i < 3; i++)
+                pool.release(pool.lease(caps("chrome")));
+            pool.release(pool.lease(caps("firefox")));
+
+            Assert.assertEquals(sessions.size(), 2);
+            FakeSession chrome = sessions.get(0);
+            Assert.assertTrue(chrome.calls.contains("deleteAllCookies"));
+            Assert.assertTrue(chrome.calls.contains("executeScript"));
+            Assert.assertTrue(chrome.calls.contains("get"));
+            // Third release hit maxReuse, so the session was quit
+            Assert.assertTrue(chrome.calls.contains("quit"));
+            Assert.assertEquals(pool.getLeaseCount(), 4);
+            Assert.assertEquals(pool.getReuseCount(), 2);
+            Assert.assertEquals(pool.getReuseRatio(), 0.5, 0.001);
+        }
+    }
+
+    @Test
+    public void testUnhealthySessionsAreReplaced() throws Exception {
+        List<FakeSession> sessions = new CopyOnWriteArrayList<>();
+        try (WebDriverPool pool = new WebDriverPool(c -> {
+            FakeSession session = new FakeSession();
+            sessions.add(session);
+            return session.driver;
+        }, 1, 10, Duration.ofMinutes(5))) {
+            pool.warmUp(caps("chrome"), 1);
+            sessions.get(0).dead = true;
+
+            WebDriver driver = pool.lease(caps("chrome"));
+
+            Assert.assertEquals(sessions.size(), 2);
+            Assert.assertSame(driver, sessions.get(1).driver);
+            Assert.assertTrue(sessions.get(0).calls.contains("quit"));
+        }
+    }
+
+    @Test
+    public void testLeaseWaitsWhenAtCapacity() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        try (WebDriverPool pool = new WebDriverPool(c -> {
+            created.incrementAndGet();
+            return new FakeSession().driver;
+        }, 1, 10, Duration.ofMinutes(5))) {
+            WebDriver first = pool.lease(caps("chrome"));
+            AtomicReference<WebDriver> second = new AtomicReference<>();
+            CountDownLatch leased = new CountDownLatch(1);
+            Thread waiter = new Thread(() -> {
+                try {
+                    second.set(pool.lease(caps("chrome")));
+                    leased.countDown();
+                } catch (Exception e) {
+                    // Test fails on the latch below
+                }
+            });
+            waiter.start();
+
+            Assert.assertFalse(leased.await(100, TimeUnit.MILLISECONDS));
+            pool.release(first);
+            Assert.assertTrue(leased.await(2, TimeUnit.SECONDS));
+            Assert.assertSame(second.get(), first);
+            Assert.assertEquals(created.get(), 1);
+            Assert.assertTrue(pool.getMaxLeaseWaitMillis() >= 100);
+        }
+    }
+
+    @Test
+    public void testCapabilityKeyIgnoresInsertionOrder() {
+        MutableCapabilities a = new MutableCapabilities();
+        a.setCapability("browserName", "chrome");
+        a.setCapability("platformName", "linux");
+        MutableCapabilities b = new MutableCapabilities();
+        b.setCapability("platformName", "linux");
+        b.setCapability("browserName", "chrome");
+        Assert.assertEquals(WebDriverPool.keyOf(a), WebDriverPool.keyOf(b));
+    }
+
+    @Test
+    public void testCapabilityKeyLeavesOutCredentials() {
+        Map<String, Object> options = new HashMap<>();
+        options.put("userName", "someone");
+        options.put("accessKey", "s3cr3t");
+        options.put("buildName", "Build 1");
+        options.put("os", "Windows");
+        options.put("osVersion", "11");
+        MutableCapabilities capabilities = caps("chrome");
+        capabilities.setCapability("bstack:options", options);
+
+        String key = WebDriverPool.keyOf(capabilities);
+        Assert.assertFalse(key.contains("s3cr3t"), key);
+        Assert.assertFalse(key.contains("someone"), key);
+        Assert.assertFalse(key.contains("Build 1"), key);
+        Assert.assertTrue(key.contains("Windows") && key.contains("11") && key.contains("chrome"), key);
+
+        options.put("osVersion", "10");
+        capabilities.setCapability("bstack:options", options);
+        Assert.assertNotEquals(WebDriverPool.keyOf(capabilities), key);
+    }
+}
@@ -0,0 +1,77 @@
+package com.browserstack.assignment.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class WordAnalyzerTest {
+
+    @Test
+    public void testKeepsAccentsAndFoldsCase() {
+        List<String> headers = Arrays.asList(
+                "La política de la CANCIÓN",
+                "Política, canción y guerra",
+                "¿Qué política? La canción del año",
+                // Decomposed accents count with their composed form
+                "Poli\u0301tica y cancio\u0301n");
+
+        Map<String, Integer> repeated = WordAnalyzer.analyzeRepeatedWords(headers);
+
+        Assert.assertEquals(repeated.get("política"), Integer.valueOf(4));
+        Assert.assertEquals(repeated.get("canción"), Integer.valueOf(4));
+        Assert.assertFalse(repeated.containsKey("la"));
+        Assert.assertEquals(repeated.size(), 2);
+    }
+
+    @Test
+    public void testJoinersAndThresholds() {
+        WordAnalyzer analyzer = new WordAnalyzer(2, 2);
+        Map<String, Integer> repeated = analyzer.repeatedWords(Arrays.asList(
+                "Don't stop: U.S. pro-market talks", "Don’t rush the U.S. deal"));
+
+        Assert.assertEquals(repeated.get("dont"), Integer.valueOf(2));
+        Assert.assertEquals(repeated.get("us"), Integer.valueOf(2));
+        Assert.assertFalse(repeated.containsKey("stop"));
+        Assert.assertEquals(analyzer.count(Arrays.asList("pro-market")).get("promarket"), 1);
+    }
+
+    @Test
+    public void testTopWordsOrdersByCountThenWord() {
+        List<Map.Entry<String, Integer>> top = new WordAnalyzer().topWords(Arrays.asList(
+                "beta alpha gamma", "beta alpha delta", "beta epsilon"), 3);
+
+        Assert.assertEquals(top.size(), 3);
+        Assert.assertEquals(top.get(0).getKey(), "beta");
+        Assert.assertEquals(top.get(0).getValue(), Integer.valueOf(3));
+        Assert.assertEquals(top.get(1).getKey(), "alpha");
+        Assert.assertEquals(top.get(2).getKey(), "delta");
+    }
+
+    @Test
+    public void testParallelCountMatchesSequential() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[5000];
+        for (int i = 0; i < vocabulary.length; i++)
+            vocabulary[i] = "palabra" + i + (i % 3 == 0 ? "ñ" : "");
+        List<String> headers = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder header = new StringBuilder();
+            for (int w = 0; w < 8; w++)
+                header.append(vocabulary[(int) Math.abs(random.nextGaussian() * 500) % vocabulary.length]).append(' ');
+            headers.add(header.toString());
+        }
+
+        WordAnalyzer analyzer = new WordAnalyzer();
+        WordCountMap sequential = analyzer.count(headers);
+        WordCountMap parallel = analyzer.countParallel(headers, 4);
+
+        Assert.assertEquals(parallel.size(), sequential.size());
+        sequential.forEach((word, count) -> Assert.assertEquals(parallel.get(word), count, word));
+        Assert.assertEquals(parallel.top(10), sequential.top(10));
+    }
+}